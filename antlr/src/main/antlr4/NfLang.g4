@@ -23,27 +23,22 @@ statement
     | 'return' (expr (',' expr)*)? ';'              #return
     ;
 
-ifStatement
-    : 'if' '(' boolExpression ')' block #ifStmt
-    | 'if' '(' boolExpression ')' block 'else' elseInner #ifElseStmt
-    ;
+ifStatement: 'if' '(' boolExpression ')' block ('else' elseInner)?;
 
 elseInner
     : ifStatement  #elseIfStmt
     | block        #elseStmt;
 
-expr: expression | boolExpression;
+// Every level decides on one token, boolExpression marks expressions used as conditions
+expr: eqExpression;
 
-boolExpression: eqExpression | compExpression;
+boolExpression: eqExpression;
 
-eqExpression
-    : expression op4 expression
-    | compExpression op4 compExpression
-    ;
+eqExpression: compExpression (op4 compExpression)?;
 
 compExpression
     : bool_term
-    | expression op3 expression
+    | expression (op3 expression)?
     ;
 
 expression: factor (op1 factor)*;
@@ -0,0 +1,364 @@
+// Generated from NfLang.g4 by ANTLR 4.7.2
+package com.naofi.antlr;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+
+/**
+ * This interface defines a complete listener for a parse tree produced by
+ * {@link NfLangParser}.
+ */
+public interface NfLangListener extends ParseTreeListener {
+	/**
+	 * Enter a parse tree produced by {@link NfLangParser#classDef}.
+	 * @param ctx the parse tree
+	 */
+	void enterClassDef(NfLangParser.ClassDefContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link NfLangParser#classDef}.
+	 * @param ctx the parse tree
+	 */
+	void exitClassDef(NfLangParser.ClassDefContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link NfLangParser#classMember}.
+	 * @param ctx the parse tree
+	 */
+	void enterClassMember(NfLangParser.ClassMemberContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link NfLangParser#classMember}.
+	 * @param ctx the parse tree
+	 */
+	void exitClassMember(NfLangParser.ClassMemberContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link NfLangParser#field}.
+	 * @param ctx the parse tree
+	 */
+	void enterField(NfLangParser.FieldContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link NfLangParser#field}.
+	 * @param ctx the parse tree
+	 */
+	void exitField(NfLangParser.FieldContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link NfLangParser#method}.
+	 * @param ctx the parse tree
+	 */
+	void enterMethod(NfLangParser.MethodContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link NfLangParser#method}.
+	 * @param ctx the parse tree
+	 */
+	void exitMethod(NfLangParser.MethodContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link NfLangParser#formalParam}.
+	 * @param ctx the parse tree
+	 */
+	void enterFormalParam(NfLangParser.FormalParamContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link NfLangParser#formalParam}.
+	 * @param ctx the parse tree
+	 */
+	void exitFormalParam(NfLangParser.FormalParamContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link NfLangParser#block}.
+	 * @param ctx the parse tree
+	 */
+	void enterBlock(NfLangParser.BlockContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link NfLangParser#block}.
+	 * @param ctx the parse tree
+	 */
+	void exitBlock(NfLangParser.BlockContext ctx);
+	/**
+	 * Enter a parse tree produced by the {@code simpleStatement}
+	 * labeled alternative in {@link NfLangParser#statement}.
+	 * @param ctx the parse tree
+	 */
+	void enterSimpleStatement(NfLangParser.SimpleStatementContext ctx);
+	/**
+	 * Exit a parse tree produced by the {@code simpleStatement}
+	 * labeled alternative in {@link NfLangParser#statement}.
+	 * @param ctx the parse tree
+	 */
+	void exitSimpleStatement(NfLangParser.SimpleStatementContext ctx);
+	/**
+	 * Enter a parse tree produced by the {@code whileStmt}
+	 * labeled alternative in {@link NfLangParser#statement}.
+	 * @param ctx the parse tree
+	 */
+	void enterWhileStmt(NfLangParser.WhileStmtContext ctx);
+	/**
+	 * Exit a parse tree produced by the {@code whileStmt}
+	 * labeled alternative in {@link NfLangParser#statement}.
+	 * @param ctx the parse tree
+	 */
+	void exitWhileStmt(NfLangParser.WhileStmtContext ctx);
+	/**
+	 * Enter a parse tree produced by the {@code if}
+	 * labeled alternative in {@link NfLangParser#statement}.
+	 * @param ctx the parse tree
+	 */
+	void enterIf(NfLangParser.IfContext ctx);
+	/**
+	 * Exit a parse tree produced by the {@code if}
+	 * labeled alternative in {@link NfLangParser#statement}.
+	 * @param ctx the parse tree
+	 */
+	void exitIf(NfLangParser.IfContext ctx);
+	/**
+	 * Enter a parse tree produced by the {@code assignment}
+	 * labeled alternative in {@link NfLangParser#statement}.
+	 * @param ctx the parse tree
+	 */
+	void enterAssignment(NfLangParser.AssignmentContext ctx);
+	/**
+	 * Exit a parse tree produced by the {@code assignment}
+	 * labeled alternative in {@link NfLangParser#statement}.
+	 * @param ctx the parse tree
+	 */
+	void exitAssignment(NfLangParser.AssignmentContext ctx);
+	/**
+	 * Enter a parse tree produced by the {@code typeDef}
+	 * labeled alternative in {@link NfLangParser#statement}.
+	 * @param ctx the parse tree
+	 */
+	void enterTypeDef(NfLangParser.TypeDefContext ctx);
+	/**
+	 * Exit a parse tree produced by the {@code typeDef}
+	 * labeled alternative in {@link NfLangParser#statement}.
+	 * @param ctx the parse tree
+	 */
+	void exitTypeDef(NfLangParser.TypeDefContext ctx);
+	/**
+	 * Enter a parse tree produced by the {@code typeInitDef}
+	 * labeled alternative in {@link NfLangParser#statement}.
+	 * @param ctx the parse tree
+	 */
+	void enterTypeInitDef(NfLangParser.TypeInitDefContext ctx);
+	/**
+	 * Exit a parse tree produced by the {@code typeInitDef}
+	 * labeled alternative in {@link NfLangParser#statement}.
+	 * @param ctx the parse tree
+	 */
+	void exitTypeInitDef(NfLangParser.TypeInitDefContext ctx);
+	/**
+	 * Enter a parse tree produced by the {@code varInitDef}
+	 * labeled alternative in {@link NfLangParser#statement}.
+	 * @param ctx the parse tree
+	 */
+	void enterVarInitDef(NfLangParser.VarInitDefContext ctx);
+	/**
+	 * Exit a parse tree produced by the {@code varInitDef}
+	 * labeled alternative in {@link NfLangParser#statement}.
+	 * @param ctx the parse tree
+	 */
+	void exitVarInitDef(NfLangParser.VarInitDefContext ctx);
+	/**
+	 * Enter a parse tree produced by the {@code return}
+	 * labeled alternative in {@link NfLangParser#statement}.
+	 * @param ctx the parse tree
+	 */
+	void enterReturn(NfLangParser.ReturnContext ctx);
+	/**
+	 * Exit a parse tree produced by the {@code return}
+	 * labeled alternative in {@link NfLangParser#statement}.
+	 * @param ctx the parse tree
+	 */
+	void exitReturn(NfLangParser.ReturnContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link NfLangParser#ifStatement}.
+	 * @param ctx the parse tree
+	 */
+	void enterIfStatement(NfLangParser.IfStatementContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link NfLangParser#ifStatement}.
+	 * @param ctx the parse tree
+	 */
+	void exitIfStatement(NfLangParser.IfStatementContext ctx);
+	/**
+	 * Enter a parse tree produced by the {@code elseIfStmt}
+	 * labeled alternative in {@link NfLangParser#elseInner}.
+	 * @param ctx the parse tree
+	 */
+	void enterElseIfStmt(NfLangParser.ElseIfStmtContext ctx);
+	/**
+	 * Exit a parse tree produced by the {@code elseIfStmt}
+	 * labeled alternative in {@link NfLangParser#elseInner}.
+	 * @param ctx the parse tree
+	 */
+	void exitElseIfStmt(NfLangParser.ElseIfStmtContext ctx);
+	/**
+	 * Enter a parse tree produced by the {@code elseStmt}
+	 * labeled alternative in {@link NfLangParser#elseInner}.
+	 * @param ctx the parse tree
+	 */
+	void enterElseStmt(NfLangParser.ElseStmtContext ctx);
+	/**
+	 * Exit a parse tree produced by the {@code elseStmt}
+	 * labeled alternative in {@link NfLangParser#elseInner}.
+	 * @param ctx the parse tree
+	 */
+	void exitElseStmt(NfLangParser.ElseStmtContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link NfLangParser#expr}.
+	 * @param ctx the parse tree
+	 */
+	void enterExpr(NfLangParser.ExprContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link NfLangParser#expr}.
+	 * @param ctx the parse tree
+	 */
+	void exitExpr(NfLangParser.ExprContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link NfLangParser#boolExpression}.
+	 * @param ctx the parse tree
+	 */
+	void enterBoolExpression(NfLangParser.BoolExpressionContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link NfLangParser#boolExpression}.
+	 * @param ctx the parse tree
+	 */
+	void exitBoolExpression(NfLangParser.BoolExpressionContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link NfLangParser#eqExpression}.
+	 * @param ctx the parse tree
+	 */
+	void enterEqExpression(NfLangParser.EqExpressionContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link NfLangParser#eqExpression}.
+	 * @param ctx the parse tree
+	 */
+	void exitEqExpression(NfLangParser.EqExpressionContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link NfLangParser#compExpression}.
+	 * @param ctx the parse tree
+	 */
+	void enterCompExpression(NfLangParser.CompExpressionContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link NfLangParser#compExpression}.
+	 * @param ctx the parse tree
+	 */
+	void exitCompExpression(NfLangParser.CompExpressionContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link NfLangParser#expression}.
+	 * @param ctx the parse tree
+	 */
+	void enterExpression(NfLangParser.ExpressionContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link NfLangParser#expression}.
+	 * @param ctx the parse tree
+	 */
+	void exitExpression(NfLangParser.ExpressionContext ctx);
+	/**
+	 * Enter a parse tree produced by the {@code simpleFactor}
+	 * labeled alternative in {@link NfLangParser#factor}.
+	 * @param ctx the parse tree
+	 */
+	void enterSimpleFactor(NfLangParser.SimpleFactorContext ctx);
+	/**
+	 * Exit a parse tree produced by the {@code simpleFactor}
+	 * labeled alternative in {@link NfLangParser#factor}.
+	 * @param ctx the parse tree
+	 */
+	void exitSimpleFactor(NfLangParser.SimpleFactorContext ctx);
+	/**
+	 * Enter a parse tree produced by the {@code parenthesizedFactor}
+	 * labeled alternative in {@link NfLangParser#factor}.
+	 * @param ctx the parse tree
+	 */
+	void enterParenthesizedFactor(NfLangParser.ParenthesizedFactorContext ctx);
+	/**
+	 * Exit a parse tree produced by the {@code parenthesizedFactor}
+	 * labeled alternative in {@link NfLangParser#factor}.
+	 * @param ctx the parse tree
+	 */
+	void exitParenthesizedFactor(NfLangParser.ParenthesizedFactorContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link NfLangParser#op1}.
+	 * @param ctx the parse tree
+	 */
+	void enterOp1(NfLangParser.Op1Context ctx);
+	/**
+	 * Exit a parse tree produced by {@link NfLangParser#op1}.
+	 * @param ctx the parse tree
+	 */
+	void exitOp1(NfLangParser.Op1Context ctx);
+	/**
+	 * Enter a parse tree produced by {@link NfLangParser#op2}.
+	 * @param ctx the parse tree
+	 */
+	void enterOp2(NfLangParser.Op2Context ctx);
+	/**
+	 * Exit a parse tree produced by {@link NfLangParser#op2}.
+	 * @param ctx the parse tree
+	 */
+	void exitOp2(NfLangParser.Op2Context ctx);
+	/**
+	 * Enter a parse tree produced by {@link NfLangParser#op3}.
+	 * @param ctx the parse tree
+	 */
+	void enterOp3(NfLangParser.Op3Context ctx);
+	/**
+	 * Exit a parse tree produced by {@link NfLangParser#op3}.
+	 * @param ctx the parse tree
+	 */
+	void exitOp3(NfLangParser.Op3Context ctx);
+	/**
+	 * Enter a parse tree produced by {@link NfLangParser#op4}.
+	 * @param ctx the parse tree
+	 */
+	void enterOp4(NfLangParser.Op4Context ctx);
+	/**
+	 * Exit a parse tree produced by {@link NfLangParser#op4}.
+	 * @param ctx the parse tree
+	 */
+	void exitOp4(NfLangParser.Op4Context ctx);
+	/**
+	 * Enter a parse tree produced by {@link NfLangParser#term}.
+	 * @param ctx the parse tree
+	 */
+	void enterTerm(NfLangParser.TermContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link NfLangParser#term}.
+	 * @param ctx the parse tree
+	 */
+	void exitTerm(NfLangParser.TermContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link NfLangParser#literal}.
+	 * @param ctx the parse tree
+	 */
+	void enterLiteral(NfLangParser.LiteralContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link NfLangParser#literal}.
+	 * @param ctx the parse tree
+	 */
+	void exitLiteral(NfLangParser.LiteralContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link NfLangParser#type}.
+	 * @param ctx the parse tree
+	 */
+	void enterType(NfLangParser.TypeContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link NfLangParser#type}.
+	 * @param ctx the parse tree
+	 */
+	void exitType(NfLangParser.TypeContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link NfLangParser#bool_term}.
+	 * @param ctx the parse tree
+	 */
+	void enterBool_term(NfLangParser.Bool_termContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link NfLangParser#bool_term}.
+	 * @param ctx the parse tree
+	 */
+	void exitBool_term(NfLangParser.Bool_termContext ctx);
+	/**
+	 * Enter a parse tree produced by {@link NfLangParser#variable}.
+	 * @param ctx the parse tree
+	 */
+	void enterVariable(NfLangParser.VariableContext ctx);
+	/**
+	 * Exit a parse tree produced by {@link NfLangParser#variable}.
+	 * @param ctx the parse tree
+	 */
+	void exitVariable(NfLangParser.VariableContext ctx);
+}
\ No newline at end of file
@@ -0,0 +1,1933 @@
+// Generated from NfLang.g4 by ANTLR 4.7.2
+package com.naofi.antlr;
+import org.antlr.v4.runtime.atn.*;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.misc.*;
+import org.antlr.v4.runtime.tree.*;
+import java.util.List;
+import java.util.Iterator;
+import java.util.ArrayList;
+
+@SuppressWarnings({"all", "warnings", "unchecked", "unused", "cast"})
+public class NfLangParser extends Parser {
+	static { RuntimeMetaData.checkVersion("4.7.2", RuntimeMetaData.VERSION); }
+
+	protected static final DFA[] _decisionToDFA;
+	protected static final PredictionContextCache _sharedContextCache =
+		new PredictionContextCache();
+	public static final int
+		T__0=1, T__1=2, T__2=3, T__3=4, T__4=5, T__5=6, T__6=7, T__7=8, T__8=9, 
+		T__9=10, T__10=11, T__11=12, T__12=13, T__13=14, T__14=15, T__15=16, T__16=17, 
+		T__17=18, T__18=19, T__19=20, T__20=21, T__21=22, T__22=23, T__23=24, 
+		T__24=25, T__25=26, T__26=27, T__27=28, T__28=29, T__29=30, T__30=31, 
+		T__31=32, T__32=33, IDENTIFIER=34, DECIMAL_NUMBER=35, WHITESPACE=36;
+	public static final int
+		RULE_classDef = 0, RULE_classMember = 1, RULE_field = 2, RULE_method = 3, 
+		RULE_formalParam = 4, RULE_block = 5, RULE_statement = 6, RULE_ifStatement = 7, 
+		RULE_elseInner = 8, RULE_expr = 9, RULE_boolExpression = 10, RULE_eqExpression = 11, 
+		RULE_compExpression = 12, RULE_expression = 13, RULE_factor = 14, RULE_op1 = 15, 
+		RULE_op2 = 16, RULE_op3 = 17, RULE_op4 = 18, RULE_term = 19, RULE_literal = 20, 
+		RULE_type = 21, RULE_bool_term = 22, RULE_variable = 23;
+	private static String[] makeRuleNames() {
+		return new String[] {
+			"classDef", "classMember", "field", "method", "formalParam", "block", 
+			"statement", "ifStatement", "elseInner", "expr", "boolExpression", "eqExpression", 
+			"compExpression", "expression", "factor", "op1", "op2", "op3", "op4", 
+			"term", "literal", "type", "bool_term", "variable"
+		};
+	}
+	public static final String[] ruleNames = makeRuleNames();
+
+	private static String[] makeLiteralNames() {
+		return new String[] {
+			null, "'class'", "'{'", "'}'", "'('", "','", "')'", "';'", "'while'", 
+			"'='", "'var'", "'return'", "'if'", "'else'", "'+'", "'-'", "'*'", "'/'", 
+			"'>'", "'>='", "'<'", "'<='", "'=='", "'!='", "'bool'", "'byte'", "'short'", 
+			"'int'", "'long'", "'float'", "'double'", "'char'", "'true'", "'false'"
+		};
+	}
+	private static final String[] _LITERAL_NAMES = makeLiteralNames();
+	private static String[] makeSymbolicNames() {
+		return new String[] {
+			null, null, null, null, null, null, null, null, null, null, null, null, 
+			null, null, null, null, null, null, null, null, null, null, null, null, 
+			null, null, null, null, null, null, null, null, null, null, "IDENTIFIER", 
+			"DECIMAL_NUMBER", "WHITESPACE"
+		};
+	}
+	private static final String[] _SYMBOLIC_NAMES = makeSymbolicNames();
+	public static final Vocabulary VOCABULARY = new VocabularyImpl(_LITERAL_NAMES, _SYMBOLIC_NAMES);
+
+	/**
+	 * @deprecated Use {@link #VOCABULARY} instead.
+	 */
+	@Deprecated
+	public static final String[] tokenNames;
+	static {
+		tokenNames = new String[_SYMBOLIC_NAMES.length];
+		for (int i = 0; i < tokenNames.length; i++) {
+			tokenNames[i] = VOCABULARY.getLiteralName(i);
+			if (tokenNames[i] == null) {
+				tokenNames[i] = VOCABULARY.getSymbolicName(i);
+			}
+
+			if (tokenNames[i] == null) {
+				tokenNames[i] = "<INVALID>";
+			}
+		}
+	}
+
+	@Override
+	@Deprecated
+	public String[] getTokenNames() {
+		return tokenNames;
+	}
+
+	@Override
+
+	public Vocabulary getVocabulary() {
+		return VOCABULARY;
+	}
+
+	@Override
+	public String getGrammarFileName() { return "NfLang.g4"; }
+
+	@Override
+	public String[] getRuleNames() { return ruleNames; }
+
+	@Override
+	public String getSerializedATN() { return _serializedATN; }
+
+	@Override
+	public ATN getATN() { return _ATN; }
+
+	public NfLangParser(TokenStream input) {
+		super(input);
+		_interp = new ParserATNSimulator(this,_ATN,_decisionToDFA,_sharedContextCache);
+	}
+
+	public static class ClassDefContext extends ParserRuleContext {
+		public TerminalNode IDENTIFIER() { return getToken(NfLangParser.IDENTIFIER, 0); }
+		public List<ClassMemberContext> classMember() {
+			return getRuleContexts(ClassMemberContext.class);
+		}
+		public ClassMemberContext classMember(int i) {
+			return getRuleContext(ClassMemberContext.class,i);
+		}
+		public ClassDefContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_classDef; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterClassDef(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitClassDef(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitClassDef(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final ClassDefContext classDef() throws RecognitionException {
+		ClassDefContext _localctx = new ClassDefContext(_ctx, getState());
+		enterRule(_localctx, 0, RULE_classDef);
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(48);
+			match(T__0);
+			setState(49);
+			match(IDENTIFIER);
+			setState(50);
+			match(T__1);
+			setState(54);
+			_errHandler.sync(this);
+			_la = _input.LA(1);
+			while ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << T__23) | (1L << T__24) | (1L << T__25) | (1L << T__26) | (1L << T__27) | (1L << T__28) | (1L << T__29) | (1L << T__30) | (1L << IDENTIFIER))) != 0)) {
+				{
+				{
+				setState(51);
+				classMember();
+				}
+				}
+				setState(56);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+			}
+			setState(57);
+			match(T__2);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ClassMemberContext extends ParserRuleContext {
+		public FieldContext field() {
+			return getRuleContext(FieldContext.class,0);
+		}
+		public MethodContext method() {
+			return getRuleContext(MethodContext.class,0);
+		}
+		public ClassMemberContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_classMember; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterClassMember(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitClassMember(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitClassMember(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final ClassMemberContext classMember() throws RecognitionException {
+		ClassMemberContext _localctx = new ClassMemberContext(_ctx, getState());
+		enterRule(_localctx, 2, RULE_classMember);
+		try {
+			setState(61);
+			_errHandler.sync(this);
+			switch (_input.LA(1)) {
+			case T__23:
+			case T__24:
+			case T__25:
+			case T__26:
+			case T__27:
+			case T__28:
+			case T__29:
+			case T__30:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(59);
+				field();
+				}
+				break;
+			case IDENTIFIER:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(60);
+				method();
+				}
+				break;
+			default:
+				throw new NoViableAltException(this);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class FieldContext extends ParserRuleContext {
+		public TypeContext type() {
+			return getRuleContext(TypeContext.class,0);
+		}
+		public VariableContext variable() {
+			return getRuleContext(VariableContext.class,0);
+		}
+		public FieldContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_field; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterField(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitField(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitField(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final FieldContext field() throws RecognitionException {
+		FieldContext _localctx = new FieldContext(_ctx, getState());
+		enterRule(_localctx, 4, RULE_field);
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(63);
+			type();
+			setState(64);
+			variable();
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class MethodContext extends ParserRuleContext {
+		public TerminalNode IDENTIFIER() { return getToken(NfLangParser.IDENTIFIER, 0); }
+		public BlockContext block() {
+			return getRuleContext(BlockContext.class,0);
+		}
+		public List<FormalParamContext> formalParam() {
+			return getRuleContexts(FormalParamContext.class);
+		}
+		public FormalParamContext formalParam(int i) {
+			return getRuleContext(FormalParamContext.class,i);
+		}
+		public MethodContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_method; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterMethod(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitMethod(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitMethod(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final MethodContext method() throws RecognitionException {
+		MethodContext _localctx = new MethodContext(_ctx, getState());
+		enterRule(_localctx, 6, RULE_method);
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(66);
+			match(IDENTIFIER);
+			setState(67);
+			match(T__3);
+			setState(76);
+			_errHandler.sync(this);
+			_la = _input.LA(1);
+			if ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << T__23) | (1L << T__24) | (1L << T__25) | (1L << T__26) | (1L << T__27) | (1L << T__28) | (1L << T__29) | (1L << T__30))) != 0)) {
+				{
+				setState(68);
+				formalParam();
+				setState(73);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				while (_la==T__4) {
+					{
+					{
+					setState(69);
+					match(T__4);
+					setState(70);
+					formalParam();
+					}
+					}
+					setState(75);
+					_errHandler.sync(this);
+					_la = _input.LA(1);
+				}
+				}
+			}
+
+			setState(78);
+			match(T__5);
+			setState(79);
+			block();
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class FormalParamContext extends ParserRuleContext {
+		public TypeContext type() {
+			return getRuleContext(TypeContext.class,0);
+		}
+		public VariableContext variable() {
+			return getRuleContext(VariableContext.class,0);
+		}
+		public FormalParamContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_formalParam; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterFormalParam(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitFormalParam(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitFormalParam(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final FormalParamContext formalParam() throws RecognitionException {
+		FormalParamContext _localctx = new FormalParamContext(_ctx, getState());
+		enterRule(_localctx, 8, RULE_formalParam);
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(81);
+			type();
+			setState(82);
+			variable();
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class BlockContext extends ParserRuleContext {
+		public List<StatementContext> statement() {
+			return getRuleContexts(StatementContext.class);
+		}
+		public StatementContext statement(int i) {
+			return getRuleContext(StatementContext.class,i);
+		}
+		public BlockContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_block; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterBlock(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitBlock(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitBlock(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final BlockContext block() throws RecognitionException {
+		BlockContext _localctx = new BlockContext(_ctx, getState());
+		enterRule(_localctx, 10, RULE_block);
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(84);
+			match(T__1);
+			setState(88);
+			_errHandler.sync(this);
+			_la = _input.LA(1);
+			while ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << T__3) | (1L << T__7) | (1L << T__9) | (1L << T__10) | (1L << T__11) | (1L << T__23) | (1L << T__24) | (1L << T__25) | (1L << T__26) | (1L << T__27) | (1L << T__28) | (1L << T__29) | (1L << T__30) | (1L << IDENTIFIER) | (1L << DECIMAL_NUMBER))) != 0)) {
+				{
+				{
+				setState(85);
+				statement();
+				}
+				}
+				setState(90);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+			}
+			setState(91);
+			match(T__2);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class StatementContext extends ParserRuleContext {
+		public StatementContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_statement; }
+	 
+		public StatementContext() { }
+		public void copyFrom(StatementContext ctx) {
+			super.copyFrom(ctx);
+		}
+	}
+	public static class WhileStmtContext extends StatementContext {
+		public BoolExpressionContext boolExpression() {
+			return getRuleContext(BoolExpressionContext.class,0);
+		}
+		public BlockContext block() {
+			return getRuleContext(BlockContext.class,0);
+		}
+		public WhileStmtContext(StatementContext ctx) { copyFrom(ctx); }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterWhileStmt(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitWhileStmt(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitWhileStmt(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class TypeInitDefContext extends StatementContext {
+		public TypeContext type() {
+			return getRuleContext(TypeContext.class,0);
+		}
+		public VariableContext variable() {
+			return getRuleContext(VariableContext.class,0);
+		}
+		public ExprContext expr() {
+			return getRuleContext(ExprContext.class,0);
+		}
+		public TypeInitDefContext(StatementContext ctx) { copyFrom(ctx); }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterTypeInitDef(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitTypeInitDef(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitTypeInitDef(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class SimpleStatementContext extends StatementContext {
+		public ExpressionContext expression() {
+			return getRuleContext(ExpressionContext.class,0);
+		}
+		public SimpleStatementContext(StatementContext ctx) { copyFrom(ctx); }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterSimpleStatement(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitSimpleStatement(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitSimpleStatement(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class AssignmentContext extends StatementContext {
+		public VariableContext variable() {
+			return getRuleContext(VariableContext.class,0);
+		}
+		public ExprContext expr() {
+			return getRuleContext(ExprContext.class,0);
+		}
+		public AssignmentContext(StatementContext ctx) { copyFrom(ctx); }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterAssignment(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitAssignment(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitAssignment(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class VarInitDefContext extends StatementContext {
+		public VariableContext variable() {
+			return getRuleContext(VariableContext.class,0);
+		}
+		public ExprContext expr() {
+			return getRuleContext(ExprContext.class,0);
+		}
+		public VarInitDefContext(StatementContext ctx) { copyFrom(ctx); }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterVarInitDef(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitVarInitDef(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitVarInitDef(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class IfContext extends StatementContext {
+		public IfStatementContext ifStatement() {
+			return getRuleContext(IfStatementContext.class,0);
+		}
+		public IfContext(StatementContext ctx) { copyFrom(ctx); }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterIf(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitIf(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitIf(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class TypeDefContext extends StatementContext {
+		public TypeContext type() {
+			return getRuleContext(TypeContext.class,0);
+		}
+		public VariableContext variable() {
+			return getRuleContext(VariableContext.class,0);
+		}
+		public TypeDefContext(StatementContext ctx) { copyFrom(ctx); }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterTypeDef(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitTypeDef(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitTypeDef(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class ReturnContext extends StatementContext {
+		public List<ExprContext> expr() {
+			return getRuleContexts(ExprContext.class);
+		}
+		public ExprContext expr(int i) {
+			return getRuleContext(ExprContext.class,i);
+		}
+		public ReturnContext(StatementContext ctx) { copyFrom(ctx); }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterReturn(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitReturn(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitReturn(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final StatementContext statement() throws RecognitionException {
+		StatementContext _localctx = new StatementContext(_ctx, getState());
+		enterRule(_localctx, 12, RULE_statement);
+		int _la;
+		try {
+			setState(136);
+			_errHandler.sync(this);
+			switch ( getInterpreter().adaptivePredict(_input,7,_ctx) ) {
+			case 1:
+				_localctx = new SimpleStatementContext(_localctx);
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(93);
+				expression();
+				setState(94);
+				match(T__6);
+				}
+				break;
+			case 2:
+				_localctx = new WhileStmtContext(_localctx);
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(96);
+				match(T__7);
+				setState(97);
+				match(T__3);
+				setState(98);
+				boolExpression();
+				setState(99);
+				match(T__5);
+				setState(100);
+				block();
+				}
+				break;
+			case 3:
+				_localctx = new IfContext(_localctx);
+				enterOuterAlt(_localctx, 3);
+				{
+				setState(102);
+				ifStatement();
+				}
+				break;
+			case 4:
+				_localctx = new AssignmentContext(_localctx);
+				enterOuterAlt(_localctx, 4);
+				{
+				setState(103);
+				variable();
+				setState(104);
+				match(T__8);
+				setState(105);
+				expr();
+				setState(106);
+				match(T__6);
+				}
+				break;
+			case 5:
+				_localctx = new TypeDefContext(_localctx);
+				enterOuterAlt(_localctx, 5);
+				{
+				setState(108);
+				type();
+				setState(109);
+				variable();
+				setState(110);
+				match(T__6);
+				}
+				break;
+			case 6:
+				_localctx = new TypeInitDefContext(_localctx);
+				enterOuterAlt(_localctx, 6);
+				{
+				setState(112);
+				type();
+				setState(113);
+				variable();
+				setState(114);
+				match(T__8);
+				setState(115);
+				expr();
+				setState(116);
+				match(T__6);
+				}
+				break;
+			case 7:
+				_localctx = new VarInitDefContext(_localctx);
+				enterOuterAlt(_localctx, 7);
+				{
+				setState(118);
+				match(T__9);
+				setState(119);
+				variable();
+				setState(120);
+				match(T__8);
+				setState(121);
+				expr();
+				setState(122);
+				match(T__6);
+				}
+				break;
+			case 8:
+				_localctx = new ReturnContext(_localctx);
+				enterOuterAlt(_localctx, 8);
+				{
+				setState(124);
+				match(T__10);
+				setState(133);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				if ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << T__3) | (1L << T__31) | (1L << T__32) | (1L << IDENTIFIER) | (1L << DECIMAL_NUMBER))) != 0)) {
+					{
+					setState(125);
+					expr();
+					setState(130);
+					_errHandler.sync(this);
+					_la = _input.LA(1);
+					while (_la==T__4) {
+						{
+						{
+						setState(126);
+						match(T__4);
+						setState(127);
+						expr();
+						}
+						}
+						setState(132);
+						_errHandler.sync(this);
+						_la = _input.LA(1);
+					}
+					}
+				}
+
+				setState(135);
+				match(T__6);
+				}
+				break;
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class IfStatementContext extends ParserRuleContext {
+		public BoolExpressionContext boolExpression() {
+			return getRuleContext(BoolExpressionContext.class,0);
+		}
+		public BlockContext block() {
+			return getRuleContext(BlockContext.class,0);
+		}
+		public ElseInnerContext elseInner() {
+			return getRuleContext(ElseInnerContext.class,0);
+		}
+		public IfStatementContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_ifStatement; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterIfStatement(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitIfStatement(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitIfStatement(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final IfStatementContext ifStatement() throws RecognitionException {
+		IfStatementContext _localctx = new IfStatementContext(_ctx, getState());
+		enterRule(_localctx, 14, RULE_ifStatement);
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(138);
+			match(T__11);
+			setState(139);
+			match(T__3);
+			setState(140);
+			boolExpression();
+			setState(141);
+			match(T__5);
+			setState(142);
+			block();
+			setState(145);
+			_errHandler.sync(this);
+			_la = _input.LA(1);
+			if (_la==T__12) {
+				{
+				setState(143);
+				match(T__12);
+				setState(144);
+				elseInner();
+				}
+			}
+
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ElseInnerContext extends ParserRuleContext {
+		public ElseInnerContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_elseInner; }
+	 
+		public ElseInnerContext() { }
+		public void copyFrom(ElseInnerContext ctx) {
+			super.copyFrom(ctx);
+		}
+	}
+	public static class ElseIfStmtContext extends ElseInnerContext {
+		public IfStatementContext ifStatement() {
+			return getRuleContext(IfStatementContext.class,0);
+		}
+		public ElseIfStmtContext(ElseInnerContext ctx) { copyFrom(ctx); }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterElseIfStmt(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitElseIfStmt(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitElseIfStmt(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class ElseStmtContext extends ElseInnerContext {
+		public BlockContext block() {
+			return getRuleContext(BlockContext.class,0);
+		}
+		public ElseStmtContext(ElseInnerContext ctx) { copyFrom(ctx); }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterElseStmt(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitElseStmt(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitElseStmt(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final ElseInnerContext elseInner() throws RecognitionException {
+		ElseInnerContext _localctx = new ElseInnerContext(_ctx, getState());
+		enterRule(_localctx, 16, RULE_elseInner);
+		try {
+			setState(149);
+			_errHandler.sync(this);
+			switch (_input.LA(1)) {
+			case T__11:
+				_localctx = new ElseIfStmtContext(_localctx);
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(147);
+				ifStatement();
+				}
+				break;
+			case T__1:
+				_localctx = new ElseStmtContext(_localctx);
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(148);
+				block();
+				}
+				break;
+			default:
+				throw new NoViableAltException(this);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ExprContext extends ParserRuleContext {
+		public EqExpressionContext eqExpression() {
+			return getRuleContext(EqExpressionContext.class,0);
+		}
+		public ExprContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_expr; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterExpr(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitExpr(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitExpr(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final ExprContext expr() throws RecognitionException {
+		ExprContext _localctx = new ExprContext(_ctx, getState());
+		enterRule(_localctx, 18, RULE_expr);
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(151);
+			eqExpression();
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class BoolExpressionContext extends ParserRuleContext {
+		public EqExpressionContext eqExpression() {
+			return getRuleContext(EqExpressionContext.class,0);
+		}
+		public BoolExpressionContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_boolExpression; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterBoolExpression(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitBoolExpression(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitBoolExpression(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final BoolExpressionContext boolExpression() throws RecognitionException {
+		BoolExpressionContext _localctx = new BoolExpressionContext(_ctx, getState());
+		enterRule(_localctx, 20, RULE_boolExpression);
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(153);
+			eqExpression();
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class EqExpressionContext extends ParserRuleContext {
+		public List<CompExpressionContext> compExpression() {
+			return getRuleContexts(CompExpressionContext.class);
+		}
+		public CompExpressionContext compExpression(int i) {
+			return getRuleContext(CompExpressionContext.class,i);
+		}
+		public Op4Context op4() {
+			return getRuleContext(Op4Context.class,0);
+		}
+		public EqExpressionContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_eqExpression; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterEqExpression(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitEqExpression(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitEqExpression(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final EqExpressionContext eqExpression() throws RecognitionException {
+		EqExpressionContext _localctx = new EqExpressionContext(_ctx, getState());
+		enterRule(_localctx, 22, RULE_eqExpression);
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(155);
+			compExpression();
+			setState(159);
+			_errHandler.sync(this);
+			_la = _input.LA(1);
+			if (_la==T__21 || _la==T__22) {
+				{
+				setState(156);
+				op4();
+				setState(157);
+				compExpression();
+				}
+			}
+
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class CompExpressionContext extends ParserRuleContext {
+		public Bool_termContext bool_term() {
+			return getRuleContext(Bool_termContext.class,0);
+		}
+		public List<ExpressionContext> expression() {
+			return getRuleContexts(ExpressionContext.class);
+		}
+		public ExpressionContext expression(int i) {
+			return getRuleContext(ExpressionContext.class,i);
+		}
+		public Op3Context op3() {
+			return getRuleContext(Op3Context.class,0);
+		}
+		public CompExpressionContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_compExpression; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterCompExpression(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitCompExpression(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitCompExpression(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final CompExpressionContext compExpression() throws RecognitionException {
+		CompExpressionContext _localctx = new CompExpressionContext(_ctx, getState());
+		enterRule(_localctx, 24, RULE_compExpression);
+		int _la;
+		try {
+			setState(168);
+			_errHandler.sync(this);
+			switch (_input.LA(1)) {
+			case T__31:
+			case T__32:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(161);
+				bool_term();
+				}
+				break;
+			case T__3:
+			case IDENTIFIER:
+			case DECIMAL_NUMBER:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(162);
+				expression();
+				setState(166);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				if ((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << T__17) | (1L << T__18) | (1L << T__19) | (1L << T__20))) != 0)) {
+					{
+					setState(163);
+					op3();
+					setState(164);
+					expression();
+					}
+				}
+
+				}
+				break;
+			default:
+				throw new NoViableAltException(this);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class ExpressionContext extends ParserRuleContext {
+		public List<FactorContext> factor() {
+			return getRuleContexts(FactorContext.class);
+		}
+		public FactorContext factor(int i) {
+			return getRuleContext(FactorContext.class,i);
+		}
+		public List<Op1Context> op1() {
+			return getRuleContexts(Op1Context.class);
+		}
+		public Op1Context op1(int i) {
+			return getRuleContext(Op1Context.class,i);
+		}
+		public ExpressionContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_expression; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterExpression(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitExpression(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitExpression(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final ExpressionContext expression() throws RecognitionException {
+		ExpressionContext _localctx = new ExpressionContext(_ctx, getState());
+		enterRule(_localctx, 26, RULE_expression);
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(170);
+			factor();
+			setState(176);
+			_errHandler.sync(this);
+			_la = _input.LA(1);
+			while (_la==T__13 || _la==T__14) {
+				{
+				{
+				setState(171);
+				op1();
+				setState(172);
+				factor();
+				}
+				}
+				setState(178);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+			}
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class FactorContext extends ParserRuleContext {
+		public FactorContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_factor; }
+	 
+		public FactorContext() { }
+		public void copyFrom(FactorContext ctx) {
+			super.copyFrom(ctx);
+		}
+	}
+	public static class ParenthesizedFactorContext extends FactorContext {
+		public ExpressionContext expression() {
+			return getRuleContext(ExpressionContext.class,0);
+		}
+		public ParenthesizedFactorContext(FactorContext ctx) { copyFrom(ctx); }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterParenthesizedFactor(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitParenthesizedFactor(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitParenthesizedFactor(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+	public static class SimpleFactorContext extends FactorContext {
+		public List<TermContext> term() {
+			return getRuleContexts(TermContext.class);
+		}
+		public TermContext term(int i) {
+			return getRuleContext(TermContext.class,i);
+		}
+		public List<Op2Context> op2() {
+			return getRuleContexts(Op2Context.class);
+		}
+		public Op2Context op2(int i) {
+			return getRuleContext(Op2Context.class,i);
+		}
+		public SimpleFactorContext(FactorContext ctx) { copyFrom(ctx); }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterSimpleFactor(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitSimpleFactor(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitSimpleFactor(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final FactorContext factor() throws RecognitionException {
+		FactorContext _localctx = new FactorContext(_ctx, getState());
+		enterRule(_localctx, 28, RULE_factor);
+		int _la;
+		try {
+			setState(192);
+			_errHandler.sync(this);
+			switch (_input.LA(1)) {
+			case IDENTIFIER:
+			case DECIMAL_NUMBER:
+				_localctx = new SimpleFactorContext(_localctx);
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(179);
+				term();
+				setState(185);
+				_errHandler.sync(this);
+				_la = _input.LA(1);
+				while (_la==T__15 || _la==T__16) {
+					{
+					{
+					setState(180);
+					op2();
+					setState(181);
+					term();
+					}
+					}
+					setState(187);
+					_errHandler.sync(this);
+					_la = _input.LA(1);
+				}
+				}
+				break;
+			case T__3:
+				_localctx = new ParenthesizedFactorContext(_localctx);
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(188);
+				match(T__3);
+				setState(189);
+				expression();
+				setState(190);
+				match(T__5);
+				}
+				break;
+			default:
+				throw new NoViableAltException(this);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class Op1Context extends ParserRuleContext {
+		public Op1Context(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_op1; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterOp1(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitOp1(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitOp1(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final Op1Context op1() throws RecognitionException {
+		Op1Context _localctx = new Op1Context(_ctx, getState());
+		enterRule(_localctx, 30, RULE_op1);
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(194);
+			_la = _input.LA(1);
+			if ( !(_la==T__13 || _la==T__14) ) {
+			_errHandler.recoverInline(this);
+			}
+			else {
+				if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
+				_errHandler.reportMatch(this);
+				consume();
+			}
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class Op2Context extends ParserRuleContext {
+		public Op2Context(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_op2; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterOp2(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitOp2(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitOp2(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final Op2Context op2() throws RecognitionException {
+		Op2Context _localctx = new Op2Context(_ctx, getState());
+		enterRule(_localctx, 32, RULE_op2);
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(196);
+			_la = _input.LA(1);
+			if ( !(_la==T__15 || _la==T__16) ) {
+			_errHandler.recoverInline(this);
+			}
+			else {
+				if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
+				_errHandler.reportMatch(this);
+				consume();
+			}
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class Op3Context extends ParserRuleContext {
+		public Op3Context(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_op3; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterOp3(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitOp3(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitOp3(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final Op3Context op3() throws RecognitionException {
+		Op3Context _localctx = new Op3Context(_ctx, getState());
+		enterRule(_localctx, 34, RULE_op3);
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(198);
+			_la = _input.LA(1);
+			if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << T__17) | (1L << T__18) | (1L << T__19) | (1L << T__20))) != 0)) ) {
+			_errHandler.recoverInline(this);
+			}
+			else {
+				if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
+				_errHandler.reportMatch(this);
+				consume();
+			}
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class Op4Context extends ParserRuleContext {
+		public Op4Context(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_op4; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterOp4(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitOp4(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitOp4(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final Op4Context op4() throws RecognitionException {
+		Op4Context _localctx = new Op4Context(_ctx, getState());
+		enterRule(_localctx, 36, RULE_op4);
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(200);
+			_la = _input.LA(1);
+			if ( !(_la==T__21 || _la==T__22) ) {
+			_errHandler.recoverInline(this);
+			}
+			else {
+				if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
+				_errHandler.reportMatch(this);
+				consume();
+			}
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class TermContext extends ParserRuleContext {
+		public LiteralContext literal() {
+			return getRuleContext(LiteralContext.class,0);
+		}
+		public VariableContext variable() {
+			return getRuleContext(VariableContext.class,0);
+		}
+		public TermContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_term; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterTerm(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitTerm(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitTerm(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final TermContext term() throws RecognitionException {
+		TermContext _localctx = new TermContext(_ctx, getState());
+		enterRule(_localctx, 38, RULE_term);
+		try {
+			setState(204);
+			_errHandler.sync(this);
+			switch (_input.LA(1)) {
+			case DECIMAL_NUMBER:
+				enterOuterAlt(_localctx, 1);
+				{
+				setState(202);
+				literal();
+				}
+				break;
+			case IDENTIFIER:
+				enterOuterAlt(_localctx, 2);
+				{
+				setState(203);
+				variable();
+				}
+				break;
+			default:
+				throw new NoViableAltException(this);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class LiteralContext extends ParserRuleContext {
+		public TerminalNode DECIMAL_NUMBER() { return getToken(NfLangParser.DECIMAL_NUMBER, 0); }
+		public LiteralContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_literal; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterLiteral(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitLiteral(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitLiteral(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final LiteralContext literal() throws RecognitionException {
+		LiteralContext _localctx = new LiteralContext(_ctx, getState());
+		enterRule(_localctx, 40, RULE_literal);
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(206);
+			match(DECIMAL_NUMBER);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class TypeContext extends ParserRuleContext {
+		public TypeContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_type; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterType(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitType(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitType(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final TypeContext type() throws RecognitionException {
+		TypeContext _localctx = new TypeContext(_ctx, getState());
+		enterRule(_localctx, 42, RULE_type);
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(208);
+			_la = _input.LA(1);
+			if ( !((((_la) & ~0x3f) == 0 && ((1L << _la) & ((1L << T__23) | (1L << T__24) | (1L << T__25) | (1L << T__26) | (1L << T__27) | (1L << T__28) | (1L << T__29) | (1L << T__30))) != 0)) ) {
+			_errHandler.recoverInline(this);
+			}
+			else {
+				if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
+				_errHandler.reportMatch(this);
+				consume();
+			}
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class Bool_termContext extends ParserRuleContext {
+		public Bool_termContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_bool_term; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterBool_term(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitBool_term(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitBool_term(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final Bool_termContext bool_term() throws RecognitionException {
+		Bool_termContext _localctx = new Bool_termContext(_ctx, getState());
+		enterRule(_localctx, 44, RULE_bool_term);
+		int _la;
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(210);
+			_la = _input.LA(1);
+			if ( !(_la==T__31 || _la==T__32) ) {
+			_errHandler.recoverInline(this);
+			}
+			else {
+				if ( _input.LA(1)==Token.EOF ) matchedEOF = true;
+				_errHandler.reportMatch(this);
+				consume();
+			}
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static class VariableContext extends ParserRuleContext {
+		public TerminalNode IDENTIFIER() { return getToken(NfLangParser.IDENTIFIER, 0); }
+		public VariableContext(ParserRuleContext parent, int invokingState) {
+			super(parent, invokingState);
+		}
+		@Override public int getRuleIndex() { return RULE_variable; }
+		@Override
+		public void enterRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).enterVariable(this);
+		}
+		@Override
+		public void exitRule(ParseTreeListener listener) {
+			if ( listener instanceof NfLangListener ) ((NfLangListener)listener).exitVariable(this);
+		}
+		@Override
+		public <T> T accept(ParseTreeVisitor<? extends T> visitor) {
+			if ( visitor instanceof NfLangVisitor ) return ((NfLangVisitor<? extends T>)visitor).visitVariable(this);
+			else return visitor.visitChildren(this);
+		}
+	}
+
+	public final VariableContext variable() throws RecognitionException {
+		VariableContext _localctx = new VariableContext(_ctx, getState());
+		enterRule(_localctx, 46, RULE_variable);
+		try {
+			enterOuterAlt(_localctx, 1);
+			{
+			setState(212);
+			match(IDENTIFIER);
+			}
+		}
+		catch (RecognitionException re) {
+			_localctx.exception = re;
+			_errHandler.reportError(this, re);
+			_errHandler.recover(this, re);
+		}
+		finally {
+			exitRule();
+		}
+		return _localctx;
+	}
+
+	public static final String _serializedATN =
+		"\3\u608b\ua72a\u8133\ub9ed\u417c\u3be7\u7786\u5964\3&\u00d9\4\2\t\2\4"+
+		"\3\t\3\4\4\t\4\4\5\t\5\4\6\t\6\4\7\t\7\4\b\t\b\4\t\t\t\4\n\t\n\4\13\t"+
+		"\13\4\f\t\f\4\r\t\r\4\16\t\16\4\17\t\17\4\20\t\20\4\21\t\21\4\22\t\22"+
+		"\4\23\t\23\4\24\t\24\4\25\t\25\4\26\t\26\4\27\t\27\4\30\t\30\4\31\t\31"+
+		"\3\2\3\2\3\2\3\2\7\2\67\n\2\f\2\16\2:\13\2\3\2\3\2\3\3\3\3\5\3@\n\3\3"+
+		"\4\3\4\3\4\3\5\3\5\3\5\3\5\3\5\7\5J\n\5\f\5\16\5M\13\5\5\5O\n\5\3\5\3"+
+		"\5\3\5\3\6\3\6\3\6\3\7\3\7\7\7Y\n\7\f\7\16\7\\\13\7\3\7\3\7\3\b\3\b\3"+
+		"\b\3\b\3\b\3\b\3\b\3\b\3\b\3\b\3\b\3\b\3\b\3\b\3\b\3\b\3\b\3\b\3\b\3\b"+
+		"\3\b\3\b\3\b\3\b\3\b\3\b\3\b\3\b\3\b\3\b\3\b\3\b\3\b\3\b\3\b\7\b\u0083"+
+		"\n\b\f\b\16\b\u0086\13\b\5\b\u0088\n\b\3\b\5\b\u008b\n\b\3\t\3\t\3\t\3"+
+		"\t\3\t\3\t\3\t\5\t\u0094\n\t\3\n\3\n\5\n\u0098\n\n\3\13\3\13\3\f\3\f\3"+
+		"\r\3\r\3\r\3\r\5\r\u00a2\n\r\3\16\3\16\3\16\3\16\3\16\5\16\u00a9\n\16"+
+		"\5\16\u00ab\n\16\3\17\3\17\3\17\3\17\7\17\u00b1\n\17\f\17\16\17\u00b4"+
+		"\13\17\3\20\3\20\3\20\3\20\7\20\u00ba\n\20\f\20\16\20\u00bd\13\20\3\20"+
+		"\3\20\3\20\3\20\5\20\u00c3\n\20\3\21\3\21\3\22\3\22\3\23\3\23\3\24\3\24"+
+		"\3\25\3\25\5\25\u00cf\n\25\3\26\3\26\3\27\3\27\3\30\3\30\3\31\3\31\3\31"+
+		"\2\2\32\2\4\6\b\n\f\16\20\22\24\26\30\32\34\36 \"$&(*,.\60\2\b\3\2\20"+
+		"\21\3\2\22\23\3\2\24\27\3\2\30\31\3\2\32!\3\2\"#\2\u00d7\2\62\3\2\2\2"+
+		"\4?\3\2\2\2\6A\3\2\2\2\bD\3\2\2\2\nS\3\2\2\2\fV\3\2\2\2\16\u008a\3\2\2"+
+		"\2\20\u008c\3\2\2\2\22\u0097\3\2\2\2\24\u0099\3\2\2\2\26\u009b\3\2\2\2"+
+		"\30\u009d\3\2\2\2\32\u00aa\3\2\2\2\34\u00ac\3\2\2\2\36\u00c2\3\2\2\2 "+
+		"\u00c4\3\2\2\2\"\u00c6\3\2\2\2$\u00c8\3\2\2\2&\u00ca\3\2\2\2(\u00ce\3"+
+		"\2\2\2*\u00d0\3\2\2\2,\u00d2\3\2\2\2.\u00d4\3\2\2\2\60\u00d6\3\2\2\2\62"+
+		"\63\7\3\2\2\63\64\7$\2\2\648\7\4\2\2\65\67\5\4\3\2\66\65\3\2\2\2\67:\3"+
+		"\2\2\28\66\3\2\2\289\3\2\2\29;\3\2\2\2:8\3\2\2\2;<\7\5\2\2<\3\3\2\2\2"+
+		"=@\5\6\4\2>@\5\b\5\2?=\3\2\2\2?>\3\2\2\2@\5\3\2\2\2AB\5,\27\2BC\5\60\31"+
+		"\2C\7\3\2\2\2DE\7$\2\2EN\7\6\2\2FK\5\n\6\2GH\7\7\2\2HJ\5\n\6\2IG\3\2\2"+
+		"\2JM\3\2\2\2KI\3\2\2\2KL\3\2\2\2LO\3\2\2\2MK\3\2\2\2NF\3\2\2\2NO\3\2\2"+
+		"\2OP\3\2\2\2PQ\7\b\2\2QR\5\f\7\2R\t\3\2\2\2ST\5,\27\2TU\5\60\31\2U\13"+
+		"\3\2\2\2VZ\7\4\2\2WY\5\16\b\2XW\3\2\2\2Y\\\3\2\2\2ZX\3\2\2\2Z[\3\2\2\2"+
+		"[]\3\2\2\2\\Z\3\2\2\2]^\7\5\2\2^\r\3\2\2\2_`\5\34\17\2`a\7\t\2\2a\u008b"+
+		"\3\2\2\2bc\7\n\2\2cd\7\6\2\2de\5\26\f\2ef\7\b\2\2fg\5\f\7\2g\u008b\3\2"+
+		"\2\2h\u008b\5\20\t\2ij\5\60\31\2jk\7\13\2\2kl\5\24\13\2lm\7\t\2\2m\u008b"+
+		"\3\2\2\2no\5,\27\2op\5\60\31\2pq\7\t\2\2q\u008b\3\2\2\2rs\5,\27\2st\5"+
+		"\60\31\2tu\7\13\2\2uv\5\24\13\2vw\7\t\2\2w\u008b\3\2\2\2xy\7\f\2\2yz\5"+
+		"\60\31\2z{\7\13\2\2{|\5\24\13\2|}\7\t\2\2}\u008b\3\2\2\2~\u0087\7\r\2"+
+		"\2\177\u0084\5\24\13\2\u0080\u0081\7\7\2\2\u0081\u0083\5\24\13\2\u0082"+
+		"\u0080\3\2\2\2\u0083\u0086\3\2\2\2\u0084\u0082\3\2\2\2\u0084\u0085\3\2"+
+		"\2\2\u0085\u0088\3\2\2\2\u0086\u0084\3\2\2\2\u0087\177\3\2\2\2\u0087\u0088"+
+		"\3\2\2\2\u0088\u0089\3\2\2\2\u0089\u008b\7\t\2\2\u008a_\3\2\2\2\u008a"+
+		"b\3\2\2\2\u008ah\3\2\2\2\u008ai\3\2\2\2\u008an\3\2\2\2\u008ar\3\2\2\2"+
+		"\u008ax\3\2\2\2\u008a~\3\2\2\2\u008b\17\3\2\2\2\u008c\u008d\7\16\2\2\u008d"+
+		"\u008e\7\6\2\2\u008e\u008f\5\26\f\2\u008f\u0090\7\b\2\2\u0090\u0093\5"+
+		"\f\7\2\u0091\u0092\7\17\2\2\u0092\u0094\5\22\n\2\u0093\u0091\3\2\2\2\u0093"+
+		"\u0094\3\2\2\2\u0094\21\3\2\2\2\u0095\u0098\5\20\t\2\u0096\u0098\5\f\7"+
+		"\2\u0097\u0095\3\2\2\2\u0097\u0096\3\2\2\2\u0098\23\3\2\2\2\u0099\u009a"+
+		"\5\30\r\2\u009a\25\3\2\2\2\u009b\u009c\5\30\r\2\u009c\27\3\2\2\2\u009d"+
+		"\u00a1\5\32\16\2\u009e\u009f\5&\24\2\u009f\u00a0\5\32\16\2\u00a0\u00a2"+
+		"\3\2\2\2\u00a1\u009e\3\2\2\2\u00a1\u00a2\3\2\2\2\u00a2\31\3\2\2\2\u00a3"+
+		"\u00ab\5.\30\2\u00a4\u00a8\5\34\17\2\u00a5\u00a6\5$\23\2\u00a6\u00a7\5"+
+		"\34\17\2\u00a7\u00a9\3\2\2\2\u00a8\u00a5\3\2\2\2\u00a8\u00a9\3\2\2\2\u00a9"+
+		"\u00ab\3\2\2\2\u00aa\u00a3\3\2\2\2\u00aa\u00a4\3\2\2\2\u00ab\33\3\2\2"+
+		"\2\u00ac\u00b2\5\36\20\2\u00ad\u00ae\5 \21\2\u00ae\u00af\5\36\20\2\u00af"+
+		"\u00b1\3\2\2\2\u00b0\u00ad\3\2\2\2\u00b1\u00b4\3\2\2\2\u00b2\u00b0\3\2"+
+		"\2\2\u00b2\u00b3\3\2\2\2\u00b3\35\3\2\2\2\u00b4\u00b2\3\2\2\2\u00b5\u00bb"+
+		"\5(\25\2\u00b6\u00b7\5\"\22\2\u00b7\u00b8\5(\25\2\u00b8\u00ba\3\2\2\2"+
+		"\u00b9\u00b6\3\2\2\2\u00ba\u00bd\3\2\2\2\u00bb\u00b9\3\2\2\2\u00bb\u00bc"+
+		"\3\2\2\2\u00bc\u00c3\3\2\2\2\u00bd\u00bb\3\2\2\2\u00be\u00bf\7\6\2\2\u00bf"+
+		"\u00c0\5\34\17\2\u00c0\u00c1\7\b\2\2\u00c1\u00c3\3\2\2\2\u00c2\u00b5\3"+
+		"\2\2\2\u00c2\u00be\3\2\2\2\u00c3\37\3\2\2\2\u00c4\u00c5\t\2\2\2\u00c5"+
+		"!\3\2\2\2\u00c6\u00c7\t\3\2\2\u00c7#\3\2\2\2\u00c8\u00c9\t\4\2\2\u00c9"+
+		"%\3\2\2\2\u00ca\u00cb\t\5\2\2\u00cb\'\3\2\2\2\u00cc\u00cf\5*\26\2\u00cd"+
+		"\u00cf\5\60\31\2\u00ce\u00cc\3\2\2\2\u00ce\u00cd\3\2\2\2\u00cf)\3\2\2"+
+		"\2\u00d0\u00d1\7%\2\2\u00d1+\3\2\2\2\u00d2\u00d3\t\6\2\2\u00d3-\3\2\2"+
+		"\2\u00d4\u00d5\t\7\2\2\u00d5/\3\2\2\2\u00d6\u00d7\7$\2\2\u00d7\61\3\2"+
+		"\2\2\238?KNZ\u0084\u0087\u008a\u0093\u0097\u00a1\u00a8\u00aa\u00b2\u00bb"+
+		"\u00c2\u00ce";
+	public static final ATN _ATN =
+		new ATNDeserializer().deserialize(_serializedATN.toCharArray());
+	static {
+		_decisionToDFA = new DFA[_ATN.getNumberOfDecisions()];
+		for (int i = 0; i < _ATN.getNumberOfDecisions(); i++) {
+			_decisionToDFA[i] = new DFA(_ATN.getDecisionState(i), i);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,223 @@
+// Generated from NfLang.g4 by ANTLR 4.7.2
+package com.naofi.antlr;
+import org.antlr.v4.runtime.tree.ParseTreeVisitor;
+
+/**
+ * This interface defines a complete generic visitor for a parse tree produced
+ * by {@link NfLangParser}.
+ *
+ * @param <T> The return type of the visit operation. Use {@link Void} for
+ * operations with no return type.
+ */
+public interface NfLangVisitor<T> extends ParseTreeVisitor<T> {
+	/**
+	 * Visit a parse tree produced by {@link NfLangParser#classDef}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitClassDef(NfLangParser.ClassDefContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link NfLangParser#classMember}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitClassMember(NfLangParser.ClassMemberContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link NfLangParser#field}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitField(NfLangParser.FieldContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link NfLangParser#method}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitMethod(NfLangParser.MethodContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link NfLangParser#formalParam}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitFormalParam(NfLangParser.FormalParamContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link NfLangParser#block}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitBlock(NfLangParser.BlockContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code simpleStatement}
+	 * labeled alternative in {@link NfLangParser#statement}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitSimpleStatement(NfLangParser.SimpleStatementContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code whileStmt}
+	 * labeled alternative in {@link NfLangParser#statement}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitWhileStmt(NfLangParser.WhileStmtContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code if}
+	 * labeled alternative in {@link NfLangParser#statement}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitIf(NfLangParser.IfContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code assignment}
+	 * labeled alternative in {@link NfLangParser#statement}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitAssignment(NfLangParser.AssignmentContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code typeDef}
+	 * labeled alternative in {@link NfLangParser#statement}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitTypeDef(NfLangParser.TypeDefContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code typeInitDef}
+	 * labeled alternative in {@link NfLangParser#statement}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitTypeInitDef(NfLangParser.TypeInitDefContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code varInitDef}
+	 * labeled alternative in {@link NfLangParser#statement}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitVarInitDef(NfLangParser.VarInitDefContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code return}
+	 * labeled alternative in {@link NfLangParser#statement}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitReturn(NfLangParser.ReturnContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link NfLangParser#ifStatement}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitIfStatement(NfLangParser.IfStatementContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code elseIfStmt}
+	 * labeled alternative in {@link NfLangParser#elseInner}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitElseIfStmt(NfLangParser.ElseIfStmtContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code elseStmt}
+	 * labeled alternative in {@link NfLangParser#elseInner}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitElseStmt(NfLangParser.ElseStmtContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link NfLangParser#expr}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitExpr(NfLangParser.ExprContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link NfLangParser#boolExpression}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitBoolExpression(NfLangParser.BoolExpressionContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link NfLangParser#eqExpression}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitEqExpression(NfLangParser.EqExpressionContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link NfLangParser#compExpression}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitCompExpression(NfLangParser.CompExpressionContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link NfLangParser#expression}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitExpression(NfLangParser.ExpressionContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code simpleFactor}
+	 * labeled alternative in {@link NfLangParser#factor}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitSimpleFactor(NfLangParser.SimpleFactorContext ctx);
+	/**
+	 * Visit a parse tree produced by the {@code parenthesizedFactor}
+	 * labeled alternative in {@link NfLangParser#factor}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitParenthesizedFactor(NfLangParser.ParenthesizedFactorContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link NfLangParser#op1}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitOp1(NfLangParser.Op1Context ctx);
+	/**
+	 * Visit a parse tree produced by {@link NfLangParser#op2}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitOp2(NfLangParser.Op2Context ctx);
+	/**
+	 * Visit a parse tree produced by {@link NfLangParser#op3}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitOp3(NfLangParser.Op3Context ctx);
+	/**
+	 * Visit a parse tree produced by {@link NfLangParser#op4}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitOp4(NfLangParser.Op4Context ctx);
+	/**
+	 * Visit a parse tree produced by {@link NfLangParser#term}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitTerm(NfLangParser.TermContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link NfLangParser#literal}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitLiteral(NfLangParser.LiteralContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link NfLangParser#type}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitType(NfLangParser.TypeContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link NfLangParser#bool_term}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitBool_term(NfLangParser.Bool_termContext ctx);
+	/**
+	 * Visit a parse tree produced by {@link NfLangParser#variable}.
+	 * @param ctx the parse tree
+	 * @return the visitor result
+	 */
+	T visitVariable(NfLangParser.VariableContext ctx);
+}
\ No newline at end of file
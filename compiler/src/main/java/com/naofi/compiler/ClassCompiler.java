@@ -0,0 +1,198 @@
+package com.naofi.compiler;
+
+import com.naofi.antlr.NfLangParser;
+import com.naofi.compiler.binding.Binder;
+import com.naofi.compiler.dfa.Analysis;
+import com.naofi.compiler.dfa.DfaPipeline;
+import com.naofi.compiler.dfa.ValueRanges;
+import com.naofi.compiler.ir.MethodIr;
+import com.naofi.compiler.opt.ConstantFolding;
+import com.naofi.compiler.opt.ConstantPropagation;
+import com.naofi.compiler.opt.GlobalValueNumbering;
+import com.naofi.compiler.opt.LoopInvariantCodeMotion;
+import com.naofi.compiler.opt.LoopUnswitching;
+import com.naofi.compiler.opt.DeadStoreElimination;
+import com.naofi.compiler.opt.StrengthReduction;
+import com.naofi.compiler.parsing.ParsingStage;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+
+/**
+ * Binds, checks and composes every member of class on its own, members do not share any state.
+ * Results are assembled in declaration order, so output does not depend on how members were scheduled
+ */
+class ClassCompiler {
+    // JVM limit of method code in bytes, every instruction takes at least one
+    private static final int MAX_CODE_SIZE = 65535;
+    // Messages of ASM exceptions for JVM limits of method code and constant pool size
+    private static final String METHOD_TOO_LARGE = "Method code too large!";
+    private static final String CLASS_TOO_LARGE = "Class file too large!";
+
+    private static class MemberResult {
+        private final List<String> errors;
+        private final MethodNode code;
+        private final int elidedChecks;
+        private final int removedInstructions;
+        private final int foldedExpressions;
+        private final List<Integer> hoistedExpressions;
+        private final Map<String, Long> timings;
+
+        MemberResult(List<String> errors, MethodNode code, int elidedChecks, int removedInstructions,
+                     int foldedExpressions, List<Integer> hoistedExpressions, Map<String, Long> timings) {
+            this.errors = errors;
+            this.code = code;
+            this.elidedChecks = elidedChecks;
+            this.removedInstructions = removedInstructions;
+            this.foldedExpressions = foldedExpressions;
+            this.hoistedExpressions = hoistedExpressions;
+            this.timings = timings;
+        }
+
+        MemberResult(List<String> errors, Map<String, Long> timings) {
+            this(errors, null, 0, 0, 0, Collections.emptyList(), timings);
+        }
+    }
+
+    static CompilationResult compile(NfLangParser.ClassDefContext clazz, CompilerOptions options, ParsingStage stage) {
+        List<NfLangParser.ClassMemberContext> members = clazz.classMember();
+        ForkJoinPool pool = options.getPool();
+        List<MemberResult> results;
+        if (pool == null) {
+            results = members.stream()
+                    .map(member -> compileMember(member, options))
+                    .collect(Collectors.toList());
+        } else {
+            List<ForkJoinTask<MemberResult>> tasks = members.stream()
+                    .map(member -> ForkJoinTask.adapt(() -> compileMember(member, options)))
+                    .collect(Collectors.toList());
+            tasks.forEach(pool::execute);
+            results = tasks.stream()
+                    .map(ForkJoinTask::join)
+                    .collect(Collectors.toList());
+        }
+
+        List<String> errors = new ArrayList<>();
+        List<MethodNode> methods = new ArrayList<>();
+        Map<String, Integer> elidedChecks = new LinkedHashMap<>();
+        Map<String, Integer> removedInstructions = new LinkedHashMap<>();
+        Map<String, Integer> foldedExpressions = new LinkedHashMap<>();
+        Map<String, List<Integer>> hoistedExpressions = new LinkedHashMap<>();
+        Map<String, Long> timings = new LinkedHashMap<>();
+        for (MemberResult result : results) {
+            errors.addAll(result.errors);
+            result.timings.forEach((pass, time) -> timings.merge(pass, time, Long::sum));
+            if (result.code != null) {
+                methods.add(result.code);
+                if (options.isCheckedArithmetic()) {
+                    elidedChecks.merge(result.code.name, result.elidedChecks, Integer::sum);
+                }
+                if (options.isDeadStoreElimination()) {
+                    removedInstructions.merge(result.code.name, result.removedInstructions, Integer::sum);
+                }
+                if (options.isConstantFolding()) {
+                    foldedExpressions.merge(result.code.name, result.foldedExpressions, Integer::sum);
+                }
+                if (options.isLoopInvariantCodeMotion()) {
+                    hoistedExpressions.computeIfAbsent(result.code.name, name -> new ArrayList<>())
+                            .addAll(result.hoistedExpressions);
+                }
+            }
+        }
+        if (!errors.isEmpty()) {
+            return new CompilationResult(null, errors, stage);
+        }
+        ComposeBytecodeVisitor cbv = new ComposeBytecodeVisitor();
+        cbv.visitClass(clazz.IDENTIFIER().getText(), methods);
+        byte[] bytes;
+        try {
+            bytes = cbv.getClassBytes();
+        } catch (RuntimeException e) {
+            // ASM checks JVM limits only when class is written
+            if (METHOD_TOO_LARGE.equals(e.getMessage())) {
+                return new CompilationResult(null, Collections.singletonList("Method code is too large"), stage);
+            } else if (CLASS_TOO_LARGE.equals(e.getMessage())) {
+                return new CompilationResult(null, Collections.singletonList("Class file is too large"), stage);
+            }
+            throw e;
+        }
+        return new CompilationResult(bytes, errors, stage, elidedChecks, removedInstructions, foldedExpressions,
+                hoistedExpressions, timings);
+    }
+
+    private static MemberResult compileMember(NfLangParser.ClassMemberContext member, CompilerOptions options) {
+        Binder binder = new Binder();
+        binder.visit(member);
+        List<String> errors = new ArrayList<>(binder.getErrors());
+        if (!errors.isEmpty() || binder.getMethods().isEmpty()) {
+            return new MemberResult(errors, Collections.emptyMap());
+        }
+        MethodIr method = binder.getMethods().get(0);
+        DfaPipeline pipeline = DfaPipeline.of(method);
+        errors.addAll(pipeline.check());
+        if (!errors.isEmpty()) {
+            return new MemberResult(errors, pipeline.getTimings());
+        }
+        if (options.isConstantPropagation()) {
+            pipeline.transform(new ConstantPropagation(options.isCheckedArithmetic()));
+        }
+        int foldedExpressions = 0;
+        if (options.isConstantFolding()) {
+            ConstantFolding folding = new ConstantFolding(options.isCheckedArithmetic());
+            pipeline.transform(folding);
+            foldedExpressions = folding.getFoldedExpressions();
+        }
+        if (options.isGlobalValueNumbering()) {
+            pipeline.transform(new GlobalValueNumbering(options.isCheckedArithmetic()));
+        }
+        List<Integer> hoistedExpressions = Collections.emptyList();
+        if (options.isLoopInvariantCodeMotion()) {
+            LoopInvariantCodeMotion motion = new LoopInvariantCodeMotion(options.isCheckedArithmetic());
+            pipeline.transform(motion);
+            hoistedExpressions = motion.getHoistedExpressions();
+        }
+        if (options.getUnswitchingBudget() > 0) {
+            pipeline.transform(new LoopUnswitching(options.isCheckedArithmetic(), options.getUnswitchingBudget()));
+        }
+        if (options.isStrengthReduction()) {
+            pipeline.transform(new StrengthReduction(options.isCheckedArithmetic()));
+        }
+        int removedInstructions = 0;
+        if (options.isDeadStoreElimination()) {
+            DeadStoreElimination dse = new DeadStoreElimination(options.isCheckedArithmetic());
+            pipeline.transform(dse);
+            removedInstructions = dse.getRemovedInstructions();
+        }
+        ValueRanges ranges = options.isRangeAnalysis() ? pipeline.get(Analysis.RANGES) : null;
+
+        ComposeMethodVisitor composer = new ComposeMethodVisitor(pipeline.getMethod(), ranges, options);
+        MethodNode code = composer.compose();
+        if (realInstructions(code) > MAX_CODE_SIZE) {
+            errors.add("Method code is too large: " + code.name);
+            return new MemberResult(errors, pipeline.getTimings());
+        }
+        return new MemberResult(errors, code, composer.getElidedChecks(), removedInstructions, foldedExpressions,
+                hoistedExpressions, pipeline.getTimings());
+    }
+
+    /**
+     * Instructions without labels, frames and line numbers
+     */
+    private static int realInstructions(MethodNode code) {
+        int count = 0;
+        for (AbstractInsnNode insn = code.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            if (insn.getOpcode() >= 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
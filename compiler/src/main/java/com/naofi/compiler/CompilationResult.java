@@ -0,0 +1,96 @@
+package com.naofi.compiler;
+
+import com.naofi.compiler.parsing.ParsingStage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class CompilationResult {
+    private final byte[] classBytes;
+    private final List<String> errors = new ArrayList<>();
+    private final ParsingStage parsingStage;
+    private final Map<String, Integer> elidedChecks;
+    private final Map<String, Integer> removedInstructions;
+    private final Map<String, Integer> foldedExpressions;
+    private final Map<String, List<Integer>> hoistedExpressions;
+    private final Map<String, Long> passTimings;
+
+    CompilationResult(byte[] classBytes, List<String> errors, ParsingStage parsingStage) {
+        this(classBytes, errors, parsingStage, Collections.emptyMap(), Collections.emptyMap(),
+                Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    CompilationResult(byte[] classBytes, List<String> errors, ParsingStage parsingStage,
+                      Map<String, Integer> elidedChecks, Map<String, Integer> removedInstructions,
+                      Map<String, Integer> foldedExpressions, Map<String, List<Integer>> hoistedExpressions,
+                      Map<String, Long> passTimings) {
+        this.classBytes = classBytes;
+        this.errors.addAll(errors);
+        this.parsingStage = parsingStage;
+        this.elidedChecks = Collections.unmodifiableMap(elidedChecks);
+        this.removedInstructions = Collections.unmodifiableMap(removedInstructions);
+        this.foldedExpressions = Collections.unmodifiableMap(foldedExpressions);
+        this.hoistedExpressions = Collections.unmodifiableMap(hoistedExpressions);
+        this.passTimings = Collections.unmodifiableMap(passTimings);
+    }
+
+    /**
+     * Returns null if compilation failed
+     */
+    public byte[] getClassBytes() {
+        return classBytes;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public boolean isSuccessful() {
+        return classBytes != null;
+    }
+
+    /**
+     * Parser path that was taken, SLL means that input did not need full-context prediction
+     */
+    public ParsingStage getParsingStage() {
+        return parsingStage;
+    }
+
+    /**
+     * Number of overflow checks elided by range analysis per method name, empty unless arithmetic is checked
+     */
+    public Map<String, Integer> getElidedChecks() {
+        return elidedChecks;
+    }
+
+    /**
+     * Number of IR instructions removed by dead store elimination per method name, empty if it is disabled
+     */
+    public Map<String, Integer> getRemovedInstructions() {
+        return removedInstructions;
+    }
+
+    /**
+     * Number of expressions folded or simplified per method name, empty if constant folding is disabled
+     */
+    public Map<String, Integer> getFoldedExpressions() {
+        return foldedExpressions;
+    }
+
+    /**
+     * Number of expressions moved out of every while loop per method name, loops are in source order.
+     * Empty if loop invariant code motion is disabled
+     */
+    public Map<String, List<Integer>> getHoistedExpressions() {
+        return hoistedExpressions;
+    }
+
+    /**
+     * Nanoseconds spent in every analysis pass summed over methods, empty if compilation failed
+     */
+    public Map<String, Long> getPassTimings() {
+        return passTimings;
+    }
+}
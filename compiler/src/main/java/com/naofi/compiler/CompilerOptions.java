@@ -0,0 +1,181 @@
+package com.naofi.compiler;
+
+import com.naofi.compiler.parsing.Frontend;
+import com.naofi.compiler.parsing.ParsingMode;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class CompilerOptions {
+    private Frontend frontend = Frontend.ANTLR;
+    private ParsingMode parsingMode = ParsingMode.LL;
+    private ForkJoinPool pool;
+    private boolean rangeAnalysis = true;
+    private boolean speculativeInt;
+    private boolean checkedArithmetic;
+    private boolean deadStoreElimination = true;
+    private boolean constantFolding = true;
+    private boolean constantPropagation = true;
+    private boolean strengthReduction = true;
+    private boolean globalValueNumbering = true;
+    private boolean loopInvariantCodeMotion = true;
+    private int unswitchingBudget = 512;
+
+    public Frontend getFrontend() {
+        return frontend;
+    }
+
+    public CompilerOptions setFrontend(Frontend frontend) {
+        this.frontend = frontend;
+        return this;
+    }
+
+    /**
+     * Used only by {@link Frontend#ANTLR}
+     */
+    public ParsingMode getParsingMode() {
+        return parsingMode;
+    }
+
+    public CompilerOptions setParsingMode(ParsingMode parsingMode) {
+        this.parsingMode = parsingMode;
+        return this;
+    }
+
+    /**
+     * Pool methods of class are compiled on, null if they are compiled in calling thread
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public CompilerOptions setPool(ForkJoinPool pool) {
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * Whether proven value ranges are used to choose arithmetic width
+     */
+    public boolean isRangeAnalysis() {
+        return rangeAnalysis;
+    }
+
+    public CompilerOptions setRangeAnalysis(boolean rangeAnalysis) {
+        this.rangeAnalysis = rangeAnalysis;
+        return this;
+    }
+
+    /**
+     * Whether long locals are kept in int on fast path, which falls back to long code on overflow
+     */
+    public boolean isSpeculativeInt() {
+        return speculativeInt;
+    }
+
+    public CompilerOptions setSpeculativeInt(boolean speculativeInt) {
+        this.speculativeInt = speculativeInt;
+        return this;
+    }
+
+    /**
+     * Whether integral overflow raises ArithmeticException, checks are not emitted where range analysis proves them needless
+     */
+    public boolean isCheckedArithmetic() {
+        return checkedArithmetic;
+    }
+
+    public CompilerOptions setCheckedArithmetic(boolean checkedArithmetic) {
+        this.checkedArithmetic = checkedArithmetic;
+        return this;
+    }
+
+    /**
+     * Whether stores to variables which are never read afterwards are removed
+     */
+    public boolean isDeadStoreElimination() {
+        return deadStoreElimination;
+    }
+
+    public CompilerOptions setDeadStoreElimination(boolean deadStoreElimination) {
+        this.deadStoreElimination = deadStoreElimination;
+        return this;
+    }
+
+    /**
+     * Whether constant expressions are folded and algebraic identities are simplified
+     */
+    public boolean isConstantFolding() {
+        return constantFolding;
+    }
+
+    public CompilerOptions setConstantFolding(boolean constantFolding) {
+        this.constantFolding = constantFolding;
+        return this;
+    }
+
+    /**
+     * Whether constants are propagated through locals and branches on constant conditions are pruned
+     */
+    public boolean isConstantPropagation() {
+        return constantPropagation;
+    }
+
+    public CompilerOptions setConstantPropagation(boolean constantPropagation) {
+        this.constantPropagation = constantPropagation;
+        return this;
+    }
+
+    /**
+     * Whether multiplications and divisions by constants are emitted as shifts, adds and multiply-high,
+     * and multiplications of induction variables in loops are replaced by additions
+     */
+    public boolean isStrengthReduction() {
+        return strengthReduction;
+    }
+
+    public CompilerOptions setStrengthReduction(boolean strengthReduction) {
+        this.strengthReduction = strengthReduction;
+        return this;
+    }
+
+    /**
+     * Whether repeated computations are replaced by loads of locals holding their first results
+     * and loads of copied locals by loads of their sources
+     */
+    public boolean isGlobalValueNumbering() {
+        return globalValueNumbering;
+    }
+
+    public CompilerOptions setGlobalValueNumbering(boolean globalValueNumbering) {
+        this.globalValueNumbering = globalValueNumbering;
+        return this;
+    }
+
+    /**
+     * Whether computations which do not change in while loop are moved before it
+     */
+    public boolean isLoopInvariantCodeMotion() {
+        return loopInvariantCodeMotion;
+    }
+
+    public CompilerOptions setLoopInvariantCodeMotion(boolean loopInvariantCodeMotion) {
+        this.loopInvariantCodeMotion = loopInvariantCodeMotion;
+        return this;
+    }
+
+    /**
+     * Number of IR nodes copies of innermost while loops may add to every method when loops are unswitched
+     * on conditions which do not change in them, 0 disables unswitching
+     */
+    public int getUnswitchingBudget() {
+        return unswitchingBudget;
+    }
+
+    public CompilerOptions setUnswitchingBudget(int unswitchingBudget) {
+        if (unswitchingBudget < 0) {
+            throw new IllegalArgumentException("Negative unswitching budget: " + unswitchingBudget);
+        }
+        this.unswitchingBudget = unswitchingBudget;
+        return this;
+    }
+}
@@ -0,0 +1,997 @@
+package com.naofi.compiler;
+
+import com.naofi.compiler.binding.symbols.VariableType;
+import com.naofi.compiler.dfa.ValueRanges;
+import com.naofi.compiler.ir.MethodIr;
+import com.naofi.compiler.ir.Opcode;
+import com.naofi.compiler.ir.Postorder;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Composes code of one method into MethodNode, does not depend on other methods of class.
+ * Nested statements and operands are pending on explicit stacks, so nesting depth of code
+ * is not limited by thread stack
+ */
+public class ComposeMethodVisitor {
+    private static final int STEP_BITS = 3;
+    private static final int STEP_MASK = (1 << STEP_BITS) - 1;
+    // Pushes value of node
+    private static final int EXPRESSION = 0;
+    // Pushes value of node as int
+    private static final int INT_EXPRESSION = 1;
+    // Operation of node after its operands
+    private static final int FINISH = 2;
+    private static final int FINISH_INT = 3;
+    // Conversion of long value of node to int and back
+    private static final int TO_INT = 4;
+    private static final int TO_LONG = 5;
+
+    private final MethodIr method;
+    private final MethodNode methodNode;
+    private final MethodVisitor methodVisitor;
+    // Null if ranges are unknown, then every value may use full range of its type
+    private final ValueRanges ranges;
+    // LONG symbols which are proven to hold int values are stored as int
+    private final boolean[] intSymbols;
+    // Other LONG locals, stored as int in speculative fast path
+    private final boolean[] speculativeSymbols;
+    private boolean speculating;
+    // Handler which restarts body in long, only overflows of speculative operations jump to it
+    private Label fallback;
+    // Locals of method and copies of parameters kept for restarted body
+    private int localsSize;
+    // Int valued flags of nodes, computed once for each value of speculating
+    private final boolean[][] intValued = new boolean[2][];
+    // Integral arithmetic raises ArithmeticException on overflow instead of wrapping
+    private final boolean checked;
+    // Multiplications and divisions by constants are emitted without multiply and divide instructions
+    private final boolean strengthReduction;
+    private int elidedChecks;
+    // Steps of statements being emitted, top one is run next
+    private final Deque<Runnable> work = new ArrayDeque<>();
+    // Steps of expression being emitted, step is node shifted by STEP_BITS with its kind
+    private int[] steps = new int[16];
+    private int stepCount;
+
+    public ComposeMethodVisitor(MethodIr method) {
+        this(method, null, new CompilerOptions());
+    }
+
+    /**
+     * Only code generation options are used: speculative int, checked arithmetic and strength reduction
+     */
+    public ComposeMethodVisitor(MethodIr method, ValueRanges ranges, CompilerOptions options) {
+        this.method = method;
+        this.ranges = ranges;
+        this.checked = options.isCheckedArithmetic();
+        this.strengthReduction = options.isStrengthReduction();
+        boolean speculate = options.isSpeculativeInt();
+        intSymbols = new boolean[method.symbolCount()];
+        speculativeSymbols = new boolean[method.symbolCount()];
+        for (int symbol = method.getFormalTypes().size(); symbol < method.symbolCount(); symbol++) {
+            if (method.symbolType(symbol) == VariableType.LONG) {
+                intSymbols[symbol] = ranges != null && ranges.storesFit(symbol, VariableType.INT);
+                speculativeSymbols[symbol] = speculate && !intSymbols[symbol];
+            }
+        }
+        StringBuilder descriptor = new StringBuilder("(");
+        method.getFormalTypes().forEach(type -> descriptor.append(type.getDescriptor()));
+        descriptor.append(')').append(method.getReturnTypes().isEmpty() ?
+                VariableType.UNDEFINED.getDescriptor() :
+                method.getReturnTypes().get(0).getDescriptor());
+        methodNode = new MethodNode(
+                Opcodes.ACC_PUBLIC,
+                method.getName(),
+                descriptor.toString(),
+                null,
+                null);
+        methodVisitor = methodNode;
+        localsSize = method.localsSize();
+    }
+
+    /**
+     * Emits method code, can be called once
+     */
+    public MethodNode compose() {
+        methodVisitor.visitCode();
+        if (hasSpeculativeSymbols()) {
+            visitSpeculativeBody();
+        } else {
+            visitBody();
+        }
+        methodVisitor.visitMaxs(10, localsSize);
+        methodVisitor.visitEnd();
+
+        return methodNode;
+    }
+
+    /**
+     * Number of overflow checks which were not emitted because operation is proven not to overflow
+     */
+    public int getElidedChecks() {
+        return elidedChecks;
+    }
+
+    private void visitBody() {
+        visitStatement(method.getBody());
+        if (method.getReturnTypes().isEmpty()) {
+            methodVisitor.visitInsn(Opcodes.RETURN);
+        }
+    }
+
+    /**
+     * Body is emitted twice: fast path keeps speculative symbols in int and uses exact arithmetic,
+     * overflow of such operation runs body again with long symbols. Method has no side effects besides
+     * its locals, parameters which body stores are copied at entry and restored before the restart.
+     * Other exceptions, like division by zero or overflow of checked arithmetic, are not handled
+     */
+    private void visitSpeculativeBody() {
+        fallback = new Label();
+        int formals = method.getFormalTypes().size();
+        int[] copies = new int[formals];
+        Arrays.fill(copies, -1);
+        Postorder order = new Postorder(method);
+        int count = order.walk(method.getBody());
+        for (int i = 0; i < count; i++) {
+            int node = order.node(i);
+            if (method.opcode(node) == Opcode.STORE && method.symbol(node) < formals &&
+                    copies[method.symbol(node)] == -1) {
+                copies[method.symbol(node)] = localsSize;
+                localsSize += isWide(method.symbolType(method.symbol(node))) ? 2 : 1;
+            }
+        }
+        for (int parameter = 0; parameter < formals; parameter++) {
+            if (copies[parameter] != -1) {
+                loadLocal(method.symbolType(parameter), method.symbolSlot(parameter));
+                assignToLocal(method.symbolType(parameter), copies[parameter]);
+            }
+        }
+
+        speculating = true;
+        visitBody();
+
+        speculating = false;
+        methodVisitor.visitLabel(fallback);
+        methodVisitor.visitInsn(Opcodes.POP);
+        for (int parameter = 0; parameter < formals; parameter++) {
+            if (copies[parameter] != -1) {
+                loadLocal(method.symbolType(parameter), copies[parameter]);
+                assignToLocal(method.symbolType(parameter), method.symbolSlot(parameter));
+            }
+        }
+        visitBody();
+    }
+
+    /**
+     * Emits exact operation, its ArithmeticException goes to fallback while speculating
+     */
+    private void speculativeCall(String name, String descriptor) {
+        if (!speculating) {
+            methodVisitor.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", name, descriptor, false);
+            return;
+        }
+        Label start = new Label();
+        Label end = new Label();
+        methodVisitor.visitTryCatchBlock(start, end, fallback, "java/lang/ArithmeticException");
+        methodVisitor.visitLabel(start);
+        methodVisitor.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", name, descriptor, false);
+        methodVisitor.visitLabel(end);
+    }
+
+    private boolean hasSpeculativeSymbols() {
+        for (boolean speculative : speculativeSymbols) {
+            if (speculative) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isIntSymbol(int symbol) {
+        return intSymbols[symbol] || (speculating && speculativeSymbols[symbol]);
+    }
+
+    private void visitStatement(int root) {
+        statement(root);
+        while (!work.isEmpty()) {
+            work.pop().run();
+        }
+    }
+
+    /**
+     * Emits simple statement, nested statements of compound one are scheduled on work stack
+     */
+    private void statement(int node) {
+        switch (method.opcode(node)) {
+            case BLOCK:
+                for (int i = method.childCount(node) - 1; i >= 0; i--) {
+                    int statement = method.child(node, i);
+                    work.push(() -> statement(statement));
+                }
+                break;
+            case DEFINE:
+                break;
+            case STORE:
+                if (isIntSymbol(method.symbol(node))) {
+                    visitIntExpression(method.operand(node));
+                    methodVisitor.visitVarInsn(Opcodes.ISTORE, method.symbolSlot(method.symbol(node)));
+                    break;
+                }
+                visitExpression(method.operand(node));
+                assignToLocal(method.symbolType(method.symbol(node)), method.symbolSlot(method.symbol(node)));
+                break;
+            case EXPRESSION:
+                visitExpression(method.operand(node));
+                methodVisitor.visitInsn(isWide(method.type(method.operand(node))) ? Opcodes.POP2 : Opcodes.POP);
+                break;
+            case RETURN:
+                visitReturn(node);
+                break;
+            case IF:
+                Label endIfLabel = new Label();
+                work.push(() -> methodVisitor.visitLabel(endIfLabel));
+                visitIf(node, endIfLabel);
+                break;
+            case WHILE:
+                visitWhile(node);
+                break;
+            default:
+                throw new IllegalStateException("Expression is used as statement: " + method.toString(node));
+        }
+    }
+
+    private void assignToLocal(VariableType type, int varIndex) {
+        switch (type) {
+            case BOOL:
+            case BYTE:
+            case SHORT:
+            case INT:
+                methodVisitor.visitVarInsn(Opcodes.ISTORE, varIndex);
+                break;
+            case LONG:
+                methodVisitor.visitVarInsn(Opcodes.LSTORE, varIndex);
+                break;
+            case FLOAT:
+                methodVisitor.visitVarInsn(Opcodes.FSTORE, varIndex);
+                break;
+            case DOUBLE:
+                methodVisitor.visitVarInsn(Opcodes.DSTORE, varIndex);
+                break;
+            default:
+                throw new UnsupportedOperationException("Cannot assign to type: " + type);
+        }
+    }
+
+    /**
+     * Else-if chain jumps to the same end label
+     */
+    private void visitIf(int node, Label endIfLabel) {
+        int elseBranch = method.elseBranch(node);
+        Label falseLabel = (elseBranch == -1) ? endIfLabel : new Label();
+        visitExpression(method.condition(node));
+        methodVisitor.visitJumpInsn(Opcodes.IFEQ, falseLabel);
+        if (elseBranch != -1) {
+            work.push(() -> {
+                methodVisitor.visitJumpInsn(Opcodes.GOTO, endIfLabel);
+                methodVisitor.visitLabel(falseLabel);
+                if (method.opcode(elseBranch) == Opcode.IF) {
+                    visitIf(elseBranch, endIfLabel);
+                } else {
+                    statement(elseBranch);
+                }
+            });
+        }
+        statement(method.body(node));
+    }
+
+    private void visitWhile(int node) {
+        Label whileStart = new Label();
+        Label whileEnd = new Label();
+
+        methodVisitor.visitLabel(whileStart);
+        visitExpression(method.condition(node));
+        methodVisitor.visitJumpInsn(Opcodes.IFEQ, whileEnd);
+        work.push(() -> {
+            methodVisitor.visitJumpInsn(Opcodes.GOTO, whileStart);
+            methodVisitor.visitLabel(whileEnd);
+        });
+        statement(method.body(node));
+    }
+
+    private void visitReturn(int node) {
+        int count = method.childCount(node);
+        if (count == 0) {
+            methodVisitor.visitInsn(Opcodes.RETURN);
+        } else if (count == 1) {
+            VariableType type = method.type(method.child(node, 0));
+            visitExpression(method.child(node, 0));
+            switch (type) {
+                case BOOL:
+                case BYTE:
+                case SHORT:
+                case INT:
+                    methodVisitor.visitInsn(Opcodes.IRETURN);
+                    break;
+                case LONG:
+                    methodVisitor.visitInsn(Opcodes.LRETURN);
+                    break;
+                case FLOAT:
+                    methodVisitor.visitInsn(Opcodes.FRETURN);
+                    break;
+                case DOUBLE:
+                    methodVisitor.visitInsn(Opcodes.DRETURN);
+                    break;
+                default:
+                    throw new UnsupportedOperationException(
+                            String.format("Unsupported return type '%s'", type));
+            }
+        } else {
+            throw new UnsupportedOperationException(
+                    String.format("Returning multiple values is not supported yet: '%s'", method.toString(node)));
+        }
+    }
+
+    /**
+     * Pushes value of expression to stack
+     */
+    private void visitExpression(int node) {
+        emit(EXPRESSION, node);
+    }
+
+    /**
+     * Pushes value of integral node as int, value must fit int unless speculating
+     */
+    private void visitIntExpression(int node) {
+        emit(INT_EXPRESSION, node);
+    }
+
+    /**
+     * Runs steps until the one for root is done. Operands are scheduled before step finishing their node
+     */
+    private void emit(int kind, int root) {
+        push(kind, root);
+        while (stepCount > 0) {
+            int step = steps[--stepCount];
+            int node = step >>> STEP_BITS;
+            switch (step & STEP_MASK) {
+                case EXPRESSION:
+                    expression(node);
+                    break;
+                case INT_EXPRESSION:
+                    intExpression(node);
+                    break;
+                case FINISH:
+                    finish(node);
+                    break;
+                case FINISH_INT:
+                    finishInt(node);
+                    break;
+                case TO_INT:
+                    if (fitsInt(node)) {
+                        methodVisitor.visitInsn(Opcodes.L2I);
+                    } else {
+                        speculativeCall("toIntExact", "(J)I");
+                    }
+                    break;
+                default:
+                    methodVisitor.visitInsn(Opcodes.I2L);
+            }
+        }
+    }
+
+    private void push(int kind, int node) {
+        if (stepCount == steps.length) {
+            steps = Arrays.copyOf(steps, stepCount * 2);
+        }
+        steps[stepCount++] = (node << STEP_BITS) | kind;
+    }
+
+    private void expression(int node) {
+        VariableType type = method.type(node);
+        Opcode opcode = method.opcode(node);
+        if (type == VariableType.LONG && opcode != Opcode.CONST && opcode != Opcode.CONVERT && isIntValued(node)) {
+            push(TO_LONG, node);
+            push(INT_EXPRESSION, node);
+            return;
+        }
+        switch (opcode) {
+            case CONST:
+                visitConstant(type, method.value(node));
+                break;
+            case LOAD:
+                if (isIntSymbol(method.symbol(node))) {
+                    methodVisitor.visitVarInsn(Opcodes.ILOAD, method.symbolSlot(method.symbol(node)));
+                    methodVisitor.visitInsn(Opcodes.I2L);
+                    break;
+                }
+                loadLocal(type, method.symbolSlot(method.symbol(node)));
+                break;
+            case CONVERT:
+                push(FINISH, node);
+                push(EXPRESSION, method.operand(node));
+                break;
+            case ADD:
+            case SUB:
+            case MUL:
+            case DIV:
+                push(FINISH, node);
+                boolean exact = checked && (type == VariableType.INT || type == VariableType.LONG) &&
+                        (ranges == null || ranges.mayWrap(node));
+                if (!isReduced(node, type, exact)) {
+                    push(EXPRESSION, method.right(node));
+                }
+                push(EXPRESSION, method.left(node));
+                break;
+            default:
+                if (!opcode.isComparison()) {
+                    throw new IllegalStateException("Statement is used as expression: " + method.toString(node));
+                }
+                int operands = isIntComparison(node) ? INT_EXPRESSION : EXPRESSION;
+                push(FINISH, node);
+                push(operands, method.right(node));
+                push(operands, method.left(node));
+        }
+    }
+
+    /**
+     * Emits operation of node, its operands are already on stack
+     */
+    private void finish(int node) {
+        VariableType type = method.type(node);
+        Opcode opcode = method.opcode(node);
+        if (opcode == Opcode.CONVERT) {
+            convert(method.type(method.operand(node)), type);
+        } else if (opcode.isComparison()) {
+            visitComparison(node);
+        } else if (checked && isIntegral(type)) {
+            checkedArithmetic(node);
+        } else {
+            arithmetic(node, type);
+            narrow(node);
+        }
+    }
+
+    /**
+     * Checks if value of node can be computed without long arithmetic,
+     * it is either proven to fit int or checked by exact arithmetic while speculating
+     */
+    private boolean isIntValued(int node) {
+        int mode = speculating ? 1 : 0;
+        if (intValued[mode] == null) {
+            intValued[mode] = computeIntValued();
+        }
+        return intValued[mode][node];
+    }
+
+    /**
+     * Operands come first in postorder, so their flags are ready when node is computed
+     */
+    private boolean[] computeIntValued() {
+        boolean[] result = new boolean[method.size()];
+        Postorder order = new Postorder(method);
+        int count = order.walk(method.getBody());
+        for (int i = 0; i < count; i++) {
+            int node = order.node(i);
+            if (!method.opcode(node).isExpression() || (!speculating && !fitsInt(node))) {
+                continue;
+            }
+            switch (method.opcode(node)) {
+                case CONST:
+                    result[node] = VariableType.INT.fits(method.value(node));
+                    break;
+                case LOAD:
+                    result[node] = isIntLike(method.type(node)) || isIntSymbol(method.symbol(node));
+                    break;
+                case CONVERT:
+                    result[node] = isIntLike(method.type(method.operand(node)));
+                    break;
+                case ADD:
+                case SUB:
+                case MUL:
+                    result[node] = method.type(node) == VariableType.LONG &&
+                            result[method.left(node)] && result[method.right(node)];
+                    break;
+                case DIV:
+                    // There is no exact division in Math, it overflows only for MIN_VALUE / -1
+                    result[node] = method.type(node) == VariableType.LONG && fitsInt(node) &&
+                            result[method.left(node)] && result[method.right(node)];
+                    break;
+                default:
+            }
+        }
+        return result;
+    }
+
+    private boolean fitsInt(int node) {
+        return ranges != null && ranges.fits(node, VariableType.INT);
+    }
+
+    private void intExpression(int node) {
+        if (!isIntValued(node)) {
+            if (method.type(node) == VariableType.LONG) {
+                push(TO_INT, node);
+            }
+            push(EXPRESSION, node);
+            return;
+        }
+        switch (method.opcode(node)) {
+            case CONST:
+                visitConstant(VariableType.INT, method.value(node));
+                break;
+            case LOAD:
+                methodVisitor.visitVarInsn(Opcodes.ILOAD, method.symbolSlot(method.symbol(node)));
+                break;
+            case CONVERT:
+                push(EXPRESSION, method.operand(node));
+                break;
+            default:
+                push(FINISH_INT, node);
+                if (!isReduced(node, VariableType.INT, !fitsInt(node))) {
+                    push(INT_EXPRESSION, method.right(node));
+                }
+                push(INT_EXPRESSION, method.left(node));
+        }
+    }
+
+    private void finishInt(int node) {
+        if (fitsInt(node)) {
+            arithmetic(node, VariableType.INT);
+            countElidedCheck();
+        } else {
+            speculativeCall(exactName(method.opcode(node)), "(II)I");
+        }
+    }
+
+    /**
+     * Emits arithmetic which throws ArithmeticException on overflow, unless node is proven not to overflow
+     */
+    private void checkedArithmetic(int node) {
+        Opcode opcode = method.opcode(node);
+        VariableType type = method.type(node);
+        if (ranges != null && !ranges.mayWrap(node)) {
+            arithmetic(node, type);
+            countElidedCheck();
+            return;
+        }
+        switch (type) {
+            case BYTE:
+            case SHORT:
+                // Operands are promoted to int, where result is exact, it must fit declared type
+                arithmetic(node, type);
+                Label fits = new Label();
+                methodVisitor.visitInsn(Opcodes.DUP);
+                methodVisitor.visitInsn(Opcodes.DUP);
+                methodVisitor.visitInsn(type == VariableType.BYTE ? Opcodes.I2B : Opcodes.I2S);
+                methodVisitor.visitJumpInsn(Opcodes.IF_ICMPEQ, fits);
+                throwArithmeticException(type.name().toLowerCase() + " overflow");
+                methodVisitor.visitLabel(fits);
+                break;
+            case INT:
+                if (isReduced(node, type, true)) {
+                    arithmetic(node, type);
+                } else if (opcode == Opcode.DIV) {
+                    checkedDivision(type);
+                } else {
+                    exactArithmetic(opcode, "(II)I");
+                }
+                break;
+            default:
+                if (isReduced(node, type, true)) {
+                    arithmetic(node, type);
+                } else if (opcode == Opcode.DIV) {
+                    checkedDivision(type);
+                } else {
+                    exactArithmetic(opcode, "(JJ)J");
+                }
+        }
+    }
+
+    /**
+     * Division overflows only for MIN_VALUE / -1, dividing by -1 is done by exact negation
+     */
+    private void checkedDivision(VariableType type) {
+        Label divide = new Label();
+        Label end = new Label();
+        if (type == VariableType.LONG) {
+            methodVisitor.visitInsn(Opcodes.DUP2);
+            methodVisitor.visitLdcInsn(-1L);
+            methodVisitor.visitInsn(Opcodes.LCMP);
+            methodVisitor.visitJumpInsn(Opcodes.IFNE, divide);
+            methodVisitor.visitInsn(Opcodes.POP2);
+            methodVisitor.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", "negateExact", "(J)J", false);
+        } else {
+            methodVisitor.visitInsn(Opcodes.DUP);
+            methodVisitor.visitInsn(Opcodes.ICONST_M1);
+            methodVisitor.visitJumpInsn(Opcodes.IF_ICMPNE, divide);
+            methodVisitor.visitInsn(Opcodes.POP);
+            methodVisitor.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", "negateExact", "(I)I", false);
+        }
+        methodVisitor.visitJumpInsn(Opcodes.GOTO, end);
+        methodVisitor.visitLabel(divide);
+        arithmetic(Opcode.DIV, type);
+        methodVisitor.visitLabel(end);
+    }
+
+    private void throwArithmeticException(String message) {
+        methodVisitor.visitTypeInsn(Opcodes.NEW, "java/lang/ArithmeticException");
+        methodVisitor.visitInsn(Opcodes.DUP);
+        methodVisitor.visitLdcInsn(message);
+        methodVisitor.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/ArithmeticException",
+                "<init>", "(Ljava/lang/String;)V", false);
+        methodVisitor.visitInsn(Opcodes.ATHROW);
+    }
+
+    /**
+     * Fast path of speculative body is not counted, its operations are also checked in fallback
+     */
+    private void countElidedCheck() {
+        if (checked && !speculating) {
+            elidedChecks++;
+        }
+    }
+
+    private void exactArithmetic(Opcode opcode, String descriptor) {
+        methodVisitor.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Math", exactName(opcode), descriptor, false);
+    }
+
+    private static String exactName(Opcode opcode) {
+        switch (opcode) {
+            case ADD:
+                return "addExact";
+            case SUB:
+                return "subtractExact";
+            case MUL:
+                return "multiplyExact";
+            default:
+                throw new UnsupportedOperationException("No exact operation for: " + opcode);
+        }
+    }
+
+    /**
+     * Wraps result of byte and short arithmetic unless it is proven to fit
+     */
+    private void narrow(int node) {
+        if (ranges != null && !ranges.mayWrap(node)) {
+            return;
+        }
+        switch (method.type(node)) {
+            case BYTE:
+                methodVisitor.visitInsn(Opcodes.I2B);
+                break;
+            case SHORT:
+                methodVisitor.visitInsn(Opcodes.I2S);
+                break;
+            default:
+        }
+    }
+
+    private static boolean isIntegral(VariableType type) {
+        return type == VariableType.BYTE || type == VariableType.SHORT ||
+                type == VariableType.INT || type == VariableType.LONG;
+    }
+
+    private static boolean isIntLike(VariableType type) {
+        return type == VariableType.BOOL || type == VariableType.BYTE ||
+                type == VariableType.SHORT || type == VariableType.INT;
+    }
+
+    private void loadLocal(VariableType type, int varIndex) {
+        switch (type) {
+            case BOOL:
+            case BYTE:
+            case SHORT:
+            case INT:
+                methodVisitor.visitVarInsn(Opcodes.ILOAD, varIndex);
+                break;
+            case LONG:
+                methodVisitor.visitVarInsn(Opcodes.LLOAD, varIndex);
+                break;
+            case FLOAT:
+                methodVisitor.visitVarInsn(Opcodes.FLOAD, varIndex);
+                break;
+            case DOUBLE:
+                methodVisitor.visitVarInsn(Opcodes.DLOAD, varIndex);
+                break;
+            default:
+                throw new UnsupportedOperationException(
+                        "Cannot load variable of type '" + type + "'");
+        }
+    }
+
+    private void convert(VariableType from, VariableType to) {
+        if (!isWide(from) && from != VariableType.FLOAT) {
+            switch (to) {
+                case LONG:
+                    methodVisitor.visitInsn(Opcodes.I2L);
+                    break;
+                case FLOAT:
+                    methodVisitor.visitInsn(Opcodes.I2F);
+                    break;
+                case DOUBLE:
+                    methodVisitor.visitInsn(Opcodes.I2D);
+                    break;
+                default:
+                    // int types share representation on stack
+            }
+        } else if (from == VariableType.LONG) {
+            methodVisitor.visitInsn(to == VariableType.FLOAT ? Opcodes.L2F : Opcodes.L2D);
+        } else if (from == VariableType.FLOAT) {
+            methodVisitor.visitInsn(Opcodes.F2D);
+        } else {
+            throw new UnsupportedOperationException(String.format("Cannot convert '%s' to '%s'", from, to));
+        }
+    }
+
+    /**
+     * Checks if node multiplies or divides by constant which is not pushed, since operation is emitted
+     * by shifts and adds or by multiply-high. Multiplication which has to throw on overflow is not reduced,
+     * division by constant other than -1 never overflows
+     *
+     * @param type type node is computed in
+     * @param exact whether multiplication has to throw on overflow
+     */
+    private boolean isReduced(int node, VariableType type, boolean exact) {
+        Opcode opcode = method.opcode(node);
+        if (!strengthReduction || !isIntegral(type) || method.opcode(method.right(node)) != Opcode.CONST) {
+            return false;
+        }
+        long value = method.value(method.right(node));
+        if (opcode == Opcode.MUL) {
+            return !exact && value > 1 && isReducedFactor(value >> Long.numberOfTrailingZeros(value));
+        } else if (opcode != Opcode.DIV || value == Long.MIN_VALUE || Math.abs(value) < 2) {
+            return false;
+        }
+        long divisor = Math.abs(value);
+        return Long.bitCount(divisor) == 1 || (type != VariableType.LONG && isMagicExact(divisor));
+    }
+
+    /**
+     * Odd factors which are made by one shift and one add or subtract
+     */
+    private static boolean isReducedFactor(long factor) {
+        return factor == 1 || factor == 3 || factor == 5 || factor == 7 || factor == 9;
+    }
+
+    /**
+     * Multiplier is correct for every int dividend of magnitude below 2^31 by Granlund and Montgomery,
+     * MIN_VALUE is checked
+     */
+    private static boolean isMagicExact(long divisor) {
+        return divideByMagic(Integer.MIN_VALUE, divisor) == Integer.MIN_VALUE / divisor;
+    }
+
+    private static long divideByMagic(int dividend, long divisor) {
+        int shift = magicShift(divisor);
+        return (int) ((dividend * magic(divisor)) >> shift) - (dividend >> 31);
+    }
+
+    private static int magicShift(long divisor) {
+        return 31 + 64 - Long.numberOfLeadingZeros(divisor - 1);
+    }
+
+    /**
+     * Rounded up 2^shift / divisor, below 2^32, so product with int fits long
+     */
+    private static long magic(long divisor) {
+        return (1L << magicShift(divisor)) / divisor + 1;
+    }
+
+    /**
+     * Emits operation of node, constant operand of reduced one is not on stack
+     */
+    private void arithmetic(int node, VariableType type) {
+        Opcode opcode = method.opcode(node);
+        if (!isReduced(node, type, false)) {
+            arithmetic(opcode, type);
+        } else if (opcode == Opcode.MUL) {
+            multiply(type, method.value(method.right(node)));
+        } else {
+            divide(type, method.value(method.right(node)));
+        }
+    }
+
+    /**
+     * Factor is odd factor times 2^shift, x * 3, 5 and 9 are x + (x << n), x * 7 is -(x - (x << 3))
+     */
+    private void multiply(VariableType type, long value) {
+        boolean wide = type == VariableType.LONG;
+        int shift = Long.numberOfTrailingZeros(value);
+        long factor = value >> shift;
+        if (factor != 1) {
+            methodVisitor.visitInsn(wide ? Opcodes.DUP2 : Opcodes.DUP);
+            shift(Opcodes.ISHL, wide, (factor == 7) ? 3 : 63 - Long.numberOfLeadingZeros(factor - 1));
+            if (factor == 7) {
+                methodVisitor.visitInsn(wide ? Opcodes.LSUB : Opcodes.ISUB);
+                methodVisitor.visitInsn(wide ? Opcodes.LNEG : Opcodes.INEG);
+            } else {
+                methodVisitor.visitInsn(wide ? Opcodes.LADD : Opcodes.IADD);
+            }
+        }
+        if (shift != 0) {
+            shift(Opcodes.ISHL, wide, shift);
+        }
+    }
+
+    /**
+     * Division rounds toward zero, so negative dividend is biased by divisor - 1 before arithmetic shift,
+     * division by other constants multiplies by magic number in long and keeps high bits
+     */
+    private void divide(VariableType type, long value) {
+        boolean wide = type == VariableType.LONG;
+        long divisor = Math.abs(value);
+        if (Long.bitCount(divisor) == 1) {
+            int bits = wide ? 64 : 32;
+            int shift = Long.numberOfTrailingZeros(divisor);
+            methodVisitor.visitInsn(wide ? Opcodes.DUP2 : Opcodes.DUP);
+            shift(Opcodes.ISHR, wide, bits - 1);
+            shift(Opcodes.IUSHR, wide, bits - shift);
+            methodVisitor.visitInsn(wide ? Opcodes.LADD : Opcodes.IADD);
+            shift(Opcodes.ISHR, wide, shift);
+        } else {
+            methodVisitor.visitInsn(Opcodes.DUP);
+            methodVisitor.visitInsn(Opcodes.I2L);
+            visitConstant(VariableType.LONG, magic(divisor));
+            methodVisitor.visitInsn(Opcodes.LMUL);
+            visitConstant(VariableType.INT, magicShift(divisor));
+            methodVisitor.visitInsn(Opcodes.LSHR);
+            methodVisitor.visitInsn(Opcodes.L2I);
+            // Quotient of negative dividend is rounded down, sign bit adds one back
+            methodVisitor.visitInsn(Opcodes.SWAP);
+            shift(Opcodes.ISHR, false, 31);
+            methodVisitor.visitInsn(Opcodes.ISUB);
+        }
+        if (value < 0) {
+            methodVisitor.visitInsn(wide ? Opcodes.LNEG : Opcodes.INEG);
+        }
+    }
+
+    private void shift(int opcode, boolean wide, int distance) {
+        visitConstant(VariableType.INT, distance);
+        methodVisitor.visitInsn(wide ? opcode + 1 : opcode);
+    }
+
+    private void arithmetic(Opcode opcode, VariableType type) {
+        int offset;
+        switch (type) {
+            case BYTE:
+            case SHORT:
+            case INT:
+                offset = 0;
+                break;
+            case LONG:
+                offset = 1;
+                break;
+            case FLOAT:
+                offset = 2;
+                break;
+            case DOUBLE:
+                offset = 3;
+                break;
+            default:
+                throw new UnsupportedOperationException(
+                        String.format("Operation '%s' is not supported for type '%s'", opcode, type));
+        }
+        switch (opcode) {
+            case ADD:
+                methodVisitor.visitInsn(Opcodes.IADD + offset);
+                break;
+            case SUB:
+                methodVisitor.visitInsn(Opcodes.ISUB + offset);
+                break;
+            case MUL:
+                methodVisitor.visitInsn(Opcodes.IMUL + offset);
+                break;
+            default:
+                methodVisitor.visitInsn(Opcodes.IDIV + offset);
+        }
+    }
+
+    /**
+     * Long operands which are both int valued are compared as int
+     */
+    private boolean isIntComparison(int node) {
+        return method.type(method.left(node)) == VariableType.LONG &&
+                isIntValued(method.left(node)) && isIntValued(method.right(node));
+    }
+
+    /**
+     * Pushes 1 if comparison of operands on stack is true and 0 otherwise
+     */
+    private void visitComparison(int node) {
+        VariableType type = isIntComparison(node) ? VariableType.INT : method.type(method.left(node));
+
+        Opcode opcode = method.opcode(node);
+        Label trueLabel = new Label();
+        Label endLabel = new Label();
+        switch (type) {
+            case LONG:
+                methodVisitor.visitInsn(Opcodes.LCMP);
+                methodVisitor.visitJumpInsn(compareToZero(opcode), trueLabel);
+                break;
+            case FLOAT:
+                // NaN makes any comparison except != false
+                methodVisitor.visitInsn(opcode == Opcode.LT || opcode == Opcode.LE ? Opcodes.FCMPG : Opcodes.FCMPL);
+                methodVisitor.visitJumpInsn(compareToZero(opcode), trueLabel);
+                break;
+            case DOUBLE:
+                methodVisitor.visitInsn(opcode == Opcode.LT || opcode == Opcode.LE ? Opcodes.DCMPG : Opcodes.DCMPL);
+                methodVisitor.visitJumpInsn(compareToZero(opcode), trueLabel);
+                break;
+            default:
+                methodVisitor.visitJumpInsn(
+                        compareToZero(opcode) - Opcodes.IFEQ + Opcodes.IF_ICMPEQ, trueLabel);
+        }
+        methodVisitor.visitInsn(Opcodes.ICONST_0);
+        methodVisitor.visitJumpInsn(Opcodes.GOTO, endLabel);
+        methodVisitor.visitLabel(trueLabel);
+        methodVisitor.visitInsn(Opcodes.ICONST_1);
+        methodVisitor.visitLabel(endLabel);
+    }
+
+    private int compareToZero(Opcode opcode) {
+        switch (opcode) {
+            case EQ:
+                return Opcodes.IFEQ;
+            case NE:
+                return Opcodes.IFNE;
+            case LT:
+                return Opcodes.IFLT;
+            case LE:
+                return Opcodes.IFLE;
+            case GT:
+                return Opcodes.IFGT;
+            case GE:
+                return Opcodes.IFGE;
+            default:
+                throw new UnsupportedOperationException("Unsupported operator: " + opcode);
+        }
+    }
+
+    private void visitConstant(VariableType type, long value) {
+        switch (type) {
+            case LONG:
+                if (value == 0) {
+                    methodVisitor.visitInsn(Opcodes.LCONST_0);
+                } else if (value == 1) {
+                    methodVisitor.visitInsn(Opcodes.LCONST_1);
+                } else {
+                    methodVisitor.visitLdcInsn(value);
+                }
+                break;
+            case FLOAT:
+                methodVisitor.visitLdcInsn((float) value);
+                break;
+            case DOUBLE:
+                methodVisitor.visitLdcInsn((double) value);
+                break;
+            case BOOL:
+            case BYTE:
+            case SHORT:
+            case INT:
+                if (value >= -1 && value <= 5) {
+                    methodVisitor.visitInsn(Opcodes.ICONST_0 + (int) value);
+                } else if (VariableType.BYTE.fits(value)) {
+                    methodVisitor.visitIntInsn(Opcodes.BIPUSH, (int) value);
+                } else if (VariableType.SHORT.fits(value)) {
+                    methodVisitor.visitIntInsn(Opcodes.SIPUSH, (int) value);
+                } else {
+                    methodVisitor.visitLdcInsn((int) value);
+                }
+                break;
+            default:
+                throw new UnsupportedOperationException(
+                        String.format("Type '%s' is not supported by bytecode generator", type));
+        }
+    }
+
+    private static boolean isWide(VariableType type) {
+        return type == VariableType.LONG || type == VariableType.DOUBLE;
+    }
+}
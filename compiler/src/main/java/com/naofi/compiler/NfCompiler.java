@@ -1,39 +1,100 @@
 package com.naofi.compiler;
 
-import com.naofi.antlr.NfLangLexer;
 import com.naofi.antlr.NfLangParser;
-import com.naofi.compiler.binding.Binder;
-import org.antlr.v4.runtime.*;
+import com.naofi.compiler.parsing.*;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.tree.ParseTree;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Objects;
 import java.util.function.Function;
 
 public class NfCompiler {
     public static byte[] compile(String code) {
-        ParseTree tree = parse(code, NfLangParser::classDef);
-        Binder binder = new Binder();
-        binder.visit(tree);
-        if (binder.getErrors().size() != 0) {
-            binder.getErrors().forEach(System.err::println);
-            return null;
+        CompilationResult result = compile(code, new CompilerOptions());
+        result.getErrors().forEach(System.err::println);
+        return result.getClassBytes();
+    }
+
+    public static CompilationResult compile(String code, CompilerOptions options) {
+        return compile((CharSequence) code, options);
+    }
+
+    /**
+     * Compiles ASCII/Latin-1 source file, file is memory mapped and is not loaded into String
+     */
+    public static CompilationResult compile(Path source, CompilerOptions options) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return compile(new ByteBufferCharStream(buffer, source.toString()), options);
+        }
+    }
+
+    /**
+     * Compiles ASCII/Latin-1 source between buffer position and limit
+     */
+    public static CompilationResult compile(ByteBuffer source, CompilerOptions options) {
+        return compile(new ByteBufferCharStream(source, null), options);
+    }
+
+    private static CompilationResult compile(CharSequence code, CompilerOptions options) {
+        ParseResult parsed;
+        switch (options.getFrontend()) {
+            case ANTLR:
+                CharStream chars = (code instanceof CharStream) ?
+                        (CharStream) code :
+                        CharStreams.fromString(code.toString());
+                parsed = parse(chars, NfLangParser::classDef, options.getParsingMode());
+                break;
+            case HAND_WRITTEN:
+                try {
+                    parsed = new ParseResult(parseHandWritten(code, NfDescentParser::classDef),
+                            ParsingStage.HAND_WRITTEN);
+                } catch (SyntaxErrorException e) {
+                    return new CompilationResult(null, Collections.singletonList(e.getMessage()),
+                            ParsingStage.HAND_WRITTEN);
+                }
+                break;
+            default:
+                throw new UnsupportedOperationException("Unknown frontend: " + options.getFrontend());
         }
-        ComposeBytecodeVisitor cbv = new ComposeBytecodeVisitor();
-        cbv.visit(tree);
-        return cbv.getClassBytes();
+        NfLangParser.ClassDefContext clazz = (NfLangParser.ClassDefContext) parsed.getTree().getChild(0);
+        return ClassCompiler.compile(clazz, options, parsed.getStage());
     }
 
     public static ParseTree parse(String code, Function<NfLangParser, ParseTree> parseFunction) {
-        CharStream chars = CharStreams.fromString(code);
-        NfLangLexer lexer = new NfLangLexer(chars);
-        TokenStream tokens = new CommonTokenStream(lexer);
-        NfLangParser parser = new NfLangParser(tokens);
-        ParseTree tree = parseFunction.apply(parser);
-        // To avoid NullPointerException while replacing
+        return parse(code, parseFunction, ParsingMode.LL).getTree();
+    }
+
+    public static ParseResult parse(String code, Function<NfLangParser, ParseTree> parseFunction, ParsingMode mode) {
+        return parse(CharStreams.fromString(code), parseFunction, mode);
+    }
+
+    public static ParseResult parse(CharStream chars, Function<NfLangParser, ParseTree> parseFunction, ParsingMode mode) {
+        ParseResult parsed = ParserPool.shared().parse(chars, parseFunction, mode);
+        return new ParseResult(wrapRoot(parsed.getTree()), parsed.getStage());
+    }
+
+    /**
+     * Parses code with hand written frontend, tree is the same as the one built by generated parser
+     * @throws SyntaxErrorException on first syntax error
+     */
+    public static ParseTree parseHandWritten(CharSequence code, Function<NfDescentParser, ParseTree> parseFunction) {
+        return wrapRoot(parseFunction.apply(NfDescentParser.of(code)));
+    }
+
+    private static ParseTree wrapRoot(ParseTree tree) {
+        // Root above rule context, the same for both frontends
         ParserRuleContext rootContext = new ParserRuleContext();
         rootContext.children = new ArrayList<>();
         rootContext.children.add(tree);
@@ -3,250 +3,439 @@ package com.naofi.compiler.binding;
 import com.naofi.antlr.NfLangBaseVisitor;
 import com.naofi.antlr.NfLangParser;
 import com.naofi.compiler.binding.symbols.*;
-import org.antlr.v4.runtime.ParserRuleContext;
+import com.naofi.compiler.ir.ClassIr;
+import com.naofi.compiler.ir.IrBuilder;
+import com.naofi.compiler.ir.MethodIr;
+import com.naofi.compiler.ir.Opcode;
 import org.antlr.v4.runtime.tree.ParseTree;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
 import java.util.stream.Collectors;
 
 /**
- * Replace terminals and literals with typed, returns type of bound code
+ * Checks types and emits typed IR of bound methods, returns type of bound code.
+ * Parse tree is not modified and is not referenced by IR
  */
 public class Binder extends NfLangBaseVisitor<VariableType> {
     private final List<String> errors = new ArrayList<>();
-    private final VariableStack stack = new VariableStack();
+    private final SymbolTable symbols = new SymbolTable();
     private final List<VariableType> methodReturnTypes = new ArrayList<>();
+    private final List<MethodIr> methods = new ArrayList<>();
+    private final IrEmitter emitter = new IrEmitter();
+    private IrBuilder builder;
+    private ClassIr classIr;
 
     public Binder() {
-        stack.pushScope();
+        symbols.pushScope();
     }
 
     @Override
     public VariableType visitClassDef(NfLangParser.ClassDefContext ctx) {
-        TypedClassContext clazz = new TypedClassContext(ctx);
-        replace(ctx, clazz);
-        return ctx.classMember().stream()
+        VariableType result = ctx.classMember().stream()
                 .map(this::visit)
                 .reduce(this::aggregateResult)
                 .orElse(VariableType.UNDEFINED);
+        classIr = new ClassIr(ctx.IDENTIFIER().getText(), methods);
+
+        return result;
+    }
+
+    @Override
+    public VariableType visitField(NfLangParser.FieldContext ctx) {
+        errors.add(String.format("Fields are not supported yet: '%s'", ctx.variable().getText()));
+        return VariableType.UNDEFINED;
     }
 
     @Override
     public VariableType visitMethod(NfLangParser.MethodContext methodContext) {
-        stack.pushScope();
+        symbols.pushScope();
+        builder = new IrBuilder();
         List<VariableType> formalTypes = methodContext.formalParam().stream()
                 .map(this::visitFormalParam).collect(Collectors.toList());
-        methodContext.block().statement().forEach(this::visit);
-
-        TypedMethodContext typed = new TypedMethodContext(methodContext, formalTypes, methodReturnTypes);
-        replace(methodContext, typed);
+        int body = builder.block(emitter.statements(methodContext.block()));
+        methods.add(builder.build(methodContext.IDENTIFIER().getText(), formalTypes, methodReturnTypes, body));
 
         VariableType result = methodReturnTypes.stream()
                 .reduce(this::aggregateResult).orElse(VariableType.UNDEFINED);
 
-        stack.popScope();
+        symbols.popScope();
         methodReturnTypes.clear();
+        builder = null;
 
         return result;
     }
 
     @Override
     public VariableType visitFormalParam(NfLangParser.FormalParamContext ctx) {
-        String typeName = ctx.type().getText();
-        NfLangParser.VariableContext variableContext = ctx.variable();
-        VariableType type = VariableType.of(typeName);
-        defineNewVar(variableContext, type);
+        VariableType type = VariableType.of(ctx.type().getText());
+        defineNewVar(ctx.variable(), type);
 
-        return visitVariable(variableContext);
+        return type;
     }
 
-    @Override
-    public VariableType visitIfElseStmt(NfLangParser.IfElseStmtContext ctx) {
-        visitBoolExpression(ctx.boolExpression());
-        visitBlock(ctx.block());
-        visit(ctx.elseInner());
+    public List<String> getErrors() {
+        return errors;
+    }
 
-        return VariableType.UNDEFINED;
+    /**
+     * IR of class, null if class definition was not visited
+     */
+    public ClassIr getClassIr() {
+        return classIr;
     }
 
+    /**
+     * IR of visited methods in order of visiting
+     */
+    public List<MethodIr> getMethods() {
+        return new ArrayList<>(methods);
+    }
 
+    /**
+     * Emits statements and expressions of current method. Nested statements are pending on work stack
+     * and push their node to values when done, parenthesized expressions are kept on their own stack,
+     * so nesting depth is not limited by thread stack
+     */
+    private class IrEmitter extends NfLangBaseVisitor<Void> {
+        // Nodes of emitted statements which are not taken by enclosing statement yet
+        private final Deque<Integer> values = new ArrayDeque<>();
+        // Steps of statements being emitted, top one is run next
+        private final Deque<Runnable> work = new ArrayDeque<>();
+
+        List<Integer> statements(NfLangParser.BlockContext ctx) {
+            int count = schedule(ctx.statement());
+            while (!work.isEmpty()) {
+                work.pop().run();
+            }
+            return popValues(count);
+        }
 
-    @Override
-    public VariableType visitIfStmt(NfLangParser.IfStmtContext ctx) {
-        visitBoolExpression(ctx.boolExpression());
-        visitBlock(ctx.block());
+        /**
+         * Schedules statements to be emitted in order, returns their count
+         */
+        private int schedule(List<NfLangParser.StatementContext> statements) {
+            for (int i = statements.size() - 1; i >= 0; i--) {
+                NfLangParser.StatementContext statement = statements.get(i);
+                work.push(() -> visit(statement));
+            }
+            return statements.size();
+        }
 
-        return VariableType.UNDEFINED;
-    }
+        private List<Integer> popValues(int count) {
+            Integer[] nodes = new Integer[count];
+            for (int i = count - 1; i >= 0; i--) {
+                nodes[i] = values.pop();
+            }
+            return Arrays.asList(nodes);
+        }
 
-    @Override
-    public VariableType visitWhileStmt(NfLangParser.WhileStmtContext ctx) {
-        visitBoolExpression(ctx.boolExpression());
-        visitBlock(ctx.block());
+        /**
+         * Schedules block with its own scope
+         */
+        private void block(NfLangParser.BlockContext ctx) {
+            work.push(() -> {
+                symbols.pushScope();
+                int count = ctx.statement().size();
+                work.push(() -> {
+                    values.push(builder.block(popValues(count)));
+                    symbols.popScope();
+                });
+                schedule(ctx.statement());
+            });
+        }
 
-        return VariableType.UNDEFINED;
-    }
+        @Override
+        public Void visitSimpleStatement(NfLangParser.SimpleStatementContext ctx) {
+            values.push(builder.expression(expression(ctx.expression())));
+            return null;
+        }
 
-    @Override
-    public VariableType visitBlock(NfLangParser.BlockContext ctx) {
-        stack.pushScope();
-        super.visitBlock(ctx);
-        stack.popScope();
+        @Override
+        public Void visitIf(NfLangParser.IfContext ctx) {
+            return visitIfStatement(ctx.ifStatement());
+        }
 
-        return VariableType.UNDEFINED;
-    }
+        @Override
+        public Void visitIfStatement(NfLangParser.IfStatementContext ctx) {
+            int condition = boolExpression(ctx.boolExpression());
+            NfLangParser.ElseInnerContext elseInner = ctx.elseInner();
+            work.push(() -> {
+                int elseBranch = (elseInner == null) ? -1 : values.pop();
+                int thenBlock = values.pop();
+                values.push(builder.ifElse(condition, thenBlock, elseBranch));
+            });
+            if (elseInner != null) {
+                work.push(() -> visit(elseInner));
+            }
+            block(ctx.block());
+            return null;
+        }
 
-    @Override
-    public VariableType visitReturn(NfLangParser.ReturnContext ctx) {
-        List<NfLangParser.ExprContext> exprs = ctx.expr();
-        List<VariableType> types = exprs.stream()
-                .map(this::visit)
-                .collect(Collectors.toList());
+        @Override
+        public Void visitElseIfStmt(NfLangParser.ElseIfStmtContext ctx) {
+            return visitIfStatement(ctx.ifStatement());
+        }
 
-        if (!methodReturnTypes.isEmpty()) {
-            if (!methodReturnTypes.equals(types)) {
-                errors.add("All types in all method return statements must match");
+        @Override
+        public Void visitElseStmt(NfLangParser.ElseStmtContext ctx) {
+            block(ctx.block());
+            return null;
+        }
+
+        @Override
+        public Void visitWhileStmt(NfLangParser.WhileStmtContext ctx) {
+            int condition = boolExpression(ctx.boolExpression());
+            work.push(() -> values.push(builder.whileLoop(condition, values.pop())));
+            block(ctx.block());
+            return null;
+        }
+
+        @Override
+        public Void visitReturn(NfLangParser.ReturnContext ctx) {
+            List<Integer> values = ctx.expr().stream()
+                    .map(this::expr)
+                    .collect(Collectors.toList());
+            List<VariableType> types = values.stream()
+                    .map(builder::type)
+                    .collect(Collectors.toList());
+
+            if (!methodReturnTypes.isEmpty()) {
+                if (!methodReturnTypes.equals(types)) {
+                    errors.add("All types in all method return statements must match");
+                }
+            } else {
+                methodReturnTypes.addAll(types);
             }
-        } else {
-            methodReturnTypes.addAll(types);
+
+            this.values.push(builder.returnValues(values));
+            return null;
         }
 
-        TypedReturnContext typed = new TypedReturnContext(ctx, types);
-        replace(ctx, typed);
+        @Override
+        public Void visitAssignment(NfLangParser.AssignmentContext ctx) {
+            int symbol = findVar(ctx.variable());
+            int value = expr(ctx.expr());
+            if (symbol == -1) {
+                values.push(builder.expression(value));
+            } else {
+                values.push(builder.store(symbol, assign(value, builder.symbolType(symbol))));
+            }
+            return null;
+        }
 
-        return types.stream().reduce(this::aggregateResult).orElse(VariableType.UNDEFINED);
-    }
+        @Override
+        public Void visitTypeDef(NfLangParser.TypeDefContext ctx) {
+            VariableType type = VariableType.of(ctx.type().getText());
+            values.push(builder.define(defineNewVar(ctx.variable(), type)));
+            return null;
+        }
 
-    @Override
-    public VariableType visitTypeInitDef(NfLangParser.TypeInitDefContext ctx) {
-        NfLangParser.TypeContext typeContext = ctx.type();
-        NfLangParser.VariableContext variableContext = ctx.variable();
-        NfLangParser.ExprContext exprContext = ctx.expr();
-        VariableType variableType = VariableType.of(typeContext.getText());
-        VariableType expressionType = visit(exprContext);
-        if (!variableType.isAssignableFrom(expressionType)) {
-            errors.add(String.format("Cannot assign type %s to variable of type %s", expressionType, variableType));
-        }
-        defineNewVar(variableContext, variableType);
-
-        return visitVariable(variableContext);
-    }
+        @Override
+        public Void visitTypeInitDef(NfLangParser.TypeInitDefContext ctx) {
+            VariableType type = VariableType.of(ctx.type().getText());
+            int value = assign(expr(ctx.expr()), type);
+            values.push(builder.store(defineNewVar(ctx.variable(), type), value));
+            return null;
+        }
 
-    @Override
-    public VariableType visitTypeDef(NfLangParser.TypeDefContext ctx) {
-        NfLangParser.TypeContext typeContext = ctx.type();
-        NfLangParser.VariableContext variableContext = ctx.variable();
-        VariableType type = VariableType.of(typeContext.getText());
-        defineNewVar(variableContext, type);
-
-        Variable var = stack.findVar(ctx.variable().IDENTIFIER().getText());
-        replace(ctx.variable(), var);
-        return type;
-    }
+        @Override
+        public Void visitVarInitDef(NfLangParser.VarInitDefContext ctx) {
+            int value = expr(ctx.expr());
+            values.push(builder.store(defineNewVar(ctx.variable(), builder.type(value)), value));
+            return null;
+        }
 
-    @Override
-    public VariableType visitVarInitDef(NfLangParser.VarInitDefContext ctx) {
-        NfLangParser.VariableContext variable = ctx.variable();
-        NfLangParser.ExprContext expr = ctx.expr();
-        VariableType type = visit(expr);
-        defineNewVar(variable, type);
+        private int expr(NfLangParser.ExprContext ctx) {
+            return eqExpression(ctx.eqExpression());
+        }
 
-        return visitVariable(variable);
-    }
+        private int boolExpression(NfLangParser.BoolExpressionContext ctx) {
+            int condition = eqExpression(ctx.eqExpression());
+            VariableType type = builder.type(condition);
+            if (type != VariableType.BOOL) {
+                errors.add(String.format("Condition must be of type BOOL, but was '%s'", type));
+            }
 
-    @Override
-    public VariableType visitEqExpression(NfLangParser.EqExpressionContext ctx) {
-        super.visitEqExpression(ctx);
+            return condition;
+        }
 
-        return VariableType.BOOL;
-    }
+        private int eqExpression(NfLangParser.EqExpressionContext ctx) {
+            int left = compExpression(ctx.compExpression(0));
+            if (ctx.op4() == null) {
+                return left;
+            }
+            int right = compExpression(ctx.compExpression(1));
+            Opcode opcode = ctx.op4().getText().equals("==") ? Opcode.EQ : Opcode.NE;
 
-    @Override
-    public VariableType visitCompExpression(NfLangParser.CompExpressionContext ctx) {
-        if (ctx.bool_term() != null) {
-            boolean value = Boolean.parseBoolean(ctx.getText());
-            TypedBoolLiteral typed = new TypedBoolLiteral(ctx.bool_term(), VariableType.BOOL, value);
-            replace(ctx.bool_term(), typed);
-            return VariableType.BOOL;
+            return compare(opcode, left, right);
         }
-        VariableType type1 = visitExpression(ctx.expression(0));
-        VariableType type2 = visitExpression(ctx.expression(1));
-        if (!type1.isAssignableFrom(type2)) {
-            errors.add(String.format("Cannot compare types '%s' and '%s'", type1, type2));
+
+        private int compExpression(NfLangParser.CompExpressionContext ctx) {
+            if (ctx.bool_term() != null) {
+                boolean value = Boolean.parseBoolean(ctx.getText());
+                return builder.constant(VariableType.BOOL, value ? 1 : 0);
+            }
+            int left = expression(ctx.expression(0));
+            if (ctx.op3() == null) {
+                return left;
+            }
+            int right = expression(ctx.expression(1));
+
+            return compare(comparison(ctx.op3().getText()), left, right);
         }
 
-        return VariableType.BOOL;
-    }
+        /**
+         * Children are walked directly, indexed accessors of context search whole child list
+         */
+        private int expression(NfLangParser.ExpressionContext root) {
+            // Expressions enclosing parenthesized factor which is being emitted
+            Deque<ExpressionFrame> enclosing = new ArrayDeque<>();
+            ExpressionFrame frame = new ExpressionFrame(root);
+            while (true) {
+                if (frame.next < frame.ctx.getChildCount()) {
+                    ParseTree child = frame.ctx.getChild(frame.next++);
+                    if (child instanceof NfLangParser.Op1Context) {
+                        frame.opcode = child.getText().equals("+") ? Opcode.ADD : Opcode.SUB;
+                    } else if (child instanceof NfLangParser.ParenthesizedFactorContext) {
+                        enclosing.push(frame);
+                        frame = new ExpressionFrame(((NfLangParser.ParenthesizedFactorContext) child).expression());
+                    } else {
+                        add(frame, simpleFactor((NfLangParser.SimpleFactorContext) child));
+                    }
+                } else if (enclosing.isEmpty()) {
+                    return frame.result;
+                } else {
+                    int value = frame.result;
+                    frame = enclosing.pop();
+                    add(frame, value);
+                }
+            }
+        }
 
-    @Override
-    public VariableType visitExpression(NfLangParser.ExpressionContext ctx) {
-        VariableType type = visit(ctx.factor(0));
-        for (int i = 0; i < ctx.op1().size(); i++) {
-            type = VariableType.max(type, visit(ctx.factor(i + 1)));
-            NfLangParser.Op1Context op = ctx.op1(i);
-            TypedOp1Context typed = new TypedOp1Context(op, type);
-            replace(op, typed);
+        private void add(ExpressionFrame frame, int value) {
+            frame.result = (frame.opcode == null) ? value : arithmetic(frame.opcode, frame.result, value);
         }
 
-        return type;
-    }
+        private int simpleFactor(NfLangParser.SimpleFactorContext ctx) {
+            int result = -1;
+            Opcode opcode = null;
+            for (ParseTree child : ctx.children) {
+                if (child instanceof NfLangParser.Op2Context) {
+                    opcode = child.getText().equals("*") ? Opcode.MUL : Opcode.DIV;
+                } else {
+                    int value = term((NfLangParser.TermContext) child);
+                    result = (opcode == null) ? value : arithmetic(opcode, result, value);
+                }
+            }
 
-    @Override
-    public VariableType visitSimpleFactor(NfLangParser.SimpleFactorContext ctx) {
-        VariableType type = visitTerm(ctx.term(0));
-        for (int i = 0; i < ctx.op2().size(); i++) {
-            type = VariableType.max(type, visitTerm(ctx.term(i + 1)));
-            NfLangParser.Op2Context op = ctx.op2(i);
-            TypedOp2Context typed = new TypedOp2Context(op, type);
-            replace(op, typed);
+            return result;
         }
 
-        return type;
-    }
+        private int term(NfLangParser.TermContext ctx) {
+            if (ctx.literal() != null) {
+                long value = Long.parseLong(ctx.literal().getText());
+                return builder.constant(VariableType.fitsRange(value), value);
+            }
+            int symbol = findVar(ctx.variable());
+            if (symbol == -1) {
+                return builder.constant(VariableType.UNDEFINED, 0);
+            }
 
-    @Override
-    public VariableType visitVariable(NfLangParser.VariableContext ctx) {
-        Variable var = stack.findVar(ctx);
-        if (var == null) {
-            errors.add(String.format("Variable '%s' is not defined in scope", ctx.IDENTIFIER().getText()));
-            return VariableType.UNDEFINED;
+            return builder.load(symbol);
         }
 
-        replace(ctx, var);
-        return var.getType();
-    }
+        private int arithmetic(Opcode opcode, int left, int right) {
+            VariableType type = VariableType.max(builder.type(left), builder.type(right));
+            return builder.binary(opcode, type, builder.convert(left, type), builder.convert(right, type));
+        }
 
-    @Override
-    public VariableType visitLiteral(NfLangParser.LiteralContext ctx) {
-        TypedLiteralContext typed = new TypedLiteralContext(ctx);
-        replace(ctx, typed);
+        private int compare(Opcode opcode, int left, int right) {
+            VariableType type1 = builder.type(left);
+            VariableType type2 = builder.type(right);
+            if (!type1.isAssignableFrom(type2) && !type2.isAssignableFrom(type1)) {
+                errors.add(String.format("Cannot compare types '%s' and '%s'", type1, type2));
+            } else {
+                VariableType type = VariableType.max(type1, type2);
+                left = builder.convert(left, type);
+                right = builder.convert(right, type);
+            }
+
+            return builder.binary(opcode, VariableType.BOOL, left, right);
+        }
 
-        return typed.getType();
+        private Opcode comparison(String op) {
+            switch (op) {
+                case "<":
+                    return Opcode.LT;
+                case "<=":
+                    return Opcode.LE;
+                case ">":
+                    return Opcode.GT;
+                case ">=":
+                    return Opcode.GE;
+                default:
+                    throw new UnsupportedOperationException("Unsupported operator: " + op);
+            }
+        }
+
+        /**
+         * Converts value to type of variable it is assigned to
+         */
+        private int assign(int value, VariableType variableType) {
+            VariableType valueType = builder.type(value);
+            if (!variableType.isAssignableFrom(valueType)) {
+                errors.add(String.format("Cannot assign type %s to variable of type %s", valueType, variableType));
+                return value;
+            }
+
+            return builder.convert(value, variableType);
+        }
     }
 
-    public List<String> getErrors() {
-        return errors;
+    /**
+     * Expression which is being emitted, result is left operand of the next operator
+     */
+    private static final class ExpressionFrame {
+        private final NfLangParser.ExpressionContext ctx;
+        // Next child of context
+        private int next;
+        // Operator before next factor, null before first factor
+        private Opcode opcode;
+        private int result = -1;
+
+        ExpressionFrame(NfLangParser.ExpressionContext ctx) {
+            this.ctx = ctx;
+        }
     }
 
-    private void replace(ParserRuleContext oldContext, ParserRuleContext newContext) {
-        ParserRuleContext parent = oldContext.getParent();
-        List<ParseTree> children = parent.children;
-        int i;
-        for (i = 0; i < children.size(); i++) {
-            if ((children.get(i) == oldContext) ||
-                    children.get(i).getText().equals(oldContext.getText())) {
-                break;
-            }
+    /**
+     * Returns visible symbol or -1 if variable is not defined
+     */
+    private int findVar(NfLangParser.VariableContext ctx) {
+        String name = ctx.IDENTIFIER().getText();
+        int symbol = symbols.lookup(symbols.intern(name));
+        if (symbol == -1) {
+            errors.add(String.format("Variable '%s' is not defined in scope", name));
         }
-        children.set(i, newContext);
+
+        return symbol;
     }
 
-    private void defineNewVar(NfLangParser.VariableContext variable, VariableType type) {
-        Variable newVar = stack.defineNewVar(variable, type);
-        if (newVar == null) {
-            errors.add(String.format("Variable '%s' is already defined in scope", variable.IDENTIFIER().getText()));
+    /**
+     * Defines variable in current scope, returns its symbol id
+     */
+    private int defineNewVar(NfLangParser.VariableContext variable, VariableType type) {
+        int nameId = symbols.intern(variable.IDENTIFIER().getText());
+        int symbol = builder.symbol(symbols.name(nameId), type);
+        if (!symbols.define(nameId, symbol)) {
+            errors.add(String.format("Variable '%s' is already defined in scope", symbols.name(nameId)));
         }
+
+        return symbol;
     }
 
     @Override
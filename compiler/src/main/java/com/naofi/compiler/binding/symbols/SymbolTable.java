@@ -0,0 +1,103 @@
+package com.naofi.compiler.binding.symbols;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Scoped visibility of symbols. Identifiers are interned once per compilation unit,
+ * lookup of interned name is array access, scopes are undo log of shadowed symbols
+ */
+public class SymbolTable {
+    private final Map<String, Integer> nameIds = new HashMap<>();
+    private String[] names = new String[16];
+
+    // Indexed by name id, symbol visible under name or -1 and scope depth it was defined at
+    private int[] visible = new int[16];
+    private int[] visibleDepth = new int[16];
+
+    // Undo log: name id, symbol and depth that were visible before definition
+    private int[] logNames = new int[16];
+    private int[] logSymbols = new int[16];
+    private int[] logDepths = new int[16];
+    private int logSize = 0;
+    private int[] scopeStarts = new int[8];
+    private int depth = 0;
+
+    /**
+     * Returns id of name, the same for equal names
+     */
+    public int intern(String name) {
+        Integer id = nameIds.get(name);
+        if (id != null) {
+            return id;
+        }
+        int newId = nameIds.size();
+        if (newId == names.length) {
+            names = Arrays.copyOf(names, newId * 2);
+            visible = Arrays.copyOf(visible, newId * 2);
+            visibleDepth = Arrays.copyOf(visibleDepth, newId * 2);
+        }
+        names[newId] = name;
+        visible[newId] = -1;
+        nameIds.put(name, newId);
+
+        return newId;
+    }
+
+    /**
+     * Interned instance of name
+     */
+    public String name(int nameId) {
+        return names[nameId];
+    }
+
+    public void pushScope() {
+        if (depth == scopeStarts.length) {
+            scopeStarts = Arrays.copyOf(scopeStarts, depth * 2);
+        }
+        scopeStarts[depth++] = logSize;
+    }
+
+    /**
+     * Makes symbols shadowed by current scope visible again
+     */
+    public void popScope() {
+        int start = scopeStarts[--depth];
+        while (logSize > start) {
+            logSize--;
+            visible[logNames[logSize]] = logSymbols[logSize];
+            visibleDepth[logNames[logSize]] = logDepths[logSize];
+        }
+    }
+
+    /**
+     * Makes symbol visible under name in current scope
+     * @return false if name is already defined in current scope
+     */
+    public boolean define(int nameId, int symbol) {
+        if (visible[nameId] != -1 && visibleDepth[nameId] == depth) {
+            return false;
+        }
+        if (logSize == logNames.length) {
+            logNames = Arrays.copyOf(logNames, logSize * 2);
+            logSymbols = Arrays.copyOf(logSymbols, logSize * 2);
+            logDepths = Arrays.copyOf(logDepths, logSize * 2);
+        }
+        logNames[logSize] = nameId;
+        logSymbols[logSize] = visible[nameId];
+        logDepths[logSize] = visibleDepth[nameId];
+        logSize++;
+        visible[nameId] = symbol;
+        visibleDepth[nameId] = depth;
+
+        return true;
+    }
+
+    /**
+     * Innermost visible symbol of name or -1
+     */
+    public int lookup(int nameId) {
+        return visible[nameId];
+    }
+}
@@ -1,5 +0,0 @@
-package com.naofi.compiler.binding.symbols;
-
-public interface TypedContext {
-
-}
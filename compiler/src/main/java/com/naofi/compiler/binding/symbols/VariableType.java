@@ -104,6 +104,18 @@ public enum VariableType {
      */
     public abstract boolean fits(long value);
 
+    /**
+     * Integral value converted to this type, floating point types round it like JVM conversion does
+     */
+    public long round(long value) {
+        if (this == FLOAT) {
+            return (long) (float) value;
+        } else if (this == DOUBLE) {
+            return (long) (double) value;
+        }
+        return value;
+    }
+
     boolean inRange(long val, long from, long to) {
         return (val >= from) && (val <= to);
     }
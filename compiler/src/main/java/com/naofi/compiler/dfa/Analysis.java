@@ -0,0 +1,60 @@
+package com.naofi.compiler.dfa;
+
+import com.naofi.compiler.dfa.flow.DataflowResult;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Key of analysis result cached by {@link DfaPipeline}. Required analyses are computed before this one,
+ * so timing of analysis does not include them
+ */
+public final class Analysis<T> {
+    public static final Analysis<DominatorTree> DOMINATORS =
+            of("dominators", pipeline -> DominatorTree.of(pipeline.getCfg()));
+    public static final Analysis<LoopForest> LOOPS =
+            of("loops", pipeline -> LoopForest.of(pipeline.get(DOMINATORS)), DOMINATORS);
+    /**
+     * Reaching definitions in SSA form
+     */
+    public static final Analysis<SsaForm> SSA =
+            of("ssa", pipeline -> SsaForm.of(pipeline.get(DOMINATORS)), DOMINATORS);
+    public static final Analysis<DataflowResult> LIVENESS =
+            of("liveness", pipeline -> new LiveVariables(pipeline.getMethod(), new BitSet()).solve(pipeline.getCfg()));
+    public static final Analysis<ValueRanges> RANGES =
+            of("ranges", pipeline -> RangeAnalysis.analyze(pipeline.getCfg()));
+
+    public static <T> Analysis<T> of(String name, Function<DfaPipeline, T> compute, Analysis<?>... requires) {
+        return new Analysis<>(name, compute, Arrays.asList(requires));
+    }
+
+    private final String name;
+    private final Function<DfaPipeline, T> compute;
+    private final List<Analysis<?>> requires;
+
+    private Analysis(String name, Function<DfaPipeline, T> compute, List<Analysis<?>> requires) {
+        this.name = name;
+        this.compute = compute;
+        this.requires = Collections.unmodifiableList(requires);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Analysis<?>> getRequires() {
+        return requires;
+    }
+
+    T compute(DfaPipeline pipeline) {
+        return compute.apply(pipeline);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
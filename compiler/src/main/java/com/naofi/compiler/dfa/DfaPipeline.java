@@ -1,29 +1,130 @@
 package com.naofi.compiler.dfa;
 
+import com.naofi.compiler.dfa.build.ControlFlowGraph;
 import com.naofi.compiler.dfa.build.Graph;
+import com.naofi.compiler.ir.MethodIr;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
+/**
+ * Pass manager of one method. Analyses are computed once on first request and cached until
+ * transformation changes method, checks and transformations take analyses they need from here.
+ * Time spent in every pass and analysis is recorded
+ */
 public class DfaPipeline {
-    public static List<String> run(Graph graph) {
-        return new DfaPipeline().run(graph.getStartNode());
+    public static List<String> run(ControlFlowGraph cfg) {
+        return of(cfg).check();
+    }
+
+    public static DfaPipeline of(ControlFlowGraph cfg) {
+        return new DfaPipeline(cfg);
+    }
+
+    public static DfaPipeline of(MethodIr method) {
+        return new DfaPipeline(ControlFlowGraph.of(Graph.fromMethod(method)));
     }
 
     private final DfaPipelineEntry[] entries = {
-            new EliminateEmptyBlocksVisitor(),
             new VarInitChecker()
     };
+    private final Map<Analysis<?>, Object> results = new HashMap<>();
+    private final Map<String, Long> timings = new LinkedHashMap<>();
+    private MethodIr method;
+    private ControlFlowGraph cfg;
 
-    private List<String> run(Graph.StartNode startNode) {
-        return Arrays.stream(entries)
-                .map(entry -> entry.check(startNode))
-                .filter(Objects::nonNull)
-                .flatMap(List::stream)
-                .collect(Collectors.toList());
+    private DfaPipeline(ControlFlowGraph cfg) {
+        this.method = cfg.getMethod();
+        this.cfg = cfg;
     }
 
-    private DfaPipeline() {}
+    /**
+     * Returns errors of all checks
+     */
+    public List<String> check() {
+        List<String> errors = new ArrayList<>();
+        for (DfaPipelineEntry entry : entries) {
+            long start = System.nanoTime();
+            List<String> entryErrors = entry.check(this);
+            record(entry.getName(), start);
+            if (entryErrors != null) {
+                errors.addAll(entryErrors);
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Runs transformation, control flow graph is rebuilt and cached analyses are dropped if method changed
+     */
+    public void transform(Transformation transformation) {
+        long start = System.nanoTime();
+        MethodIr result = Objects.requireNonNull(transformation.run(this));
+        record(transformation.getName(), start);
+        if (result == method) {
+            return;
+        }
+        method = result;
+        cfg = ControlFlowGraph.of(Graph.fromMethod(method));
+        results.clear();
+    }
+
+    /**
+     * Returns cached result of analysis, computes it and analyses it requires if needed
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Analysis<T> analysis) {
+        if (results.containsKey(analysis)) {
+            return (T) results.get(analysis);
+        }
+        for (Analysis<?> required : analysis.getRequires()) {
+            get(required);
+        }
+        long start = System.nanoTime();
+        T result = analysis.compute(this);
+        record(analysis.getName(), start);
+        results.put(analysis, result);
+        return result;
+    }
+
+    public boolean isCached(Analysis<?> analysis) {
+        return results.containsKey(analysis);
+    }
+
+    public MethodIr getMethod() {
+        return method;
+    }
+
+    public ControlFlowGraph getCfg() {
+        return cfg;
+    }
+
+    public DominatorTree getDominators() {
+        return get(Analysis.DOMINATORS);
+    }
+
+    public LoopForest getLoops() {
+        return get(Analysis.LOOPS);
+    }
+
+    public SsaForm getSsa() {
+        return get(Analysis.SSA);
+    }
+
+    /**
+     * Nanoseconds spent in every check, transformation and analysis by name, in order of first run.
+     * Repeated runs of the same pass are summed
+     */
+    public Map<String, Long> getTimings() {
+        return Collections.unmodifiableMap(timings);
+    }
+
+    private void record(String name, long start) {
+        timings.merge(name, System.nanoTime() - start, Long::sum);
+    }
 }
@@ -1,12 +1,14 @@
 package com.naofi.compiler.dfa;
 
-import com.naofi.compiler.dfa.build.Graph;
-
 import java.util.List;
 
 public interface DfaPipelineEntry {
+    default String getName() {
+        return getClass().getSimpleName();
+    }
+
     /**
-     * Returns list of errors
+     * Returns list of errors, analyses are taken from pipeline
      */
-    List<String> check(Graph.StartNode startNode);
+    List<String> check(DfaPipeline pipeline);
 }
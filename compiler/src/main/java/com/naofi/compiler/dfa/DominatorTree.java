@@ -0,0 +1,197 @@
+package com.naofi.compiler.dfa;
+
+import com.naofi.compiler.dfa.build.ControlFlowGraph;
+
+import java.util.Arrays;
+
+/**
+ * Dominators by Cooper, Harvey and Kennedy iterative algorithm.
+ * Block ids of control flow graph are in reverse postorder, so they are used as postorder
+ * numbers by intersection directly. Blocks walked while intersecting predecessors of one block are marked,
+ * walk which reaches marked block stops, so join of many branches is not quadratic.
+ * Dominance queries are answered by preorder intervals of tree
+ */
+public final class DominatorTree {
+    public static DominatorTree of(ControlFlowGraph cfg) {
+        return new DominatorTree(cfg);
+    }
+
+    private final ControlFlowGraph cfg;
+    private final int[] idom;
+    // Blocks walked for one block in one pass have the same mark
+    private final int[] marks;
+    // Block b spans [pre[b], pre[b] + subtreeSize[b]) in tree preorder
+    private final int[] pre;
+    private final int[] subtreeSize;
+    // Children of block b in tree are children[childStart[b] .. childStart[b + 1]), in id order
+    private final int[] childStart;
+    private final int[] children;
+    // Frontier of block b is frontiers[frontierStart[b] .. frontierStart[b + 1])
+    private final int[] frontierStart;
+    private final int[] frontiers;
+
+    private DominatorTree(ControlFlowGraph cfg) {
+        this.cfg = cfg;
+        int size = cfg.size();
+        idom = new int[size];
+        Arrays.fill(idom, -1);
+        idom[0] = 0;
+        marks = new int[size];
+        int mark = 0;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int block = 1; block < size; block++) {
+                int dominator = -1;
+                mark++;
+                for (int i = 0; i < cfg.predecessorCount(block); i++) {
+                    int predecessor = cfg.predecessor(block, i);
+                    if (idom[predecessor] != -1) {
+                        dominator = (dominator == -1) ? predecessor : intersect(predecessor, dominator, mark);
+                    }
+                }
+                if (idom[block] != dominator) {
+                    idom[block] = dominator;
+                    changed = true;
+                }
+            }
+        }
+
+        pre = new int[size];
+        subtreeSize = new int[size];
+        numberTree();
+
+        childStart = new int[size + 1];
+        for (int block = 1; block < size; block++) {
+            childStart[idom[block] + 1]++;
+        }
+        for (int block = 0; block < size; block++) {
+            childStart[block + 1] += childStart[block];
+        }
+        children = new int[Math.max(size - 1, 0)];
+        int[] filled = Arrays.copyOf(childStart, size);
+        for (int block = 1; block < size; block++) {
+            children[filled[idom[block]]++] = block;
+        }
+
+        frontierStart = new int[size + 1];
+        frontiers = computeFrontiers();
+    }
+
+    /**
+     * Marked blocks are dominated by b, since b only goes up the tree, so their intersection with b is b
+     */
+    private int intersect(int a, int b, int mark) {
+        while (a != b) {
+            while (a > b) {
+                if (marks[a] == mark) {
+                    return b;
+                }
+                marks[a] = mark;
+                a = idom[a];
+            }
+            while (b > a) {
+                marks[b] = mark;
+                b = idom[b];
+            }
+        }
+        return a;
+    }
+
+    private void numberTree() {
+        int size = cfg.size();
+        // Immediate dominator precedes block in reverse postorder, so sizes are summed from the end
+        Arrays.fill(subtreeSize, 1);
+        for (int block = size - 1; block > 0; block--) {
+            subtreeSize[idom[block]] += subtreeSize[block];
+        }
+        // Children are numbered in id order right after their parent's earlier children
+        int[] nextChild = new int[size];
+        for (int block = 0; block < size; block++) {
+            if (block == 0) {
+                pre[block] = 0;
+            } else {
+                int parent = idom[block];
+                pre[block] = pre[parent] + 1 + nextChild[parent];
+                nextChild[parent] += subtreeSize[block];
+            }
+        }
+    }
+
+    private int[] computeFrontiers() {
+        int size = cfg.size();
+        int[][] lists = new int[size][];
+        int[] counts = new int[size];
+        for (int block = 0; block < size; block++) {
+            if (cfg.predecessorCount(block) < 2) {
+                continue;
+            }
+            for (int i = 0; i < cfg.predecessorCount(block); i++) {
+                int runner = cfg.predecessor(block, i);
+                while (runner != idom[block]) {
+                    // Walk from runner already added block to frontiers above it
+                    if (counts[runner] != 0 && lists[runner][counts[runner] - 1] == block) {
+                        break;
+                    }
+                    if (lists[runner] == null) {
+                        lists[runner] = new int[2];
+                    } else if (counts[runner] == lists[runner].length) {
+                        lists[runner] = Arrays.copyOf(lists[runner], counts[runner] * 2);
+                    }
+                    lists[runner][counts[runner]++] = block;
+                    runner = idom[runner];
+                }
+            }
+        }
+        for (int block = 0; block < size; block++) {
+            frontierStart[block + 1] = frontierStart[block] + counts[block];
+        }
+        int[] result = new int[frontierStart[size]];
+        for (int block = 0; block < size; block++) {
+            if (counts[block] != 0) {
+                System.arraycopy(lists[block], 0, result, frontierStart[block], counts[block]);
+            }
+        }
+        return result;
+    }
+
+    public ControlFlowGraph getCfg() {
+        return cfg;
+    }
+
+    /**
+     * Immediate dominator of block, start block is its own dominator
+     */
+    public int idom(int block) {
+        return idom[block];
+    }
+
+    public int childCount(int block) {
+        return childStart[block + 1] - childStart[block];
+    }
+
+    /**
+     * i-th block immediately dominated by block, ordered by id
+     */
+    public int child(int block, int i) {
+        return children[childStart[block] + i];
+    }
+
+    /**
+     * Checks if every path from start to b goes through a, block dominates itself
+     */
+    public boolean dominates(int a, int b) {
+        return pre[a] <= pre[b] && pre[b] < pre[a] + subtreeSize[a];
+    }
+
+    public int frontierSize(int block) {
+        return frontierStart[block + 1] - frontierStart[block];
+    }
+
+    /**
+     * i-th block of dominance frontier, ordered by id
+     */
+    public int frontier(int block, int i) {
+        return frontiers[frontierStart[block] + i];
+    }
+}
@@ -0,0 +1,88 @@
+package com.naofi.compiler.dfa;
+
+import com.naofi.compiler.dfa.build.ControlFlowGraph;
+import com.naofi.compiler.dfa.flow.BitSetAnalysis;
+import com.naofi.compiler.ir.MethodIr;
+import com.naofi.compiler.ir.Opcode;
+import com.naofi.compiler.ir.Postorder;
+
+import java.util.BitSet;
+
+/**
+ * Backward liveness of symbols, symbol is live if it may be loaded before next store to it
+ */
+public class LiveVariables extends BitSetAnalysis {
+    private final MethodIr method;
+    // Statements which are treated as removed
+    private final BitSet ignored;
+    private final Postorder order;
+
+    public LiveVariables(MethodIr method, BitSet ignored) {
+        super(Direction.BACKWARD, Meet.UNION);
+        this.method = method;
+        this.ignored = ignored;
+        this.order = new Postorder(method);
+    }
+
+    @Override
+    protected int width(ControlFlowGraph cfg) {
+        return method.symbolCount();
+    }
+
+    @Override
+    protected BitSet boundary(ControlFlowGraph cfg) {
+        return new BitSet();
+    }
+
+    @Override
+    protected void transfer(ControlFlowGraph cfg, int block, BitSet live) {
+        switch (cfg.kind(block)) {
+            case BRANCH:
+                loads(cfg.condition(block), live);
+                break;
+            case BASIC:
+                for (int i = cfg.statementCount(block) - 1; i >= 0; i--) {
+                    statement(cfg.statement(block, i), live);
+                }
+                break;
+            default:
+        }
+    }
+
+    /**
+     * Moves live set from point after statement to point before it
+     */
+    public void statement(int node, BitSet live) {
+        if (ignored.get(node)) {
+            return;
+        }
+        switch (method.opcode(node)) {
+            case DEFINE:
+                live.clear(method.symbol(node));
+                break;
+            case STORE:
+                live.clear(method.symbol(node));
+                loads(method.operand(node), live);
+                break;
+            case EXPRESSION:
+                loads(method.operand(node), live);
+                break;
+            case RETURN:
+                for (int i = 0; i < method.childCount(node); i++) {
+                    loads(method.child(node, i), live);
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unexpected statement in basic block: " + method.opcode(node));
+        }
+    }
+
+    public void loads(int expression, BitSet live) {
+        int count = order.walk(expression);
+        for (int i = 0; i < count; i++) {
+            if (method.opcode(order.node(i)) == Opcode.LOAD) {
+                live.set(method.symbol(order.node(i)));
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.naofi.compiler.dfa;
+
+import com.naofi.compiler.dfa.build.ControlFlowGraph;
+
+import java.util.Arrays;
+
+/**
+ * Natural loops of control flow graph. Loop is identified by its header block,
+ * body is every block which reaches back edge source without passing header.
+ * Back edges to the same header form one loop
+ */
+public final class LoopForest {
+    public static LoopForest of(DominatorTree dominators) {
+        return new LoopForest(dominators);
+    }
+
+    private final ControlFlowGraph cfg;
+    // Header of innermost loop containing block, -1 outside of loops
+    private final int[] innermost;
+    // Header of enclosing loop, indexed by header, -1 for outermost loops
+    private final int[] parent;
+    // Nesting depth of block, 0 outside of loops
+    private final int[] depth;
+    // Header h contains loops with pre in [pre[h], pre[h] + subtreeSize[h]) of loop tree preorder
+    private final int[] pre;
+    private final int[] subtreeSize;
+    private int loopCount;
+
+    private LoopForest(DominatorTree dominators) {
+        cfg = dominators.getCfg();
+        int size = cfg.size();
+        innermost = new int[size];
+        parent = new int[size];
+        depth = new int[size];
+        pre = new int[size];
+        subtreeSize = new int[size];
+        Arrays.fill(innermost, -1);
+        Arrays.fill(parent, -1);
+
+        int edges = 0;
+        for (int block = 0; block < size; block++) {
+            edges += cfg.predecessorCount(block);
+        }
+        // Block is pushed once for every edge it is reached by
+        int[] stack = new int[edges];
+        int[] mark = new int[size];
+        Arrays.fill(mark, -1);
+        // Inner header is dominated by outer one, so it is later in reverse postorder and is done first
+        for (int header = size - 1; header >= 0; header--) {
+            int top = 0;
+            for (int i = 0; i < cfg.predecessorCount(header); i++) {
+                int source = cfg.predecessor(header, i);
+                if (dominators.dominates(header, source)) {
+                    stack[top++] = source;
+                }
+            }
+            if (top == 0) {
+                continue;
+            }
+            loopCount++;
+            mark[header] = header;
+            innermost[header] = header;
+            while (top > 0) {
+                int block = stack[--top];
+                if (mark[block] == header) {
+                    continue;
+                }
+                mark[block] = header;
+                if (innermost[block] == -1) {
+                    innermost[block] = header;
+                } else if (innermost[block] == block && parent[block] == -1) {
+                    parent[block] = header;
+                }
+                for (int i = 0; i < cfg.predecessorCount(block); i++) {
+                    stack[top++] = cfg.predecessor(block, i);
+                }
+            }
+        }
+
+        // Parent header precedes child header, so depth and loop tree are filled in id order
+        for (int block = 0; block < size; block++) {
+            if (isHeader(block)) {
+                depth[block] = (parent[block] == -1) ? 1 : depth[parent[block]] + 1;
+            }
+        }
+        for (int block = 0; block < size; block++) {
+            if (innermost[block] != -1) {
+                depth[block] = depth[innermost[block]];
+            }
+        }
+        numberLoopTree();
+    }
+
+    private void numberLoopTree() {
+        int size = cfg.size();
+        for (int header = size - 1; header >= 0; header--) {
+            if (isHeader(header)) {
+                subtreeSize[header]++;
+                if (parent[header] != -1) {
+                    subtreeSize[parent[header]] += subtreeSize[header];
+                }
+            }
+        }
+        int[] nextChild = new int[size];
+        int nextRoot = 0;
+        for (int header = 0; header < size; header++) {
+            if (!isHeader(header)) {
+                continue;
+            }
+            int outer = parent[header];
+            if (outer == -1) {
+                pre[header] = nextRoot;
+                nextRoot += subtreeSize[header];
+            } else {
+                pre[header] = pre[outer] + 1 + nextChild[outer];
+                nextChild[outer] += subtreeSize[header];
+            }
+        }
+    }
+
+    public int loopCount() {
+        return loopCount;
+    }
+
+    public boolean isHeader(int block) {
+        return innermost[block] == block;
+    }
+
+    /**
+     * Header of innermost loop containing block, -1 if block is not in loop
+     */
+    public int loopOf(int block) {
+        return innermost[block];
+    }
+
+    /**
+     * Header of loop directly enclosing loop with given header, -1 for outermost loop
+     */
+    public int parentLoop(int header) {
+        return parent[header];
+    }
+
+    /**
+     * Number of loops containing block
+     */
+    public int depth(int block) {
+        return depth[block];
+    }
+
+    /**
+     * Checks if block is in loop with given header or in any loop nested in it
+     */
+    public boolean contains(int header, int block) {
+        int loop = innermost[block];
+        return loop != -1 && isHeader(header) &&
+                pre[header] <= pre[loop] && pre[loop] < pre[header] + subtreeSize[header];
+    }
+}
@@ -0,0 +1,455 @@
+package com.naofi.compiler.dfa;
+
+import com.naofi.compiler.binding.symbols.VariableType;
+import com.naofi.compiler.dfa.build.ControlFlowGraph;
+import com.naofi.compiler.ir.MethodIr;
+import com.naofi.compiler.ir.Opcode;
+import com.naofi.compiler.ir.Postorder;
+
+import java.util.Arrays;
+
+/**
+ * Interval analysis of integral values over control flow graph.
+ * Bounds which keep growing at loop heads after {@link #WIDENING_DELAY} visits are widened to type range,
+ * then ranges are narrowed back by descending iterations, so loop conditions still bound counters
+ */
+public class RangeAnalysis {
+    private static final int WIDENING_DELAY = 2;
+    private static final int DESCENDING_PASSES = 2;
+    private static final long[] FULL = {Long.MIN_VALUE, Long.MAX_VALUE};
+    private static final long[] EMPTY = {Long.MAX_VALUE, Long.MIN_VALUE};
+
+    public static ValueRanges analyze(ControlFlowGraph cfg) {
+        return new RangeAnalysis(cfg).run();
+    }
+
+    private final ControlFlowGraph cfg;
+    private final MethodIr method;
+    private final int symbols;
+    // Blocks entered by back edge, widening is applied only there
+    private final boolean[] loopHeads;
+    // State is lo and hi of every symbol, null if block is unreachable
+    private long[][] in;
+    // Out state of every successor slot, 1 is false branch of conditional jump
+    private long[][][] out;
+    private ValueRanges ranges;
+    private final Postorder order;
+    private long[][] values = new long[16][];
+
+    private RangeAnalysis(ControlFlowGraph cfg) {
+        this.cfg = cfg;
+        this.method = cfg.getMethod();
+        this.symbols = method.symbolCount();
+        this.order = new Postorder(method);
+        loopHeads = new boolean[cfg.size()];
+        for (int block = 0; block < cfg.size(); block++) {
+            for (int i = 0; i < cfg.predecessorCount(block); i++) {
+                loopHeads[block] |= cfg.isBackEdge(cfg.predecessor(block, i), block);
+            }
+        }
+    }
+
+    private ValueRanges run() {
+        int size = cfg.size();
+        in = new long[size][];
+        out = new long[size][2][];
+        int[] visits = new int[size];
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            // Blocks are in reverse postorder, so predecessors are mostly visited first
+            for (int i = 0; i < size; i++) {
+                // Joined with previous input, so ascending states never shrink and iteration terminates
+                long[] state = join(in[i], inputState(i));
+                if (visits[i]++ >= WIDENING_DELAY && loopHeads[i]) {
+                    state = widen(in[i], state);
+                }
+                if (visits[i] == 1 || !Arrays.equals(in[i], state)) {
+                    in[i] = state;
+                    transfer(i);
+                    changed = true;
+                }
+            }
+        }
+        for (int pass = 0; pass < DESCENDING_PASSES; pass++) {
+            for (int i = 0; i < size; i++) {
+                in[i] = inputState(i);
+                transfer(i);
+            }
+        }
+
+        ranges = new ValueRanges(method.size(), symbols);
+        for (int i = 0; i < size; i++) {
+            transfer(i);
+        }
+        return ranges;
+    }
+
+    private long[] inputState(int block) {
+        if (cfg.kind(block) == ControlFlowGraph.Kind.START) {
+            long[] state = new long[symbols * 2];
+            for (int symbol = 0; symbol < symbols; symbol++) {
+                boolean parameter = symbol < method.getFormalTypes().size();
+                long[] range = parameter ? typeRange(method.symbolType(symbol)) : EMPTY;
+                state[symbol * 2] = range[0];
+                state[symbol * 2 + 1] = range[1];
+            }
+            return state;
+        }
+        long[] state = null;
+        for (int i = 0; i < cfg.predecessorCount(block); i++) {
+            long[] predecessorState = out[cfg.predecessor(block, i)][cfg.predecessorSlot(block, i)];
+            if (predecessorState == null) {
+                continue;
+            }
+            if (state == null) {
+                state = predecessorState.clone();
+            } else {
+                for (int j = 0; j < state.length; j += 2) {
+                    state[j] = Math.min(state[j], predecessorState[j]);
+                    state[j + 1] = Math.max(state[j + 1], predecessorState[j + 1]);
+                }
+            }
+        }
+        return state;
+    }
+
+    private static long[] join(long[] old, long[] state) {
+        if (old == null || state == null) {
+            return (old == null) ? state : old.clone();
+        }
+        for (int i = 0; i < state.length; i += 2) {
+            state[i] = Math.min(state[i], old[i]);
+            state[i + 1] = Math.max(state[i + 1], old[i + 1]);
+        }
+        return state;
+    }
+
+    private long[] widen(long[] old, long[] state) {
+        if (old == null || state == null) {
+            return state;
+        }
+        for (int symbol = 0; symbol < symbols; symbol++) {
+            long[] range = typeRange(method.symbolType(symbol));
+            if (state[symbol * 2] < old[symbol * 2]) {
+                state[symbol * 2] = range[0];
+            }
+            if (state[symbol * 2 + 1] > old[symbol * 2 + 1]) {
+                state[symbol * 2 + 1] = range[1];
+            }
+        }
+        return state;
+    }
+
+    private void transfer(int block) {
+        long[] state = (in[block] == null) ? null : in[block].clone();
+        if (state == null) {
+            out[block][0] = null;
+            out[block][1] = null;
+            return;
+        }
+        switch (cfg.kind(block)) {
+            case BASIC:
+                for (int i = 0; i < cfg.statementCount(block); i++) {
+                    statement(cfg.statement(block, i), state);
+                }
+                out[block][0] = state;
+                break;
+            case BRANCH:
+                int condition = cfg.condition(block);
+                evaluate(condition, state);
+                out[block][0] = refine(condition, state.clone(), true);
+                out[block][1] = refine(condition, state, false);
+                break;
+            default:
+                out[block][0] = state;
+        }
+    }
+
+    private void statement(int node, long[] state) {
+        switch (method.opcode(node)) {
+            case DEFINE:
+                set(state, method.symbol(node), EMPTY);
+                break;
+            case STORE:
+                long[] value = evaluate(method.operand(node), state);
+                set(state, method.symbol(node), value);
+                if (ranges != null) {
+                    ranges.recordStore(method.symbol(node), value[0], value[1]);
+                }
+                break;
+            case EXPRESSION:
+                evaluate(method.operand(node), state);
+                break;
+            case RETURN:
+                for (int i = 0; i < method.childCount(node); i++) {
+                    evaluate(method.child(node, i), state);
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unexpected statement in basic block: " + method.opcode(node));
+        }
+    }
+
+    private long[] evaluate(int expression, long[] state) {
+        int count = order.walk(expression);
+        // Ranges of operands which are not used yet, right operand is on top
+        int top = 0;
+        for (int i = 0; i < count; i++) {
+            int node = order.node(i);
+            VariableType type = method.type(node);
+            long[] result;
+            boolean wraps = false;
+            switch (method.opcode(node)) {
+                case CONST:
+                    result = new long[]{method.value(node), method.value(node)};
+                    break;
+                case LOAD:
+                    int symbol = method.symbol(node);
+                    result = new long[]{state[symbol * 2], state[symbol * 2 + 1]};
+                    break;
+                case CONVERT:
+                    result = values[--top];
+                    break;
+                case ADD:
+                case SUB:
+                case MUL:
+                case DIV:
+                    long[] right = values[--top];
+                    long[] left = values[--top];
+                    if (!isIntegral(type)) {
+                        result = FULL;
+                    } else if (isEmpty(left) || isEmpty(right)) {
+                        result = EMPTY;
+                    } else {
+                        result = arithmetic(method.opcode(node), left, right);
+                        long[] range = typeRange(type);
+                        if (result == null || result[0] < range[0] || result[1] > range[1]) {
+                            wraps = true;
+                            result = range;
+                        }
+                    }
+                    break;
+                default:
+                    top -= 2;
+                    result = typeRange(VariableType.BOOL);
+            }
+            if (ranges != null) {
+                ranges.recordNode(node, result[0], result[1], wraps);
+            }
+            if (top == values.length) {
+                values = Arrays.copyOf(values, top * 2);
+            }
+            values[top++] = result;
+        }
+        return values[0];
+    }
+
+    /**
+     * Raw result of operation, null if it may overflow long
+     */
+    private static long[] arithmetic(Opcode opcode, long[] left, long[] right) {
+        switch (opcode) {
+            case ADD:
+                return checked(saturatedAdd(left[0], right[0]), saturatedAdd(left[1], right[1]));
+            case SUB:
+                return checked(saturatedAdd(left[0], saturatedNegate(right[1])),
+                        saturatedAdd(left[1], saturatedNegate(right[0])));
+            case MUL:
+                long a = saturatedMultiply(left[0], right[0]);
+                long b = saturatedMultiply(left[0], right[1]);
+                long c = saturatedMultiply(left[1], right[0]);
+                long d = saturatedMultiply(left[1], right[1]);
+                return checked(Math.min(Math.min(a, b), Math.min(c, d)), Math.max(Math.max(a, b), Math.max(c, d)));
+            default:
+                // Quotient is extreme at bounds of divisor or next to zero, division by zero throws
+                long lo = Long.MAX_VALUE;
+                long hi = Long.MIN_VALUE;
+                long[] divisors = {right[0], right[1], -1, 1};
+                for (long divisor : divisors) {
+                    if (divisor == 0 || divisor < right[0] || divisor > right[1]) {
+                        continue;
+                    }
+                    for (long dividend : left) {
+                        if (dividend == Long.MIN_VALUE && divisor == -1) {
+                            return null;
+                        }
+                        lo = Math.min(lo, dividend / divisor);
+                        hi = Math.max(hi, dividend / divisor);
+                    }
+                }
+                return (lo > hi) ? EMPTY : new long[]{lo, hi};
+        }
+    }
+
+    private static long[] checked(long lo, long hi) {
+        if (lo == Long.MIN_VALUE || hi == Long.MAX_VALUE) {
+            return null;
+        }
+        return new long[]{lo, hi};
+    }
+
+    private static long saturatedAdd(long x, long y) {
+        long r = x + y;
+        if (((x ^ r) & (y ^ r)) < 0) {
+            return (x < 0) ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+        return r;
+    }
+
+    private static long saturatedNegate(long x) {
+        return (x == Long.MIN_VALUE) ? Long.MAX_VALUE : -x;
+    }
+
+    private static long saturatedMultiply(long x, long y) {
+        long r = x * y;
+        long ax = Math.abs(x);
+        long ay = Math.abs(y);
+        if (((ax | ay) >>> 31 != 0)) {
+            if (((y != 0) && (r / y != x)) || (x == Long.MIN_VALUE && y == -1)) {
+                return ((x < 0) == (y < 0)) ? Long.MAX_VALUE : Long.MIN_VALUE;
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Narrows state to values for which condition has given value, returns null if there are no such values
+     */
+    private long[] refine(int condition, long[] state, boolean value) {
+        Opcode opcode = method.opcode(condition);
+        if (opcode == Opcode.CONST) {
+            return ((method.value(condition) != 0) == value) ? state : null;
+        }
+        if (opcode == Opcode.LOAD) {
+            long bool = value ? 1 : 0;
+            return constrain(state, method.symbol(condition), Opcode.EQ, new long[]{bool, bool});
+        }
+        if (!opcode.isComparison() || !isIntegral(method.type(method.left(condition)))) {
+            return state;
+        }
+        if (!value) {
+            opcode = negate(opcode);
+        }
+        int left = stripConversions(method.left(condition));
+        int right = stripConversions(method.right(condition));
+        if (method.opcode(left) == Opcode.LOAD) {
+            state = constrain(state, method.symbol(left), opcode, evaluate(right, state));
+        }
+        if (state != null && method.opcode(right) == Opcode.LOAD) {
+            state = constrain(state, method.symbol(right), mirror(opcode), evaluate(left, state));
+        }
+        return state;
+    }
+
+    private long[] constrain(long[] state, int symbol, Opcode opcode, long[] other) {
+        if (isEmpty(other)) {
+            return state;
+        }
+        long lo = state[symbol * 2];
+        long hi = state[symbol * 2 + 1];
+        switch (opcode) {
+            case LT:
+                hi = (other[1] == Long.MIN_VALUE) ? Long.MIN_VALUE : Math.min(hi, other[1] - 1);
+                lo = (other[1] == Long.MIN_VALUE) ? Long.MAX_VALUE : lo;
+                break;
+            case LE:
+                hi = Math.min(hi, other[1]);
+                break;
+            case GT:
+                lo = (other[0] == Long.MAX_VALUE) ? Long.MAX_VALUE : Math.max(lo, other[0] + 1);
+                hi = (other[0] == Long.MAX_VALUE) ? Long.MIN_VALUE : hi;
+                break;
+            case GE:
+                lo = Math.max(lo, other[0]);
+                break;
+            case EQ:
+                lo = Math.max(lo, other[0]);
+                hi = Math.min(hi, other[1]);
+                break;
+            default:
+                if (other[0] == other[1]) {
+                    if (lo == other[0] && lo != Long.MAX_VALUE) {
+                        lo++;
+                    }
+                    if (hi == other[0] && hi != Long.MIN_VALUE) {
+                        hi--;
+                    }
+                }
+        }
+        if (lo > hi) {
+            return null;
+        }
+        state[symbol * 2] = lo;
+        state[symbol * 2 + 1] = hi;
+        return state;
+    }
+
+    private int stripConversions(int node) {
+        while (method.opcode(node) == Opcode.CONVERT && isIntegral(method.type(node))) {
+            node = method.operand(node);
+        }
+        return node;
+    }
+
+    private static Opcode negate(Opcode opcode) {
+        switch (opcode) {
+            case LT: return Opcode.GE;
+            case LE: return Opcode.GT;
+            case GT: return Opcode.LE;
+            case GE: return Opcode.LT;
+            case EQ: return Opcode.NE;
+            default: return Opcode.EQ;
+        }
+    }
+
+    private static Opcode mirror(Opcode opcode) {
+        switch (opcode) {
+            case LT: return Opcode.GT;
+            case LE: return Opcode.GE;
+            case GT: return Opcode.LT;
+            case GE: return Opcode.LE;
+            default: return opcode;
+        }
+    }
+
+    private static void set(long[] state, int symbol, long[] range) {
+        state[symbol * 2] = range[0];
+        state[symbol * 2 + 1] = range[1];
+    }
+
+    private static boolean isEmpty(long[] range) {
+        return range[0] > range[1];
+    }
+
+    private static boolean isIntegral(VariableType type) {
+        switch (type) {
+            case BOOL:
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case CHAR:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static long[] typeRange(VariableType type) {
+        switch (type) {
+            case BOOL:
+                return new long[]{0, 1};
+            case BYTE:
+                return new long[]{Byte.MIN_VALUE, Byte.MAX_VALUE};
+            case SHORT:
+                return new long[]{Short.MIN_VALUE, Short.MAX_VALUE};
+            case INT:
+                return new long[]{Integer.MIN_VALUE, Integer.MAX_VALUE};
+            case CHAR:
+                return new long[]{Character.MIN_VALUE, Character.MAX_VALUE};
+            default:
+                return FULL;
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package com.naofi.compiler.dfa;
+
+import com.naofi.compiler.dfa.build.ControlFlowGraph;
+import com.naofi.compiler.ir.MethodIr;
+import com.naofi.compiler.ir.Opcode;
+import com.naofi.compiler.ir.Postorder;
+
+import java.util.Arrays;
+
+/**
+ * Static single assignment view of method, IR itself is not changed.
+ * Every parameter, STORE and phi is a definition with int id, every LOAD node refers to definition
+ * reaching it. Phis are placed on iterated dominance frontiers of symbols which are used across blocks,
+ * then definitions are renamed by walk over dominator tree.
+ * Undefined value, which comes from DEFINE without assignment, is -1
+ */
+public final class SsaForm {
+    public enum DefKind {
+        PARAMETER,
+        STORE,
+        PHI
+    }
+
+    public static SsaForm of(DominatorTree dominators) {
+        return new SsaForm(dominators);
+    }
+
+    private final ControlFlowGraph cfg;
+    private final MethodIr method;
+    private final Postorder order;
+
+    // Definitions, phis go first grouped by block, then parameters, then stores
+    private DefKind[] defKinds;
+    private int[] defSymbols;
+    private int[] defBlocks;
+    private int[] defNodes;
+    private int defCount;
+
+    private final int[] phiStart;
+    private int[] phiOperandStart;
+    private int[] phiOperands;
+
+    // Indexed by IR node
+    private final int[] reachingDefs;
+    private final int[] storeDefs;
+    private final int[] useBlocks;
+    private final int[] useStatements;
+
+    // Def-use chains
+    private int[] loadStart;
+    private int[] loads;
+    private int[] phiUseStart;
+    private int[] phiUses;
+
+    private SsaForm(DominatorTree dominators) {
+        cfg = dominators.getCfg();
+        method = cfg.getMethod();
+        order = new Postorder(method);
+        int size = cfg.size();
+        int symbols = method.symbolCount();
+        reachingDefs = new int[method.size()];
+        storeDefs = new int[method.size()];
+        useBlocks = new int[method.size()];
+        useStatements = new int[method.size()];
+        Arrays.fill(reachingDefs, -1);
+        Arrays.fill(storeDefs, -1);
+        Arrays.fill(useBlocks, -1);
+        Arrays.fill(useStatements, -1);
+
+        // Phi placement
+        boolean[][] hasPhi = placePhis(dominators, symbols);
+        phiStart = new int[size + 1];
+        int capacity = method.getFormalTypes().size() + method.size();
+        for (int block = 0; block < size; block++) {
+            int count = 0;
+            for (int symbol = 0; symbol < symbols; symbol++) {
+                count += (hasPhi[symbol] != null && hasPhi[symbol][block]) ? 1 : 0;
+            }
+            phiStart[block + 1] = phiStart[block] + count;
+        }
+        capacity += phiStart[size];
+        defKinds = new DefKind[capacity];
+        defSymbols = new int[capacity];
+        defBlocks = new int[capacity];
+        defNodes = new int[capacity];
+        phiOperandStart = new int[phiStart[size] + 1];
+        for (int block = 0; block < size; block++) {
+            for (int symbol = 0; symbol < symbols; symbol++) {
+                if (hasPhi[symbol] != null && hasPhi[symbol][block]) {
+                    int phi = addDef(DefKind.PHI, symbol, block, -1);
+                    phiOperandStart[phi + 1] = phiOperandStart[phi] + cfg.predecessorCount(block);
+                }
+            }
+        }
+        phiOperands = new int[phiOperandStart[phiStart[size]]];
+        Arrays.fill(phiOperands, -1);
+
+        rename(dominators, symbols);
+        buildDefUse();
+    }
+
+    private int addDef(DefKind kind, int symbol, int block, int node) {
+        defKinds[defCount] = kind;
+        defSymbols[defCount] = symbol;
+        defBlocks[defCount] = block;
+        defNodes[defCount] = node;
+        return defCount++;
+    }
+
+    /**
+     * Semi-pruned placement, only symbols which are loaded before being defined in some block get phis
+     */
+    private boolean[][] placePhis(DominatorTree dominators, int symbols) {
+        int size = cfg.size();
+        boolean[] global = new boolean[symbols];
+        boolean[][] definedIn = new boolean[symbols][];
+        boolean[] killed = new boolean[symbols];
+        int[] killedList = new int[symbols];
+        for (int block = 0; block < size; block++) {
+            int killedCount = 0;
+            for (int i = 0; i < statementCount(block); i++) {
+                int statement = statement(block, i);
+                Opcode opcode = method.opcode(statement);
+                if (opcode == Opcode.STORE || opcode == Opcode.DEFINE) {
+                    if (opcode == Opcode.STORE) {
+                        markGlobalLoads(method.operand(statement), killed, global);
+                    }
+                    int symbol = method.symbol(statement);
+                    if (definedIn[symbol] == null) {
+                        definedIn[symbol] = new boolean[size];
+                    }
+                    definedIn[symbol][block] = true;
+                    if (!killed[symbol]) {
+                        killed[symbol] = true;
+                        killedList[killedCount++] = symbol;
+                    }
+                } else {
+                    markGlobalLoads(statement, killed, global);
+                }
+            }
+            for (int i = 0; i < killedCount; i++) {
+                killed[killedList[i]] = false;
+            }
+        }
+
+        boolean[][] hasPhi = new boolean[symbols][];
+        int[] worklist = new int[size];
+        for (int symbol = 0; symbol < symbols; symbol++) {
+            if (!global[symbol] || definedIn[symbol] == null) {
+                continue;
+            }
+            hasPhi[symbol] = new boolean[size];
+            boolean[] queued = definedIn[symbol].clone();
+            int top = 0;
+            for (int block = 0; block < size; block++) {
+                if (queued[block]) {
+                    worklist[top++] = block;
+                }
+            }
+            while (top > 0) {
+                int block = worklist[--top];
+                for (int i = 0; i < dominators.frontierSize(block); i++) {
+                    int frontier = dominators.frontier(block, i);
+                    if (!hasPhi[symbol][frontier]) {
+                        hasPhi[symbol][frontier] = true;
+                        if (!queued[frontier]) {
+                            queued[frontier] = true;
+                            worklist[top++] = frontier;
+                        }
+                    }
+                }
+            }
+        }
+        return hasPhi;
+    }
+
+    private void markGlobalLoads(int node, boolean[] killed, boolean[] global) {
+        int count = order.walk(node);
+        for (int i = 0; i < count; i++) {
+            int load = order.node(i);
+            if (method.opcode(load) == Opcode.LOAD) {
+                global[method.symbol(load)] |= !killed[method.symbol(load)];
+            }
+        }
+    }
+
+    /**
+     * Branch condition is treated as last statement of its block
+     */
+    private int statementCount(int block) {
+        switch (cfg.kind(block)) {
+            case BASIC:
+                return cfg.statementCount(block);
+            case BRANCH:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    private int statement(int block, int i) {
+        return (cfg.kind(block) == ControlFlowGraph.Kind.BRANCH) ? cfg.condition(block) : cfg.statement(block, i);
+    }
+
+    private void rename(DominatorTree dominators, int symbols) {
+        int size = cfg.size();
+        int[] current = new int[symbols];
+        Arrays.fill(current, -1);
+        for (int parameter = 0; parameter < method.getFormalTypes().size(); parameter++) {
+            current[parameter] = addDef(DefKind.PARAMETER, parameter, 0, -1);
+        }
+
+        // Undo log of symbol and its previous definition, restored when walk leaves block
+        int[] logSymbols = new int[defKinds.length + method.size()];
+        int[] logDefs = new int[logSymbols.length];
+        int logSize = 0;
+        // Block is pushed as id to enter it and as -id - 1 to leave it
+        int[] stack = new int[2 * size];
+        int[] logMarks = new int[size];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int entry = stack[--top];
+            if (entry < 0) {
+                int block = -entry - 1;
+                while (logSize > logMarks[block]) {
+                    logSize--;
+                    current[logSymbols[logSize]] = logDefs[logSize];
+                }
+                continue;
+            }
+            int block = entry;
+            logMarks[block] = logSize;
+            stack[top++] = -block - 1;
+
+            for (int phi = phiStart[block]; phi < phiStart[block + 1]; phi++) {
+                logSymbols[logSize] = defSymbols[phi];
+                logDefs[logSize++] = current[defSymbols[phi]];
+                current[defSymbols[phi]] = phi;
+            }
+            for (int i = 0; i < statementCount(block); i++) {
+                int statement = statement(block, i);
+                Opcode opcode = method.opcode(statement);
+                if (opcode == Opcode.STORE || opcode == Opcode.DEFINE) {
+                    int def = -1;
+                    if (opcode == Opcode.STORE) {
+                        renameLoads(method.operand(statement), statement, block, current);
+                        def = addDef(DefKind.STORE, method.symbol(statement), block, statement);
+                        storeDefs[statement] = def;
+                    }
+                    logSymbols[logSize] = method.symbol(statement);
+                    logDefs[logSize++] = current[method.symbol(statement)];
+                    current[method.symbol(statement)] = def;
+                } else {
+                    renameLoads(statement, statement, block, current);
+                }
+            }
+            for (int slot = 0; slot < cfg.successorCount(block); slot++) {
+                int successor = cfg.successor(block, slot);
+                int i = cfg.successorIndex(block, slot);
+                for (int phi = phiStart[successor]; phi < phiStart[successor + 1]; phi++) {
+                    phiOperands[phiOperandStart[phi] + i] = current[defSymbols[phi]];
+                }
+            }
+            for (int i = dominators.childCount(block) - 1; i >= 0; i--) {
+                stack[top++] = dominators.child(block, i);
+            }
+        }
+    }
+
+    private void renameLoads(int node, int statement, int block, int[] current) {
+        int count = order.walk(node);
+        for (int i = 0; i < count; i++) {
+            int load = order.node(i);
+            if (method.opcode(load) == Opcode.LOAD) {
+                reachingDefs[load] = current[method.symbol(load)];
+                useBlocks[load] = block;
+                useStatements[load] = statement;
+            }
+        }
+    }
+
+    private void buildDefUse() {
+        loadStart = new int[defCount + 1];
+        phiUseStart = new int[defCount + 1];
+        for (int node = 0; node < method.size(); node++) {
+            if (reachingDefs[node] != -1) {
+                loadStart[reachingDefs[node] + 1]++;
+            }
+        }
+        for (int operand : phiOperands) {
+            if (operand != -1) {
+                phiUseStart[operand + 1]++;
+            }
+        }
+        for (int def = 0; def < defCount; def++) {
+            loadStart[def + 1] += loadStart[def];
+            phiUseStart[def + 1] += phiUseStart[def];
+        }
+        loads = new int[loadStart[defCount]];
+        phiUses = new int[phiUseStart[defCount]];
+        int[] filledLoads = Arrays.copyOf(loadStart, defCount);
+        int[] filledPhiUses = Arrays.copyOf(phiUseStart, defCount);
+        for (int node = 0; node < method.size(); node++) {
+            if (reachingDefs[node] != -1) {
+                loads[filledLoads[reachingDefs[node]]++] = node;
+            }
+        }
+        for (int phi = 0; phi < phiStart[cfg.size()]; phi++) {
+            for (int i = phiOperandStart[phi]; i < phiOperandStart[phi + 1]; i++) {
+                if (phiOperands[i] != -1) {
+                    phiUses[filledPhiUses[phiOperands[i]]++] = phi;
+                }
+            }
+        }
+    }
+
+    public ControlFlowGraph getCfg() {
+        return cfg;
+    }
+
+    public int defCount() {
+        return defCount;
+    }
+
+    public DefKind defKind(int def) {
+        return defKinds[def];
+    }
+
+    public int defSymbol(int def) {
+        return defSymbols[def];
+    }
+
+    /**
+     * Block of definition, start block for parameters
+     */
+    public int defBlock(int def) {
+        return defBlocks[def];
+    }
+
+    /**
+     * STORE node of definition, -1 for parameters and phis
+     */
+    public int defNode(int def) {
+        return defNodes[def];
+    }
+
+    public int phiCount(int block) {
+        return phiStart[block + 1] - phiStart[block];
+    }
+
+    /**
+     * Definition id of i-th phi of block
+     */
+    public int phi(int block, int i) {
+        return phiStart[block] + i;
+    }
+
+    /**
+     * Definition coming to phi from i-th predecessor of its block, -1 if value is undefined there
+     */
+    public int phiOperand(int phi, int i) {
+        return phiOperands[phiOperandStart[phi] + i];
+    }
+
+    /**
+     * Definition read by LOAD node, -1 if node is not reachable LOAD or value is undefined
+     */
+    public int reachingDef(int load) {
+        return reachingDefs[load];
+    }
+
+    /**
+     * Definition made by STORE node
+     */
+    public int storeDef(int store) {
+        return storeDefs[store];
+    }
+
+    /**
+     * Block of LOAD node
+     */
+    public int useBlock(int load) {
+        return useBlocks[load];
+    }
+
+    /**
+     * Statement or branch condition which contains LOAD node
+     */
+    public int useStatement(int load) {
+        return useStatements[load];
+    }
+
+    public int loadCount(int def) {
+        return loadStart[def + 1] - loadStart[def];
+    }
+
+    /**
+     * i-th LOAD node reading definition
+     */
+    public int load(int def, int i) {
+        return loads[loadStart[def] + i];
+    }
+
+    public int phiUseCount(int def) {
+        return phiUseStart[def + 1] - phiUseStart[def];
+    }
+
+    /**
+     * i-th phi having definition as operand
+     */
+    public int phiUse(int def, int i) {
+        return phiUses[phiUseStart[def] + i];
+    }
+}
@@ -0,0 +1,18 @@
+package com.naofi.compiler.dfa;
+
+import com.naofi.compiler.ir.MethodIr;
+
+/**
+ * Pass which rewrites method. Cached analyses refer to blocks and IR nodes of the method they were computed for,
+ * so all of them are dropped when pass returns new method
+ */
+public interface Transformation {
+    default String getName() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * Returns rewritten method or the same instance if nothing was changed
+     */
+    MethodIr run(DfaPipeline pipeline);
+}
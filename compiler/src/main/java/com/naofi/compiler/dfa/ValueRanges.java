@@ -0,0 +1,69 @@
+package com.naofi.compiler.dfa;
+
+import com.naofi.compiler.binding.symbols.VariableType;
+
+import java.util.Arrays;
+
+/**
+ * Proven ranges of integral IR values, produced by {@link RangeAnalysis}.
+ * Nodes which are never evaluated have empty range
+ */
+public final class ValueRanges {
+    private final long[] nodeLo;
+    private final long[] nodeHi;
+    private final boolean[] mayWrap;
+    private final long[] storedLo;
+    private final long[] storedHi;
+
+    ValueRanges(int nodes, int symbols) {
+        nodeLo = new long[nodes];
+        nodeHi = new long[nodes];
+        mayWrap = new boolean[nodes];
+        storedLo = new long[symbols];
+        storedHi = new long[symbols];
+        Arrays.fill(nodeLo, Long.MAX_VALUE);
+        Arrays.fill(nodeHi, Long.MIN_VALUE);
+        Arrays.fill(storedLo, Long.MAX_VALUE);
+        Arrays.fill(storedHi, Long.MIN_VALUE);
+    }
+
+    void recordNode(int node, long lo, long hi, boolean wraps) {
+        nodeLo[node] = Math.min(nodeLo[node], lo);
+        nodeHi[node] = Math.max(nodeHi[node], hi);
+        mayWrap[node] |= wraps;
+    }
+
+    void recordStore(int symbol, long lo, long hi) {
+        storedLo[symbol] = Math.min(storedLo[symbol], lo);
+        storedHi[symbol] = Math.max(storedHi[symbol], hi);
+    }
+
+    public long lo(int node) {
+        return nodeLo[node];
+    }
+
+    public long hi(int node) {
+        return nodeHi[node];
+    }
+
+    /**
+     * Checks if every value of node fits type
+     */
+    public boolean fits(int node, VariableType type) {
+        return nodeLo[node] > nodeHi[node] || (type.fits(nodeLo[node]) && type.fits(nodeHi[node]));
+    }
+
+    /**
+     * Checks if arithmetic node may produce result outside of its type range, it is wrapped then
+     */
+    public boolean mayWrap(int node) {
+        return mayWrap[node];
+    }
+
+    /**
+     * Checks if every value stored to symbol fits type
+     */
+    public boolean storesFit(int symbol, VariableType type) {
+        return storedLo[symbol] > storedHi[symbol] || (type.fits(storedLo[symbol]) && type.fits(storedHi[symbol]));
+    }
+}
@@ -1,154 +1,106 @@
 package com.naofi.compiler.dfa;
 
-import com.naofi.antlr.NfLangBaseVisitor;
-import com.naofi.antlr.NfLangParser;
-import com.naofi.compiler.binding.symbols.Variable;
-import com.naofi.compiler.dfa.build.BaseGraphVisitor;
-import com.naofi.compiler.dfa.build.Graph;
-import com.naofi.compiler.dfa.build.IgnoreBackLinksGraphVisitor;
+import com.naofi.compiler.dfa.build.ControlFlowGraph;
+import com.naofi.compiler.dfa.flow.BitSetAnalysis;
+import com.naofi.compiler.dfa.flow.DataflowResult;
+import com.naofi.compiler.ir.MethodIr;
+import com.naofi.compiler.ir.Opcode;
+import com.naofi.compiler.ir.Postorder;
 
 import java.util.*;
 
 /**
- * Check if variable was initialized before usage
+ * Check if variable was initialized before usage.
+ * Definite assignment: symbol is set if it is assigned on every path to the point
  */
-class VarInitChecker extends IgnoreBackLinksGraphVisitor<String> implements DfaPipelineEntry {
-    private final List<String> errors = new ArrayList<>();
-    // Contains variables, deque because of conditional jump
-    private final Deque<Map<Variable, Boolean>> varInits = new ArrayDeque<>();
-
-    @Override
-    public List<String> check(Graph.StartNode startNode) {
-        visitStartNode(startNode);
-        return errors;
+class VarInitChecker extends BitSetAnalysis implements DfaPipelineEntry {
+    private MethodIr method;
+    private Postorder order;
+    // Null while solving, usages are checked by last pass over fixed point
+    private List<String> errors;
+
+    VarInitChecker() {
+        super(Direction.FORWARD, Meet.INTERSECTION);
     }
 
-    private class StatementVisitor extends NfLangBaseVisitor<String> {
-        @Override
-        public String visitAssignment(NfLangParser.AssignmentContext ctx) {
-            visitExpr(ctx.expr());
-            Variable variable = (Variable) ctx.variable();
-            initVar(variable);
-
-            return null;
-        }
-
-        @Override
-        public String visitTypeDef(NfLangParser.TypeDefContext ctx) {
-            if (ctx.variable() instanceof Variable) {
-                Variable variable = (Variable) ctx.variable();
-                defineVar(variable);
-                return null;
-            }
-
-            return varNotReplaced();
-        }
-
-        @Override
-        public String visitTypeInitDef(NfLangParser.TypeInitDefContext ctx) {
-            if (ctx.variable() instanceof Variable) {
-                visitExpr(ctx.expr());
-                Variable variable = (Variable) ctx.variable();
-                defineVar(variable);
-                initVar(variable);
-                return null;
-            }
-
-            return varNotReplaced();
-        }
-
-        @Override
-        public String visitVarInitDef(NfLangParser.VarInitDefContext ctx) {
-            if (ctx.variable() instanceof Variable) {
-                visitExpr(ctx.expr());
-                Variable variable = (Variable) ctx.variable();
-                defineVar(variable);
-                initVar(variable);
-                return null;
-            }
-
-            return varNotReplaced();
-        }
-
-        @Override
-        public String visitVariable(NfLangParser.VariableContext ctx) {
-            if (ctx instanceof Variable) {
-                checkUsage((Variable) ctx);
-                return null;
-            }
-
-            return varNotReplaced();
-        }
-
-        private String varNotReplaced() {
-            throw new IllegalStateException("Variable was not replaced on binding step");
+    @Override
+    public List<String> check(DfaPipeline pipeline) {
+        ControlFlowGraph cfg = pipeline.getCfg();
+        method = cfg.getMethod();
+        order = new Postorder(method);
+        errors = null;
+        DataflowResult result = solve(cfg);
+
+        errors = new ArrayList<>();
+        for (int block = 0; block < cfg.size(); block++) {
+            transfer(cfg, block, (BitSet) result.in(block).clone());
         }
+        return errors;
     }
 
     @Override
-    public String visit(Graph.GraphNode node) {
-        pushScope();
-        String result = super.visit(node);
-        popScope();
-
-        return  result;
+    protected int width(ControlFlowGraph cfg) {
+        return cfg.getMethod().symbolCount();
     }
 
-    private final StatementVisitor statementVisitor  = new StatementVisitor();
     @Override
-    public String visitBasicBlock(Graph.BasicBlock node) {
-        node.getStatements().forEach(statementVisitor::visit);
-        return visit(node.getNext());
+    protected BitSet boundary(ControlFlowGraph cfg) {
+        // Parameters are initialized by caller
+        BitSet parameters = new BitSet();
+        parameters.set(0, cfg.getMethod().getFormalTypes().size());
+        return parameters;
     }
 
     @Override
-    public String visitConditionalJump(Graph.ConditionalJump node) {
-        statementVisitor.visit(node.getCondition());
-        pushScope();
-        visit(node.getIfTrue());
-        popScope();
-        pushScope();
-        visit(node.getIfFalse());
-        popScope();
-        return null;
-    }
-
-    public List<String> getErrors() {
-        return errors;
-    }
-
-    private void checkUsage(Variable variable) {
-        if (!isInitialized(variable)) {
-            errors.add(String.format("Variable '%s' may be not initialized", variable.getName()));
+    protected void transfer(ControlFlowGraph cfg, int block, BitSet initialized) {
+        switch (cfg.kind(block)) {
+            case BASIC:
+                for (int i = 0; i < cfg.statementCount(block); i++) {
+                    visitStatement(cfg.statement(block, i), initialized);
+                }
+                break;
+            case BRANCH:
+                visitExpression(cfg.condition(block), initialized);
+                break;
+            default:
         }
     }
 
-    private boolean isInitialized(Variable variable) {
-        return varInits.stream()
-                .map(scope -> scope.getOrDefault(variable, false))
-                .filter(v -> v)
-                .findAny()
-                .orElse(false);
-    }
-
-    private void defineVar(Variable variable) {
-        varInits.getFirst().put(variable, false);
-    }
-
-    private void initVar(Variable variable) {
-        varInits.getFirst().computeIfPresent(variable, (k, v) -> true);
-//        varInits.forEach(map -> map.computeIfPresent(variable, (k, v) -> true));
+    private void visitStatement(int node, BitSet initialized) {
+        switch (method.opcode(node)) {
+            case DEFINE:
+                // Definition inside of loop makes new variable on every iteration
+                initialized.clear(method.symbol(node));
+                break;
+            case STORE:
+                visitExpression(method.operand(node), initialized);
+                initialized.set(method.symbol(node));
+                break;
+            case EXPRESSION:
+                visitExpression(method.operand(node), initialized);
+                break;
+            case RETURN:
+                for (int i = 0; i < method.childCount(node); i++) {
+                    visitExpression(method.child(node, i), initialized);
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unexpected statement in basic block: " + method.opcode(node));
+        }
     }
 
-    private void pushScope() {
-        if (varInits.isEmpty()) {
-            varInits.push(new IdentityHashMap<>());
-        } else {
-            varInits.push(new IdentityHashMap<>(varInits.getFirst()));
+    private void visitExpression(int expression, BitSet initialized) {
+        int count = order.walk(expression);
+        for (int i = 0; i < count; i++) {
+            if (method.opcode(order.node(i)) == Opcode.LOAD) {
+                checkUsage(method.symbol(order.node(i)), initialized);
+            }
         }
     }
 
-    private void popScope() {
-        varInits.pop();
+    private void checkUsage(int symbol, BitSet initialized) {
+        if (errors != null && !initialized.get(symbol)) {
+            errors.add(String.format("Variable '%s' may be not initialized", method.symbolName(symbol)));
+        }
     }
 }
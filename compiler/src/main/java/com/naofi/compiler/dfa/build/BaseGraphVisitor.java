@@ -1,39 +1,52 @@
 package com.naofi.compiler.dfa.build;
 
-public class BaseGraphVisitor<T> {
-    public T visit(Graph.GraphNode node) {
-        if (node instanceof Graph.StartNode) {
-            return visitStartNode((Graph.StartNode) node);
-        } else if (node instanceof Graph.EndNode) {
-            return visitEndNode((Graph.EndNode) node);
-        } else if (node instanceof Graph.BasicBlock) {
-            return visitBasicBlock((Graph.BasicBlock) node);
-        } else if (node instanceof Graph.ConditionalJump) {
-            return visitConditionalJump((Graph.ConditionalJump) node);
-        } else {
-            throw new UnsupportedOperationException("Unknown type of graph node: " + node.getClass().getName());
-        }
-    }
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Set;
 
-    protected T visitStartNode(Graph.StartNode node) {
-        return visit(node.getNext());
+/**
+ * Visits every node reachable from start once, in depth first preorder with true branch first.
+ * Pending nodes are kept on explicit stack, so long graphs do not need deep thread stack
+ */
+public class BaseGraphVisitor {
+    public void visit(Graph.GraphNode start) {
+        Set<Graph.GraphNode> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Graph.GraphNode> pending = new ArrayDeque<>();
+        pending.push(start);
+        while (!pending.isEmpty()) {
+            Graph.GraphNode node = pending.pop();
+            if (!visited.add(node)) {
+                continue;
+            }
+            if (node instanceof Graph.StartNode) {
+                visitStartNode((Graph.StartNode) node);
+                pending.push(((Graph.StartNode) node).getNext());
+            } else if (node instanceof Graph.EndNode) {
+                visitEndNode((Graph.EndNode) node);
+            } else if (node instanceof Graph.BasicBlock) {
+                visitBasicBlock((Graph.BasicBlock) node);
+                pending.push(((Graph.BasicBlock) node).getNext());
+            } else if (node instanceof Graph.ConditionalJump) {
+                visitConditionalJump((Graph.ConditionalJump) node);
+                pending.push(((Graph.ConditionalJump) node).getIfFalse());
+                pending.push(((Graph.ConditionalJump) node).getIfTrue());
+            } else {
+                throw new UnsupportedOperationException("Unknown type of graph node: " + node.getClass().getName());
+            }
+        }
     }
 
-    protected T visitEndNode(Graph.EndNode node) {
-        return null;
+    protected void visitStartNode(Graph.StartNode node) {
     }
 
-    protected T visitBasicBlock(Graph.BasicBlock node) {
-        return visit(node.getNext());
+    protected void visitEndNode(Graph.EndNode node) {
     }
 
-    protected T visitConditionalJump(Graph.ConditionalJump node) {
-        visit(node.getIfTrue());
-        visit(node.getIfFalse());
-        return defaultReturnValue();
+    protected void visitBasicBlock(Graph.BasicBlock node) {
     }
 
-    protected T defaultReturnValue() {
-        return null;
+    protected void visitConditionalJump(Graph.ConditionalJump node) {
     }
 }
@@ -1,117 +1,128 @@
 package com.naofi.compiler.dfa.build;
 
-import com.naofi.antlr.NfLangBaseVisitor;
-import com.naofi.antlr.NfLangParser;
+import com.naofi.compiler.ir.MethodIr;
+import com.naofi.compiler.ir.Opcode;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 import static com.naofi.compiler.dfa.build.GraphBuilder.Label;
 
-public class BuildGraphVisitor  extends NfLangBaseVisitor<Graph.GraphNode> {
+/**
+ * Builds graph of method. Nested statements are pending on explicit work stack,
+ * step on top is run next, so nesting depth is not limited by thread stack
+ */
+public class BuildGraphVisitor {
     private final GraphBuilder builder = new GraphBuilder();
+    private final MethodIr method;
+    private final Deque<Runnable> work = new ArrayDeque<>();
+
+    public BuildGraphVisitor(MethodIr method) {
+        this.method = method;
+    }
 
-    @Override
-    public Graph.GraphNode visitWhileStmt(NfLangParser.WhileStmtContext ctx) {
+    public void visitMethod() {
+        visitBlock(method.getBody());
+        while (!work.isEmpty()) {
+            work.pop().run();
+        }
+        // Falling off the end of void method
+        builder.end();
+    }
+
+    private void visitStatement(int node) {
+        switch (method.opcode(node)) {
+            case BLOCK:
+                visitBlock(node);
+                break;
+            case WHILE:
+                visitWhileStmt(node);
+                break;
+            case IF:
+                visitIfStatement(node, null);
+                break;
+            case RETURN:
+                builder.basic(node);
+                builder.end();
+                break;
+            default:
+                builder.basic(node);
+        }
+    }
+
+    private void visitBlock(int node) {
+        for (int i = method.childCount(node) - 1; i >= 0; i--) {
+            int statement = method.child(node, i);
+            work.push(() -> visitStatement(statement));
+        }
+    }
+
+    private void visitWhileStmt(int node) {
         Label condLabel = new Label();
         Label startLabel = new Label();
         Label endLabel = new Label();
 
         builder.label(condLabel);
-        builder.condJump(ctx.boolExpression(), startLabel, endLabel);
+        builder.condJump(method.condition(node), startLabel, endLabel);
         builder.label(startLabel);
-        visitBlock(ctx.block());
-        builder.goTo(condLabel);
-        builder.label(endLabel);
+        work.push(() -> {
+            builder.goTo(condLabel);
+            builder.label(endLabel);
+        });
+        visitBlock(method.body(node));
+    }
 
-        return null;
+    /**
+     * @param endLabel end of else-if chain, null for its first if
+     */
+    private void visitIfStatement(int node, Label endLabel) {
+        if (method.elseBranch(node) == -1) {
+            ifStmt(node, endLabel);
+        } else {
+            ifElseStmt(node, (endLabel == null) ? new Label() : endLabel);
+        }
     }
 
-    @Override
-    public Graph.GraphNode visitIfStmt(NfLangParser.IfStmtContext ctx) {
+    private void ifStmt(int node, Label endLabel) {
         Label trueLabel = new Label();
         Label falseLabel = new Label();
 
-
-        builder.condJump(ctx.boolExpression(), trueLabel, falseLabel);
+        builder.condJump(method.condition(node), trueLabel, falseLabel);
         builder.label(trueLabel);
         builder.basic();
-        visitBlock(ctx.block());
-        builder.label(falseLabel);
-        if (endLabel != null) {
-            builder.label(endLabel);
-            endLabel = null;
-        }
-
-        return null;
+        work.push(() -> {
+            builder.label(falseLabel);
+            if (endLabel != null) {
+                builder.label(endLabel);
+            }
+        });
+        visitBlock(method.body(node));
     }
 
-    private Label endLabel;
-    @Override
-    public Graph.GraphNode visitIfElseStmt(NfLangParser.IfElseStmtContext ctx) {
+    private void ifElseStmt(int node, Label endLabel) {
         Label trueLabel = new Label();
         Label falseLabel = new Label();
-        if (endLabel == null) {
-            endLabel = new Label();
-        }
 
-        builder.condJump(ctx.boolExpression(), trueLabel, falseLabel);
+        builder.condJump(method.condition(node), trueLabel, falseLabel);
         builder.label(trueLabel);
         builder.basic();
-        visitBlock(ctx.block());
-        builder.goTo(endLabel);
-        builder.basic();
-        builder.label(falseLabel);
-        visit(ctx.elseInner());
-
-        return null;
-    }
-
-    @Override
-    public Graph.GraphNode visitElseStmt(NfLangParser.ElseStmtContext ctx) {
-        visitBlock(ctx.block());
-        if (endLabel != null) {
-            builder.label(endLabel);
-            endLabel = null;
-        } else {
-            throw new IllegalStateException("endLabel is null while visiting elseStmt");
-        }
-
-        return null;
-    }
-
-    @Override
-    public Graph.GraphNode visitSimpleStatement(NfLangParser.SimpleStatementContext ctx) {
-        builder.basic(ctx);
-        return null;
-    }
-
-    @Override
-    public Graph.GraphNode visitAssignment(NfLangParser.AssignmentContext ctx) {
-        builder.basic(ctx);
-        return null;
-    }
-
-    @Override
-    public Graph.GraphNode visitTypeDef(NfLangParser.TypeDefContext ctx) {
-        builder.basic(ctx);
-        return null;
+        work.push(() -> {
+            builder.goTo(endLabel);
+            builder.basic();
+            builder.label(falseLabel);
+            int elseBranch = method.elseBranch(node);
+            if (method.opcode(elseBranch) == Opcode.IF) {
+                visitIfStatement(elseBranch, endLabel);
+            } else {
+                visitElseStmt(elseBranch, endLabel);
+            }
+        });
+        visitBlock(method.body(node));
     }
 
-    @Override
-    public Graph.GraphNode visitTypeInitDef(NfLangParser.TypeInitDefContext ctx) {
-        builder.basic(ctx);
-        return null;
-    }
-
-    @Override
-    public Graph.GraphNode visitVarInitDef(NfLangParser.VarInitDefContext ctx) {
-        builder.basic(ctx);
-        return null;
-    }
-
-    @Override
-    public Graph.GraphNode visitReturn(NfLangParser.ReturnContext ctx) {
-        builder.basic(ctx);
-        builder.end();
-        return null;
+    private void visitElseStmt(int node, Label endLabel) {
+        work.push(() -> builder.label(endLabel));
+        visitBlock(node);
     }
 
     public Graph.StartNode getStartNode() {
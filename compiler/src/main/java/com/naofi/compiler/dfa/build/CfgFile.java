@@ -0,0 +1,248 @@
+package com.naofi.compiler.dfa.build;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary form of {@link ControlFlowGraph}, which can be written to channel and mapped back without compiling again.
+ * Header of int fields is followed by int arrays in the same layout as in graph, then by predecessor slots,
+ * block kinds and UTF-8 method name as bytes. Statements and conditions are IR node ids of compiled method.
+ * Read graph keeps buffer and reads every value from it
+ */
+public final class CfgFile {
+    private static final int MAGIC = 0x4E464347;
+    private static final int VERSION = 1;
+    private static final int HEADER_INTS = 7;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final ControlFlowGraph.Kind[] KINDS = ControlFlowGraph.Kind.values();
+
+    private final String name;
+    private final int end;
+    private final IntBuffer statementStart;
+    private final IntBuffer statements;
+    private final IntBuffer conditions;
+    private final IntBuffer successorStart;
+    private final IntBuffer successors;
+    private final IntBuffer predecessorStart;
+    private final IntBuffer predecessors;
+    private final ByteBuffer predecessorSlots;
+    private final ByteBuffer kinds;
+
+    private CfgFile(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_INTS * Integer.BYTES || buffer.getInt(buffer.position()) != MAGIC) {
+            throw new IllegalArgumentException("Not a control flow graph file");
+        }
+        IntBuffer header = buffer.asIntBuffer();
+        if (header.get(1) != VERSION) {
+            throw new IllegalArgumentException("Unsupported control flow graph file version: " + header.get(1));
+        }
+        int size = header.get(2);
+        int statementCount = header.get(3);
+        int edgeCount = header.get(4);
+        end = header.get(5);
+        int nameLength = header.get(6);
+
+        int position = buffer.position() + HEADER_INTS * Integer.BYTES;
+        statementStart = ints(buffer, position, size + 1);
+        position += (size + 1) * Integer.BYTES;
+        statements = ints(buffer, position, statementCount);
+        position += statementCount * Integer.BYTES;
+        conditions = ints(buffer, position, size);
+        position += size * Integer.BYTES;
+        successorStart = ints(buffer, position, size + 1);
+        position += (size + 1) * Integer.BYTES;
+        successors = ints(buffer, position, edgeCount);
+        position += edgeCount * Integer.BYTES;
+        predecessorStart = ints(buffer, position, size + 1);
+        position += (size + 1) * Integer.BYTES;
+        predecessors = ints(buffer, position, edgeCount);
+        position += edgeCount * Integer.BYTES;
+        predecessorSlots = bytes(buffer, position, edgeCount);
+        position += edgeCount;
+        kinds = bytes(buffer, position, size);
+        position += size;
+        byte[] nameBytes = new byte[nameLength];
+        bytes(buffer, position, nameLength).get(nameBytes);
+        name = new String(nameBytes, StandardCharsets.UTF_8);
+    }
+
+    private static IntBuffer ints(ByteBuffer buffer, int position, int count) {
+        return bytes(buffer, position, count * Integer.BYTES).asIntBuffer();
+    }
+
+    private static ByteBuffer bytes(ByteBuffer buffer, int position, int count) {
+        ByteBuffer section = buffer.duplicate();
+        section.limit(position + count).position(position);
+        return section.slice();
+    }
+
+    /**
+     * Writes graph through fixed size buffer, channel is not closed
+     */
+    public static void write(ControlFlowGraph cfg, WritableByteChannel channel) throws IOException {
+        int size = cfg.size();
+        int statementCount = 0;
+        int edgeCount = 0;
+        for (int block = 0; block < size; block++) {
+            statementCount += cfg.statementCount(block);
+            edgeCount += cfg.successorCount(block);
+        }
+        byte[] name = cfg.getMethod().getName().getBytes(StandardCharsets.UTF_8);
+
+        Output out = new Output(channel);
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+        out.putInt(size);
+        out.putInt(statementCount);
+        out.putInt(edgeCount);
+        out.putInt(cfg.end());
+        out.putInt(name.length);
+
+        out.putInt(0);
+        for (int block = 0, position = 0; block < size; block++) {
+            position += cfg.statementCount(block);
+            out.putInt(position);
+        }
+        for (int block = 0; block < size; block++) {
+            for (int i = 0; i < cfg.statementCount(block); i++) {
+                out.putInt(cfg.statement(block, i));
+            }
+        }
+        for (int block = 0; block < size; block++) {
+            out.putInt(cfg.condition(block));
+        }
+        out.putInt(0);
+        for (int block = 0, position = 0; block < size; block++) {
+            position += cfg.successorCount(block);
+            out.putInt(position);
+        }
+        for (int block = 0; block < size; block++) {
+            for (int slot = 0; slot < cfg.successorCount(block); slot++) {
+                out.putInt(cfg.successor(block, slot));
+            }
+        }
+        out.putInt(0);
+        for (int block = 0, position = 0; block < size; block++) {
+            position += cfg.predecessorCount(block);
+            out.putInt(position);
+        }
+        for (int block = 0; block < size; block++) {
+            for (int i = 0; i < cfg.predecessorCount(block); i++) {
+                out.putInt(cfg.predecessor(block, i));
+            }
+        }
+        for (int block = 0; block < size; block++) {
+            for (int i = 0; i < cfg.predecessorCount(block); i++) {
+                out.put((byte) cfg.predecessorSlot(block, i));
+            }
+        }
+        for (int block = 0; block < size; block++) {
+            out.put((byte) cfg.kind(block).ordinal());
+        }
+        for (byte b : name) {
+            out.put(b);
+        }
+        out.flush();
+    }
+
+    /**
+     * Maps whole file read only, mapping stays valid after file is closed
+     */
+    public static CfgFile map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new CfgFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads graph written from buffer position, buffer is not copied
+     */
+    public static CfgFile read(ByteBuffer buffer) {
+        return new CfgFile(buffer.duplicate());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return kinds.limit();
+    }
+
+    public ControlFlowGraph.Kind kind(int block) {
+        return KINDS[kinds.get(block)];
+    }
+
+    public int end() {
+        return end;
+    }
+
+    public int statementCount(int block) {
+        return statementStart.get(block + 1) - statementStart.get(block);
+    }
+
+    public int statement(int block, int i) {
+        return statements.get(statementStart.get(block) + i);
+    }
+
+    public int condition(int block) {
+        return conditions.get(block);
+    }
+
+    public int successorCount(int block) {
+        return successorStart.get(block + 1) - successorStart.get(block);
+    }
+
+    public int successor(int block, int slot) {
+        return successors.get(successorStart.get(block) + slot);
+    }
+
+    public int predecessorCount(int block) {
+        return predecessorStart.get(block + 1) - predecessorStart.get(block);
+    }
+
+    public int predecessor(int block, int i) {
+        return predecessors.get(predecessorStart.get(block) + i);
+    }
+
+    public int predecessorSlot(int block, int i) {
+        return predecessorSlots.get(predecessorStart.get(block) + i);
+    }
+
+    private static class Output {
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        Output(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        void putInt(int value) throws IOException {
+            if (buffer.remaining() < Integer.BYTES) {
+                flush();
+            }
+            buffer.putInt(value);
+        }
+
+        void put(byte value) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.put(value);
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
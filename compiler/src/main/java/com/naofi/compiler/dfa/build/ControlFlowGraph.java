@@ -0,0 +1,254 @@
+package com.naofi.compiler.dfa.build;
+
+import com.naofi.compiler.ir.MethodIr;
+
+import java.util.*;
+
+/**
+ * Immutable array based form of {@link Graph}.
+ * Blocks have dense ids in reverse postorder, so start block is 0 and every edge
+ * to block with id not greater than its source is a back edge.
+ * Empty basic blocks and nodes unreachable from start are dropped.
+ * Conditional branch has two successors, slot 0 is taken if condition is true, slot 1 otherwise
+ */
+public final class ControlFlowGraph {
+    public enum Kind {
+        START,
+        END,
+        BASIC,
+        BRANCH
+    }
+
+    public static ControlFlowGraph of(Graph graph) {
+        return new ControlFlowGraph(graph);
+    }
+
+    private final MethodIr method;
+    private final Kind[] kinds;
+    // Statements of block b are statements[statementStart[b] .. statementStart[b + 1])
+    private final int[] statementStart;
+    private final int[] statements;
+    // Condition of branch, -1 for other blocks
+    private final int[] conditions;
+    private final int[] successorStart;
+    private final int[] successors;
+    // Index of edge among predecessors of its successor
+    private final int[] successorIndexes;
+    private final int[] predecessorStart;
+    private final int[] predecessors;
+    // Out slot of predecessor the edge leaves from
+    private final int[] predecessorSlots;
+    private final int end;
+
+    private ControlFlowGraph(Graph graph) {
+        method = graph.getMethod();
+        List<Graph.GraphNode> order = reversePostorder(graph.getStartNode());
+        int size = order.size();
+        Map<Graph.GraphNode, Integer> ids = new IdentityHashMap<>();
+        for (int i = 0; i < size; i++) {
+            ids.put(order.get(i), i);
+        }
+
+        kinds = new Kind[size];
+        statementStart = new int[size + 1];
+        conditions = new int[size];
+        successorStart = new int[size + 1];
+        int statementCount = 0;
+        int edgeCount = 0;
+        int endBlock = -1;
+        for (int i = 0; i < size; i++) {
+            Graph.GraphNode node = order.get(i);
+            kinds[i] = kind(node);
+            conditions[i] = (kinds[i] == Kind.BRANCH) ? ((Graph.ConditionalJump) node).getCondition() : -1;
+            if (kinds[i] == Kind.BASIC) {
+                statementCount += ((Graph.BasicBlock) node).getStatements().size();
+            } else if (kinds[i] == Kind.END) {
+                endBlock = i;
+            }
+            statementStart[i + 1] = statementCount;
+            edgeCount += successorsOf(node).size();
+            successorStart[i + 1] = edgeCount;
+        }
+        end = endBlock;
+
+        statements = new int[statementCount];
+        successors = new int[edgeCount];
+        int[] predecessorCounts = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            Graph.GraphNode node = order.get(i);
+            if (kinds[i] == Kind.BASIC) {
+                int position = statementStart[i];
+                for (int statement : ((Graph.BasicBlock) node).getStatements()) {
+                    statements[position++] = statement;
+                }
+            }
+            List<Graph.GraphNode> nodeSuccessors = successorsOf(node);
+            for (int slot = 0; slot < nodeSuccessors.size(); slot++) {
+                int successor = ids.get(nodeSuccessors.get(slot));
+                successors[successorStart[i] + slot] = successor;
+                predecessorCounts[successor + 1]++;
+            }
+        }
+
+        predecessorStart = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            predecessorStart[i + 1] = predecessorStart[i] + predecessorCounts[i + 1];
+        }
+        predecessors = new int[edgeCount];
+        predecessorSlots = new int[edgeCount];
+        successorIndexes = new int[edgeCount];
+        int[] filled = Arrays.copyOf(predecessorStart, size);
+        for (int i = 0; i < size; i++) {
+            for (int slot = 0; slot < successorCount(i); slot++) {
+                int successor = successor(i, slot);
+                successorIndexes[successorStart[i] + slot] = filled[successor] - predecessorStart[successor];
+                predecessors[filled[successor]] = i;
+                predecessorSlots[filled[successor]++] = slot;
+            }
+        }
+    }
+
+    private static List<Graph.GraphNode> reversePostorder(Graph.StartNode start) {
+        List<Graph.GraphNode> postorder = new ArrayList<>();
+        Set<Graph.GraphNode> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Graph.GraphNode> nodes = new ArrayDeque<>();
+        Deque<Integer> nextSlots = new ArrayDeque<>();
+        visited.add(start);
+        nodes.push(start);
+        nextSlots.push(0);
+        while (!nodes.isEmpty()) {
+            Graph.GraphNode node = nodes.peek();
+            int slot = nextSlots.pop();
+            List<Graph.GraphNode> nodeSuccessors = successorsOf(node);
+            if (slot == nodeSuccessors.size()) {
+                nodes.pop();
+                postorder.add(node);
+                continue;
+            }
+            nextSlots.push(slot + 1);
+            Graph.GraphNode successor = nodeSuccessors.get(slot);
+            if (visited.add(successor)) {
+                nodes.push(successor);
+                nextSlots.push(0);
+            }
+        }
+        Collections.reverse(postorder);
+        return postorder;
+    }
+
+    /**
+     * Successors with empty basic blocks skipped
+     */
+    private static List<Graph.GraphNode> successorsOf(Graph.GraphNode node) {
+        if (node instanceof Graph.StartNode) {
+            return Collections.singletonList(skipEmpty(((Graph.StartNode) node).getNext()));
+        } else if (node instanceof Graph.BasicBlock) {
+            return Collections.singletonList(skipEmpty(((Graph.BasicBlock) node).getNext()));
+        } else if (node instanceof Graph.ConditionalJump) {
+            Graph.ConditionalJump jump = (Graph.ConditionalJump) node;
+            return Arrays.asList(skipEmpty(jump.getIfTrue()), skipEmpty(jump.getIfFalse()));
+        }
+        return Collections.emptyList();
+    }
+
+    private static Graph.GraphNode skipEmpty(Graph.GraphNode node) {
+        // Every loop contains conditional jump, so chain of empty blocks ends
+        while (node instanceof Graph.BasicBlock && ((Graph.BasicBlock) node).getStatements().isEmpty()) {
+            node = ((Graph.BasicBlock) node).getNext();
+        }
+        if (node == null) {
+            throw new IllegalStateException("Graph node has no successor");
+        }
+        return node;
+    }
+
+    private static Kind kind(Graph.GraphNode node) {
+        if (node instanceof Graph.StartNode) {
+            return Kind.START;
+        } else if (node instanceof Graph.EndNode) {
+            return Kind.END;
+        } else if (node instanceof Graph.BasicBlock) {
+            return Kind.BASIC;
+        } else if (node instanceof Graph.ConditionalJump) {
+            return Kind.BRANCH;
+        }
+        throw new UnsupportedOperationException("Unknown type of graph node: " + node.getClass().getName());
+    }
+
+    public MethodIr getMethod() {
+        return method;
+    }
+
+    /**
+     * Number of blocks, ids are 0 until size
+     */
+    public int size() {
+        return kinds.length;
+    }
+
+    public Kind kind(int block) {
+        return kinds[block];
+    }
+
+    /**
+     * Id of end block, -1 if method never completes
+     */
+    public int end() {
+        return end;
+    }
+
+    public int statementCount(int block) {
+        return statementStart[block + 1] - statementStart[block];
+    }
+
+    /**
+     * IR node of i-th statement of basic block
+     */
+    public int statement(int block, int i) {
+        return statements[statementStart[block] + i];
+    }
+
+    /**
+     * IR node of branch condition
+     */
+    public int condition(int block) {
+        return conditions[block];
+    }
+
+    public int successorCount(int block) {
+        return successorStart[block + 1] - successorStart[block];
+    }
+
+    public int successor(int block, int slot) {
+        return successors[successorStart[block] + slot];
+    }
+
+    /**
+     * Index of block among predecessors of its successor in slot
+     */
+    public int successorIndex(int block, int slot) {
+        return successorIndexes[successorStart[block] + slot];
+    }
+
+    public int predecessorCount(int block) {
+        return predecessorStart[block + 1] - predecessorStart[block];
+    }
+
+    public int predecessor(int block, int i) {
+        return predecessors[predecessorStart[block] + i];
+    }
+
+    /**
+     * Successor slot of i-th predecessor, which leads to block
+     */
+    public int predecessorSlot(int block, int i) {
+        return predecessorSlots[predecessorStart[block] + i];
+    }
+
+    /**
+     * Edge is back edge if it does not go forward in reverse postorder
+     */
+    public boolean isBackEdge(int from, int to) {
+        return to <= from;
+    }
+}
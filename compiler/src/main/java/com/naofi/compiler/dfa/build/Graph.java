@@ -1,11 +1,14 @@
 package com.naofi.compiler.dfa.build;
 
-import com.naofi.antlr.NfLangParser;
+import com.naofi.compiler.ir.MethodIr;
 import org.antlr.v4.runtime.misc.Pair;
 
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.PrintStream;
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.*;
 
 /**
@@ -15,10 +18,12 @@ import java.util.*;
  * ConditionalJump
  */
 public class Graph {
-    public static Graph fromMethod(NfLangParser.MethodContext method) {
-        BuildGraphVisitor builder = new BuildGraphVisitor();
-        builder.visitMethod(method);
-        return new Graph(builder.getStartNode());
+    private static final int BUFFER_SIZE = 8192;
+
+    public static Graph fromMethod(MethodIr method) {
+        BuildGraphVisitor builder = new BuildGraphVisitor(method);
+        builder.visitMethod();
+        return new Graph(method, builder.getStartNode());
     }
 
     public interface GraphNode {
@@ -49,22 +54,23 @@ public class Graph {
     }
 
     public static class BasicBlock implements GraphNode {
-        private final List<NfLangParser.StatementContext> statements = new ArrayList<>();
+        // IR statement nodes
+        private final List<Integer> statements = new ArrayList<>();
         private GraphNode next;
 
-        public BasicBlock(List<NfLangParser.StatementContext> statements) {
+        public BasicBlock(List<Integer> statements) {
             this.statements.addAll(statements);
         }
 
-        public BasicBlock(NfLangParser.StatementContext... statements) {
+        public BasicBlock(Integer... statements) {
             this.statements.addAll(Arrays.asList(statements));
         }
 
-        public final List<NfLangParser.StatementContext> getStatements() {
-            return new ArrayList<>(statements);
+        public final List<Integer> getStatements() {
+            return Collections.unmodifiableList(statements);
         }
 
-        public void addStatement(NfLangParser.StatementContext stmt) {
+        public void addStatement(int stmt) {
             statements.add(stmt);
         }
 
@@ -79,22 +85,23 @@ public class Graph {
         @Override
         public String toString() {
             StringBuilder builder = new StringBuilder("Basic{\n");
-            statements.forEach(s -> builder.append(s.getText()).append('\n'));
+            statements.forEach(s -> builder.append(s).append('\n'));
             builder.append("}");
             return builder.toString();
         }
     }
 
     public static class ConditionalJump implements GraphNode {
-        private final NfLangParser.BoolExpressionContext condition;
+        // IR expression node
+        private final int condition;
         private GraphNode ifTrue;
         private GraphNode ifFalse;
 
-        public ConditionalJump(NfLangParser.BoolExpressionContext condition) {
+        public ConditionalJump(int condition) {
             this.condition = condition;
         }
 
-        public NfLangParser.BoolExpressionContext getCondition() {
+        public int getCondition() {
             return condition;
         }
 
@@ -116,127 +123,159 @@ public class Graph {
 
         @Override
         public String toString() {
-            return "Cond{" + condition.getText() + '}';
+            return "Cond{" + condition + '}';
         }
     }
 
-    private static class DumpGraphVisitor extends BaseGraphVisitor<Integer> {
-        private final StringBuilder dotGraphBuilder = new StringBuilder();
-        private final Set<Pair<Integer, Integer>> edges = new HashSet<>(); //for testing
-        //For nodes used more than once
-        private final Map<GraphNode, Integer> traversedNodes = new IdentityHashMap<>();
-        private int lastNodeNumber = 0;
+    /**
+     * Numbers nodes in visiting order, text and edges are made after whole graph is numbered
+     */
+    private static class DumpGraphVisitor extends BaseGraphVisitor {
+        private final MethodIr method;
+        private final List<GraphNode> nodes = new ArrayList<>();
+        private final Map<GraphNode, Integer> numbers = new IdentityHashMap<>();
+
+        DumpGraphVisitor(MethodIr method) {
+            this.method = method;
+        }
 
         @Override
-        public Integer visitStartNode(StartNode node) {
-            int nodeNumber = nodeNumber(node);
-            dotGraphBuilder.append("digraph DfaGraph {")
-                    .append(nodeNumber)
-                    .append(" [label=Start, color=green];");
-            int nextNodeNumber = visit(node.getNext());
-            dotGraphBuilder.append(nodeNumber).append(" -> ").append(nextNodeNumber).append(";");
-            edges.add(new Pair<>(nodeNumber, nextNodeNumber));
+        protected void visitStartNode(StartNode node) {
+            number(node);
+        }
 
-            return nodeNumber;
+        @Override
+        protected void visitEndNode(EndNode node) {
+            number(node);
         }
 
         @Override
-        public Integer visitEndNode(EndNode node) {
-            if (traversedNodes.containsKey(node)) {
-                return traversedNodes.get(node);
-            }
-            int nodeNumber = nodeNumber(node);
-            dotGraphBuilder.append(nodeNumber)
-                    .append(" [label=End, color=red];");
-            return nodeNumber;
+        protected void visitBasicBlock(BasicBlock node) {
+            number(node);
         }
 
         @Override
-        public Integer visitBasicBlock(BasicBlock node) {
-            if (traversedNodes.containsKey(node)) {
-                return traversedNodes.get(node);
-            }
-            int nodeNumber = nodeNumber(node);
-            dotGraphBuilder.append(nodeNumber)
-                    .append(" [shape=box, label=\"");
-            for (NfLangParser.StatementContext statement : node.getStatements()) {
-                dotGraphBuilder.append(statement.getText()).append("\n");
-            }
-            dotGraphBuilder.append("\"];");
-            int nextNodeNumber = visit(node.getNext());
-            dotGraphBuilder.append(nodeNumber).append(" -> ").append(nextNodeNumber).append(";");
-            edges.add(new Pair<>(nodeNumber, nextNodeNumber));
+        protected void visitConditionalJump(ConditionalJump node) {
+            number(node);
+        }
 
-            return nodeNumber;
+        private void number(GraphNode node) {
+            numbers.put(node, nodes.size());
+            nodes.add(node);
         }
 
-        @Override
-        public Integer visitConditionalJump(ConditionalJump node) {
-            if (traversedNodes.containsKey(node)) {
-                return traversedNodes.get(node);
+        /**
+         * Writes DOT text node by node, no text of whole graph is kept
+         */
+        public void write(Writer out) throws IOException {
+            out.write("digraph DfaGraph {");
+            for (int nodeNumber = 0; nodeNumber < nodes.size(); nodeNumber++) {
+                GraphNode node = nodes.get(nodeNumber);
+                if (node instanceof StartNode) {
+                    out.write(nodeNumber + " [label=Start, color=green];");
+                    edge(out, nodeNumber, ((StartNode) node).getNext(), "");
+                } else if (node instanceof EndNode) {
+                    out.write(nodeNumber + " [label=End, color=red];");
+                } else if (node instanceof BasicBlock) {
+                    out.write(nodeNumber + " [shape=box, label=\"");
+                    for (int statement : ((BasicBlock) node).getStatements()) {
+                        out.write(method.toString(statement));
+                        out.write('\n');
+                    }
+                    out.write("\"];");
+                    edge(out, nodeNumber, ((BasicBlock) node).getNext(), "");
+                } else {
+                    ConditionalJump jump = (ConditionalJump) node;
+                    out.write(nodeNumber + "[label=\"");
+                    out.write(method.toString(jump.condition));
+                    out.write("\", shape=diamond];");
+                    edge(out, nodeNumber, jump.getIfTrue(), "[label=\"+\"]");
+                    edge(out, nodeNumber, jump.getIfFalse(), "[label=\"-\"]");
+                }
             }
-            int nodeNumber = nodeNumber(node);
-            dotGraphBuilder.append(nodeNumber)
-                    .append("[label=\"")
-                    .append(node.condition.getText())
-                    .append("\", shape=diamond];");
-            int trueNodeNumber = visit(node.getIfTrue());
-            dotGraphBuilder.append(nodeNumber).append(" -> ").append(trueNodeNumber).append("[label=\"+\"];");
-            edges.add(new Pair<>(nodeNumber, trueNodeNumber));
-            int falseNodeNumber = visit(node.getIfFalse());
-            dotGraphBuilder.append(nodeNumber).append(" -> ").append(falseNodeNumber).append("[label=\"-\"];");
-            edges.add(new Pair<>(nodeNumber, falseNodeNumber));
-
-            return nodeNumber;
-        }
-
-        private int nodeNumber(GraphNode node) {
-            // getOrDefault can be used, but lastNodeNumber will hbe incremented in any case
-            if (traversedNodes.containsKey(node)) {
-                return traversedNodes.get(node);
-            }
-            int newNumber = lastNodeNumber++;
-            traversedNodes.put(node, newNumber);
-
-            return newNumber;
+            out.write("}");
         }
 
-        public String getText() {
-            return dotGraphBuilder.append("}").toString();
+        private void edge(Writer out, int from, GraphNode to, String attributes) throws IOException {
+            out.write(from + " -> " + numbers.get(to) + attributes + ";");
         }
 
         public Set<Pair<Integer, Integer>> getEdges() {
+            Set<Pair<Integer, Integer>> edges = new HashSet<>();
+            for (int nodeNumber = 0; nodeNumber < nodes.size(); nodeNumber++) {
+                GraphNode node = nodes.get(nodeNumber);
+                if (node instanceof StartNode) {
+                    edges.add(new Pair<>(nodeNumber, numbers.get(((StartNode) node).getNext())));
+                } else if (node instanceof BasicBlock) {
+                    edges.add(new Pair<>(nodeNumber, numbers.get(((BasicBlock) node).getNext())));
+                } else if (node instanceof ConditionalJump) {
+                    edges.add(new Pair<>(nodeNumber, numbers.get(((ConditionalJump) node).getIfTrue())));
+                    edges.add(new Pair<>(nodeNumber, numbers.get(((ConditionalJump) node).getIfFalse())));
+                }
+            }
             return edges;
         }
     }
 
 
+    private final MethodIr method;
     private final StartNode startNode;
 
-    private Graph(StartNode startNode) {
+    private Graph(MethodIr method, StartNode startNode) {
+        this.method = method;
         this.startNode = startNode;
     }
 
+    public MethodIr getMethod() {
+        return method;
+    }
+
     public StartNode getStartNode() {
         return startNode;
     }
 
     public void dumpToFile(String fileName) {
-        try (PrintStream printer = new PrintStream(new FileOutputStream(fileName))) {
-            printer.println(dumpToString());
-        } catch (FileNotFoundException e) {
+        try (Writer out = Files.newBufferedWriter(Paths.get(fileName))) {
+            writeDot(out);
+            out.write(System.lineSeparator());
+        } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
     public String dumpToString() {
-        DumpGraphVisitor dumper = new DumpGraphVisitor();
+        StringWriter out = new StringWriter();
+        try {
+            writeDot(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Streams DOT text of graph, only node numbering is kept in memory
+     */
+    public void writeDot(Writer out) throws IOException {
+        DumpGraphVisitor dumper = new DumpGraphVisitor(method);
         dumper.visit(startNode);
-        return dumper.getText();
+        dumper.write(out);
+    }
+
+    /**
+     * Streams DOT text of graph in UTF-8, channel is flushed but not closed
+     */
+    public void writeDot(WritableByteChannel channel) throws IOException {
+        Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE));
+        writeDot(out);
+        out.flush();
     }
 
+    /**
+     * Edges between node numbers, graph is only numbered, no text is made
+     */
     public Set<Pair<Integer, Integer>> getEdges() {
-        DumpGraphVisitor dumper = new DumpGraphVisitor();
+        DumpGraphVisitor dumper = new DumpGraphVisitor(method);
         dumper.visit(startNode);
         return dumper.getEdges();
     }
@@ -1,7 +1,5 @@
 package com.naofi.compiler.dfa.build;
 
-import com.naofi.antlr.NfLangParser;
-
 import java.util.*;
 import java.util.function.Consumer;
 
@@ -67,7 +65,7 @@ public class GraphBuilder {
     /**
      * Creates basic block and bounds labels
      */
-    protected void basic(NfLangParser.StatementContext stmt) {
+    protected void basic(int stmt) {
         basic();
         basicBlock.addStatement(stmt);
     }
@@ -76,7 +74,7 @@ public class GraphBuilder {
     /**
      * Adds conditional jump to graph, if condition evaluates to true then go to true else - go to false
      */
-    protected void condJump(NfLangParser.BoolExpressionContext condition, Label ifTrue, Label ifFalse) {
+    protected void condJump(int condition, Label ifTrue, Label ifFalse) {
         Graph.ConditionalJump condJump = new Graph.ConditionalJump(condition);
         nextConsumer.accept(condJump);
         boundLabels(condJump);
@@ -87,6 +85,10 @@ public class GraphBuilder {
     }
 
     protected void goTo(Label label) {
+        // Labels right before jump would otherwise be bound to whatever node comes next
+        if (!unboundedLabels.isEmpty()) {
+            basic();
+        }
         setLabelPointer(label, nextConsumer);
         nextConsumer = a -> {};
     }
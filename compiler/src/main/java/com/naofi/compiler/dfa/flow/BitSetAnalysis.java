@@ -0,0 +1,108 @@
+package com.naofi.compiler.dfa.flow;
+
+import com.naofi.compiler.dfa.build.ControlFlowGraph;
+
+import java.util.BitSet;
+
+/**
+ * Monotone dataflow problem over bit set lattice, solved by worklist over control flow graph.
+ * Worklist is swept in reverse postorder for forward problems and in postorder for backward ones,
+ * so acyclic graphs are solved with one transfer per block
+ */
+public abstract class BitSetAnalysis {
+    public enum Direction {
+        FORWARD,
+        BACKWARD
+    }
+
+    public enum Meet {
+        // May problems, fact holds on some path
+        UNION,
+        // Must problems, fact holds on every path
+        INTERSECTION
+    }
+
+    private final Direction direction;
+    private final Meet meet;
+
+    protected BitSetAnalysis(Direction direction, Meet meet) {
+        this.direction = direction;
+        this.meet = meet;
+    }
+
+    /**
+     * Number of facts, bits are 0 until width
+     */
+    protected abstract int width(ControlFlowGraph cfg);
+
+    /**
+     * Facts at entry of start block for forward problem or at exit of end block for backward one
+     */
+    protected abstract BitSet boundary(ControlFlowGraph cfg);
+
+    /**
+     * Applies block to state in direction of analysis, state is owned by caller and can be modified
+     */
+    protected abstract void transfer(ControlFlowGraph cfg, int block, BitSet state);
+
+    public final DataflowResult solve(ControlFlowGraph cfg) {
+        int size = cfg.size();
+        boolean forward = direction == Direction.FORWARD;
+        BitSet top = new BitSet();
+        if (meet == Meet.INTERSECTION) {
+            top.set(0, width(cfg));
+        }
+        // Facts before and after transfer of block, in direction of analysis
+        BitSet[] before = new BitSet[size];
+        BitSet[] after = new BitSet[size];
+        for (int block = 0; block < size; block++) {
+            after[block] = (BitSet) top.clone();
+        }
+
+        BitSet pending = new BitSet(size);
+        pending.set(0, size);
+        int transfers = 0;
+        while (!pending.isEmpty()) {
+            int block = forward ? pending.nextSetBit(0) : pending.previousSetBit(size - 1);
+            while (block >= 0) {
+                pending.clear(block);
+                before[block] = join(cfg, block, after, top);
+                BitSet state = (BitSet) before[block].clone();
+                transfer(cfg, block, state);
+                transfers++;
+                if (!state.equals(after[block])) {
+                    after[block] = state;
+                    int count = forward ? cfg.successorCount(block) : cfg.predecessorCount(block);
+                    for (int i = 0; i < count; i++) {
+                        pending.set(forward ? cfg.successor(block, i) : cfg.predecessor(block, i));
+                    }
+                }
+                block = forward ? pending.nextSetBit(block + 1) : pending.previousSetBit(block - 1);
+            }
+        }
+
+        return forward ?
+                new DataflowResult(before, after, transfers) :
+                new DataflowResult(after, before, transfers);
+    }
+
+    private BitSet join(ControlFlowGraph cfg, int block, BitSet[] after, BitSet top) {
+        boolean forward = direction == Direction.FORWARD;
+        int count = forward ? cfg.predecessorCount(block) : cfg.successorCount(block);
+        if (count == 0) {
+            return boundary(cfg);
+        }
+        BitSet state = null;
+        for (int i = 0; i < count; i++) {
+            BitSet other = after[forward ? cfg.predecessor(block, i) : cfg.successor(block, i)];
+            if (state == null) {
+                state = (BitSet) other.clone();
+            } else if (meet == Meet.UNION) {
+                state.or(other);
+            } else {
+                state.and(other);
+            }
+        }
+        return (state == null) ? (BitSet) top.clone() : state;
+    }
+}
@@ -0,0 +1,39 @@
+package com.naofi.compiler.dfa.flow;
+
+import java.util.BitSet;
+
+/**
+ * Fixed point of {@link BitSetAnalysis}, in and out are in program order for both directions
+ */
+public final class DataflowResult {
+    private final BitSet[] in;
+    private final BitSet[] out;
+    private final int transfers;
+
+    DataflowResult(BitSet[] in, BitSet[] out, int transfers) {
+        this.in = in;
+        this.out = out;
+        this.transfers = transfers;
+    }
+
+    /**
+     * Facts at block entry, must not be modified
+     */
+    public BitSet in(int block) {
+        return in[block];
+    }
+
+    /**
+     * Facts at block exit, must not be modified
+     */
+    public BitSet out(int block) {
+        return out[block];
+    }
+
+    /**
+     * Number of block transfers done by solver
+     */
+    public int getTransfers() {
+        return transfers;
+    }
+}
@@ -0,0 +1,22 @@
+package com.naofi.compiler.ir;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class ClassIr {
+    private final String name;
+    private final List<MethodIr> methods = new ArrayList<>();
+
+    public ClassIr(String name, List<MethodIr> methods) {
+        this.name = name;
+        this.methods.addAll(methods);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<MethodIr> getMethods() {
+        return new ArrayList<>(methods);
+    }
+}
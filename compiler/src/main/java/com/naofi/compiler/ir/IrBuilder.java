@@ -0,0 +1,182 @@
+package com.naofi.compiler.ir;
+
+import com.naofi.compiler.binding.symbols.VariableType;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Appends nodes of one method, node ids are returned by each append
+ */
+public class IrBuilder {
+    private String[] symbolNames = new String[8];
+    private VariableType[] symbolTypes = new VariableType[8];
+    private int[] symbolSlots = new int[8];
+    private int symbolCount = 0;
+    // Slot 0 is this
+    private int localsSize = 1;
+
+    private Opcode[] opcodes = new Opcode[64];
+    private VariableType[] types = new VariableType[64];
+    private int[] first = new int[64];
+    private int[] second = new int[64];
+    private int[] third = new int[64];
+    private int size = 0;
+
+    private long[] constants = new long[16];
+    private int constantCount = 0;
+    private int[] lists = new int[64];
+    private int listsSize = 0;
+
+    /**
+     * Defines new symbol and assigns local variable slot to it, returns its id
+     */
+    public int symbol(String name, VariableType type) {
+        if (symbolCount == symbolNames.length) {
+            symbolNames = Arrays.copyOf(symbolNames, symbolCount * 2);
+            symbolTypes = Arrays.copyOf(symbolTypes, symbolCount * 2);
+            symbolSlots = Arrays.copyOf(symbolSlots, symbolCount * 2);
+        }
+        symbolNames[symbolCount] = name;
+        symbolTypes[symbolCount] = type;
+        symbolSlots[symbolCount] = localsSize;
+        localsSize += (type == VariableType.LONG || type == VariableType.DOUBLE) ? 2 : 1;
+        return symbolCount++;
+    }
+
+    public VariableType symbolType(int symbol) {
+        return symbolTypes[symbol];
+    }
+
+    public VariableType type(int node) {
+        return types[node];
+    }
+
+    /**
+     * Nodes appended so far can be inspected like in {@link MethodIr}
+     */
+    public Opcode opcode(int node) {
+        return opcodes[node];
+    }
+
+    public long value(int node) {
+        return constants[first[node]];
+    }
+
+    public int symbol(int node) {
+        return first[node];
+    }
+
+    public int operand(int node) {
+        return opcodes[node] == Opcode.STORE ? second[node] : first[node];
+    }
+
+    public int left(int node) {
+        return first[node];
+    }
+
+    public int right(int node) {
+        return second[node];
+    }
+
+    public int constant(VariableType type, long value) {
+        if (constantCount == constants.length) {
+            constants = Arrays.copyOf(constants, constantCount * 2);
+        }
+        constants[constantCount] = value;
+        return append(Opcode.CONST, type, constantCount++, 0, 0);
+    }
+
+    public int load(int symbol) {
+        return append(Opcode.LOAD, symbolTypes[symbol], symbol, 0, 0);
+    }
+
+    /**
+     * Converts node to type, constants are retyped and rounded instead of wrapping
+     */
+    public int convert(int node, VariableType type) {
+        if (types[node] == type) {
+            return node;
+        }
+        if (opcodes[node] == Opcode.CONST) {
+            types[node] = type;
+            constants[first[node]] = type.round(constants[first[node]]);
+            return node;
+        }
+        return append(Opcode.CONVERT, type, node, 0, 0);
+    }
+
+    public int binary(Opcode opcode, VariableType type, int left, int right) {
+        if (!opcode.isBinary()) {
+            throw new IllegalArgumentException("Not a binary operator: " + opcode);
+        }
+        return append(opcode, type, left, right, 0);
+    }
+
+    public int define(int symbol) {
+        return append(Opcode.DEFINE, VariableType.UNDEFINED, symbol, 0, 0);
+    }
+
+    public int store(int symbol, int value) {
+        return append(Opcode.STORE, VariableType.UNDEFINED, symbol, value, 0);
+    }
+
+    public int expression(int value) {
+        return append(Opcode.EXPRESSION, VariableType.UNDEFINED, value, 0, 0);
+    }
+
+    public int returnValues(List<Integer> values) {
+        return append(Opcode.RETURN, VariableType.UNDEFINED, list(values), values.size(), 0);
+    }
+
+    public int block(List<Integer> statements) {
+        return append(Opcode.BLOCK, VariableType.UNDEFINED, list(statements), statements.size(), 0);
+    }
+
+    /**
+     * @param elseBranch BLOCK, IF or -1 if there is no else
+     */
+    public int ifElse(int condition, int thenBlock, int elseBranch) {
+        return append(Opcode.IF, VariableType.UNDEFINED, condition, thenBlock, elseBranch);
+    }
+
+    public int whileLoop(int condition, int body) {
+        return append(Opcode.WHILE, VariableType.UNDEFINED, condition, body, 0);
+    }
+
+    public MethodIr build(String name, List<VariableType> formalTypes, List<VariableType> returnTypes, int body) {
+        return new MethodIr(name, formalTypes, returnTypes,
+                Arrays.copyOf(symbolNames, symbolCount), Arrays.copyOf(symbolTypes, symbolCount),
+                Arrays.copyOf(symbolSlots, symbolCount), localsSize,
+                Arrays.copyOf(opcodes, size), Arrays.copyOf(types, size),
+                Arrays.copyOf(first, size), Arrays.copyOf(second, size), Arrays.copyOf(third, size),
+                Arrays.copyOf(constants, constantCount), Arrays.copyOf(lists, listsSize), body);
+    }
+
+    private int list(List<Integer> nodes) {
+        int start = listsSize;
+        if (listsSize + nodes.size() > lists.length) {
+            lists = Arrays.copyOf(lists, Math.max(lists.length * 2, listsSize + nodes.size()));
+        }
+        for (int node : nodes) {
+            lists[listsSize++] = node;
+        }
+        return start;
+    }
+
+    private int append(Opcode opcode, VariableType type, int a, int b, int c) {
+        if (size == opcodes.length) {
+            opcodes = Arrays.copyOf(opcodes, size * 2);
+            types = Arrays.copyOf(types, size * 2);
+            first = Arrays.copyOf(first, size * 2);
+            second = Arrays.copyOf(second, size * 2);
+            third = Arrays.copyOf(third, size * 2);
+        }
+        opcodes[size] = opcode;
+        types[size] = type;
+        first[size] = a;
+        second[size] = b;
+        third[size] = c;
+        return size++;
+    }
+}
@@ -0,0 +1,132 @@
+package com.naofi.compiler.ir;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Copies method into new IR, subclasses override statement and expression to change nodes on the way.
+ * Nodes are rewritten in postorder, so hooks see their inputs already rewritten, walk keeps nodes
+ * on explicit stack. Symbols are copied first in id order, so they keep ids and local variable slots
+ */
+public class IrRewriter {
+    protected final MethodIr method;
+    protected final IrBuilder builder = new IrBuilder();
+    // New node of every rewritten node, -1 for dropped statements
+    private final int[] rewritten;
+
+    public IrRewriter(MethodIr method) {
+        this.method = method;
+        this.rewritten = new int[method.size()];
+        Arrays.fill(rewritten, -1);
+    }
+
+    /**
+     * Builds rewritten method, can be called once
+     */
+    public MethodIr rewrite() {
+        for (int symbol = 0; symbol < method.symbolCount(); symbol++) {
+            builder.symbol(method.symbolName(symbol), method.symbolType(symbol));
+        }
+        int body = rewriteTree(method.getBody());
+        return builder.build(method.getName(), method.getFormalTypes(), method.getReturnTypes(),
+                (body == -1) ? builder.block(new ArrayList<>()) : body);
+    }
+
+    /**
+     * Rewrites every node of subtree, returns new root or -1 if it is dropped.
+     * Can be called from hooks to make another copy, then rewritten nodes of subtree refer to that copy
+     */
+    protected final int rewriteTree(int root) {
+        Postorder order = new Postorder(method);
+        int count = order.walk(root);
+        for (int i = 0; i < count; i++) {
+            int node = order.node(i);
+            rewritten[node] = method.opcode(node).isExpression() ? expression(node) : statement(node);
+        }
+        return rewritten[root];
+    }
+
+    /**
+     * Returns node of rewritten statement or -1 to drop it
+     */
+    protected int statement(int node) {
+        return copyStatement(node);
+    }
+
+    /**
+     * Returns node of rewritten expression
+     */
+    protected int expression(int node) {
+        return copyExpression(node);
+    }
+
+    /**
+     * New node of input which is already rewritten, -1 if statement was dropped
+     */
+    protected final int rewritten(int node) {
+        return rewritten[node];
+    }
+
+    protected final int copyStatement(int node) {
+        switch (method.opcode(node)) {
+            case BLOCK:
+                return builder.block(statements(node));
+            case DEFINE:
+                return builder.define(method.symbol(node));
+            case STORE:
+                return builder.store(method.symbol(node), rewritten(method.operand(node)));
+            case EXPRESSION:
+                return builder.expression(rewritten(method.operand(node)));
+            case RETURN:
+                List<Integer> values = new ArrayList<>();
+                for (int i = 0; i < method.childCount(node); i++) {
+                    values.add(rewritten(method.child(node, i)));
+                }
+                return builder.returnValues(values);
+            case IF:
+                int elseBranch = (method.elseBranch(node) == -1) ? -1 : rewritten(method.elseBranch(node));
+                return builder.ifElse(rewritten(method.condition(node)), block(method.body(node)), elseBranch);
+            case WHILE:
+                return builder.whileLoop(rewritten(method.condition(node)), block(method.body(node)));
+            default:
+                throw new IllegalStateException("Expression is used as statement: " + method.toString(node));
+        }
+    }
+
+    protected final int copyExpression(int node) {
+        switch (method.opcode(node)) {
+            case CONST:
+                return builder.constant(method.type(node), method.value(node));
+            case LOAD:
+                return builder.load(method.symbol(node));
+            case CONVERT:
+                return builder.convert(rewritten(method.operand(node)), method.type(node));
+            default:
+                if (!method.opcode(node).isBinary()) {
+                    throw new IllegalStateException("Statement is used as expression: " + method.toString(node));
+                }
+                return builder.binary(method.opcode(node), method.type(node),
+                        rewritten(method.left(node)), rewritten(method.right(node)));
+        }
+    }
+
+    /**
+     * Rewritten children of block, dropped ones are left out
+     */
+    protected final List<Integer> statements(int block) {
+        List<Integer> statements = new ArrayList<>();
+        for (int i = 0; i < method.childCount(block); i++) {
+            int statement = rewritten(method.child(block, i));
+            if (statement != -1) {
+                statements.add(statement);
+            }
+        }
+        return statements;
+    }
+
+    private int block(int node) {
+        int block = rewritten(node);
+        return (block == -1) ? builder.block(new ArrayList<>()) : block;
+    }
+}
@@ -0,0 +1,326 @@
+package com.naofi.compiler.ir;
+
+import com.naofi.compiler.binding.symbols.VariableType;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Immutable typed code of method, nodes are stored in parallel arrays and referenced by index.
+ * Symbols are referenced by dense id and own local variable slot, parameters are first symbols of method.
+ * Operands of node are described by {@link Opcode}
+ */
+public final class MethodIr {
+    private final String name;
+    private final List<VariableType> formalTypes = new ArrayList<>();
+    private final List<VariableType> returnTypes = new ArrayList<>();
+    private final String[] symbolNames;
+    private final VariableType[] symbolTypes;
+    private final int[] symbolSlots;
+    private final int localsSize;
+    private final Opcode[] opcodes;
+    private final VariableType[] types;
+    private final int[] first;
+    private final int[] second;
+    private final int[] third;
+    private final long[] constants;
+    private final int[] lists;
+    private final int body;
+
+    MethodIr(String name, List<VariableType> formalTypes, List<VariableType> returnTypes,
+             String[] symbolNames, VariableType[] symbolTypes, int[] symbolSlots, int localsSize,
+             Opcode[] opcodes, VariableType[] types, int[] first, int[] second, int[] third,
+             long[] constants, int[] lists, int body) {
+        this.name = name;
+        this.formalTypes.addAll(formalTypes);
+        this.returnTypes.addAll(returnTypes);
+        this.symbolNames = symbolNames;
+        this.symbolTypes = symbolTypes;
+        this.symbolSlots = symbolSlots;
+        this.localsSize = localsSize;
+        this.opcodes = opcodes;
+        this.types = types;
+        this.first = first;
+        this.second = second;
+        this.third = third;
+        this.constants = constants;
+        this.lists = lists;
+        this.body = body;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<VariableType> getFormalTypes() {
+        return new ArrayList<>(formalTypes);
+    }
+
+    public List<VariableType> getReturnTypes() {
+        return new ArrayList<>(returnTypes);
+    }
+
+    /**
+     * Root BLOCK of method
+     */
+    public int getBody() {
+        return body;
+    }
+
+    public int size() {
+        return opcodes.length;
+    }
+
+    public int symbolCount() {
+        return symbolNames.length;
+    }
+
+    public String symbolName(int symbol) {
+        return symbolNames[symbol];
+    }
+
+    public VariableType symbolType(int symbol) {
+        return symbolTypes[symbol];
+    }
+
+    /**
+     * Local variable slot of symbol
+     */
+    public int symbolSlot(int symbol) {
+        return symbolSlots[symbol];
+    }
+
+    /**
+     * Count of local variable slots including this
+     */
+    public int localsSize() {
+        return localsSize;
+    }
+
+    public Opcode opcode(int node) {
+        return opcodes[node];
+    }
+
+    public VariableType type(int node) {
+        return types[node];
+    }
+
+    /**
+     * Value of CONST
+     */
+    public long value(int node) {
+        return constants[first[node]];
+    }
+
+    /**
+     * Symbol of LOAD, DEFINE and STORE
+     */
+    public int symbol(int node) {
+        return first[node];
+    }
+
+    /**
+     * Operand of CONVERT and EXPRESSION, value of STORE
+     */
+    public int operand(int node) {
+        return opcodes[node] == Opcode.STORE ? second[node] : first[node];
+    }
+
+    public int left(int node) {
+        return first[node];
+    }
+
+    public int right(int node) {
+        return second[node];
+    }
+
+    /**
+     * Condition of IF and WHILE
+     */
+    public int condition(int node) {
+        return first[node];
+    }
+
+    /**
+     * Then block of IF, body of WHILE
+     */
+    public int body(int node) {
+        return second[node];
+    }
+
+    /**
+     * Else node of IF or -1
+     */
+    public int elseBranch(int node) {
+        return third[node];
+    }
+
+    /**
+     * Count of statements of BLOCK or values of RETURN
+     */
+    public int childCount(int node) {
+        return second[node];
+    }
+
+    public int child(int node, int i) {
+        return lists[first[node] + i];
+    }
+
+    /**
+     * Number of nodes node directly depends on: operands, values, condition and nested statements
+     */
+    public int inputCount(int node) {
+        switch (opcodes[node]) {
+            case CONST:
+            case LOAD:
+            case DEFINE:
+                return 0;
+            case CONVERT:
+            case STORE:
+            case EXPRESSION:
+                return 1;
+            case RETURN:
+            case BLOCK:
+                return childCount(node);
+            case IF:
+                return (elseBranch(node) == -1) ? 2 : 3;
+            default:
+                return 2;
+        }
+    }
+
+    /**
+     * Input of node in evaluation order: condition goes before body and else branch of IF and WHILE
+     */
+    public int input(int node, int i) {
+        switch (opcodes[node]) {
+            case CONVERT:
+            case STORE:
+            case EXPRESSION:
+                return operand(node);
+            case RETURN:
+            case BLOCK:
+                return child(node, i);
+            case IF:
+            case WHILE:
+                return (i == 0) ? condition(node) : (i == 1) ? body(node) : elseBranch(node);
+            default:
+                return (i == 0) ? left(node) : right(node);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name + toString(body);
+    }
+
+    /**
+     * Source-like text of node
+     */
+    public String toString(int node) {
+        StringBuilder builder = new StringBuilder();
+        // Nodes and text which are not appended yet, top is next
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(node);
+        while (!pending.isEmpty()) {
+            Object next = pending.pop();
+            if (next instanceof String) {
+                builder.append((String) next);
+            } else {
+                append(builder, (Integer) next, pending);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Appends start of node text, rest of it is left in pending
+     */
+    private void append(StringBuilder builder, int node, Deque<Object> pending) {
+        Opcode opcode = opcodes[node];
+        switch (opcode) {
+            case CONST:
+                if (types[node] == VariableType.BOOL) {
+                    builder.append(value(node) != 0);
+                } else {
+                    builder.append(value(node));
+                }
+                break;
+            case LOAD:
+                builder.append(symbolNames[symbol(node)]);
+                break;
+            case CONVERT:
+                builder.append('(').append(types[node].name().toLowerCase()).append(')');
+                pending.push(operand(node));
+                break;
+            case DEFINE:
+                builder.append(symbolTypes[symbol(node)].name().toLowerCase())
+                        .append(' ').append(symbolNames[symbol(node)]);
+                break;
+            case STORE:
+                builder.append(symbolNames[symbol(node)]).append(" = ");
+                pending.push(operand(node));
+                break;
+            case EXPRESSION:
+                pending.push(operand(node));
+                break;
+            case RETURN:
+                builder.append("return");
+                for (int i = childCount(node) - 1; i >= 0; i--) {
+                    pending.push(child(node, i));
+                    pending.push(i == 0 ? " " : ", ");
+                }
+                break;
+            case BLOCK:
+                builder.append("{");
+                pending.push(" }");
+                for (int i = childCount(node) - 1; i >= 0; i--) {
+                    pending.push(";");
+                    pending.push(child(node, i));
+                    pending.push(" ");
+                }
+                break;
+            case IF:
+                builder.append("if (");
+                if (elseBranch(node) != -1) {
+                    pending.push(elseBranch(node));
+                    pending.push(" else ");
+                }
+                pending.push(body(node));
+                pending.push(") ");
+                pending.push(condition(node));
+                break;
+            case WHILE:
+                builder.append("while (");
+                pending.push(body(node));
+                pending.push(") ");
+                pending.push(condition(node));
+                break;
+            default:
+                builder.append('(');
+                pending.push(")");
+                pending.push(right(node));
+                pending.push(" " + operator(opcode) + " ");
+                pending.push(left(node));
+        }
+    }
+
+    private static String operator(Opcode opcode) {
+        switch (opcode) {
+            case ADD: return "+";
+            case SUB: return "-";
+            case MUL: return "*";
+            case DIV: return "/";
+            case EQ: return "==";
+            case NE: return "!=";
+            case LT: return "<";
+            case LE: return "<=";
+            case GT: return ">";
+            case GE: return ">=";
+            default:
+                throw new IllegalArgumentException("Not a binary operator: " + opcode);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.naofi.compiler.ir;
+
+/**
+ * Operation of IR node, comments describe node operands
+ */
+public enum Opcode {
+    /**
+     * Constant of node type, booleans are 0 and 1
+     */
+    CONST,
+    /**
+     * Load of symbol
+     */
+    LOAD,
+    /**
+     * Widening of operand to node type
+     */
+    CONVERT,
+    /**
+     * Arithmetic on left and right operands, both have node type
+     */
+    ADD, SUB, MUL, DIV,
+    /**
+     * Comparison of left and right operands of the same type, node type is BOOL
+     */
+    EQ, NE, LT, LE, GT, GE,
+
+    /**
+     * Declaration of symbol without initializer
+     */
+    DEFINE,
+    /**
+     * Store of value to symbol, value has symbol type
+     */
+    STORE,
+    /**
+     * Evaluation of operand for nothing
+     */
+    EXPRESSION,
+    /**
+     * Return of list of values, list is empty for void methods
+     */
+    RETURN,
+    /**
+     * List of statements
+     */
+    BLOCK,
+    /**
+     * Condition, then block, else node (BLOCK, IF for else-if or -1)
+     */
+    IF,
+    /**
+     * Condition and body block
+     */
+    WHILE;
+
+    public boolean isExpression() {
+        return ordinal() <= GE.ordinal();
+    }
+
+    public boolean isBinary() {
+        return ordinal() >= ADD.ordinal() && ordinal() <= GE.ordinal();
+    }
+
+    public boolean isComparison() {
+        return ordinal() >= EQ.ordinal() && ordinal() <= GE.ordinal();
+    }
+}
@@ -0,0 +1,55 @@
+package com.naofi.compiler.ir;
+
+import java.util.Arrays;
+
+/**
+ * Postorder of IR subtree, inputs of every node come before it in evaluation order.
+ * Nodes are kept on explicit stack, so nesting depth of code is not limited by thread stack.
+ * Buffers are reused by the next walk
+ */
+public final class Postorder {
+    private final MethodIr method;
+    private int[] nodes = new int[16];
+    private int[] stack = new int[16];
+
+    public Postorder(MethodIr method) {
+        this.method = method;
+    }
+
+    /**
+     * Walks subtree of root, returns number of its nodes
+     */
+    public int walk(int root) {
+        int size = 0;
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            int node = stack[--top];
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+            }
+            nodes[size++] = node;
+            int inputs = method.inputCount(node);
+            if (top + inputs > stack.length) {
+                stack = Arrays.copyOf(stack, Math.max(stack.length * 2, top + inputs));
+            }
+            // Node goes before its inputs and last input is taken first, reversed order is postorder
+            for (int i = 0; i < inputs; i++) {
+                stack[top++] = method.input(node, i);
+            }
+        }
+        for (int i = 0, j = size - 1; i < j; i++, j--) {
+            int node = nodes[i];
+            nodes[i] = nodes[j];
+            nodes[j] = node;
+        }
+        return size;
+    }
+
+    /**
+     * Node at position of last walk
+     */
+    public int node(int i) {
+        return nodes[i];
+    }
+}
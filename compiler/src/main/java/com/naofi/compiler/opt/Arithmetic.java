@@ -0,0 +1,121 @@
+package com.naofi.compiler.opt;
+
+import com.naofi.compiler.binding.symbols.VariableType;
+import com.naofi.compiler.ir.Opcode;
+
+/**
+ * Compile time evaluation of IR operations on constants, results are the same as emitted code computes.
+ * Checked flag is {@link com.naofi.compiler.CompilerOptions#setCheckedArithmetic}, integral arithmetic
+ * of emitted code throws on overflow when it is set
+ */
+final class Arithmetic {
+    private Arithmetic() {
+    }
+
+    /**
+     * Result of integral arithmetic, null if emitted code throws on these operands
+     * or type is not integral. Result wraps, byte and short ones are narrowed
+     */
+    static Long evaluate(Opcode opcode, VariableType type, long left, long right, boolean checked) {
+        if (!isIntegral(type)) {
+            return null;
+        }
+        long result;
+        switch (opcode) {
+            case ADD:
+                result = left + right;
+                if (type == VariableType.LONG && checked && ((left ^ result) & (right ^ result)) < 0) {
+                    return null;
+                }
+                break;
+            case SUB:
+                result = left - right;
+                if (type == VariableType.LONG && checked && ((left ^ right) & (left ^ result)) < 0) {
+                    return null;
+                }
+                break;
+            case MUL:
+                if (type == VariableType.LONG && checked) {
+                    try {
+                        result = Math.multiplyExact(left, right);
+                    } catch (ArithmeticException e) {
+                        return null;
+                    }
+                } else {
+                    // Narrower operands cannot overflow long
+                    result = left * right;
+                }
+                break;
+            case DIV:
+                if (right == 0 || (checked && right == -1 && left == Long.MIN_VALUE)) {
+                    return null;
+                }
+                result = left / right;
+                break;
+            default:
+                throw new IllegalStateException("Not an arithmetic operation: " + opcode);
+        }
+        if (type.fits(result)) {
+            return result;
+        }
+        return checked ? null : narrow(type, result);
+    }
+
+    /**
+     * Comparison of constants of operand type, floating point constants are converted like emitted code does
+     */
+    static boolean compare(Opcode opcode, VariableType type, long left, long right) {
+        int compared;
+        if (type == VariableType.FLOAT) {
+            compared = Float.compare(left, right);
+        } else if (type == VariableType.DOUBLE) {
+            compared = Double.compare(left, right);
+        } else {
+            compared = Long.compare(left, right);
+        }
+        switch (opcode) {
+            case EQ:
+                return compared == 0;
+            case NE:
+                return compared != 0;
+            case LT:
+                return compared < 0;
+            case LE:
+                return compared <= 0;
+            case GT:
+                return compared > 0;
+            case GE:
+                return compared >= 0;
+            default:
+                throw new IllegalStateException("Not a comparison: " + opcode);
+        }
+    }
+
+    /**
+     * Value of type equal to value modulo type width
+     */
+    static long narrow(VariableType type, long value) {
+        switch (type) {
+            case BYTE:
+                return (byte) value;
+            case SHORT:
+                return (short) value;
+            case INT:
+                return (int) value;
+            default:
+                return value;
+        }
+    }
+
+    /**
+     * Integral division throws on zero divisor, other integral arithmetic on overflow when it is checked
+     */
+    static boolean mayThrow(Opcode opcode, VariableType type, boolean checked) {
+        return opcode.isBinary() && !opcode.isComparison() && isIntegral(type) && (opcode == Opcode.DIV || checked);
+    }
+
+    static boolean isIntegral(VariableType type) {
+        return type == VariableType.BYTE || type == VariableType.SHORT ||
+                type == VariableType.INT || type == VariableType.LONG;
+    }
+}
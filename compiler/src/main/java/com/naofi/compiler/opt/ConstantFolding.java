@@ -0,0 +1,307 @@
+package com.naofi.compiler.opt;
+
+import com.naofi.compiler.binding.symbols.VariableType;
+import com.naofi.compiler.dfa.DfaPipeline;
+import com.naofi.compiler.dfa.Transformation;
+import com.naofi.compiler.ir.IrRewriter;
+import com.naofi.compiler.ir.MethodIr;
+import com.naofi.compiler.ir.Opcode;
+
+import java.util.Arrays;
+
+/**
+ * Folds operations on constants and removes algebraic identities: x + 0, x - 0, x * 1, x / 1, x * 0, x - x,
+ * b == true, b != false and comparisons of equal operands. Chains of additions or multiplications
+ * by constants are reassociated, so a + 1 + 2 becomes a + 3.
+ * Results wrap like emitted code, byte and short ones are narrowed, so reassociation is done modulo type width.
+ * Operations which throw are kept, so are ones which overflow in checked mode.
+ * Float and double arithmetic is not folded, since constants hold only integral values
+ */
+public class ConstantFolding implements Transformation {
+    private final boolean checkedArithmetic;
+    private int foldedExpressions;
+
+    public ConstantFolding(boolean checkedArithmetic) {
+        this.checkedArithmetic = checkedArithmetic;
+    }
+
+    @Override
+    public MethodIr run(DfaPipeline pipeline) {
+        MethodIr method = pipeline.getMethod();
+        Folder folder = new Folder(method);
+        MethodIr result = folder.rewrite();
+        if (folder.folded == 0) {
+            return method;
+        }
+        foldedExpressions += folder.folded;
+        return result;
+    }
+
+    /**
+     * Number of expressions replaced by simpler ones by last runs
+     */
+    public int getFoldedExpressions() {
+        return foldedExpressions;
+    }
+
+    private class Folder extends IrRewriter {
+        private int folded;
+        // Explicit stack of nodes for walks over rewritten subtrees
+        private int[] stack = new int[16];
+
+        Folder(MethodIr method) {
+            super(method);
+        }
+
+        @Override
+        protected int expression(int node) {
+            Opcode opcode = method.opcode(node);
+            int result = -1;
+            if (opcode == Opcode.CONVERT) {
+                // Builder retypes converted constant
+                if (builder.opcode(rewritten(method.operand(node))) == Opcode.CONST) {
+                    folded++;
+                }
+            } else if (opcode.isComparison()) {
+                result = comparison(opcode, rewritten(method.left(node)), rewritten(method.right(node)));
+            } else if (opcode.isBinary() && Arithmetic.isIntegral(method.type(node))) {
+                result = arithmetic(opcode, method.type(node), rewritten(method.left(node)),
+                        rewritten(method.right(node)));
+            }
+            if (result == -1) {
+                return copyExpression(node);
+            }
+            folded++;
+            return result;
+        }
+
+        /**
+         * Returns node of simpler arithmetic on rewritten operands or -1 if there is none
+         */
+        private int arithmetic(Opcode opcode, VariableType type, int left, int right) {
+            if (isConstant(left) && isConstant(right)) {
+                Long value = Arithmetic.evaluate(opcode, type, builder.value(left), builder.value(right),
+                        checkedArithmetic);
+                return (value == null) ? -1 : builder.constant(type, value);
+            }
+            if ((opcode == Opcode.ADD || opcode == Opcode.MUL) && isConstant(left)) {
+                int swap = left;
+                left = right;
+                right = swap;
+            }
+            if (opcode == Opcode.SUB && same(left, right) && !mayThrow(left)) {
+                return builder.constant(type, 0);
+            }
+            if (!isConstant(right)) {
+                return -1;
+            }
+            long value = builder.value(right);
+            switch (opcode) {
+                case ADD:
+                case SUB:
+                    if (value == 0) {
+                        return left;
+                    }
+                    return reassociateSum(type, left, (opcode == Opcode.ADD) ? value : -value,
+                            opcode == Opcode.SUB && value == Long.MIN_VALUE);
+                case MUL:
+                    if (value == 1) {
+                        return left;
+                    } else if (value == 0 && !mayThrow(left)) {
+                        return right;
+                    }
+                    return reassociateProduct(type, left, value);
+                default:
+                    return (value == 1) ? left : -1;
+            }
+        }
+
+        /**
+         * Left is x + k or x - k with constant k, then left + value becomes x + (k + value)
+         */
+        private int reassociateSum(VariableType type, int left, long value, boolean negationOverflows) {
+            Opcode inner = builder.opcode(left);
+            if ((inner != Opcode.ADD && inner != Opcode.SUB) || builder.type(left) != type || negationOverflows) {
+                return -1;
+            }
+            int operand;
+            long offset;
+            if (isConstant(builder.right(left))) {
+                operand = builder.left(left);
+                offset = builder.value(builder.right(left));
+                if (inner == Opcode.SUB) {
+                    if (offset == Long.MIN_VALUE) {
+                        return -1;
+                    }
+                    offset = -offset;
+                }
+            } else if (inner == Opcode.ADD && isConstant(builder.left(left))) {
+                operand = builder.right(left);
+                offset = builder.value(builder.left(left));
+            } else {
+                return -1;
+            }
+            long sum = offset + value;
+            if (checkedArithmetic) {
+                // Then x + k overflows only if x + k + value does
+                if ((offset < 0) != (value < 0) || ((sum < 0) != (value < 0))) {
+                    return -1;
+                }
+            }
+            Long wrapped = wrap(type, sum);
+            if (wrapped == null) {
+                return -1;
+            }
+            sum = wrapped;
+            if (sum == 0) {
+                return operand;
+            } else if (sum < 0 && sum != Long.MIN_VALUE && type.fits(-sum)) {
+                return builder.binary(Opcode.SUB, type, operand, builder.constant(type, -sum));
+            }
+            return builder.binary(Opcode.ADD, type, operand, builder.constant(type, sum));
+        }
+
+        /**
+         * Left is x * k with constant k, then left * value becomes x * (k * value)
+         */
+        private int reassociateProduct(VariableType type, int left, long value) {
+            if (builder.opcode(left) != Opcode.MUL || builder.type(left) != type) {
+                return -1;
+            }
+            int operand;
+            long factor;
+            if (isConstant(builder.right(left))) {
+                operand = builder.left(left);
+                factor = builder.value(builder.right(left));
+            } else if (isConstant(builder.left(left))) {
+                operand = builder.right(left);
+                factor = builder.value(builder.left(left));
+            } else {
+                return -1;
+            }
+            long product;
+            if (checkedArithmetic) {
+                // Then x * k overflows only if x * k * value does
+                if (factor <= 0 || value <= 0) {
+                    return -1;
+                }
+                try {
+                    product = Math.multiplyExact(factor, value);
+                } catch (ArithmeticException e) {
+                    return -1;
+                }
+            } else {
+                product = factor * value;
+            }
+            Long wrapped = wrap(type, product);
+            if (wrapped == null) {
+                return -1;
+            }
+            return builder.binary(Opcode.MUL, type, operand, builder.constant(type, wrapped));
+        }
+
+        /**
+         * Constant of type equal to value modulo type width, null if checked arithmetic would throw on it
+         */
+        private Long wrap(VariableType type, long value) {
+            if (type.fits(value)) {
+                return value;
+            }
+            return checkedArithmetic ? null : Arithmetic.narrow(type, value);
+        }
+
+        private int comparison(Opcode opcode, int left, int right) {
+            VariableType type = builder.type(left);
+            if (isConstant(left) && isConstant(right)) {
+                return bool(Arithmetic.compare(opcode, type, builder.value(left), builder.value(right)));
+            }
+            if (type == VariableType.BOOL) {
+                // b == true and b != false are b itself
+                long identity = (opcode == Opcode.EQ) ? 1 : (opcode == Opcode.NE) ? 0 : -1;
+                if (isConstant(right) && builder.value(right) == identity) {
+                    return left;
+                } else if (isConstant(left) && builder.value(left) == identity) {
+                    return right;
+                }
+            }
+            if ((Arithmetic.isIntegral(type) || type == VariableType.BOOL) && same(left, right) && !mayThrow(left)) {
+                // Any value compares with itself the same way
+                return bool(Arithmetic.compare(opcode, type, 0, 0));
+            }
+            return -1;
+        }
+
+        private int bool(boolean value) {
+            return builder.constant(VariableType.BOOL, value ? 1 : 0);
+        }
+
+        private boolean isConstant(int node) {
+            return builder.opcode(node) == Opcode.CONST;
+        }
+
+        /**
+         * Rewritten expressions compute the same value, expressions do not store, so equal trees are equal values
+         */
+        private boolean same(int left, int right) {
+            int size = push(push(0, left), right);
+            while (size > 0) {
+                int b = stack[--size];
+                int a = stack[--size];
+                if (a == b) {
+                    continue;
+                }
+                Opcode opcode = builder.opcode(a);
+                if (opcode != builder.opcode(b) || builder.type(a) != builder.type(b)) {
+                    return false;
+                }
+                switch (opcode) {
+                    case CONST:
+                        if (builder.value(a) != builder.value(b)) {
+                            return false;
+                        }
+                        break;
+                    case LOAD:
+                        if (builder.symbol(a) != builder.symbol(b)) {
+                            return false;
+                        }
+                        break;
+                    case CONVERT:
+                        size = push(push(size, builder.operand(a)), builder.operand(b));
+                        break;
+                    default:
+                        size = push(push(size, builder.left(a)), builder.left(b));
+                        size = push(push(size, builder.right(a)), builder.right(b));
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Integral division throws on zero divisor, other integral arithmetic on overflow when it is checked
+         */
+        private boolean mayThrow(int root) {
+            int size = push(0, root);
+            while (size > 0) {
+                int node = stack[--size];
+                Opcode opcode = builder.opcode(node);
+                if (opcode == Opcode.CONVERT) {
+                    size = push(size, builder.operand(node));
+                } else if (opcode.isBinary()) {
+                    if (Arithmetic.mayThrow(opcode, builder.type(node), checkedArithmetic)) {
+                        return true;
+                    }
+                    size = push(push(size, builder.left(node)), builder.right(node));
+                }
+            }
+            return false;
+        }
+
+        private int push(int size, int node) {
+            if (size == stack.length) {
+                stack = Arrays.copyOf(stack, size * 2);
+            }
+            stack[size] = node;
+            return size + 1;
+        }
+    }
+}
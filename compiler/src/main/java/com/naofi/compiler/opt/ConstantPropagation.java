@@ -0,0 +1,366 @@
+package com.naofi.compiler.opt;
+
+import com.naofi.compiler.dfa.Analysis;
+import com.naofi.compiler.dfa.DfaPipeline;
+import com.naofi.compiler.dfa.SsaForm;
+import com.naofi.compiler.dfa.Transformation;
+import com.naofi.compiler.dfa.build.ControlFlowGraph;
+import com.naofi.compiler.ir.IrRewriter;
+import com.naofi.compiler.ir.MethodIr;
+import com.naofi.compiler.ir.Opcode;
+import com.naofi.compiler.ir.Postorder;
+
+import java.util.Arrays;
+
+/**
+ * Sparse conditional constant propagation over SSA form. Values of definitions and expressions start
+ * undetermined and only go down to constant and then to varying. Only blocks reached by executable edges
+ * are evaluated, branch with constant condition makes only one of its edges executable, phis meet values
+ * coming along executable edges only. Since values only go down, phi of visited block meets just the operand
+ * which changed, so join of many branches is not quadratic. Expressions with constant values are replaced by constants,
+ * IF and WHILE with constant conditions are replaced by the branch which is taken
+ */
+public class ConstantPropagation implements Transformation {
+    private static final byte UNDETERMINED = 0;
+    private static final byte CONSTANT = 1;
+    private static final byte VARYING = 2;
+
+    private final boolean checkedArithmetic;
+    private int propagatedConstants;
+    private int prunedBranches;
+
+    private MethodIr method;
+    private ControlFlowGraph cfg;
+    private SsaForm ssa;
+    private Postorder order;
+    // Lattice of IR nodes and definitions, value is meaningful for CONSTANT only
+    private byte[] nodeStates;
+    private long[] nodeValues;
+    private byte[] defStates;
+    private long[] defValues;
+    private boolean[] visited;
+    // Edge is block * 2 + slot, blocks have at most two successors
+    private boolean[] executable;
+    // Phis using def d are phiUses[phiUseStart[d] .. phiUseStart[d + 1]) at operand indexes in phiUseIndex
+    private int[] phiUseStart;
+    private int[] phiUses;
+    private int[] phiUseIndex;
+    // Statement or branch condition was evaluated for def number evaluatedFor[node]
+    private int[] evaluatedFor;
+    private int[] edgeWork;
+    private int edgeCount;
+    private int[] defWork;
+    private int defCount;
+
+    public ConstantPropagation(boolean checkedArithmetic) {
+        this.checkedArithmetic = checkedArithmetic;
+    }
+
+    @Override
+    public MethodIr run(DfaPipeline pipeline) {
+        method = pipeline.getMethod();
+        cfg = pipeline.getCfg();
+        ssa = pipeline.get(Analysis.SSA);
+        order = new Postorder(method);
+        solve();
+
+        int propagated = propagatedConstants;
+        int pruned = prunedBranches;
+        MethodIr result = new IrRewriter(method) {
+            @Override
+            protected int statement(int node) {
+                Opcode opcode = method.opcode(node);
+                boolean constant = (opcode == Opcode.IF || opcode == Opcode.WHILE) &&
+                        nodeStates[method.condition(node)] == CONSTANT;
+                // Loop which is entered is kept, it may still exit by return
+                if (!constant || (opcode == Opcode.WHILE && nodeValues[method.condition(node)] != 0)) {
+                    return copyStatement(node);
+                }
+                prunedBranches++;
+                if (nodeValues[method.condition(node)] != 0) {
+                    return rewritten(method.body(node));
+                }
+                int elseBranch = (opcode == Opcode.IF) ? method.elseBranch(node) : -1;
+                return (elseBranch == -1) ? -1 : rewritten(elseBranch);
+            }
+
+            @Override
+            protected int expression(int node) {
+                if (nodeStates[node] == CONSTANT && method.opcode(node) != Opcode.CONST) {
+                    propagatedConstants++;
+                    return builder.constant(method.type(node), nodeValues[node]);
+                }
+                return copyExpression(node);
+            }
+        }.rewrite();
+        return (propagated == propagatedConstants && pruned == prunedBranches) ? method : result;
+    }
+
+    /**
+     * Number of expressions replaced by constants by last runs
+     */
+    public int getPropagatedConstants() {
+        return propagatedConstants;
+    }
+
+    /**
+     * Number of IF and WHILE statements replaced by their taken branch by last runs
+     */
+    public int getPrunedBranches() {
+        return prunedBranches;
+    }
+
+    private void solve() {
+        nodeStates = new byte[method.size()];
+        nodeValues = new long[method.size()];
+        defStates = new byte[ssa.defCount()];
+        defValues = new long[ssa.defCount()];
+        visited = new boolean[cfg.size()];
+        executable = new boolean[2 * cfg.size()];
+        edgeWork = new int[2 * cfg.size()];
+        edgeCount = 0;
+        defWork = new int[16];
+        defCount = 0;
+        evaluatedFor = new int[method.size()];
+        int popped = 0;
+        indexPhiUses();
+        for (int def = 0; def < ssa.defCount(); def++) {
+            if (ssa.defKind(def) == SsaForm.DefKind.PARAMETER) {
+                defStates[def] = VARYING;
+            }
+        }
+
+        visitBlock(0);
+        while (edgeCount > 0 || defCount > 0) {
+            if (edgeCount > 0) {
+                int edge = edgeWork[--edgeCount];
+                int block = cfg.successor(edge / 2, edge % 2);
+                if (visited[block]) {
+                    for (int i = 0; i < ssa.phiCount(block); i++) {
+                        int phi = ssa.phi(block, i);
+                        int operand = ssa.phiOperand(phi, cfg.successorIndex(edge / 2, edge % 2));
+                        if (operand != -1) {
+                            meet(phi, defStates[operand], defValues[operand]);
+                        }
+                    }
+                } else {
+                    visitBlock(block);
+                }
+                continue;
+            }
+            int def = defWork[--defCount];
+            popped++;
+            for (int i = 0; i < ssa.loadCount(def); i++) {
+                int load = ssa.load(def, i);
+                int block = ssa.useBlock(load);
+                int statement = ssa.useStatement(load);
+                // Def loaded many times by one statement evaluates it once
+                if (!visited[block] || evaluatedFor[statement] == popped) {
+                    continue;
+                }
+                evaluatedFor[statement] = popped;
+                if (cfg.kind(block) == ControlFlowGraph.Kind.BRANCH) {
+                    evaluateBranch(block);
+                } else {
+                    evaluateStatement(statement);
+                }
+            }
+            for (int i = phiUseStart[def]; i < phiUseStart[def + 1]; i++) {
+                int block = ssa.defBlock(phiUses[i]);
+                int index = phiUseIndex[i];
+                if (visited[block] && isExecutable(block, index)) {
+                    meet(phiUses[i], defStates[def], defValues[def]);
+                }
+            }
+        }
+    }
+
+    private void indexPhiUses() {
+        phiUseStart = new int[ssa.defCount() + 1];
+        for (int block = 0; block < cfg.size(); block++) {
+            for (int i = 0; i < cfg.predecessorCount(block); i++) {
+                for (int j = 0; j < ssa.phiCount(block); j++) {
+                    int operand = ssa.phiOperand(ssa.phi(block, j), i);
+                    if (operand != -1) {
+                        phiUseStart[operand + 1]++;
+                    }
+                }
+            }
+        }
+        for (int def = 0; def < ssa.defCount(); def++) {
+            phiUseStart[def + 1] += phiUseStart[def];
+        }
+        phiUses = new int[phiUseStart[ssa.defCount()]];
+        phiUseIndex = new int[phiUses.length];
+        int[] filled = Arrays.copyOf(phiUseStart, ssa.defCount());
+        for (int block = 0; block < cfg.size(); block++) {
+            for (int i = 0; i < cfg.predecessorCount(block); i++) {
+                for (int j = 0; j < ssa.phiCount(block); j++) {
+                    int phi = ssa.phi(block, j);
+                    int operand = ssa.phiOperand(phi, i);
+                    if (operand != -1) {
+                        phiUses[filled[operand]] = phi;
+                        phiUseIndex[filled[operand]++] = i;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean isExecutable(int block, int index) {
+        return executable[2 * cfg.predecessor(block, index) + cfg.predecessorSlot(block, index)];
+    }
+
+    private void visitBlock(int block) {
+        visited[block] = true;
+        for (int i = 0; i < ssa.phiCount(block); i++) {
+            evaluatePhi(ssa.phi(block, i));
+        }
+        switch (cfg.kind(block)) {
+            case BRANCH:
+                evaluateBranch(block);
+                return;
+            case BASIC:
+                for (int i = 0; i < cfg.statementCount(block); i++) {
+                    evaluateStatement(cfg.statement(block, i));
+                }
+                break;
+            default:
+        }
+        for (int slot = 0; slot < cfg.successorCount(block); slot++) {
+            markExecutable(block, slot);
+        }
+    }
+
+    private void evaluateBranch(int block) {
+        int condition = cfg.condition(block);
+        evaluate(condition);
+        if (nodeStates[condition] == VARYING) {
+            markExecutable(block, 0);
+            markExecutable(block, 1);
+        } else if (nodeStates[condition] == CONSTANT) {
+            markExecutable(block, (nodeValues[condition] != 0) ? 0 : 1);
+        }
+    }
+
+    private void markExecutable(int block, int slot) {
+        int edge = 2 * block + slot;
+        if (!executable[edge]) {
+            executable[edge] = true;
+            edgeWork[edgeCount++] = edge;
+        }
+    }
+
+    private void evaluateStatement(int statement) {
+        switch (method.opcode(statement)) {
+            case STORE:
+                evaluate(method.operand(statement));
+                setDef(ssa.storeDef(statement), nodeStates[method.operand(statement)],
+                        nodeValues[method.operand(statement)]);
+                break;
+            case EXPRESSION:
+                evaluate(method.operand(statement));
+                break;
+            case RETURN:
+                for (int i = 0; i < method.childCount(statement); i++) {
+                    evaluate(method.child(statement, i));
+                }
+                break;
+            default:
+        }
+    }
+
+    private void evaluatePhi(int phi) {
+        int block = ssa.defBlock(phi);
+        byte state = UNDETERMINED;
+        long value = 0;
+        for (int i = 0; i < cfg.predecessorCount(block) && state != VARYING; i++) {
+            int operand = ssa.phiOperand(phi, i);
+            if (operand == -1 || !isExecutable(block, i) || defStates[operand] == UNDETERMINED) {
+                continue;
+            }
+            if (state == UNDETERMINED && defStates[operand] == CONSTANT) {
+                state = CONSTANT;
+                value = defValues[operand];
+            } else if (defStates[operand] == VARYING || defValues[operand] != value) {
+                state = VARYING;
+            }
+        }
+        setDef(phi, state, value);
+    }
+
+    /**
+     * Phi value goes down to meet of it and operand value
+     */
+    private void meet(int phi, byte state, long value) {
+        if (state != UNDETERMINED) {
+            setDef(phi, state, value);
+        }
+    }
+
+    private void setDef(int def, byte state, long value) {
+        if (defStates[def] == VARYING || (state == defStates[def] && (state != CONSTANT || value == defValues[def]))) {
+            return;
+        }
+        // Values only go down, constant changing to another one is varying
+        defStates[def] = (defStates[def] == CONSTANT && state == CONSTANT) ? VARYING : state;
+        defValues[def] = value;
+        if (defCount == defWork.length) {
+            defWork = Arrays.copyOf(defWork, defCount * 2);
+        }
+        defWork[defCount++] = def;
+    }
+
+    /**
+     * Evaluates every node of expression, operands come first in postorder
+     */
+    private void evaluate(int expression) {
+        int count = order.walk(expression);
+        for (int i = 0; i < count; i++) {
+            int node = order.node(i);
+            Opcode opcode = method.opcode(node);
+            switch (opcode) {
+                case CONST:
+                    set(node, CONSTANT, method.value(node));
+                    break;
+                case LOAD:
+                    int def = ssa.reachingDef(node);
+                    if (def == -1) {
+                        set(node, UNDETERMINED, 0);
+                    } else {
+                        set(node, defStates[def], defValues[def]);
+                    }
+                    break;
+                case CONVERT:
+                    int operand = method.operand(node);
+                    set(node, nodeStates[operand], method.type(node).round(nodeValues[operand]));
+                    break;
+                default:
+                    binary(node, opcode);
+            }
+        }
+    }
+
+    private void binary(int node, Opcode opcode) {
+        int left = method.left(node);
+        int right = method.right(node);
+        if (nodeStates[left] == VARYING || nodeStates[right] == VARYING) {
+            set(node, VARYING, 0);
+        } else if (nodeStates[left] == UNDETERMINED || nodeStates[right] == UNDETERMINED) {
+            set(node, UNDETERMINED, 0);
+        } else if (opcode.isComparison()) {
+            boolean holds = Arithmetic.compare(opcode, method.type(left), nodeValues[left], nodeValues[right]);
+            set(node, CONSTANT, holds ? 1 : 0);
+        } else {
+            Long value = Arithmetic.evaluate(opcode, method.type(node), nodeValues[left], nodeValues[right],
+                    checkedArithmetic);
+            // Operation which throws or is not integral is not computed at compile time
+            set(node, (value == null) ? VARYING : CONSTANT, (value == null) ? 0 : value);
+        }
+    }
+
+    private void set(int node, byte state, long value) {
+        nodeStates[node] = state;
+        nodeValues[node] = value;
+    }
+}
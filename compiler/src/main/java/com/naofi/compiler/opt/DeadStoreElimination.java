@@ -0,0 +1,101 @@
+package com.naofi.compiler.opt;
+
+import com.naofi.compiler.dfa.Analysis;
+import com.naofi.compiler.dfa.DfaPipeline;
+import com.naofi.compiler.dfa.LiveVariables;
+import com.naofi.compiler.dfa.Transformation;
+import com.naofi.compiler.dfa.build.ControlFlowGraph;
+import com.naofi.compiler.dfa.flow.DataflowResult;
+import com.naofi.compiler.ir.IrRewriter;
+import com.naofi.compiler.ir.MethodIr;
+import com.naofi.compiler.ir.Postorder;
+
+import java.util.BitSet;
+
+/**
+ * Removes stores to symbols which are not live after them and expression statements,
+ * together with expressions computing their value. Only computations which cannot throw are removed.
+ * Liveness is recomputed until no store is removed, so stores feeding only removed ones go too
+ */
+public class DeadStoreElimination implements Transformation {
+    private final boolean checkedArithmetic;
+    private int removedInstructions;
+    private Postorder order;
+
+    public DeadStoreElimination(boolean checkedArithmetic) {
+        this.checkedArithmetic = checkedArithmetic;
+    }
+
+    @Override
+    public MethodIr run(DfaPipeline pipeline) {
+        MethodIr method = pipeline.getMethod();
+        order = new Postorder(method);
+        ControlFlowGraph cfg = pipeline.getCfg();
+        BitSet dead = new BitSet(method.size());
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            LiveVariables liveness = new LiveVariables(method, dead);
+            // Nothing is removed yet on first round, so cached liveness is still exact
+            DataflowResult result = dead.isEmpty() ? pipeline.get(Analysis.LIVENESS) : liveness.solve(cfg);
+            for (int block = 0; block < cfg.size(); block++) {
+                BitSet live = (BitSet) result.out(block).clone();
+                if (cfg.kind(block) == ControlFlowGraph.Kind.BRANCH) {
+                    liveness.loads(cfg.condition(block), live);
+                }
+                if (cfg.kind(block) != ControlFlowGraph.Kind.BASIC) {
+                    continue;
+                }
+                for (int i = cfg.statementCount(block) - 1; i >= 0; i--) {
+                    int statement = cfg.statement(block, i);
+                    if (!dead.get(statement) && isDead(method, statement, live)) {
+                        dead.set(statement);
+                        removedInstructions += order.walk(statement);
+                        changed = true;
+                    } else {
+                        liveness.statement(statement, live);
+                    }
+                }
+            }
+        }
+        if (dead.isEmpty()) {
+            return method;
+        }
+
+        return new IrRewriter(method) {
+            @Override
+            protected int statement(int node) {
+                return dead.get(node) ? -1 : copyStatement(node);
+            }
+        }.rewrite();
+    }
+
+    /**
+     * Number of IR nodes removed by last runs, each of them is about one bytecode instruction
+     */
+    public int getRemovedInstructions() {
+        return removedInstructions;
+    }
+
+    private boolean isDead(MethodIr method, int statement, BitSet live) {
+        switch (method.opcode(statement)) {
+            case STORE:
+                return !live.get(method.symbol(statement)) && !mayThrow(method, method.operand(statement));
+            case EXPRESSION:
+                return !mayThrow(method, method.operand(statement));
+            default:
+                return false;
+        }
+    }
+
+    private boolean mayThrow(MethodIr method, int expression) {
+        int count = order.walk(expression);
+        for (int i = 0; i < count; i++) {
+            int node = order.node(i);
+            if (Arithmetic.mayThrow(method.opcode(node), method.type(node), checkedArithmetic)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
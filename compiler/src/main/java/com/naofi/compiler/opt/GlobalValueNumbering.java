@@ -0,0 +1,419 @@
+package com.naofi.compiler.opt;
+
+import com.naofi.compiler.binding.symbols.VariableType;
+import com.naofi.compiler.dfa.Analysis;
+import com.naofi.compiler.dfa.DfaPipeline;
+import com.naofi.compiler.dfa.DominatorTree;
+import com.naofi.compiler.dfa.SsaForm;
+import com.naofi.compiler.dfa.Transformation;
+import com.naofi.compiler.dfa.build.ControlFlowGraph;
+import com.naofi.compiler.ir.IrRewriter;
+import com.naofi.compiler.ir.MethodIr;
+import com.naofi.compiler.ir.Opcode;
+import com.naofi.compiler.ir.Postorder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Removes repeated arithmetic and comparisons across blocks and propagates copies.
+ * Expressions get value numbers from their operation and value numbers of operands, loads get ones of
+ * their reaching SSA definitions. Walk over dominator tree keeps first expression of every value available
+ * in blocks it dominates, later expressions of the value load new symbol, which is stored right before
+ * statement of the first one. Loads of x after x = y load y while y keeps the same definition,
+ * then dead copies are removed by dead store elimination.
+ * Conditions of while loops are evaluated on every iteration, so they are never the first expressions.
+ * Expression which may throw is not moved before another one which may throw first
+ */
+public class GlobalValueNumbering implements Transformation {
+    private final boolean checkedArithmetic;
+    private int eliminatedExpressions;
+    private int propagatedCopies;
+
+    public GlobalValueNumbering(boolean checkedArithmetic) {
+        this.checkedArithmetic = checkedArithmetic;
+    }
+
+    @Override
+    public MethodIr run(DfaPipeline pipeline) {
+        MethodIr method = pipeline.getMethod();
+        Numbering numbering = new Numbering(method, pipeline.get(Analysis.DOMINATORS), pipeline.get(Analysis.SSA));
+        if (!numbering.analyze()) {
+            return method;
+        }
+        MethodIr result = numbering.rewrite();
+        eliminatedExpressions += numbering.eliminated;
+        propagatedCopies += numbering.propagated;
+        return result;
+    }
+
+    /**
+     * Number of expressions replaced by loads of earlier equal ones by last runs
+     */
+    public int getEliminatedExpressions() {
+        return eliminatedExpressions;
+    }
+
+    /**
+     * Number of loads of copies replaced by loads of their sources by last runs
+     */
+    public int getPropagatedCopies() {
+        return propagatedCopies;
+    }
+
+    private static final class Key {
+        final Opcode opcode;
+        final VariableType type;
+        final long left;
+        final long right;
+
+        Key(Opcode opcode, VariableType type, long left, long right) {
+            this.opcode = opcode;
+            this.type = type;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return opcode == key.opcode && type == key.type && left == key.left && right == key.right;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(opcode, type, left, right);
+        }
+    }
+
+    private class Numbering extends IrRewriter {
+        private final DominatorTree dominators;
+        private final SsaForm ssa;
+        private final ControlFlowGraph cfg;
+        private final Postorder order;
+        private final Map<Key, Integer> values = new HashMap<>();
+        private int valueCount;
+        // Value number of every expression node and definition
+        private final int[] nodeValues;
+        private final int[] defValues;
+        // Source symbol and its definition of copy definitions, -1 for other definitions
+        private final int[] copySymbols;
+        private final int[] copyDefs;
+        // Expression of every value which is available in current block, -1 if there is none
+        private int[] available = new int[16];
+        // Current definition of every symbol
+        private final int[] current;
+        // Undo log of symbols (as themselves) and values (as -value - 1) with previous entries
+        private int[] logKeys = new int[16];
+        private int[] logEntries = new int[16];
+        private int logSize;
+
+        // Statement which first expression is stored before, first expression of redundant one,
+        // source symbol of propagated load, -1 for other nodes
+        private final int[] owners;
+        private final int[] leaders;
+        private final int[] copies;
+        // Statement of every IF and WHILE condition
+        private final Map<Integer, Integer> conditionOwners = new HashMap<>();
+        private final int[] subtreeSizes;
+        private final boolean[] mayThrow;
+        // Node is inside of replaced expression, so it is not emitted
+        private final boolean[] covered;
+        // First expression is loaded by emitted redundant one
+        private final boolean[] reused;
+        // New symbol of reused expression, -1 until it is created
+        private final int[] temps;
+        private final Map<Integer, List<Integer>> pendingStores = new HashMap<>();
+        private int eliminated;
+        private int propagated;
+
+        Numbering(MethodIr method, DominatorTree dominators, SsaForm ssa) {
+            super(method);
+            this.dominators = dominators;
+            this.ssa = ssa;
+            this.cfg = dominators.getCfg();
+            order = new Postorder(method);
+            nodeValues = new int[method.size()];
+            defValues = new int[ssa.defCount()];
+            copySymbols = new int[ssa.defCount()];
+            copyDefs = new int[ssa.defCount()];
+            Arrays.fill(copySymbols, -1);
+            Arrays.fill(available, -1);
+            current = new int[method.symbolCount()];
+            Arrays.fill(current, -1);
+            owners = new int[method.size()];
+            leaders = new int[method.size()];
+            copies = new int[method.size()];
+            Arrays.fill(leaders, -1);
+            Arrays.fill(copies, -1);
+            subtreeSizes = new int[method.size()];
+            mayThrow = new boolean[method.size()];
+            covered = new boolean[method.size()];
+            reused = new boolean[method.size()];
+            temps = new int[method.size()];
+            Arrays.fill(temps, -1);
+        }
+
+        /**
+         * Numbers values of reachable code, returns false if nothing is replaced
+         */
+        boolean analyze() {
+            int count = order.walk(method.getBody());
+            for (int i = 0; i < count; i++) {
+                int node = order.node(i);
+                if (method.opcode(node) == Opcode.IF || method.opcode(node) == Opcode.WHILE) {
+                    conditionOwners.put(method.condition(node), node);
+                }
+            }
+            for (int def = 0; def < ssa.defCount(); def++) {
+                if (ssa.defKind(def) != SsaForm.DefKind.STORE) {
+                    defValues[def] = valueCount++;
+                }
+                if (ssa.defKind(def) == SsaForm.DefKind.PARAMETER) {
+                    current[ssa.defSymbol(def)] = def;
+                }
+            }
+            walk();
+
+            // Reversed postorder visits nodes before their inputs
+            boolean replaced = false;
+            count = order.walk(method.getBody());
+            for (int i = count - 1; i >= 0; i--) {
+                int node = order.node(i);
+                for (int input = 0; input < method.inputCount(node); input++) {
+                    covered[method.input(node, input)] = covered[node] || leaders[node] != -1;
+                }
+                if (!covered[node] && (leaders[node] != -1 || copies[node] != -1)) {
+                    replaced = true;
+                    if (leaders[node] != -1) {
+                        reused[leaders[node]] = true;
+                    }
+                }
+            }
+            return replaced;
+        }
+
+        private void walk() {
+            int size = cfg.size();
+            // Block is pushed as id to enter it and as -id - 1 to leave it
+            int[] stack = new int[2 * size];
+            int[] logMarks = new int[size];
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                int entry = stack[--top];
+                if (entry < 0) {
+                    int block = -entry - 1;
+                    while (logSize > logMarks[block]) {
+                        logSize--;
+                        if (logKeys[logSize] >= 0) {
+                            current[logKeys[logSize]] = logEntries[logSize];
+                        } else {
+                            available[-logKeys[logSize] - 1] = logEntries[logSize];
+                        }
+                    }
+                    continue;
+                }
+                int block = entry;
+                logMarks[block] = logSize;
+                stack[top++] = -block - 1;
+
+                for (int i = 0; i < ssa.phiCount(block); i++) {
+                    int phi = ssa.phi(block, i);
+                    define(ssa.defSymbol(phi), phi);
+                }
+                for (int i = 0; i < cfg.statementCount(block); i++) {
+                    int statement = cfg.statement(block, i);
+                    switch (method.opcode(statement)) {
+                        case DEFINE:
+                            define(method.symbol(statement), -1);
+                            break;
+                        case STORE:
+                            number(method.operand(statement), statement, true);
+                            store(statement);
+                            break;
+                        default:
+                            number(statement, statement, true);
+                    }
+                }
+                if (cfg.kind(block) == ControlFlowGraph.Kind.BRANCH) {
+                    int owner = conditionOwners.get(cfg.condition(block));
+                    number(cfg.condition(block), owner, method.opcode(owner) != Opcode.WHILE);
+                }
+                for (int i = dominators.childCount(block) - 1; i >= 0; i--) {
+                    stack[top++] = dominators.child(block, i);
+                }
+            }
+        }
+
+        private void store(int statement) {
+            int def = ssa.storeDef(statement);
+            int value = method.operand(statement);
+            defValues[def] = nodeValues[value];
+            if (method.opcode(value) == Opcode.LOAD && ssa.reachingDef(value) != -1) {
+                int source = ssa.reachingDef(value);
+                if (copies[value] != -1) {
+                    // Copy of copy is copy of its source
+                    copySymbols[def] = copySymbols[source];
+                    copyDefs[def] = copyDefs[source];
+                } else {
+                    copySymbols[def] = method.symbol(value);
+                    copyDefs[def] = source;
+                }
+            }
+            define(method.symbol(statement), def);
+        }
+
+        /**
+         * Numbers expressions of root in evaluation order, ones which are the first of their value
+         * become available if lead is set
+         */
+        private void number(int root, int owner, boolean lead) {
+            int count = order.walk(root);
+            int firstThrow = count;
+            for (int i = 0; i < count; i++) {
+                int node = order.node(i);
+                Opcode opcode = method.opcode(node);
+                if (!opcode.isExpression()) {
+                    continue;
+                }
+                subtreeSizes[node] = 1;
+                for (int input = 0; input < method.inputCount(node); input++) {
+                    subtreeSizes[node] += subtreeSizes[method.input(node, input)];
+                    mayThrow[node] |= mayThrow[method.input(node, input)];
+                }
+                switch (opcode) {
+                    case CONST:
+                        nodeValues[node] = value(new Key(opcode, method.type(node), method.value(node), 0));
+                        continue;
+                    case LOAD:
+                        load(node);
+                        continue;
+                    case CONVERT:
+                        nodeValues[node] = value(new Key(opcode, method.type(node),
+                                nodeValues[method.operand(node)], 0));
+                        continue;
+                    default:
+                        break;
+                }
+                int left = nodeValues[method.left(node)];
+                int right = nodeValues[method.right(node)];
+                if ((opcode == Opcode.ADD || opcode == Opcode.MUL || opcode == Opcode.EQ || opcode == Opcode.NE) &&
+                        left > right) {
+                    int swap = left;
+                    left = right;
+                    right = swap;
+                }
+                int value = value(new Key(opcode, method.type(node), left, right));
+                nodeValues[node] = value;
+                boolean throwing = Arithmetic.mayThrow(opcode, method.type(node), checkedArithmetic);
+                mayThrow[node] |= throwing;
+                if (available[value] != -1) {
+                    leaders[node] = available[value];
+                } else if (lead && (!mayThrow[node] || firstThrow >= i - subtreeSizes[node] + 1)) {
+                    // Subtree of node takes positions before it, it is moved before the rest of statement
+                    owners[node] = owner;
+                    log(-value - 1, available[value]);
+                    available[value] = node;
+                }
+                if (throwing) {
+                    firstThrow = Math.min(firstThrow, i);
+                }
+            }
+        }
+
+        private void load(int node) {
+            int def = ssa.reachingDef(node);
+            if (def == -1) {
+                nodeValues[node] = value(null);
+                return;
+            }
+            nodeValues[node] = defValues[def];
+            if (copySymbols[def] != -1 && current[copySymbols[def]] == copyDefs[def]) {
+                copies[node] = copySymbols[def];
+            }
+        }
+
+        /**
+         * Value number of key, new one for null key
+         */
+        private int value(Key key) {
+            Integer value = (key == null) ? null : values.get(key);
+            if (value == null) {
+                value = valueCount++;
+                if (key != null) {
+                    values.put(key, value);
+                }
+            }
+            if (value >= available.length) {
+                int length = available.length;
+                available = Arrays.copyOf(available, Math.max(length * 2, value + 1));
+                Arrays.fill(available, length, available.length, -1);
+            }
+            return value;
+        }
+
+        private void define(int symbol, int def) {
+            log(symbol, current[symbol]);
+            current[symbol] = def;
+        }
+
+        private void log(int key, int entry) {
+            if (logSize == logKeys.length) {
+                logKeys = Arrays.copyOf(logKeys, logSize * 2);
+                logEntries = Arrays.copyOf(logEntries, logSize * 2);
+            }
+            logKeys[logSize] = key;
+            logEntries[logSize++] = entry;
+        }
+
+        @Override
+        protected int expression(int node) {
+            if (covered[node]) {
+                // Replaced together with expression it is in
+                return copyExpression(node);
+            }
+            if (leaders[node] != -1) {
+                eliminated++;
+                return builder.load(temp(leaders[node]));
+            }
+            if (copies[node] != -1) {
+                propagated++;
+                return builder.load(copies[node]);
+            }
+            if (!reused[node]) {
+                return copyExpression(node);
+            }
+            pendingStores.computeIfAbsent(owners[node], key -> new ArrayList<>())
+                    .add(builder.store(temp(node), copyExpression(node)));
+            return builder.load(temp(node));
+        }
+
+        @Override
+        protected int statement(int node) {
+            List<Integer> statements = pendingStores.remove(node);
+            if (statements == null) {
+                return copyStatement(node);
+            }
+            statements.add(copyStatement(node));
+            return builder.block(statements);
+        }
+
+        /**
+         * Symbol of reused expression, it is created by its first rewritten use
+         */
+        private int temp(int leader) {
+            if (temps[leader] == -1) {
+                temps[leader] = builder.symbol("$" + leader, method.type(leader));
+            }
+            return temps[leader];
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.naofi.compiler.opt;
+
+import com.naofi.compiler.dfa.Analysis;
+import com.naofi.compiler.dfa.DfaPipeline;
+import com.naofi.compiler.dfa.LoopForest;
+import com.naofi.compiler.dfa.SsaForm;
+import com.naofi.compiler.dfa.Transformation;
+import com.naofi.compiler.dfa.build.ControlFlowGraph;
+import com.naofi.compiler.ir.IrRewriter;
+import com.naofi.compiler.ir.MethodIr;
+import com.naofi.compiler.ir.Opcode;
+import com.naofi.compiler.ir.Postorder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves arithmetic, comparisons and conversions which compute the same value on every iteration of while loop
+ * out of it. Expression is invariant in loop if every symbol it loads is defined outside of the loop, then it is
+ * stored to new symbol right before WHILE statement of the outermost such loop and the loop loads the symbol.
+ * Moved expressions are evaluated even if loop is not entered or they are in branch which is not taken,
+ * so ones which may throw stay in place
+ */
+public class LoopInvariantCodeMotion implements Transformation {
+    private final boolean checkedArithmetic;
+    private final List<Integer> hoistedExpressions = new ArrayList<>();
+
+    public LoopInvariantCodeMotion(boolean checkedArithmetic) {
+        this.checkedArithmetic = checkedArithmetic;
+    }
+
+    @Override
+    public MethodIr run(DfaPipeline pipeline) {
+        MethodIr method = pipeline.getMethod();
+        LoopForest loops = pipeline.get(Analysis.LOOPS);
+        SsaForm ssa = pipeline.get(Analysis.SSA);
+        Mover mover = new Mover(method, loops, ssa);
+        boolean moved = mover.analyze();
+        hoistedExpressions.addAll(mover.counts);
+        return moved ? mover.rewrite() : method;
+    }
+
+    /**
+     * Number of expressions moved out of every loop by last runs, loops are in source order
+     */
+    public List<Integer> getHoistedExpressions() {
+        return hoistedExpressions;
+    }
+
+    private class Mover extends IrRewriter {
+        // Target of expressions with no loads, they are invariant in every loop
+        private static final int EVERY_LOOP = -2;
+
+        private final LoopForest loops;
+        private final SsaForm ssa;
+        private final ControlFlowGraph cfg;
+        private final Postorder order;
+        // Header of outermost loop expression is invariant in, EVERY_LOOP or -1 if it is not invariant
+        private final int[] targets;
+        private final boolean[] mayThrow;
+        // Expression is stored before WHILE of its target
+        private final boolean[] hoisted;
+        // WHILE statement of every loop header and hoisted expressions of every WHILE statement
+        private final Map<Integer, Integer> loopStatements = new HashMap<>();
+        private final Map<Integer, List<Integer>> preheaders = new HashMap<>();
+        // Hoisted expressions of every loop in header order
+        private final List<Integer> counts = new ArrayList<>();
+        private final int[] headerIndexes;
+
+        Mover(MethodIr method, LoopForest loops, SsaForm ssa) {
+            super(method);
+            this.loops = loops;
+            this.ssa = ssa;
+            this.cfg = ssa.getCfg();
+            order = new Postorder(method);
+            targets = new int[method.size()];
+            mayThrow = new boolean[method.size()];
+            hoisted = new boolean[method.size()];
+            headerIndexes = new int[cfg.size()];
+        }
+
+        /**
+         * Finds hoisted expressions, returns false if there are none
+         */
+        boolean analyze() {
+            if (loops.loopCount() == 0) {
+                return false;
+            }
+            Map<Integer, Integer> conditionOwners = new HashMap<>();
+            int count = order.walk(method.getBody());
+            for (int i = 0; i < count; i++) {
+                int node = order.node(i);
+                if (method.opcode(node) == Opcode.WHILE) {
+                    conditionOwners.put(method.condition(node), node);
+                }
+            }
+            // Headers are numbered in reverse postorder, so outer and earlier loops go first
+            for (int block = 0; block < cfg.size(); block++) {
+                if (loops.isHeader(block)) {
+                    Integer statement = conditionOwners.get(cfg.condition(block));
+                    if (statement == null) {
+                        throw new IllegalStateException("Loop header without while condition: " + block);
+                    }
+                    loopStatements.put(block, statement);
+                    headerIndexes[block] = counts.size();
+                    counts.add(0);
+                }
+            }
+
+            for (int i = 0; i < count; i++) {
+                int node = order.node(i);
+                Opcode opcode = method.opcode(node);
+                if (!opcode.isExpression()) {
+                    continue;
+                }
+                switch (opcode) {
+                    case CONST:
+                        targets[node] = EVERY_LOOP;
+                        break;
+                    case LOAD:
+                        targets[node] = loadTarget(node);
+                        break;
+                    case CONVERT:
+                        targets[node] = targets[method.operand(node)];
+                        mayThrow[node] = mayThrow[method.operand(node)];
+                        break;
+                    default:
+                        targets[node] = inner(targets[method.left(node)], targets[method.right(node)]);
+                        mayThrow[node] = mayThrow[method.left(node)] || mayThrow[method.right(node)] ||
+                                Arithmetic.mayThrow(opcode, method.type(node), checkedArithmetic);
+                }
+            }
+
+            // Reversed postorder visits nodes before their inputs, expression moves together with its inputs
+            boolean moved = false;
+            boolean[] movedWithParent = new boolean[method.size()];
+            for (int i = count - 1; i >= 0; i--) {
+                int node = order.node(i);
+                Opcode opcode = method.opcode(node);
+                boolean candidate = (opcode == Opcode.CONVERT || opcode.isBinary()) && targets[node] >= 0 &&
+                        !mayThrow[node];
+                if (candidate && !movedWithParent[node]) {
+                    hoisted[node] = true;
+                    moved = true;
+                    int index = headerIndexes[targets[node]];
+                    counts.set(index, counts.get(index) + 1);
+                }
+                for (int input = 0; input < method.inputCount(node); input++) {
+                    int operand = method.input(node, input);
+                    movedWithParent[operand] = candidate && targets[operand] == targets[node];
+                }
+            }
+            return moved;
+        }
+
+        /**
+         * Outermost loop around load which does not contain its definition, -1 if there is none
+         */
+        private int loadTarget(int load) {
+            int def = ssa.reachingDef(load);
+            int block = ssa.useBlock(load);
+            if (def == -1 || block == -1) {
+                return -1;
+            }
+            int target = -1;
+            for (int loop = loops.loopOf(block); loop != -1 && !loops.contains(loop, ssa.defBlock(def));
+                 loop = loops.parentLoop(loop)) {
+                target = loop;
+            }
+            return target;
+        }
+
+        /**
+         * Expression is invariant in loop only if both operands are, of nested targets inner one is kept
+         */
+        private int inner(int left, int right) {
+            if (left == EVERY_LOOP || right == -1) {
+                return right;
+            } else if (right == EVERY_LOOP || left == -1) {
+                return left;
+            }
+            return (loops.depth(left) >= loops.depth(right)) ? left : right;
+        }
+
+        @Override
+        protected int expression(int node) {
+            if (!hoisted[node]) {
+                return copyExpression(node);
+            }
+            int symbol = builder.symbol("$" + node, method.type(node));
+            preheaders.computeIfAbsent(loopStatements.get(targets[node]), key -> new ArrayList<>())
+                    .add(builder.store(symbol, copyExpression(node)));
+            return builder.load(symbol);
+        }
+
+        @Override
+        protected int statement(int node) {
+            List<Integer> statements = preheaders.remove(node);
+            if (statements == null) {
+                return copyStatement(node);
+            }
+            statements.add(copyStatement(node));
+            return builder.block(statements);
+        }
+    }
+}
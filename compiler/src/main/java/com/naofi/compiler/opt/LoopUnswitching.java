@@ -0,0 +1,187 @@
+package com.naofi.compiler.opt;
+
+import com.naofi.compiler.dfa.Analysis;
+import com.naofi.compiler.dfa.DfaPipeline;
+import com.naofi.compiler.dfa.LoopForest;
+import com.naofi.compiler.dfa.SsaForm;
+import com.naofi.compiler.dfa.Transformation;
+import com.naofi.compiler.dfa.build.ControlFlowGraph;
+import com.naofi.compiler.ir.IrRewriter;
+import com.naofi.compiler.ir.MethodIr;
+import com.naofi.compiler.ir.Opcode;
+import com.naofi.compiler.ir.Postorder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves IF statements with conditions which do not change in innermost while loop out of it. Loop is copied
+ * for every outcome of its invariant conditions, every copy keeps only taken branches and IF on the conditions
+ * chooses copy before the loop. Condition is invariant if every symbol it loads is defined outside of the loop,
+ * it is evaluated even if loop is not entered, so conditions which may throw are kept.
+ * Every copy adds loop size to method, loops are unswitched in order while added nodes fit into budget
+ */
+public class LoopUnswitching implements Transformation {
+    private final boolean checkedArithmetic;
+    // Number of IR nodes copies of loops may add to method
+    private final int budget;
+    private int unswitchedLoops;
+
+    public LoopUnswitching(boolean checkedArithmetic, int budget) {
+        this.checkedArithmetic = checkedArithmetic;
+        this.budget = budget;
+    }
+
+    @Override
+    public MethodIr run(DfaPipeline pipeline) {
+        MethodIr method = pipeline.getMethod();
+        Unswitcher unswitcher = new Unswitcher(method, pipeline.get(Analysis.LOOPS), pipeline.get(Analysis.SSA));
+        if (!unswitcher.analyze()) {
+            return method;
+        }
+        unswitchedLoops += unswitcher.unswitched.size();
+        return unswitcher.rewrite();
+    }
+
+    /**
+     * Number of loops copied for outcomes of their conditions by last runs
+     */
+    public int getUnswitchedLoops() {
+        return unswitchedLoops;
+    }
+
+    private class Unswitcher extends IrRewriter {
+        private final LoopForest loops;
+        private final SsaForm ssa;
+        private final Postorder order;
+        private final Postorder conditionOrder;
+        // Invariant IF statements of every unswitched WHILE statement
+        private final Map<Integer, List<Integer>> unswitched = new HashMap<>();
+        // Branch which is kept by IF in loop copy being made, null outside of copies
+        private final Boolean[] outcomes;
+        private boolean copying;
+
+        Unswitcher(MethodIr method, LoopForest loops, SsaForm ssa) {
+            super(method);
+            this.loops = loops;
+            this.ssa = ssa;
+            order = new Postorder(method);
+            conditionOrder = new Postorder(method);
+            outcomes = new Boolean[method.size()];
+        }
+
+        /**
+         * Chooses conditions of loops, returns false if no loop is unswitched
+         */
+        boolean analyze() {
+            ControlFlowGraph cfg = ssa.getCfg();
+            Map<Integer, Integer> headers = new HashMap<>();
+            for (int block = 0; block < cfg.size(); block++) {
+                if (loops.isHeader(block)) {
+                    headers.put(cfg.condition(block), block);
+                }
+            }
+            List<Integer> statements = new ArrayList<>();
+            int count = order.walk(method.getBody());
+            for (int i = 0; i < count; i++) {
+                if (method.opcode(order.node(i)) == Opcode.WHILE) {
+                    statements.add(order.node(i));
+                }
+            }
+            int remaining = budget;
+            for (int statement : statements) {
+                Integer header = headers.get(method.condition(statement));
+                if (header == null) {
+                    // Loop is not reachable
+                    continue;
+                }
+                List<Integer> conditions = new ArrayList<>();
+                boolean innermost = true;
+                int size = order.walk(statement);
+                for (int i = 0; i < size && innermost; i++) {
+                    int node = order.node(i);
+                    if (method.opcode(node) == Opcode.WHILE && node != statement) {
+                        innermost = false;
+                    } else if (method.opcode(node) == Opcode.IF && isInvariant(method.condition(node), header)) {
+                        conditions.add(node);
+                    }
+                }
+                if (!innermost) {
+                    continue;
+                }
+                // Every chosen condition doubles copies
+                int chosen = 0;
+                long copies = 1;
+                while (chosen < conditions.size() && (copies * 2 - 1) * size <= remaining) {
+                    chosen++;
+                    copies *= 2;
+                }
+                if (chosen > 0) {
+                    remaining -= (copies - 1) * size;
+                    unswitched.put(statement, new ArrayList<>(conditions.subList(0, chosen)));
+                }
+            }
+            return !unswitched.isEmpty();
+        }
+
+        /**
+         * Checks that condition loads only symbols defined outside of loop and does not throw
+         */
+        private boolean isInvariant(int condition, int header) {
+            int count = conditionOrder.walk(condition);
+            for (int i = 0; i < count; i++) {
+                int node = conditionOrder.node(i);
+                Opcode opcode = method.opcode(node);
+                if (opcode == Opcode.LOAD) {
+                    int def = ssa.reachingDef(node);
+                    if (def == -1 || loops.contains(header, ssa.defBlock(def))) {
+                        return false;
+                    }
+                } else if (Arithmetic.mayThrow(opcode, method.type(node), checkedArithmetic)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        protected int statement(int node) {
+            if (outcomes[node] != null) {
+                if (outcomes[node]) {
+                    return rewritten(method.body(node));
+                }
+                return (method.elseBranch(node) == -1) ? -1 : rewritten(method.elseBranch(node));
+            }
+            if (copying || !unswitched.containsKey(node)) {
+                return copyStatement(node);
+            }
+            copying = true;
+            int result = unswitch(node, unswitched.get(node), 0);
+            copying = false;
+            return result;
+        }
+
+        /**
+         * IF on i-th condition between copies for its outcomes, copy of loop after the last condition
+         */
+        private int unswitch(int loop, List<Integer> conditions, int i) {
+            if (i == conditions.size()) {
+                return rewriteTree(loop);
+            }
+            int condition = conditions.get(i);
+            outcomes[condition] = true;
+            int thenLoop = unswitch(loop, conditions, i + 1);
+            outcomes[condition] = false;
+            int elseLoop = unswitch(loop, conditions, i + 1);
+            outcomes[condition] = null;
+            List<Integer> thenBlock = new ArrayList<>();
+            thenBlock.add(thenLoop);
+            List<Integer> elseBlock = new ArrayList<>();
+            elseBlock.add(elseLoop);
+            return builder.ifElse(rewriteTree(method.condition(condition)), builder.block(thenBlock),
+                    builder.block(elseBlock));
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.naofi.compiler.opt;
+
+import com.naofi.compiler.binding.symbols.VariableType;
+import com.naofi.compiler.dfa.DfaPipeline;
+import com.naofi.compiler.dfa.Transformation;
+import com.naofi.compiler.ir.IrRewriter;
+import com.naofi.compiler.ir.MethodIr;
+import com.naofi.compiler.ir.Opcode;
+import com.naofi.compiler.ir.Postorder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces multiplications of induction variables by constants inside while loops with additions.
+ * Induction variable of loop is stored only once in it, by i = i + c or i = i - c directly in loop body,
+ * so it changes by the same step on every iteration. Product i * k gets new symbol, which is set to i * k
+ * before the loop and increased by c * k right after the store, so it is equal to i * k everywhere in the loop.
+ * Products wrap like emitted code, so only unchecked arithmetic is reduced.
+ * Multiplications and divisions by constants are reduced by code generation
+ */
+public class StrengthReduction implements Transformation {
+    private final boolean checkedArithmetic;
+    private int reducedMultiplications;
+
+    public StrengthReduction(boolean checkedArithmetic) {
+        this.checkedArithmetic = checkedArithmetic;
+    }
+
+    @Override
+    public MethodIr run(DfaPipeline pipeline) {
+        MethodIr method = pipeline.getMethod();
+        if (checkedArithmetic) {
+            return method;
+        }
+        Reducer reducer = new Reducer(method);
+        if (!reducer.analyze()) {
+            return method;
+        }
+        MethodIr result = reducer.rewrite();
+        reducedMultiplications += reducer.reduced;
+        return result;
+    }
+
+    /**
+     * Number of multiplications replaced by loads of products by last runs
+     */
+    public int getReducedMultiplications() {
+        return reducedMultiplications;
+    }
+
+    private static class Induction {
+        final int symbol;
+        final int store;
+        final long step;
+        // Products by factor, in order they are found
+        final Map<Long, Product> products = new LinkedHashMap<>();
+
+        Induction(int symbol, int store, long step) {
+            this.symbol = symbol;
+            this.store = store;
+            this.step = step;
+        }
+    }
+
+    private static class Product {
+        final Induction induction;
+        final long factor;
+        // Symbol in rewritten method, -1 until it is defined
+        int symbol = -1;
+
+        Product(Induction induction, long factor) {
+            this.induction = induction;
+            this.factor = factor;
+        }
+    }
+
+    private static class Reducer extends IrRewriter {
+        private final Postorder order;
+        // Product replacing MUL node, null for other nodes
+        private final Product[] products;
+        // Inductions with products by their WHILE and by their store
+        private final Map<Integer, List<Induction>> loopInductions = new HashMap<>();
+        private final Map<Integer, Induction> storeInductions = new HashMap<>();
+        private int reduced;
+
+        Reducer(MethodIr method) {
+            super(method);
+            order = new Postorder(method);
+            products = new Product[method.size()];
+        }
+
+        /**
+         * Finds products of every loop, returns false if there are none
+         */
+        boolean analyze() {
+            List<Integer> loops = new ArrayList<>();
+            int count = order.walk(method.getBody());
+            for (int i = 0; i < count; i++) {
+                if (method.opcode(order.node(i)) == Opcode.WHILE) {
+                    loops.add(order.node(i));
+                }
+            }
+            for (int loop : loops) {
+                analyzeLoop(loop);
+            }
+            return !storeInductions.isEmpty();
+        }
+
+        private void analyzeLoop(int loop) {
+            Map<Integer, Induction> inductions = new LinkedHashMap<>();
+            int body = method.body(loop);
+            for (int i = 0; i < method.childCount(body); i++) {
+                int statement = method.child(body, i);
+                Long step = step(statement);
+                if (step != null && !inductions.containsKey(method.symbol(statement))) {
+                    inductions.put(method.symbol(statement), new Induction(method.symbol(statement), statement, step));
+                }
+            }
+            if (inductions.isEmpty()) {
+                return;
+            }
+            // Any other store in loop makes step vary
+            int count = order.walk(loop);
+            for (int i = 0; i < count; i++) {
+                int node = order.node(i);
+                Opcode opcode = method.opcode(node);
+                if ((opcode == Opcode.STORE || opcode == Opcode.DEFINE) &&
+                        inductions.containsKey(method.symbol(node)) &&
+                        inductions.get(method.symbol(node)).store != node) {
+                    inductions.remove(method.symbol(node));
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                int node = order.node(i);
+                if (method.opcode(node) != Opcode.MUL) {
+                    continue;
+                }
+                int load = method.left(node);
+                int constant = method.right(node);
+                if (method.opcode(load) == Opcode.CONST) {
+                    load = method.right(node);
+                    constant = method.left(node);
+                }
+                if (method.opcode(load) != Opcode.LOAD || method.opcode(constant) != Opcode.CONST ||
+                        !inductions.containsKey(method.symbol(load)) ||
+                        method.type(node) != method.symbolType(method.symbol(load))) {
+                    continue;
+                }
+                Induction induction = inductions.get(method.symbol(load));
+                products[node] = induction.products.computeIfAbsent(method.value(constant),
+                        factor -> new Product(induction, factor));
+            }
+            for (Induction induction : inductions.values()) {
+                if (!induction.products.isEmpty()) {
+                    loopInductions.computeIfAbsent(loop, key -> new ArrayList<>()).add(induction);
+                    storeInductions.put(induction.store, induction);
+                }
+            }
+        }
+
+        /**
+         * Step of i = i + c, i = c + i or i = i - c store of int or long symbol, null for other statements
+         */
+        private Long step(int statement) {
+            if (method.opcode(statement) != Opcode.STORE) {
+                return null;
+            }
+            int symbol = method.symbol(statement);
+            int value = method.operand(statement);
+            VariableType type = method.symbolType(symbol);
+            Opcode opcode = method.opcode(value);
+            if ((type != VariableType.INT && type != VariableType.LONG) || method.type(value) != type ||
+                    (opcode != Opcode.ADD && opcode != Opcode.SUB)) {
+                return null;
+            }
+            int load = method.left(value);
+            int constant = method.right(value);
+            if (opcode == Opcode.ADD && method.opcode(load) == Opcode.CONST) {
+                load = method.right(value);
+                constant = method.left(value);
+            }
+            if (method.opcode(load) != Opcode.LOAD || method.symbol(load) != symbol ||
+                    method.opcode(constant) != Opcode.CONST) {
+                return null;
+            }
+            // Step is 0 + c or 0 - c, negation wraps
+            return Arithmetic.evaluate(opcode, type, 0, method.value(constant), false);
+        }
+
+        @Override
+        protected int expression(int node) {
+            if (products[node] == null) {
+                return copyExpression(node);
+            }
+            reduced++;
+            return builder.load(symbol(products[node]));
+        }
+
+        @Override
+        protected int statement(int node) {
+            List<Integer> statements = new ArrayList<>();
+            if (loopInductions.containsKey(node)) {
+                for (Induction induction : loopInductions.get(node)) {
+                    VariableType type = method.symbolType(induction.symbol);
+                    for (Product product : induction.products.values()) {
+                        int value = builder.binary(Opcode.MUL, type, builder.load(induction.symbol),
+                                builder.constant(type, product.factor));
+                        statements.add(builder.store(symbol(product), value));
+                    }
+                }
+                statements.add(copyStatement(node));
+            } else if (storeInductions.containsKey(node)) {
+                Induction induction = storeInductions.get(node);
+                VariableType type = method.symbolType(induction.symbol);
+                statements.add(copyStatement(node));
+                for (Product product : induction.products.values()) {
+                    long step = Arithmetic.evaluate(Opcode.MUL, type, induction.step, product.factor, false);
+                    int value = builder.binary(Opcode.ADD, type, builder.load(symbol(product)),
+                            builder.constant(type, step));
+                    statements.add(builder.store(symbol(product), value));
+                }
+            } else {
+                return copyStatement(node);
+            }
+            return builder.block(statements);
+        }
+
+        private int symbol(Product product) {
+            if (product.symbol == -1) {
+                Induction induction = product.induction;
+                product.symbol = builder.symbol(method.symbolName(induction.symbol) + "*" + product.factor,
+                        method.symbolType(induction.symbol));
+            }
+            return product.symbol;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.naofi.compiler.parsing;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads single-byte (ASCII/Latin-1) source directly from buffer, it can be memory mapped file.
+ * Characters are not copied, only text of requested intervals is decoded.
+ * Also exposed as CharSequence for hand written frontend
+ */
+public class ByteBufferCharStream implements CharStream, CharSequence {
+    private final ByteBuffer buffer;
+    private final int size;
+    private final String sourceName;
+    private int position = 0;
+
+    /**
+     * Stream covers bytes between buffer position and limit, buffer itself is not modified
+     */
+    public ByteBufferCharStream(ByteBuffer buffer, String sourceName) {
+        this.buffer = buffer.slice();
+        this.size = this.buffer.remaining();
+        this.sourceName = sourceName;
+    }
+
+    @Override
+    public String getText(Interval interval) {
+        int start = Math.min(interval.a, size);
+        int length = Math.min(interval.b - interval.a + 1, size - start);
+        if (length <= 0) {
+            return "";
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    public void consume() {
+        if (position >= size) {
+            throw new IllegalStateException("cannot consume EOF");
+        }
+        position++;
+    }
+
+    @Override
+    public int LA(int i) {
+        int offset;
+        if (i > 0) {
+            offset = position + i - 1;
+            if (offset >= size) {
+                return IntStream.EOF;
+            }
+        } else if (i < 0) {
+            offset = position + i;
+            if (offset < 0) {
+                return IntStream.EOF;
+            }
+        } else {
+            // undefined
+            return 0;
+        }
+        return buffer.get(offset) & 0xFF;
+    }
+
+    @Override
+    public int mark() {
+        return -1;
+    }
+
+    @Override
+    public void release(int marker) {
+    }
+
+    @Override
+    public int index() {
+        return position;
+    }
+
+    @Override
+    public void seek(int index) {
+        position = Math.min(index, size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String getSourceName() {
+        return (sourceName == null) ? IntStream.UNKNOWN_SOURCE_NAME : sourceName;
+    }
+
+    @Override
+    public int length() {
+        return size;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) (buffer.get(index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return getText(Interval.of(start, end - 1));
+    }
+
+    @Override
+    public String toString() {
+        return getText(Interval.of(0, size - 1));
+    }
+}
@@ -0,0 +1,15 @@
+package com.naofi.compiler.parsing;
+
+/**
+ * Parser implementation used by {@link com.naofi.compiler.NfCompiler}
+ */
+public enum Frontend {
+    /**
+     * Generated NfLangLexer and NfLangParser, driven according to {@link ParsingMode}
+     */
+    ANTLR,
+    /**
+     * {@link NfScanner} and {@link NfDescentParser}
+     */
+    HAND_WRITTEN
+}
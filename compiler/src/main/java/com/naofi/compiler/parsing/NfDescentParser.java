@@ -0,0 +1,398 @@
+package com.naofi.compiler.parsing;
+
+import com.naofi.antlr.NfLangParser;
+import org.antlr.v4.runtime.CommonToken;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.TerminalNodeImpl;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Descent parser building the same tree as generated NfLangParser, so it can be bound
+ * and compiled without any changes. Every decision is made from token types in {@link TokenBuffer},
+ * the only runtime objects created are nodes of resulting tree. Nested blocks and parentheses
+ * are kept on explicit stacks, so nesting depth is not limited by thread stack
+ */
+public class NfDescentParser {
+    private static final int CLASS = NfScanner.literalType("class");
+    private static final int LEFT_BRACE = NfScanner.literalType("{");
+    private static final int RIGHT_BRACE = NfScanner.literalType("}");
+    private static final int LEFT_PAREN = NfScanner.literalType("(");
+    private static final int RIGHT_PAREN = NfScanner.literalType(")");
+    private static final int COMMA = NfScanner.literalType(",");
+    private static final int SEMICOLON = NfScanner.literalType(";");
+    private static final int WHILE = NfScanner.literalType("while");
+    private static final int ASSIGN = NfScanner.literalType("=");
+    private static final int VAR = NfScanner.literalType("var");
+    private static final int RETURN = NfScanner.literalType("return");
+    private static final int IF = NfScanner.literalType("if");
+    private static final int ELSE = NfScanner.literalType("else");
+    private static final int PLUS = NfScanner.literalType("+");
+    private static final int MINUS = NfScanner.literalType("-");
+    private static final int MUL = NfScanner.literalType("*");
+    private static final int DIV = NfScanner.literalType("/");
+    private static final int GREATER = NfScanner.literalType(">");
+    private static final int GREATER_OR_EQUAL = NfScanner.literalType(">=");
+    private static final int LESS = NfScanner.literalType("<");
+    private static final int LESS_OR_EQUAL = NfScanner.literalType("<=");
+    private static final int EQUAL = NfScanner.literalType("==");
+    private static final int NOT_EQUAL = NfScanner.literalType("!=");
+    private static final int TRUE = NfScanner.literalType("true");
+    private static final int FALSE = NfScanner.literalType("false");
+    private static final int[] TYPES = {
+            NfScanner.literalType("bool"),
+            NfScanner.literalType("byte"),
+            NfScanner.literalType("short"),
+            NfScanner.literalType("int"),
+            NfScanner.literalType("long"),
+            NfScanner.literalType("float"),
+            NfScanner.literalType("double"),
+            NfScanner.literalType("char")
+    };
+
+    public static NfDescentParser of(CharSequence code) {
+        return new NfDescentParser(NfScanner.scan(code));
+    }
+
+    private final TokenBuffer tokens;
+    private int pos = 0;
+    // Steps of blocks being parsed, top one is run next
+    private final Deque<Runnable> work = new ArrayDeque<>();
+
+    public NfDescentParser(TokenBuffer tokens) {
+        this.tokens = tokens;
+    }
+
+    public NfLangParser.ClassDefContext classDef() {
+        NfLangParser.ClassDefContext ctx = new NfLangParser.ClassDefContext(null, -1);
+        match(ctx, CLASS);
+        match(ctx, NfLangParser.IDENTIFIER);
+        match(ctx, LEFT_BRACE);
+        while (type(0) != RIGHT_BRACE) {
+            add(ctx, classMember());
+        }
+        match(ctx, RIGHT_BRACE);
+        return ctx;
+    }
+
+    private NfLangParser.ClassMemberContext classMember() {
+        NfLangParser.ClassMemberContext ctx = new NfLangParser.ClassMemberContext(null, -1);
+        if (isType(type(0))) {
+            NfLangParser.FieldContext field = new NfLangParser.FieldContext(null, -1);
+            add(field, type());
+            add(field, variable());
+            add(ctx, field);
+        } else {
+            add(ctx, method());
+        }
+        return ctx;
+    }
+
+    public NfLangParser.MethodContext method() {
+        NfLangParser.MethodContext ctx = new NfLangParser.MethodContext(null, -1);
+        match(ctx, NfLangParser.IDENTIFIER);
+        match(ctx, LEFT_PAREN);
+        if (type(0) != RIGHT_PAREN) {
+            add(ctx, formalParam());
+            while (type(0) == COMMA) {
+                match(ctx, COMMA);
+                add(ctx, formalParam());
+            }
+        }
+        match(ctx, RIGHT_PAREN);
+        add(ctx, block());
+        return ctx;
+    }
+
+    private NfLangParser.FormalParamContext formalParam() {
+        NfLangParser.FormalParamContext ctx = new NfLangParser.FormalParamContext(null, -1);
+        add(ctx, type());
+        add(ctx, variable());
+        return ctx;
+    }
+
+    private NfLangParser.BlockContext block() {
+        NfLangParser.BlockContext ctx = openBlock();
+        while (!work.isEmpty()) {
+            work.pop().run();
+        }
+        return ctx;
+    }
+
+    /**
+     * Matches opening brace, statements and closing brace are parsed by scheduled step
+     */
+    private NfLangParser.BlockContext openBlock() {
+        NfLangParser.BlockContext ctx = new NfLangParser.BlockContext(null, -1);
+        match(ctx, LEFT_BRACE);
+        work.push(() -> blockStatements(ctx));
+        return ctx;
+    }
+
+    private void blockStatements(NfLangParser.BlockContext ctx) {
+        if (type(0) == RIGHT_BRACE) {
+            match(ctx, RIGHT_BRACE);
+            return;
+        }
+        work.push(() -> blockStatements(ctx));
+        add(ctx, statement());
+    }
+
+    /**
+     * Nested block of compound statement is scheduled, it is parsed before the rest of enclosing block
+     */
+    private NfLangParser.StatementContext statement() {
+        NfLangParser.StatementContext base = new NfLangParser.StatementContext(null, -1);
+        int type = type(0);
+        if (type == WHILE) {
+            NfLangParser.WhileStmtContext ctx = new NfLangParser.WhileStmtContext(base);
+            match(ctx, WHILE);
+            match(ctx, LEFT_PAREN);
+            add(ctx, boolExpression());
+            match(ctx, RIGHT_PAREN);
+            add(ctx, openBlock());
+            return ctx;
+        } else if (type == IF) {
+            NfLangParser.IfContext ctx = new NfLangParser.IfContext(base);
+            add(ctx, ifStatement());
+            return ctx;
+        } else if (type == VAR) {
+            NfLangParser.VarInitDefContext ctx = new NfLangParser.VarInitDefContext(base);
+            match(ctx, VAR);
+            add(ctx, variable());
+            match(ctx, ASSIGN);
+            add(ctx, expr());
+            match(ctx, SEMICOLON);
+            return ctx;
+        } else if (type == RETURN) {
+            NfLangParser.ReturnContext ctx = new NfLangParser.ReturnContext(base);
+            match(ctx, RETURN);
+            if (type(0) != SEMICOLON) {
+                add(ctx, expr());
+                while (type(0) == COMMA) {
+                    match(ctx, COMMA);
+                    add(ctx, expr());
+                }
+            }
+            match(ctx, SEMICOLON);
+            return ctx;
+        } else if (isType(type)) {
+            if (type(2) == ASSIGN) {
+                NfLangParser.TypeInitDefContext ctx = new NfLangParser.TypeInitDefContext(base);
+                add(ctx, type());
+                add(ctx, variable());
+                match(ctx, ASSIGN);
+                add(ctx, expr());
+                match(ctx, SEMICOLON);
+                return ctx;
+            }
+            NfLangParser.TypeDefContext ctx = new NfLangParser.TypeDefContext(base);
+            add(ctx, type());
+            add(ctx, variable());
+            match(ctx, SEMICOLON);
+            return ctx;
+        } else if (type == NfLangParser.IDENTIFIER && type(1) == ASSIGN) {
+            NfLangParser.AssignmentContext ctx = new NfLangParser.AssignmentContext(base);
+            add(ctx, variable());
+            match(ctx, ASSIGN);
+            add(ctx, expr());
+            match(ctx, SEMICOLON);
+            return ctx;
+        }
+        NfLangParser.SimpleStatementContext ctx = new NfLangParser.SimpleStatementContext(base);
+        add(ctx, expression());
+        match(ctx, SEMICOLON);
+        return ctx;
+    }
+
+    /**
+     * Else part is parsed by step scheduled after then block
+     */
+    private NfLangParser.IfStatementContext ifStatement() {
+        NfLangParser.IfStatementContext ctx = new NfLangParser.IfStatementContext(null, -1);
+        match(ctx, IF);
+        match(ctx, LEFT_PAREN);
+        add(ctx, boolExpression());
+        match(ctx, RIGHT_PAREN);
+        work.push(() -> {
+            if (type(0) == ELSE) {
+                match(ctx, ELSE);
+                add(ctx, elseInner());
+            }
+        });
+        add(ctx, openBlock());
+        return ctx;
+    }
+
+    private NfLangParser.ElseInnerContext elseInner() {
+        NfLangParser.ElseInnerContext base = new NfLangParser.ElseInnerContext(null, -1);
+        if (type(0) == IF) {
+            NfLangParser.ElseIfStmtContext ctx = new NfLangParser.ElseIfStmtContext(base);
+            add(ctx, ifStatement());
+            return ctx;
+        }
+        NfLangParser.ElseStmtContext ctx = new NfLangParser.ElseStmtContext(base);
+        add(ctx, openBlock());
+        return ctx;
+    }
+
+    private NfLangParser.ExprContext expr() {
+        NfLangParser.ExprContext ctx = new NfLangParser.ExprContext(null, -1);
+        add(ctx, eqExpression());
+        return ctx;
+    }
+
+    private NfLangParser.BoolExpressionContext boolExpression() {
+        NfLangParser.BoolExpressionContext ctx = new NfLangParser.BoolExpressionContext(null, -1);
+        add(ctx, eqExpression());
+        return ctx;
+    }
+
+    private NfLangParser.EqExpressionContext eqExpression() {
+        NfLangParser.EqExpressionContext ctx = new NfLangParser.EqExpressionContext(null, -1);
+        add(ctx, compExpression());
+        if (type(0) == EQUAL || type(0) == NOT_EQUAL) {
+            add(ctx, operator(new NfLangParser.Op4Context(null, -1)));
+            add(ctx, compExpression());
+        }
+        return ctx;
+    }
+
+    private NfLangParser.CompExpressionContext compExpression() {
+        NfLangParser.CompExpressionContext ctx = new NfLangParser.CompExpressionContext(null, -1);
+        if (type(0) == TRUE || type(0) == FALSE) {
+            NfLangParser.Bool_termContext term = new NfLangParser.Bool_termContext(null, -1);
+            match(term, type(0));
+            add(ctx, term);
+            return ctx;
+        }
+        add(ctx, expression());
+        if (isOp3(type(0))) {
+            add(ctx, operator(new NfLangParser.Op3Context(null, -1)));
+            add(ctx, expression());
+        }
+        return ctx;
+    }
+
+    /**
+     * Expressions enclosing parenthesized factor are kept on explicit stack instead of recursion
+     */
+    private NfLangParser.ExpressionContext expression() {
+        Deque<NfLangParser.ExpressionContext> enclosing = new ArrayDeque<>();
+        NfLangParser.ExpressionContext ctx = new NfLangParser.ExpressionContext(null, -1);
+        while (true) {
+            if (type(0) == LEFT_PAREN) {
+                NfLangParser.ParenthesizedFactorContext factor =
+                        new NfLangParser.ParenthesizedFactorContext(new NfLangParser.FactorContext(null, -1));
+                match(factor, LEFT_PAREN);
+                add(ctx, factor);
+                enclosing.push(ctx);
+                ctx = new NfLangParser.ExpressionContext(null, -1);
+                add(factor, ctx);
+                continue;
+            }
+            add(ctx, simpleFactor());
+            while (type(0) != PLUS && type(0) != MINUS) {
+                if (enclosing.isEmpty()) {
+                    return ctx;
+                }
+                match(ctx.getParent(), RIGHT_PAREN);
+                ctx = enclosing.pop();
+            }
+            add(ctx, operator(new NfLangParser.Op1Context(null, -1)));
+        }
+    }
+
+    private NfLangParser.SimpleFactorContext simpleFactor() {
+        NfLangParser.SimpleFactorContext ctx =
+                new NfLangParser.SimpleFactorContext(new NfLangParser.FactorContext(null, -1));
+        add(ctx, term());
+        while (type(0) == MUL || type(0) == DIV) {
+            add(ctx, operator(new NfLangParser.Op2Context(null, -1)));
+            add(ctx, term());
+        }
+        return ctx;
+    }
+
+    private NfLangParser.TermContext term() {
+        NfLangParser.TermContext ctx = new NfLangParser.TermContext(null, -1);
+        if (type(0) == NfLangParser.DECIMAL_NUMBER) {
+            NfLangParser.LiteralContext literal = new NfLangParser.LiteralContext(null, -1);
+            match(literal, NfLangParser.DECIMAL_NUMBER);
+            add(ctx, literal);
+        } else {
+            add(ctx, variable());
+        }
+        return ctx;
+    }
+
+    private NfLangParser.TypeContext type() {
+        if (!isType(type(0))) {
+            throw error("type expected");
+        }
+        NfLangParser.TypeContext ctx = new NfLangParser.TypeContext(null, -1);
+        match(ctx, type(0));
+        return ctx;
+    }
+
+    private NfLangParser.VariableContext variable() {
+        NfLangParser.VariableContext ctx = new NfLangParser.VariableContext(null, -1);
+        match(ctx, NfLangParser.IDENTIFIER);
+        return ctx;
+    }
+
+    private <T extends ParserRuleContext> T operator(T ctx) {
+        match(ctx, type(0));
+        return ctx;
+    }
+
+    private int type(int lookahead) {
+        return tokens.type(Math.min(pos + lookahead, tokens.size() - 1));
+    }
+
+    private boolean isType(int type) {
+        for (int t : TYPES) {
+            if (t == type) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isOp3(int type) {
+        return type == GREATER || type == GREATER_OR_EQUAL || type == LESS || type == LESS_OR_EQUAL;
+    }
+
+    private void match(ParserRuleContext ctx, int type) {
+        ctx.addChild(new TerminalNodeImpl(consume(type)));
+    }
+
+    private Token consume(int type) {
+        if (type(0) != type) {
+            String expected = (type == NfLangParser.IDENTIFIER) ? "IDENTIFIER" :
+                    (type == NfLangParser.DECIMAL_NUMBER) ? "DECIMAL_NUMBER" : "'" + NfScanner.literal(type) + "'";
+            throw error(expected + " expected");
+        }
+        String text = NfScanner.literal(type);
+        CommonToken token = new CommonToken(type, (text == null) ? tokens.text(pos) : text);
+        token.setLine(tokens.line(pos));
+        token.setCharPositionInLine(tokens.column(pos));
+        token.setTokenIndex(pos);
+        pos++;
+        return token;
+    }
+
+    private SyntaxErrorException error(String message) {
+        int i = Math.min(pos, tokens.size() - 1);
+        String found = (tokens.type(i) == Token.EOF) ? "<EOF>" : tokens.text(i);
+        return new SyntaxErrorException(tokens.line(i), tokens.column(i),
+                String.format("%s, found '%s'", message, found));
+    }
+
+    private static void add(ParserRuleContext parent, ParserRuleContext child) {
+        child.setParent(parent);
+        parent.addChild(child);
+    }
+}
@@ -0,0 +1,164 @@
+package com.naofi.compiler.parsing;
+
+import com.naofi.antlr.NfLangLexer;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.Vocabulary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand written equivalent of generated NfLangLexer.
+ * Keyword and operator tables are taken from lexer vocabulary once, scanning works on chars only
+ */
+public class NfScanner {
+    private static final String[] LITERALS;
+    private static final String[] KEYWORDS;
+    private static final int[] KEYWORD_TYPES;
+    private static final int[] ONE_CHAR_TYPES = new int[128];
+    private static final int[] TWO_CHAR_TYPES = new int[128 * 128];
+
+    static {
+        Vocabulary vocabulary = NfLangLexer.VOCABULARY;
+        LITERALS = new String[vocabulary.getMaxTokenType() + 1];
+        List<Integer> keywordTypes = new ArrayList<>();
+        for (int type = 1; type <= vocabulary.getMaxTokenType(); type++) {
+            String literal = vocabulary.getLiteralName(type);
+            if (literal == null) {
+                continue;
+            }
+            literal = literal.substring(1, literal.length() - 1);
+            LITERALS[type] = literal;
+            if (Character.isLetter(literal.charAt(0))) {
+                keywordTypes.add(type);
+            } else if (literal.length() == 1) {
+                ONE_CHAR_TYPES[literal.charAt(0)] = type;
+            } else {
+                TWO_CHAR_TYPES[literal.charAt(0) * 128 + literal.charAt(1)] = type;
+            }
+        }
+        KEYWORDS = new String[keywordTypes.size()];
+        KEYWORD_TYPES = new int[keywordTypes.size()];
+        for (int i = 0; i < keywordTypes.size(); i++) {
+            KEYWORD_TYPES[i] = keywordTypes.get(i);
+            KEYWORDS[i] = LITERALS[KEYWORD_TYPES[i]];
+        }
+    }
+
+    /**
+     * Returns token type of keyword or operator
+     */
+    static int literalType(String literal) {
+        for (int type = 0; type < LITERALS.length; type++) {
+            if (literal.equals(LITERALS[type])) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown literal: " + literal);
+    }
+
+    /**
+     * Returns text of keyword or operator token, null for other tokens
+     */
+    static String literal(int type) {
+        return (type > 0 && type < LITERALS.length) ? LITERALS[type] : null;
+    }
+
+    public static TokenBuffer scan(CharSequence source) {
+        return new NfScanner(source).scan();
+    }
+
+    private final CharSequence source;
+    private final int length;
+    private int pos = 0;
+    private int line = 1;
+    private int column = 0;
+
+    private NfScanner(CharSequence source) {
+        this.source = source;
+        this.length = source.length();
+    }
+
+    private TokenBuffer scan() {
+        TokenBuffer tokens = new TokenBuffer(source);
+        while (pos < length) {
+            char c = source.charAt(pos);
+            if (c == ' ') {
+                pos++;
+                column++;
+                continue;
+            }
+            if (c == '\n') {
+                pos++;
+                line++;
+                column = 0;
+                continue;
+            }
+            int start = pos;
+            int type;
+            if (isLetter(c)) {
+                pos++;
+                while (pos < length && (isLetter(source.charAt(pos)) || isDigit(source.charAt(pos)))) {
+                    pos++;
+                }
+                type = keywordType(start, pos);
+            } else if (isDigit(c) || (c == '-' && pos + 1 < length && isDigit(source.charAt(pos + 1)))) {
+                pos++;
+                while (pos < length && isDigit(source.charAt(pos))) {
+                    pos++;
+                }
+                type = NfLangLexer.DECIMAL_NUMBER;
+            } else {
+                type = operatorType(c);
+            }
+            tokens.add(type, start, pos, line, column);
+            column += pos - start;
+        }
+        tokens.add(Token.EOF, pos, pos, line, column);
+        return tokens;
+    }
+
+    private int keywordType(int start, int end) {
+        for (int i = 0; i < KEYWORDS.length; i++) {
+            if (regionEquals(KEYWORDS[i], start, end)) {
+                return KEYWORD_TYPES[i];
+            }
+        }
+        return NfLangLexer.IDENTIFIER;
+    }
+
+    private boolean regionEquals(String keyword, int start, int end) {
+        if (keyword.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < keyword.length(); i++) {
+            if (keyword.charAt(i) != source.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int operatorType(char c) {
+        if (c < 128 && pos + 1 < length) {
+            char next = source.charAt(pos + 1);
+            if (next < 128 && TWO_CHAR_TYPES[c * 128 + next] != 0) {
+                pos += 2;
+                return TWO_CHAR_TYPES[c * 128 + next];
+            }
+        }
+        if (c < 128 && ONE_CHAR_TYPES[c] != 0) {
+            pos++;
+            return ONE_CHAR_TYPES[c];
+        }
+        throw new SyntaxErrorException(line, column, "token recognition error at: '" + c + "'");
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
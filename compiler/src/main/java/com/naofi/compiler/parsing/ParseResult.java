@@ -0,0 +1,21 @@
+package com.naofi.compiler.parsing;
+
+import org.antlr.v4.runtime.tree.ParseTree;
+
+public class ParseResult {
+    private final ParseTree tree;
+    private final ParsingStage stage;
+
+    public ParseResult(ParseTree tree, ParsingStage stage) {
+        this.tree = tree;
+        this.stage = stage;
+    }
+
+    public ParseTree getTree() {
+        return tree;
+    }
+
+    public ParsingStage getStage() {
+        return stage;
+    }
+}
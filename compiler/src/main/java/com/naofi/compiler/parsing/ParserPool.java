@@ -0,0 +1,173 @@
+package com.naofi.compiler.parsing;
+
+import com.naofi.antlr.NfLangLexer;
+import com.naofi.antlr.NfLangParser;
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.*;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.tree.ParseTree;
+
+import java.util.function.Function;
+
+/**
+ * Keeps one lexer/parser pair per thread and reuses it through setInputStream.
+ * All pooled parsers share prediction cache owned by pool, so it can be warmed up at startup
+ * and dropped when it grows too large, without touching static cache of generated classes
+ */
+public class ParserPool {
+    private static final ParserPool SHARED = new ParserPool();
+
+    public static ParserPool shared() {
+        return SHARED;
+    }
+
+    private final ThreadLocal<PooledParser> parsers = ThreadLocal.withInitial(PooledParser::new);
+    private volatile PredictionCache cache = new PredictionCache();
+    private volatile int maxDfaStates = Integer.MAX_VALUE;
+
+    public ParseResult parse(CharStream chars, Function<NfLangParser, ParseTree> parseFunction, ParsingMode mode) {
+        ParseResult result = parsers.get().parse(chars, parseFunction, mode);
+        if (cache.stateCount() > maxDfaStates) {
+            clearCache();
+        }
+        return result;
+    }
+
+    /**
+     * Fills prediction cache by parsing given class sources, syntax errors are ignored
+     */
+    public void warmUp(Iterable<String> corpus) {
+        PooledParser parser = parsers.get();
+        for (String code : corpus) {
+            parser.warmUp(CharStreams.fromString(code));
+        }
+    }
+
+    /**
+     * Drops prediction cache, parsers pick up new one on next parse
+     */
+    public void clearCache() {
+        cache = new PredictionCache();
+    }
+
+    /**
+     * Cache is cleared after parse if it contains more than given number of DFA states
+     */
+    public void setMaxDfaStates(int maxDfaStates) {
+        this.maxDfaStates = maxDfaStates;
+    }
+
+    public int getDfaStateCount() {
+        return cache.stateCount();
+    }
+
+    private static class PredictionCache {
+        private final DFA[] lexerDfa = createDfa(NfLangLexer._ATN);
+        private final DFA[] parserDfa = createDfa(NfLangParser._ATN);
+        private final PredictionContextCache lexerContextCache = new PredictionContextCache();
+        private final PredictionContextCache parserContextCache = new PredictionContextCache();
+
+        private static DFA[] createDfa(ATN atn) {
+            DFA[] dfa = new DFA[atn.getNumberOfDecisions()];
+            for (int i = 0; i < dfa.length; i++) {
+                dfa[i] = new DFA(atn.getDecisionState(i), i);
+            }
+            return dfa;
+        }
+
+        int stateCount() {
+            int count = 0;
+            for (DFA dfa : lexerDfa) {
+                count += dfa.states.size();
+            }
+            for (DFA dfa : parserDfa) {
+                count += dfa.states.size();
+            }
+            return count;
+        }
+    }
+
+    private class PooledParser {
+        private final NfLangLexer lexer = new NfLangLexer(null);
+        private final CommonTokenStream tokens = new CommonTokenStream(lexer);
+        private final NfLangParser parser = new NfLangParser(tokens);
+        private PredictionCache boundCache;
+
+        ParseResult parse(CharStream chars, Function<NfLangParser, ParseTree> parseFunction, ParsingMode mode) {
+            reset(chars);
+            try {
+                return parse(parseFunction, mode);
+            } finally {
+                release();
+            }
+        }
+
+        private ParseResult parse(Function<NfLangParser, ParseTree> parseFunction, ParsingMode mode) {
+            switch (mode) {
+                case LL:
+                    return new ParseResult(parseFunction.apply(parser), ParsingStage.LL);
+                case SLL_THEN_LL:
+                    parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+                    parser.removeErrorListeners();
+                    parser.setErrorHandler(new BailErrorStrategy());
+                    try {
+                        return new ParseResult(parseFunction.apply(parser), ParsingStage.SLL);
+                    } catch (ParseCancellationException e) {
+                        // SLL either hit a real syntax error or needs full context, LL pass will tell which one
+                        tokens.seek(0);
+                        parser.reset();
+                        parser.addErrorListener(ConsoleErrorListener.INSTANCE);
+                        parser.setErrorHandler(new DefaultErrorStrategy());
+                        parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+                        return new ParseResult(parseFunction.apply(parser), ParsingStage.LL);
+                    }
+                default:
+                    throw new UnsupportedOperationException("Unknown parsing mode: " + mode);
+            }
+        }
+
+        void warmUp(CharStream chars) {
+            reset(chars);
+            lexer.removeErrorListeners();
+            parser.removeErrorListeners();
+            try {
+                parser.classDef();
+            } finally {
+                release();
+            }
+        }
+
+        /**
+         * Restores default parser state, it might be changed by previous parse
+         */
+        private void reset(CharStream chars) {
+            PredictionCache current = cache;
+            if (boundCache != current) {
+                lexer.setInterpreter(new LexerATNSimulator(lexer, NfLangLexer._ATN,
+                        current.lexerDfa, current.lexerContextCache));
+                parser.setInterpreter(new ParserATNSimulator(parser, NfLangParser._ATN,
+                        current.parserDfa, current.parserContextCache));
+                boundCache = current;
+            }
+            lexer.setInputStream(chars);
+            lexer.removeErrorListeners();
+            lexer.addErrorListener(ConsoleErrorListener.INSTANCE);
+            tokens.setTokenSource(lexer);
+            parser.setTokenStream(tokens);
+            parser.removeErrorListeners();
+            parser.addErrorListener(ConsoleErrorListener.INSTANCE);
+            parser.setErrorHandler(new DefaultErrorStrategy());
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+        }
+
+        /**
+         * Drops input and its tokens, so idle thread does not keep last parsed source
+         */
+        private void release() {
+            lexer.setInputStream(null);
+            tokens.setTokenSource(lexer);
+            parser.setTokenStream(tokens);
+        }
+    }
+}
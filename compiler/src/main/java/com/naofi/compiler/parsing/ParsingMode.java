@@ -0,0 +1,16 @@
+package com.naofi.compiler.parsing;
+
+/**
+ * Strategy used by {@link com.naofi.compiler.NfCompiler} to drive the generated parser
+ */
+public enum ParsingMode {
+    /**
+     * Full-context LL prediction with default error recovery
+     */
+    LL,
+    /**
+     * Try fast SLL prediction with bail out error strategy first,
+     * re-parse in full LL mode only if SLL pass failed
+     */
+    SLL_THEN_LL
+}
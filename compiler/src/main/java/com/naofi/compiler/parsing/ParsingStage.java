@@ -0,0 +1,10 @@
+package com.naofi.compiler.parsing;
+
+/**
+ * Parsing path that produced the tree
+ */
+public enum ParsingStage {
+    SLL,
+    LL,
+    HAND_WRITTEN
+}
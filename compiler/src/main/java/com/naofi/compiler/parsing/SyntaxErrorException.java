@@ -0,0 +1,9 @@
+package com.naofi.compiler.parsing;
+
+public class SyntaxErrorException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public SyntaxErrorException(int line, int column, String message) {
+        super(String.format("line %d:%d %s", line, column, message));
+    }
+}
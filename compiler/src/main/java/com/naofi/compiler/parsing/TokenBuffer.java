@@ -0,0 +1,58 @@
+package com.naofi.compiler.parsing;
+
+import java.util.Arrays;
+
+/**
+ * Tokens produced by {@link NfScanner}, kept in parallel primitive arrays.
+ * Token types are the same as in generated NfLangLexer, last token is always EOF
+ */
+public class TokenBuffer {
+    private final CharSequence source;
+    private int[] types = new int[64];
+    private int[] starts = new int[64];
+    private int[] ends = new int[64];
+    private int[] lines = new int[64];
+    private int[] columns = new int[64];
+    private int size = 0;
+
+    TokenBuffer(CharSequence source) {
+        this.source = source;
+    }
+
+    void add(int type, int start, int end, int line, int column) {
+        if (size == types.length) {
+            int capacity = size * 2;
+            types = Arrays.copyOf(types, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            lines = Arrays.copyOf(lines, capacity);
+            columns = Arrays.copyOf(columns, capacity);
+        }
+        types[size] = type;
+        starts[size] = start;
+        ends[size] = end;
+        lines[size] = line;
+        columns[size] = column;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int type(int i) {
+        return types[i];
+    }
+
+    public int line(int i) {
+        return lines[i];
+    }
+
+    public int column(int i) {
+        return columns[i];
+    }
+
+    public String text(int i) {
+        return source.subSequence(starts[i], ends[i]).toString();
+    }
+}
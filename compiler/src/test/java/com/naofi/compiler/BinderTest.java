@@ -3,12 +3,15 @@ package com.naofi.compiler;
 import com.naofi.antlr.NfLangParser;
 import com.naofi.compiler.binding.Binder;
 import com.naofi.compiler.binding.symbols.VariableType;
+import com.naofi.compiler.ir.MethodIr;
+import com.naofi.compiler.parsing.NfDescentParser;
 import org.antlr.v4.runtime.tree.ParseTree;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 public class BinderTest {
@@ -228,9 +231,73 @@ public class BinderTest {
         );
     }
 
+    @Test
+    public void nonBoolCondition() {
+        testMethodBinding(
+                "main () {" +
+                        "var a = 1;" +
+                        "while (a + 1) {" +
+                        "}" +
+                        "}",
+                VariableType.UNDEFINED,
+                "Condition must be of type BOOL, but was 'BYTE'"
+        );
+    }
+
+    @Test
+    public void compareBoolToInt() {
+        testMethodBinding(
+                "main () {" +
+                        "var a = 1;" +
+                        "return a == true;" +
+                        "}",
+                VariableType.BOOL,
+                "Cannot compare types 'BYTE' and 'BOOL'"
+        );
+    }
+
+    @Test
+    public void widenedOperandsAreConverted() {
+        Binder binder = new Binder();
+        binder.visit(NfCompiler.parse("main () {" +
+                "int a = 1;" +
+                "long b = 10000000000;" +
+                "return a + b;" +
+                "}", NfLangParser::method));
+        MethodIr method = binder.getMethods().get(0);
+
+        Assertions.assertEquals(Collections.emptyList(), binder.getErrors());
+        Assertions.assertEquals(Collections.singletonList(VariableType.LONG), method.getReturnTypes());
+        Assertions.assertEquals("{ a = 1; b = 10000000000; return ((long)a + b); }", method.toString(method.getBody()));
+    }
+
+    @Test
+    public void symbolsGetSlotsAtDefinition() {
+        Binder binder = new Binder();
+        binder.visit(NfCompiler.parse("main (long p) {" +
+                "int a = 1;" +
+                "if (a > 0) {" +
+                "long a = 2;" +
+                "}" +
+                "return a;" +
+                "}", NfLangParser::method));
+        MethodIr method = binder.getMethods().get(0);
+
+        Assertions.assertEquals(3, method.symbolCount());
+        Assertions.assertEquals(1, method.symbolSlot(0));
+        Assertions.assertEquals(3, method.symbolSlot(1));
+        Assertions.assertEquals(4, method.symbolSlot(2));
+        Assertions.assertEquals(6, method.localsSize());
+        Assertions.assertEquals(Collections.singletonList(VariableType.INT), method.getReturnTypes());
+    }
+
     private void testMethodBinding(String code, VariableType expectedType, String... expectedErrors) {
+        testMethodBinding(NfCompiler.parse(code, NfLangParser::method), expectedType, expectedErrors);
+        testMethodBinding(NfCompiler.parseHandWritten(code, NfDescentParser::method), expectedType, expectedErrors);
+    }
+
+    private void testMethodBinding(ParseTree tree, VariableType expectedType, String... expectedErrors) {
         Binder binder = new Binder();
-        ParseTree tree = NfCompiler.parse(code, NfLangParser::method);
         VariableType actualType = binder.visit(tree);
         Assertions.assertEquals(expectedType, actualType);
 
@@ -1,15 +1,32 @@
 package com.naofi.compiler;
 
+import com.naofi.compiler.parsing.Frontend;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.TryCatchBlockNode;
 
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 
 public class CompilerTest {
+    // Nesting depth of generated stress sources
+    private static final int DEEP = 100_000;
+    private static final long[] DIVIDENDS = dividends();
+
     @Test
     public void returnConstantLessThan6() {
         returnValueTest("class Main {" +
@@ -434,9 +451,1117 @@ public class CompilerTest {
                 10);
     }
 
+    @Test
+    public void ifBoolVariable() {
+        returnValueTest("class Main {" +
+                        "main() {" +
+                        "int a = 0;" +
+                        "bool b = a < 1;" +
+                        "if (b) {" +
+                        "a = 1;" +
+                        "}" +
+                        "return a;" +
+                        "}" +
+                        "}",
+                1);
+    }
+
+    @Test
+    public void returnAssignedLong() {
+        returnValueTest("class Main {" +
+                        "main() {" +
+                        "long a = 1;" +
+                        "long b = 2;" +
+                        "a = 10000000000;" +
+                        "return a + b;" +
+                        "}" +
+                        "}",
+                10000000002L);
+    }
+
+    @Test
+    public void returnLongGreater() {
+        returnValueTest("class Main {" +
+                        "main() {" +
+                        "long a = 10000000000;" +
+                        "return a > 1;" +
+                        "}" +
+                        "}",
+                true);
+    }
+
+    @Test
+    public void shadowedVariable() {
+        returnValueTest("class Main {" +
+                        "main() {" +
+                        "int a = 1;" +
+                        "if (a > 0) {" +
+                        "long a = 10000000000;" +
+                        "a = a + 1;" +
+                        "}" +
+                        "return a;" +
+                        "}" +
+                        "}",
+                1);
+    }
+
+    @Test
+    public void byteArithmeticWraps() {
+        returnValueTest("class Main {" +
+                        "main() {" +
+                        "byte a = 100;" +
+                        "byte b = a + a;" +
+                        "return b;" +
+                        "}" +
+                        "}",
+                (byte)-56);
+    }
+
+    @Test
+    public void longCounterInIntRange() {
+        String code = "class Main {" +
+                "main() {" +
+                "long i = 0;" +
+                "while (i < 10) {" +
+                "i = i + 1;" +
+                "}" +
+                "return i;" +
+                "}" +
+                "}";
+        returnValueTest(code, 10L);
+        List<Integer> loop = loopOpcodes(NfCompiler.compile(code, new CompilerOptions()).getClassBytes());
+        Assertions.assertTrue(loop.contains(Opcodes.IADD) && loop.contains(Opcodes.ISTORE));
+        Assertions.assertFalse(loop.contains(Opcodes.LADD) || loop.contains(Opcodes.LSTORE));
+        loop = loopOpcodes(NfCompiler.compile(code, new CompilerOptions().setRangeAnalysis(false)).getClassBytes());
+        Assertions.assertTrue(loop.contains(Opcodes.LADD) && loop.contains(Opcodes.LSTORE));
+    }
+
+    @Test
+    public void longCounterWithUnknownBoundStaysLong() throws ReflectiveOperationException {
+        String code = "class Main {" +
+                "main(long n) {" +
+                "long i = 0;" +
+                "long s = 0;" +
+                "while (i < n) {" +
+                "s = s + i;" +
+                "i = i + 1;" +
+                "}" +
+                "return s;" +
+                "}" +
+                "}";
+        byte[] bytes = NfCompiler.compile(code, new CompilerOptions()).getClassBytes();
+        List<Integer> loop = loopOpcodes(bytes);
+        Assertions.assertTrue(loop.contains(Opcodes.LADD) && loop.contains(Opcodes.LSTORE));
+        Assertions.assertFalse(loop.contains(Opcodes.IADD) || loop.contains(Opcodes.ISTORE));
+        Object main = new TestClassLoader().defineClass("Main", bytes).getConstructor().newInstance();
+        Assertions.assertEquals(45L, main.getClass().getDeclaredMethod("main", long.class).invoke(main, 10L));
+    }
+
+    @Test
+    public void longBeyondIntRange() {
+        returnValueTest("class Main {" +
+                        "main() {" +
+                        "long i = 2147483647;" +
+                        "i = i + 1;" +
+                        "return i;" +
+                        "}" +
+                        "}",
+                2147483648L);
+    }
+
+    @Test
+    public void resultsWithoutRangeAnalysis() {
+        returnValueTest("class Main {" +
+                        "main() {" +
+                        "long i = 0;" +
+                        "while (i < 10) {" +
+                        "i = i + 1;" +
+                        "}" +
+                        "return i;" +
+                        "}" +
+                        "}",
+                10L, new CompilerOptions().setRangeAnalysis(false));
+    }
+
+    @Test
+    public void speculativeSum() {
+        returnValueTest("class Main {" +
+                        "main() {" +
+                        "long s = 0;" +
+                        "int i = 0;" +
+                        "while (i < 100) {" +
+                        "s = s + i;" +
+                        "i = i + 1;" +
+                        "}" +
+                        "return s;" +
+                        "}" +
+                        "}",
+                4950L, new CompilerOptions().setSpeculativeInt(true));
+    }
+
+    @Test
+    public void speculativeOverflowFallsBack() {
+        returnValueTest("class Main {" +
+                        "main() {" +
+                        "long s = 1;" +
+                        "int i = 0;" +
+                        "while (i < 40) {" +
+                        "s = s * 2;" +
+                        "i = i + 1;" +
+                        "}" +
+                        "return s;" +
+                        "}" +
+                        "}",
+                1099511627776L, new CompilerOptions().setSpeculativeInt(true));
+    }
+
+    @Test
+    public void speculativeLargeConstant() {
+        returnValueTest("class Main {" +
+                        "main() {" +
+                        "long a = 1;" +
+                        "a = a + 10000000000;" +
+                        "return a > 1;" +
+                        "}" +
+                        "}",
+                true, new CompilerOptions().setSpeculativeInt(true).setRangeAnalysis(false));
+    }
+
+    @Test
+    public void speculativeFallbackRestoresParameters() throws ReflectiveOperationException {
+        String code = "class Main {" +
+                "f(int p) {" +
+                "long acc = 0;" +
+                "p = p + 1;" +
+                "acc = acc + p;" +
+                "acc = acc * 100000;" +
+                "acc = acc * 100000;" +
+                "return acc;" +
+                "}" +
+                "}";
+        byte[] bytes = NfCompiler.compile(code, new CompilerOptions().setSpeculativeInt(true)).getClassBytes();
+        Object main = new TestClassLoader().defineClass("Main", bytes).getConstructor().newInstance();
+        Method f = main.getClass().getDeclaredMethod("f", int.class);
+        Assertions.assertEquals(10000000000L, f.invoke(main, 0));
+        Assertions.assertEquals(20000000000L, f.invoke(main, 1));
+    }
+
+    @Test
+    public void speculativeFallbackHandlesOnlySpeculativeOverflow() throws ReflectiveOperationException {
+        String code = "class Main {" +
+                "f(int a, int b) {" +
+                "long s = a;" +
+                "s = s * 3;" +
+                "int q = a / b;" +
+                "int c = q * a;" +
+                "return s + c;" +
+                "}" +
+                "}";
+        for (boolean checked : new boolean[]{false, true}) {
+            byte[] bytes = NfCompiler.compile(code, new CompilerOptions().setSpeculativeInt(true)
+                    .setCheckedArithmetic(checked)).getClassBytes();
+            ClassNode classNode = new ClassNode();
+            new ClassReader(bytes).accept(classNode, 0);
+            MethodNode f = classNode.methods.stream().filter(node -> node.name.equals("f")).findFirst()
+                    .orElseThrow(IllegalStateException::new);
+            Assertions.assertFalse(f.tryCatchBlocks.isEmpty());
+            for (TryCatchBlockNode block : f.tryCatchBlocks) {
+                List<Integer> covered = new ArrayList<>();
+                for (AbstractInsnNode insn = block.start; insn != block.end; insn = insn.getNext()) {
+                    if (insn.getOpcode() >= 0) {
+                        covered.add(insn.getOpcode());
+                    }
+                }
+                Assertions.assertEquals(Collections.singletonList(Opcodes.INVOKESTATIC), covered);
+            }
+            Object main = new TestClassLoader().defineClass("Main", bytes).getConstructor().newInstance();
+            Method method = main.getClass().getDeclaredMethod("f", int.class, int.class);
+            Assertions.assertEquals(7L * 3 + 7, method.invoke(main, 7, 7));
+            InvocationTargetException e = Assertions.assertThrows(InvocationTargetException.class,
+                    () -> method.invoke(main, 7, 0));
+            Assertions.assertEquals("/ by zero", e.getCause().getMessage());
+            if (checked) {
+                e = Assertions.assertThrows(InvocationTargetException.class, () -> method.invoke(main, 65536, 1));
+                Assertions.assertEquals("integer overflow", e.getCause().getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void checkedIntOverflow() {
+        overflowTest("class Main {" +
+                "main() {" +
+                "int a = 2147483647;" +
+                "a = a + 1;" +
+                "return a;" +
+                "}" +
+                "}");
+    }
+
+    @Test
+    public void checkedByteOverflow() {
+        overflowTest("class Main {" +
+                "main() {" +
+                "byte a = 100;" +
+                "byte b = a + a;" +
+                "return b;" +
+                "}" +
+                "}");
+    }
+
+    @Test
+    public void checkedLongDivisionOverflow() {
+        overflowTest("class Main {" +
+                "main() {" +
+                "long a = -9223372036854775807;" +
+                "a = a - 1;" +
+                "return a / -1;" +
+                "}" +
+                "}");
+    }
+
+    @Test
+    public void checkedLoopCounterIsElided() {
+        String code = "class Main {" +
+                "main() {" +
+                "int i = 0;" +
+                "while (i < 10) {" +
+                "i = i + 1;" +
+                "}" +
+                "return i;" +
+                "}" +
+                "}";
+        CompilerOptions options = new CompilerOptions().setCheckedArithmetic(true);
+        returnValueTest(code, 10, options);
+        Assertions.assertEquals(Collections.singletonMap("main", 1),
+                NfCompiler.compile(code, options).getElidedChecks());
+
+        options.setRangeAnalysis(false);
+        returnValueTest(code, 10, options);
+        Assertions.assertEquals(Collections.singletonMap("main", 0),
+                NfCompiler.compile(code, options).getElidedChecks());
+    }
+
+    @Test
+    public void deadStoresAreRemoved() {
+        String code = "class Main {" +
+                "main() {" +
+                "int a = 1;" +
+                "int b = a + 2;" +
+                "b = 5;" +
+                "return a;" +
+                "}" +
+                "}";
+        returnValueTest(code, 1);
+        Assertions.assertEquals(Collections.singletonMap("main", 6),
+                NfCompiler.compile(code, new CompilerOptions()).getRemovedInstructions());
+        Assertions.assertEquals(Collections.emptyMap(),
+                NfCompiler.compile(code, new CompilerOptions().setDeadStoreElimination(false)).getRemovedInstructions());
+        Assertions.assertEquals(Arrays.asList("VarInitChecker", "dominators", "ssa", "ConstantPropagation", "ConstantFolding",
+                        "GlobalValueNumbering", "loops", "LoopInvariantCodeMotion", "LoopUnswitching", "StrengthReduction", "liveness", "DeadStoreElimination", "ranges"),
+                new ArrayList<>(NfCompiler.compile(code, new CompilerOptions()).getPassTimings().keySet()));
+    }
+
+    @Test
+    public void deadStoreInLoopIsRemoved() {
+        String code = "class Main {" +
+                "main() {" +
+                "int i = 0;" +
+                "int last = 0;" +
+                "while (i < 10) {" +
+                "last = i;" +
+                "i = i + 1;" +
+                "}" +
+                "return i;" +
+                "}" +
+                "}";
+        returnValueTest(code, 10);
+        Assertions.assertEquals(Collections.singletonMap("main", 4),
+                NfCompiler.compile(code, new CompilerOptions()).getRemovedInstructions());
+    }
+
+    @Test
+    public void deadDivisionIsKept() {
+        String code = "class Main {" +
+                "main() {" +
+                "int a = 0;" +
+                "int b = 1 / a;" +
+                "return 1;" +
+                "}" +
+                "}";
+        CompilationResult result = NfCompiler.compile(code, new CompilerOptions());
+        // Only store of a, which is dead once its load is replaced by constant
+        Assertions.assertEquals(Collections.singletonMap("main", 2), result.getRemovedInstructions());
+        Class<?> clazz = new TestClassLoader().defineClass("Main", result.getClassBytes());
+        InvocationTargetException e = Assertions.assertThrows(InvocationTargetException.class,
+                () -> clazz.getDeclaredMethod("main").invoke(clazz.getConstructor().newInstance()));
+        Assertions.assertEquals(ArithmeticException.class, e.getCause().getClass());
+    }
+
+    @Test
+    public void constantExpressionIsFolded() {
+        String code = "class Main {" +
+                "main() {" +
+                "int a = 2 * 3 + 4;" +
+                "return a;" +
+                "}" +
+                "}";
+        returnValueTest(code, 10);
+        CompilerOptions options = new CompilerOptions().setConstantPropagation(false);
+        CompilationResult folded = NfCompiler.compile(code, options);
+        // Multiplication, addition and widening of sum to int
+        Assertions.assertEquals(Collections.singletonMap("main", 3), folded.getFoldedExpressions());
+        Assertions.assertTrue(folded.getClassBytes().length <
+                NfCompiler.compile(code, options.setConstantFolding(false)).getClassBytes().length);
+    }
+
+    @Test
+    public void identitiesAreSimplified() {
+        String code = "class Main {" +
+                "main() {" +
+                "int a = 7;" +
+                "int b = 5;" +
+                "int r = 0;" +
+                "bool c = a > b;" +
+                "if (c == true) {" +
+                "r = a * 1 + 0 - (b - b);" +
+                "}" +
+                "return r;" +
+                "}" +
+                "}";
+        returnValueTest(code, 7);
+        CompilerOptions options = new CompilerOptions().setConstantPropagation(false);
+        CompilationResult folded = NfCompiler.compile(code, options);
+        Assertions.assertEquals(Collections.singletonMap("main", 5), folded.getFoldedExpressions());
+        Assertions.assertTrue(folded.getClassBytes().length <
+                NfCompiler.compile(code, options.setConstantFolding(false)).getClassBytes().length);
+    }
+
+    @Test
+    public void constantsAreReassociated() {
+        String code = "class Main {" +
+                "main() {" +
+                "int a = 7;" +
+                "return a + 1 + 2;" +
+                "}" +
+                "}";
+        returnValueTest(code, 10);
+        Assertions.assertArrayEquals(NfCompiler.compile(code.replace("a + 1 + 2", "a + 3"), new CompilerOptions()).getClassBytes(),
+                NfCompiler.compile(code, new CompilerOptions()).getClassBytes());
+    }
+
+    @Test
+    public void foldedByteArithmeticWraps() {
+        returnValueTest("class Main {" +
+                        "main() {" +
+                        "byte a = 100;" +
+                        "byte b = a + 100 + 100;" +
+                        "return b;" +
+                        "}" +
+                        "}",
+                (byte) 44);
+    }
+
+    @Test
+    public void floatConstantIsRoundedBeforeWidening() {
+        String code = "class Main {" +
+                "main() {" +
+                "float a = 16777217;" +
+                "double d = a;" +
+                "return d;" +
+                "}" +
+                "}";
+        returnValueTest(code, (double) 16777217f);
+        returnValueTest(code, (double) 16777217f, new CompilerOptions().setConstantPropagation(false));
+        returnValueTest(code, (double) 16777217f, new CompilerOptions().setConstantFolding(false));
+    }
+
+    @Test
+    public void roundedConstantsAreCompared() {
+        returnValueTest("class Main {" +
+                        "main() {" +
+                        "float a = 16777217;" +
+                        "double d = 9007199254740993;" +
+                        "bool c = a == 16777216;" +
+                        "bool e = d == 9007199254740992;" +
+                        "return c == e;" +
+                        "}" +
+                        "}",
+                true);
+        returnValueTest("class Main {" +
+                        "main() {" +
+                        "float a = 16777217;" +
+                        "return a;" +
+                        "}" +
+                        "}",
+                16777217f);
+    }
+
+    @Test
+    public void checkedConstantOverflowIsKept() {
+        overflowTest("class Main {" +
+                "main() {" +
+                "return 2147483647 + 1;" +
+                "}" +
+                "}");
+    }
+
+    @Test
+    public void constantDivisionByZeroIsKept() {
+        CompilationResult result = NfCompiler.compile("class Main {" +
+                "main() {" +
+                "return 10 / 0;" +
+                "}" +
+                "}", new CompilerOptions());
+        Assertions.assertEquals(Collections.singletonMap("main", 0), result.getFoldedExpressions());
+        Class<?> clazz = new TestClassLoader().defineClass("Main", result.getClassBytes());
+        InvocationTargetException e = Assertions.assertThrows(InvocationTargetException.class,
+                () -> clazz.getDeclaredMethod("main").invoke(clazz.getConstructor().newInstance()));
+        Assertions.assertEquals(ArithmeticException.class, e.getCause().getClass());
+    }
+
+    @Test
+    public void constantBranchIsPruned() {
+        String code = "class Main {" +
+                "main() {" +
+                "bool debug = false;" +
+                "int r = 1;" +
+                "if (debug) {" +
+                "r = r + 2;" +
+                "} else {" +
+                "r = r * 3;" +
+                "}" +
+                "return r;" +
+                "}" +
+                "}";
+        returnValueTest(code, 3);
+        String pruned = "class Main {" +
+                "main() {" +
+                "int r = 3;" +
+                "return r;" +
+                "}" +
+                "}";
+        Assertions.assertArrayEquals(NfCompiler.compile(pruned, new CompilerOptions()).getClassBytes(),
+                NfCompiler.compile(code, new CompilerOptions()).getClassBytes());
+    }
+
+    @Test
+    public void constantsArePropagatedThroughLocals() {
+        String code = "class Main {" +
+                "main() {" +
+                "int a = 6;" +
+                "int b = a * 7;" +
+                "int c = b - 2;" +
+                "return c;" +
+                "}" +
+                "}";
+        returnValueTest(code, 40);
+        Assertions.assertTrue(NfCompiler.compile(code, new CompilerOptions()).getClassBytes().length <
+                NfCompiler.compile(code, new CompilerOptions().setConstantPropagation(false)).getClassBytes().length);
+    }
+
+    @Test
+    public void loopCounterIsNotPropagated() {
+        String code = "class Main {" +
+                "main() {" +
+                "int i = 0;" +
+                "int k = 5;" +
+                "while (i < 3) {" +
+                "k = 5;" +
+                "i = i + 1;" +
+                "}" +
+                "return i + k;" +
+                "}" +
+                "}";
+        returnValueTest(code, 8);
+    }
+
+    @Test
+    public void loopWhichIsNeverEnteredIsRemoved() {
+        String code = "class Main {" +
+                "main() {" +
+                "int i = 10;" +
+                "while (i < 5) {" +
+                "i = i + 1;" +
+                "}" +
+                "return i;" +
+                "}" +
+                "}";
+        returnValueTest(code, 10);
+        Assertions.assertArrayEquals(NfCompiler.compile(code.replace("while (i < 5) {i = i + 1;}", ""),
+                        new CompilerOptions()).getClassBytes(),
+                NfCompiler.compile(code, new CompilerOptions()).getClassBytes());
+    }
+
+    @Test
+    public void checkedOverflowOfPropagatedConstantIsKept() {
+        overflowTest("class Main {" +
+                "main() {" +
+                "int a = 2147483647;" +
+                "int b = a + 1;" +
+                "return b;" +
+                "}" +
+                "}");
+    }
+
+    @Test
+    public void divisionByConstantIsReduced() throws ReflectiveOperationException {
+        String code = "class Main {" +
+                "div7(int x) { return x / 7; }" +
+                "divMinus6(int x) { int d = 0 - 6; return x / d; }" +
+                "div8(int x) { return x / 8; }" +
+                "divMinus2(int x) { int d = 0 - 2; return x / d; }" +
+                "div1000(int x) { return x / 1000; }" +
+                "div3(short x) { return x / 3; }" +
+                "}";
+        byte[] bytes = NfCompiler.compile(code, new CompilerOptions()).getClassBytes();
+        Object main = new TestClassLoader().defineClass("Main", bytes).getConstructor().newInstance();
+        int[] divisors = {7, -6, 8, -2, 1000};
+        String[] names = {"div7", "divMinus6", "div8", "divMinus2", "div1000"};
+        for (int i = 0; i < names.length; i++) {
+            Assertions.assertFalse(opcodes(bytes, names[i]).contains(Opcodes.IDIV), names[i]);
+            Method method = main.getClass().getDeclaredMethod(names[i], int.class);
+            for (long x : DIVIDENDS) {
+                Assertions.assertEquals((int) x / divisors[i], method.invoke(main, (int) x), names[i] + " " + x);
+            }
+        }
+        Method div3 = main.getClass().getDeclaredMethod("div3", short.class);
+        for (long x : DIVIDENDS) {
+            Assertions.assertEquals((short) ((short) x / 3), div3.invoke(main, (short) x));
+        }
+    }
+
+    @Test
+    public void longDivisionByPowerOfTwoIsReduced() throws ReflectiveOperationException {
+        String code = "class Main {" +
+                "div16(long x) { return x / 16; }" +
+                "div10(long x) { return x / 10; }" +
+                "}";
+        byte[] bytes = NfCompiler.compile(code, new CompilerOptions()).getClassBytes();
+        Assertions.assertFalse(opcodes(bytes, "div16").contains(Opcodes.LDIV));
+        // There is no multiply-high of longs before Java 9
+        Assertions.assertTrue(opcodes(bytes, "div10").contains(Opcodes.LDIV));
+        Object main = new TestClassLoader().defineClass("Main", bytes).getConstructor().newInstance();
+        Method div16 = main.getClass().getDeclaredMethod("div16", long.class);
+        for (long x : DIVIDENDS) {
+            Assertions.assertEquals(x / 16, div16.invoke(main, x));
+            Assertions.assertEquals(x * 1000003 / 16, div16.invoke(main, x * 1000003));
+        }
+        Assertions.assertEquals(Long.MIN_VALUE / 16, div16.invoke(main, Long.MIN_VALUE));
+    }
+
+    @Test
+    public void multiplicationByConstantIsReduced() throws ReflectiveOperationException {
+        String code = "class Main {" +
+                "mul40(int x) { return x * 40; }" +
+                "mul7(long x) { return x * 7; }" +
+                "mul3(byte x) { return x * 3; }" +
+                "mul11(int x) { return x * 11; }" +
+                "}";
+        byte[] bytes = NfCompiler.compile(code, new CompilerOptions()).getClassBytes();
+        Assertions.assertFalse(opcodes(bytes, "mul40").contains(Opcodes.IMUL));
+        Assertions.assertFalse(opcodes(bytes, "mul7").contains(Opcodes.LMUL));
+        Assertions.assertFalse(opcodes(bytes, "mul3").contains(Opcodes.IMUL));
+        Assertions.assertTrue(opcodes(bytes, "mul11").contains(Opcodes.IMUL));
+        Object main = new TestClassLoader().defineClass("Main", bytes).getConstructor().newInstance();
+        for (long x : DIVIDENDS) {
+            Assertions.assertEquals((int) x * 40, main.getClass().getDeclaredMethod("mul40", int.class).invoke(main, (int) x));
+            Assertions.assertEquals(x * 7, main.getClass().getDeclaredMethod("mul7", long.class).invoke(main, x));
+            Assertions.assertEquals((byte) ((byte) x * 3), main.getClass().getDeclaredMethod("mul3", byte.class).invoke(main, (byte) x));
+        }
+    }
+
+    @Test
+    public void checkedMultiplicationByConstantIsNotReduced() {
+        overflowTest("class Main {" +
+                "main() {" +
+                "int a = 1073741824;" +
+                "return a * 4;" +
+                "}" +
+                "}");
+    }
+
+    @Test
+    public void inductionVariableMultiplicationIsReduced() {
+        String code = "class Main {" +
+                "main() {" +
+                "int i = 0;" +
+                "int s = 0;" +
+                "while (i < 10) {" +
+                "s = s + i * 11;" +
+                "i = i + 1;" +
+                "s = s + i * 11;" +
+                "}" +
+                "return s;" +
+                "}" +
+                "}";
+        returnValueTest(code, 1100);
+        Assertions.assertFalse(loopOpcodes(NfCompiler.compile(code, new CompilerOptions()).getClassBytes())
+                .contains(Opcodes.IMUL));
+        Assertions.assertTrue(loopOpcodes(NfCompiler.compile(code, new CompilerOptions().setStrengthReduction(false))
+                .getClassBytes()).contains(Opcodes.IMUL));
+    }
+
+    @Test
+    public void decreasingLongInductionVariableIsReduced() {
+        String code = "class Main {" +
+                "main() {" +
+                "long i = 100;" +
+                "long s = 0;" +
+                "while (i > 0) {" +
+                "s = s + i * 13;" +
+                "i = i - 7;" +
+                "}" +
+                "return s;" +
+                "}" +
+                "}";
+        long s = 0;
+        for (long i = 100; i > 0; i -= 7) {
+            s += i * 13;
+        }
+        returnValueTest(code, s);
+        Assertions.assertFalse(loopOpcodes(NfCompiler.compile(code, new CompilerOptions()).getClassBytes())
+                .contains(Opcodes.LMUL));
+    }
+
+    @Test
+    public void variableStoredTwiceInLoopIsNotReduced() {
+        String code = "class Main {" +
+                "main() {" +
+                "int i = 0;" +
+                "int s = 0;" +
+                "while (i < 10) {" +
+                "s = s + i * 11;" +
+                "i = i + 1;" +
+                "if (s > 50) { i = i + 1; }" +
+                "}" +
+                "return s;" +
+                "}" +
+                "}";
+        int s = 0;
+        for (int i = 0; i < 10; ) {
+            s += i * 11;
+            i++;
+            if (s > 50) {
+                i++;
+            }
+        }
+        returnValueTest(code, s);
+        Assertions.assertTrue(loopOpcodes(NfCompiler.compile(code, new CompilerOptions()).getClassBytes())
+                .contains(Opcodes.IMUL));
+    }
+
+    @Test
+    public void repeatedExpressionIsComputedOnce() throws ReflectiveOperationException {
+        String code = "class Main {" +
+                "f(int a, int b) {" +
+                "int x = a * b + 1;" +
+                "if (a > b) {" +
+                "return x + a * b;" +
+                "}" +
+                "return a * b - x;" +
+                "}" +
+                "}";
+        byte[] bytes = NfCompiler.compile(code, new CompilerOptions()).getClassBytes();
+        Assertions.assertEquals(1, opcodes(bytes, "f").stream().filter(opcode -> opcode == Opcodes.IMUL).count());
+        Assertions.assertEquals(3, opcodes(NfCompiler.compile(code, new CompilerOptions().setGlobalValueNumbering(false))
+                .getClassBytes(), "f").stream().filter(opcode -> opcode == Opcodes.IMUL).count());
+        Object main = new TestClassLoader().defineClass("Main", bytes).getConstructor().newInstance();
+        Method f = main.getClass().getDeclaredMethod("f", int.class, int.class);
+        Assertions.assertEquals(2 * 3 * 7 + 1, f.invoke(main, 7, 3));
+        Assertions.assertEquals(-1, f.invoke(main, 3, 7));
+    }
+
+    @Test
+    public void expressionIsRecomputedAfterStore() throws ReflectiveOperationException {
+        String code = "class Main {" +
+                "f(int a, int b) {" +
+                "int x = a * b;" +
+                "a = a + 1;" +
+                "int y = a * b;" +
+                "while (a < b) {" +
+                "y = y + a * b;" +
+                "a = a + 1;" +
+                "}" +
+                "return x + y;" +
+                "}" +
+                "}";
+        Object main = new TestClassLoader().defineClass("Main", NfCompiler.compile(code, new CompilerOptions())
+                .getClassBytes()).getConstructor().newInstance();
+        Method f = main.getClass().getDeclaredMethod("f", int.class, int.class);
+        for (int a = 0; a < 8; a++) {
+            int b = 5;
+            int x = a * b;
+            int y = (a + 1) * b;
+            for (int i = a + 1; i < b; i++) {
+                y += i * b;
+            }
+            Assertions.assertEquals(x + y, f.invoke(main, a, b));
+        }
+    }
+
+    @Test
+    public void copiesArePropagated() throws ReflectiveOperationException {
+        String code = "class Main {" +
+                "f(int y) {" +
+                "int x = y;" +
+                "int z = x;" +
+                "if (z > 0) {" +
+                "return z + x;" +
+                "}" +
+                "return x;" +
+                "}" +
+                "}";
+        byte[] bytes = NfCompiler.compile(code, new CompilerOptions()).getClassBytes();
+        Assertions.assertFalse(opcodes(bytes, "f").contains(Opcodes.ISTORE));
+        Object main = new TestClassLoader().defineClass("Main", bytes).getConstructor().newInstance();
+        Method f = main.getClass().getDeclaredMethod("f", int.class);
+        Assertions.assertEquals(10, f.invoke(main, 5));
+        Assertions.assertEquals(-5, f.invoke(main, -5));
+    }
+
+    @Test
+    public void copyIsNotPropagatedAfterSourceStore() {
+        returnValueTest("class Main {" +
+                "main() {" +
+                "int i = 0;" +
+                "int s = 0;" +
+                "while (i < 5) {" +
+                "int old = i;" +
+                "i = i + 1;" +
+                "s = s + old;" +
+                "}" +
+                "return s;" +
+                "}" +
+                "}", 10);
+    }
+
+    @Test
+    public void checkedDivisionIsNotMovedBeforeOverflow() throws ReflectiveOperationException {
+        String code = "class Main {" +
+                "f(int a, int b) {" +
+                "int x = a * a + a / b;" +
+                "return x + a / b;" +
+                "}" +
+                "}";
+        CompilationResult result = NfCompiler.compile(code, new CompilerOptions().setCheckedArithmetic(true));
+        Object main = new TestClassLoader().defineClass("Main", result.getClassBytes()).getConstructor().newInstance();
+        Method f = main.getClass().getDeclaredMethod("f", int.class, int.class);
+        Assertions.assertEquals(9 + 3 + 3, f.invoke(main, 3, 1));
+        InvocationTargetException e = Assertions.assertThrows(InvocationTargetException.class,
+                () -> f.invoke(main, 65536, 0));
+        Assertions.assertEquals("integer overflow", e.getCause().getMessage());
+    }
+
+    @Test
+    public void loopInvariantExpressionIsHoisted() throws ReflectiveOperationException {
+        String code = "class Main {" +
+                "main(int limit) {" +
+                "long i = 0;" +
+                "long s = 0;" +
+                "while (i < limit * 2) {" +
+                "s = s + i;" +
+                "i = i + 1;" +
+                "}" +
+                "return s;" +
+                "}" +
+                "}";
+        CompilationResult result = NfCompiler.compile(code, new CompilerOptions());
+        Assertions.assertEquals(Collections.singletonMap("main", Collections.singletonList(1)),
+                result.getHoistedExpressions());
+        Assertions.assertFalse(loopOpcodes(result.getClassBytes()).contains(Opcodes.ISHL));
+        Assertions.assertTrue(loopOpcodes(NfCompiler.compile(code, new CompilerOptions().setLoopInvariantCodeMotion(false))
+                .getClassBytes()).contains(Opcodes.ISHL));
+        Object main = new TestClassLoader().defineClass("Main", result.getClassBytes()).getConstructor().newInstance();
+        Method method = main.getClass().getDeclaredMethod("main", int.class);
+        Assertions.assertEquals(45L, method.invoke(main, 5));
+        Assertions.assertEquals(0L, method.invoke(main, -5));
+    }
+
+    @Test
+    public void invariantExpressionIsHoistedOutOfOutermostLoop() throws ReflectiveOperationException {
+        String code = "class Main {" +
+                "f(int a, int b) {" +
+                "int i = 0;" +
+                "int s = 0;" +
+                "while (i < 4) {" +
+                "int j = 0;" +
+                "while (j < 3) {" +
+                "s = s + a * b + i * b;" +
+                "j = j + 1;" +
+                "}" +
+                "i = i + 1;" +
+                "}" +
+                "return s;" +
+                "}" +
+                "}";
+        CompilationResult result = NfCompiler.compile(code, new CompilerOptions());
+        Assertions.assertEquals(Collections.singletonMap("f", Arrays.asList(1, 1)), result.getHoistedExpressions());
+        Object main = new TestClassLoader().defineClass("Main", result.getClassBytes()).getConstructor().newInstance();
+        Method f = main.getClass().getDeclaredMethod("f", int.class, int.class);
+        Assertions.assertEquals(3 * (4 * 5 * 7 + 6 * 7), f.invoke(main, 5, 7));
+    }
+
+    @Test
+    public void divisionIsNotHoistedOutOfLoop() throws ReflectiveOperationException {
+        String code = "class Main {" +
+                "f(int a, int b) {" +
+                "int i = 0;" +
+                "int s = 0;" +
+                "while (i < a) {" +
+                "s = s + 100 / b;" +
+                "i = i + 1;" +
+                "}" +
+                "return s;" +
+                "}" +
+                "}";
+        CompilationResult result = NfCompiler.compile(code, new CompilerOptions());
+        Assertions.assertEquals(Collections.singletonMap("f", Collections.singletonList(0)),
+                result.getHoistedExpressions());
+        Object main = new TestClassLoader().defineClass("Main", result.getClassBytes()).getConstructor().newInstance();
+        Method f = main.getClass().getDeclaredMethod("f", int.class, int.class);
+        Assertions.assertEquals(0, f.invoke(main, 0, 0));
+        Assertions.assertEquals(60, f.invoke(main, 3, 5));
+        Assertions.assertEquals(Collections.emptyMap(), NfCompiler.compile(code,
+                new CompilerOptions().setLoopInvariantCodeMotion(false)).getHoistedExpressions());
+    }
+
+    @Test
+    public void loopIsUnswitchedOnInvariantCondition() throws ReflectiveOperationException {
+        String code = "class Main {" +
+                "main(int mode) {" +
+                "int i = 0;" +
+                "int s = 0;" +
+                "while (i < 10) {" +
+                "if (mode == 1) {" +
+                "s = s + i;" +
+                "} else {" +
+                "s = s - 1;" +
+                "}" +
+                "i = i + 1;" +
+                "}" +
+                "return s;" +
+                "}" +
+                "}";
+        byte[] bytes = NfCompiler.compile(code, new CompilerOptions()).getClassBytes();
+        byte[] disabled = NfCompiler.compile(code, new CompilerOptions().setUnswitchingBudget(0)).getClassBytes();
+        Assertions.assertTrue(loopOpcodes(bytes).size() < loopOpcodes(disabled).size());
+        Assertions.assertEquals(loopOpcodes(disabled),
+                loopOpcodes(NfCompiler.compile(code, new CompilerOptions().setUnswitchingBudget(10)).getClassBytes()));
+        Object main = new TestClassLoader().defineClass("Main", bytes).getConstructor().newInstance();
+        Method method = main.getClass().getDeclaredMethod("main", int.class);
+        Assertions.assertEquals(45, method.invoke(main, 1));
+        Assertions.assertEquals(-10, method.invoke(main, 0));
+    }
+
+    @Test
+    public void loopIsNotUnswitchedOnVaryingCondition() {
+        returnValueTest("class Main {" +
+                "main() {" +
+                "int i = 0;" +
+                "int s = 0;" +
+                "while (i < 10) {" +
+                "if (s < 20) {" +
+                "s = s + i;" +
+                "} else if (i == 9) {" +
+                "s = s * 2;" +
+                "}" +
+                "i = i + 1;" +
+                "}" +
+                "return s;" +
+                "}" +
+                "}", 42);
+    }
+
+    @Test
+    public void throwingConditionIsNotUnswitched() throws ReflectiveOperationException {
+        String code = "class Main {" +
+                "f(int a, int b) {" +
+                "int i = 0;" +
+                "int s = 0;" +
+                "while (i < a) {" +
+                "if (100 / b > 10) { s = s + 1; }" +
+                "i = i + 1;" +
+                "}" +
+                "return s;" +
+                "}" +
+                "}";
+        Object main = new TestClassLoader().defineClass("Main", NfCompiler.compile(code, new CompilerOptions())
+                .getClassBytes()).getConstructor().newInstance();
+        Method f = main.getClass().getDeclaredMethod("f", int.class, int.class);
+        Assertions.assertEquals(0, f.invoke(main, 0, 0));
+        Assertions.assertEquals(3, f.invoke(main, 3, 5));
+    }
+
+    @Test
+    public void nestedIfElseInThenBlock() {
+        String code = "class Main {" +
+                "main() {" +
+                "int p = 1;" +
+                "int r = 0;" +
+                "if (p > 0) {" +
+                "if (p > 1) { r = 1; } else { r = 2; }" +
+                "} else {" +
+                "r = 3;" +
+                "}" +
+                "return r;" +
+                "}" +
+                "}";
+        returnValueTest(code, 2);
+    }
+
+    @Test
+    public void nestedStatementsRun() {
+        StringBuilder code = new StringBuilder("class Main { main() { int p = 1; int r = 0;");
+        for (int i = 0; i < 1000; i++) {
+            code.append("if (p > 0) { r = r + 1;");
+        }
+        for (int i = 0; i < 1000; i++) {
+            code.append("}");
+        }
+        code.append("return r; } }");
+        returnValueTest(code.toString(), 1000);
+    }
+
+    @Test
+    public void deeplyNestedIfsCompileOnSmallStack() {
+        StringBuilder code = new StringBuilder("class Main { main(int p) { int r = 0;");
+        for (int i = 0; i < DEEP; i++) {
+            code.append("if (p > 0) { r = r + 1;");
+        }
+        for (int i = 0; i < DEEP; i++) {
+            code.append("}");
+        }
+        code.append("return r; } }");
+        deepTest(code.toString());
+    }
+
+    @Test
+    public void longElseIfChainCompilesOnSmallStack() {
+        StringBuilder code = new StringBuilder("class Main { main(int p) { int r = 0;");
+        for (int i = 0; i < DEEP; i++) {
+            code.append("if (p > ").append(i % 100).append(") { r = ").append(i % 100).append("; } else ");
+        }
+        code.append("{ r = 1; } return r; } }");
+        deepTest(code.toString());
+    }
+
+    @Test
+    public void longAdditionChainCompilesOnSmallStack() {
+        StringBuilder code = new StringBuilder("class Main { main(int a) { return a");
+        for (int i = 0; i < DEEP; i++) {
+            code.append(" + a");
+        }
+        code.append("; } }");
+        deepTest(code.toString());
+    }
+
+    @Test
+    public void deepParenthesesCompileOnSmallStack() {
+        StringBuilder code = new StringBuilder("class Main { main(int a) { return ");
+        for (int i = 0; i < DEEP; i++) {
+            code.append("(a + ");
+        }
+        code.append("a");
+        for (int i = 0; i < DEEP; i++) {
+            code.append(")");
+        }
+        code.append("; } }");
+        deepTest(code.toString());
+    }
+
+    private static long[] dividends() {
+        long[] values = new long[1100];
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            values[i] = (i < 500) ? i - 250 : random.nextInt();
+        }
+        long[] edges = {Integer.MIN_VALUE, Integer.MIN_VALUE + 1, Integer.MAX_VALUE, Integer.MAX_VALUE - 1,
+                Short.MIN_VALUE, Short.MAX_VALUE, Byte.MIN_VALUE, Byte.MAX_VALUE};
+        System.arraycopy(edges, 0, values, 1000, edges.length);
+        for (int i = 1000 + edges.length; i < values.length; i++) {
+            values[i] = 7000L * (i - 1050);
+        }
+        return values;
+    }
+
+    /**
+     * Compiles with hand written frontend on thread with small stack, method is too large for JVM
+     * but every phase has to finish. Values are parameters, so optimizations do not shrink the method
+     */
+    private void deepTest(String code) {
+        CompilerOptions options = new CompilerOptions().setFrontend(Frontend.HAND_WRITTEN);
+        CompilationResult[] result = new CompilationResult[1];
+        Throwable[] failure = new Throwable[1];
+        Thread thread = new Thread(null, () -> {
+            try {
+                result[0] = NfCompiler.compile(code, options);
+            } catch (Throwable e) {
+                failure[0] = e;
+            }
+        }, "deep", 512 * 1024);
+        thread.start();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Assertions.fail(e);
+        }
+        Assertions.assertNull(failure[0], () -> "Compilation failed with " + failure[0]);
+        Assertions.assertEquals(Collections.singletonList("Method code is too large: main"), result[0].getErrors());
+    }
+
+    private static List<Integer> opcodes(byte[] bytes, String method) {
+        ClassNode classNode = new ClassNode();
+        new ClassReader(bytes).accept(classNode, 0);
+        List<Integer> opcodes = new ArrayList<>();
+        classNode.methods.stream()
+                .filter(node -> node.name.equals(method))
+                .flatMap(node -> Arrays.stream(node.instructions.toArray()))
+                .forEach(insn -> opcodes.add(insn.getOpcode()));
+        return opcodes;
+    }
+
+    /**
+     * Opcodes of main from first loop label to its backward jump
+     */
+    private static List<Integer> loopOpcodes(byte[] bytes) {
+        ClassNode classNode = new ClassNode();
+        new ClassReader(bytes).accept(classNode, 0);
+        MethodNode main = classNode.methods.stream().filter(node -> node.name.equals("main")).findFirst()
+                .orElseThrow(IllegalStateException::new);
+        List<Integer> opcodes = new ArrayList<>();
+        for (AbstractInsnNode insn : main.instructions.toArray()) {
+            if (insn.getOpcode() == Opcodes.GOTO) {
+                AbstractInsnNode start = ((JumpInsnNode) insn).label;
+                if (main.instructions.indexOf(start) < main.instructions.indexOf(insn)) {
+                    for (AbstractInsnNode node = start; node != insn; node = node.getNext()) {
+                        opcodes.add(node.getOpcode());
+                    }
+                    return opcodes;
+                }
+            }
+        }
+        throw new IllegalStateException("main has no loop");
+    }
+
+    private void overflowTest(String code) {
+        CompilationResult result = NfCompiler.compile(code, new CompilerOptions().setCheckedArithmetic(true));
+        Assertions.assertEquals(Collections.emptyList(), result.getErrors());
+        Class<?> clazz = new TestClassLoader().defineClass("Main", result.getClassBytes());
+        InvocationTargetException e = Assertions.assertThrows(InvocationTargetException.class,
+                () -> clazz.getDeclaredMethod("main").invoke(clazz.getConstructor().newInstance()));
+        Assertions.assertEquals(ArithmeticException.class, e.getCause().getClass());
+    }
+
     private void returnValueTest(String code, Object expected) {
+        for (Frontend frontend : Frontend.values()) {
+            returnValueTest(code, expected, new CompilerOptions().setFrontend(frontend));
+        }
+    }
+
+    private void returnValueTest(String code, Object expected, CompilerOptions options) {
         try {
-            byte[] compiledBytes = NfCompiler.compile(code);
+            byte[] compiledBytes = NfCompiler.compile(code, options).getClassBytes();
             if (compiledBytes != null) {
 //                Files.write(Paths.get("Main.class"), compiledBytes);
                 Class<?> clazz = new TestClassLoader().defineClass("Main", compiledBytes);
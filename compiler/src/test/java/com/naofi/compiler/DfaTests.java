@@ -2,14 +2,33 @@ package com.naofi.compiler;
 
 import com.naofi.antlr.NfLangParser;
 import com.naofi.compiler.binding.Binder;
+import com.naofi.compiler.binding.symbols.VariableType;
+import com.naofi.compiler.dfa.Analysis;
 import com.naofi.compiler.dfa.DfaPipeline;
+import com.naofi.compiler.dfa.DominatorTree;
+import com.naofi.compiler.dfa.LoopForest;
+import com.naofi.compiler.dfa.SsaForm;
+import com.naofi.compiler.dfa.RangeAnalysis;
+import com.naofi.compiler.dfa.ValueRanges;
+import com.naofi.compiler.dfa.build.ControlFlowGraph;
 import com.naofi.compiler.dfa.build.Graph;
+import com.naofi.compiler.dfa.flow.BitSetAnalysis;
+import com.naofi.compiler.dfa.flow.DataflowResult;
+import com.naofi.compiler.ir.MethodIr;
+import com.naofi.compiler.ir.Opcode;
+import com.naofi.compiler.opt.DeadStoreElimination;
 import org.antlr.v4.runtime.tree.ParseTree;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class DfaTests {
     @Test
@@ -86,14 +105,368 @@ public class DfaTests {
         );
     }
 
+    @Test
+    public void loopCounterRange() {
+        ValueRanges ranges = rangeTest("main() {" +
+                "long i = 0;" +
+                "while (i < 10) {" +
+                "i = i + 1;" +
+                "}" +
+                "return i;" +
+                "}");
+
+        Assertions.assertTrue(ranges.storesFit(0, VariableType.BYTE));
+    }
+
+    @Test
+    public void parameterRange() {
+        ValueRanges ranges = rangeTest("main(int p) {" +
+                "long i = p;" +
+                "i = i * 3;" +
+                "return i;" +
+                "}");
+
+        Assertions.assertTrue(ranges.storesFit(0, VariableType.INT));
+        Assertions.assertFalse(ranges.storesFit(1, VariableType.INT));
+    }
+
+    @Test
+    public void initializeInLoopDefinition() {
+        varInitTest("main() {" +
+                        "int i = 0;" +
+                        "while (i < 2) {" +
+                        "int a;" +
+                        "if (i > 0) {" +
+                        "i = a;" +
+                        "}" +
+                        "a = 1;" +
+                        "i = i + 1;" +
+                        "}" +
+                        "return i;" +
+                        "}",
+                "Variable 'a' may be not initialized"
+        );
+    }
+
+    @Test
+    public void sequentialIfsAreLinear() {
+        StringBuilder code = new StringBuilder("main() { int a = 0; int b;");
+        for (int i = 0; i < 1000; i++) {
+            code.append("if (a < ").append(i).append(") { b = a; }");
+            for (int j = 0; j < 9; j++) {
+                code.append("a = a + 1;");
+            }
+        }
+        code.append("return b; }");
+        Binder binder = new Binder();
+        binder.visit(NfCompiler.parse(code.toString(), NfLangParser::method));
+        ControlFlowGraph cfg = ControlFlowGraph.of(Graph.fromMethod(binder.getMethods().get(0)));
+
+        List<String> errors = Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10), () -> DfaPipeline.run(cfg));
+        Assertions.assertEquals(Collections.singletonList("Variable 'b' may be not initialized"), errors);
+
+        DataflowResult assigned = new AssignedSymbols().solve(cfg);
+        Assertions.assertEquals(cfg.size(), assigned.getTransfers());
+        Assertions.assertTrue(assigned.in(cfg.end()).get(1));
+    }
+
+    @Test
+    public void backwardAnalysisOverLoop() {
+        Binder binder = new Binder();
+        binder.visit(NfCompiler.parse("main() {" +
+                "int i = 0;" +
+                "int s = 0;" +
+                "while (i < 10) {" +
+                "s = s + i;" +
+                "i = i + 1;" +
+                "}" +
+                "return i;" +
+                "}", NfLangParser::method));
+        ControlFlowGraph cfg = ControlFlowGraph.of(Graph.fromMethod(binder.getMethods().get(0)));
+
+        DataflowResult used = new UsedLater().solve(cfg);
+        // Both are read in loop, which is reachable from every block
+        Assertions.assertEquals(2, used.out(1).cardinality());
+        Assertions.assertTrue(used.getTransfers() <= 2 * cfg.size());
+    }
+
+    @Test
+    public void nestedLoops() {
+        Binder binder = new Binder();
+        binder.visit(NfCompiler.parse("main() {" +
+                "int i = 0;" +
+                "int s = 0;" +
+                "while (i < 3) {" +
+                "int j = 0;" +
+                "while (j < 3) {" +
+                "s = s + 1;" +
+                "j = j + 1;" +
+                "}" +
+                "i = i + 1;" +
+                "}" +
+                "if (s > 5) {" +
+                "s = 1;" +
+                "}" +
+                "return s;" +
+                "}", NfLangParser::method));
+        DfaPipeline pipeline = DfaPipeline.of(ControlFlowGraph.of(Graph.fromMethod(binder.getMethods().get(0))));
+        ControlFlowGraph cfg = pipeline.getCfg();
+        DominatorTree dominators = pipeline.getDominators();
+        LoopForest loops = pipeline.getLoops();
+        int outer = block(cfg, "(i < 3)");
+        int inner = block(cfg, "(j < 3)");
+        int innerBody = block(cfg, "s = (s + 1)");
+        int outerLatch = block(cfg, "i = (i + 1)");
+        int join = block(cfg, "return s");
+
+        Assertions.assertSame(dominators, pipeline.getDominators());
+        Assertions.assertEquals(2, loops.loopCount());
+        Assertions.assertEquals(outer, loops.parentLoop(inner));
+        Assertions.assertEquals(-1, loops.parentLoop(outer));
+        Assertions.assertEquals(2, loops.depth(innerBody));
+        Assertions.assertEquals(1, loops.depth(outerLatch));
+        Assertions.assertEquals(0, loops.depth(join));
+        Assertions.assertTrue(loops.contains(outer, innerBody));
+        Assertions.assertFalse(loops.contains(inner, outerLatch));
+        Assertions.assertFalse(loops.contains(outer, join));
+
+        Assertions.assertTrue(dominators.dominates(outer, innerBody));
+        Assertions.assertFalse(dominators.dominates(innerBody, outerLatch));
+        Assertions.assertEquals(inner, dominators.idom(outerLatch));
+        Assertions.assertEquals(Collections.singletonList(join), frontier(dominators, block(cfg, "s = 1")));
+        Assertions.assertEquals(Arrays.asList(outer, inner), frontier(dominators, inner));
+    }
+
+    @Test
+    public void ssaLoopPhi() {
+        DfaPipeline pipeline = pipeline("main() {" +
+                "int i = 0;" +
+                "int t = 5;" +
+                "while (i < 10) {" +
+                "t = i;" +
+                "i = t + 1;" +
+                "}" +
+                "return i;" +
+                "}");
+        ControlFlowGraph cfg = pipeline.getCfg();
+        SsaForm ssa = pipeline.getSsa();
+        int header = block(cfg, "(i < 10)");
+        int body = block(cfg, "t = i");
+
+        // t is always assigned before it is read, so it gets no phi
+        Assertions.assertEquals(1, ssa.phiCount(header));
+        int phi = ssa.phi(header, 0);
+        Assertions.assertEquals(SsaForm.DefKind.PHI, ssa.defKind(phi));
+        Assertions.assertEquals("i", cfg.getMethod().symbolName(ssa.defSymbol(phi)));
+        int initial = ssa.phiOperand(phi, 0);
+        int increment = ssa.phiOperand(phi, 1);
+        Assertions.assertEquals(cfg.getMethod().toString(ssa.defNode(initial)), "i = 0");
+        Assertions.assertEquals(cfg.getMethod().toString(ssa.defNode(increment)), "i = (t + 1)");
+        Assertions.assertEquals(body, ssa.defBlock(increment));
+
+        // Condition, t = i and return read phi
+        Assertions.assertEquals(3, ssa.loadCount(phi));
+        Assertions.assertEquals(Collections.singletonList(phi), phiUses(ssa, increment));
+        for (int i = 0; i < ssa.loadCount(phi); i++) {
+            Assertions.assertEquals(phi, ssa.reachingDef(ssa.load(phi, i)));
+        }
+        int t = ssa.storeDef(cfg.statement(body, 0));
+        Assertions.assertEquals(1, ssa.loadCount(t));
+        Assertions.assertEquals(body, ssa.useBlock(ssa.load(t, 0)));
+        Assertions.assertEquals(cfg.statement(body, 1), ssa.useStatement(ssa.load(t, 0)));
+    }
+
+    @Test
+    public void ssaJoinOfBranches() {
+        DfaPipeline pipeline = pipeline("main(int p) {" +
+                "int a;" +
+                "if (p > 0) {" +
+                "a = 1;" +
+                "} else {" +
+                "a = p;" +
+                "}" +
+                "return a;" +
+                "}");
+        ControlFlowGraph cfg = pipeline.getCfg();
+        SsaForm ssa = pipeline.getSsa();
+        int join = block(cfg, "return a");
+
+        Assertions.assertEquals(1, ssa.phiCount(join));
+        int phi = ssa.phi(join, 0);
+        Assertions.assertEquals(2, cfg.predecessorCount(join));
+        Assertions.assertNotEquals(ssa.phiOperand(phi, 0), ssa.phiOperand(phi, 1));
+        Assertions.assertEquals(SsaForm.DefKind.PARAMETER, ssa.defKind(ssa.reachingDef(
+                cfg.getMethod().left(cfg.condition(block(cfg, "(p > 0)"))))));
+        Assertions.assertEquals(2, ssa.loadCount(ssa.reachingDef(
+                cfg.getMethod().left(cfg.condition(block(cfg, "(p > 0)"))))));
+    }
+
+    @Test
+    public void analysesAreCachedUntilTransformed() {
+        DfaPipeline pipeline = pipeline("main() {" +
+                "int i = 0;" +
+                "int last = 0;" +
+                "while (i < 10) {" +
+                "last = i;" +
+                "i = i + 1;" +
+                "}" +
+                "return i;" +
+                "}");
+        LoopForest loops = pipeline.get(Analysis.LOOPS);
+        Assertions.assertTrue(pipeline.isCached(Analysis.DOMINATORS));
+        Assertions.assertSame(loops, pipeline.getLoops());
+        Assertions.assertEquals(Arrays.asList("dominators", "loops"), new ArrayList<>(pipeline.getTimings().keySet()));
+
+        // Unchanged method keeps everything, nothing is computed again
+        MethodIr method = pipeline.getMethod();
+        Map<String, Long> timings = new HashMap<>(pipeline.getTimings());
+        pipeline.transform(p -> p.getMethod());
+        Assertions.assertSame(method, pipeline.getMethod());
+        Assertions.assertSame(loops, pipeline.getLoops());
+        Assertions.assertEquals(timings.get("dominators"), pipeline.getTimings().get("dominators"));
+        Assertions.assertEquals(timings.get("loops"), pipeline.getTimings().get("loops"));
+
+        pipeline.transform(new DeadStoreElimination(false));
+        Assertions.assertNotSame(method, pipeline.getMethod());
+        Assertions.assertFalse(pipeline.isCached(Analysis.DOMINATORS));
+        Assertions.assertFalse(pipeline.isCached(Analysis.LOOPS));
+        Assertions.assertFalse(pipeline.isCached(Analysis.LIVENESS));
+        Assertions.assertTrue(pipeline.getTimings().containsKey("liveness"));
+        Assertions.assertTrue(pipeline.getTimings().containsKey("DeadStoreElimination"));
+        Assertions.assertEquals(1, pipeline.getLoops().loopCount());
+        Assertions.assertEquals(pipeline.getCfg(), pipeline.getDominators().getCfg());
+    }
+
+    private DfaPipeline pipeline(String code) {
+        Binder binder = new Binder();
+        binder.visit(NfCompiler.parse(code, NfLangParser::method));
+        Assertions.assertEquals(Collections.emptyList(), binder.getErrors());
+        return DfaPipeline.of(ControlFlowGraph.of(Graph.fromMethod(binder.getMethods().get(0))));
+    }
+
+    private List<Integer> phiUses(SsaForm ssa, int def) {
+        List<Integer> uses = new ArrayList<>();
+        for (int i = 0; i < ssa.phiUseCount(def); i++) {
+            uses.add(ssa.phiUse(def, i));
+        }
+        return uses;
+    }
+
+    private int block(ControlFlowGraph cfg, String text) {
+        MethodIr method = cfg.getMethod();
+        for (int block = 0; block < cfg.size(); block++) {
+            String first = (cfg.kind(block) == ControlFlowGraph.Kind.BRANCH) ?
+                    method.toString(cfg.condition(block)) :
+                    (cfg.statementCount(block) == 0) ? "" : method.toString(cfg.statement(block, 0));
+            if (first.equals(text)) {
+                return block;
+            }
+        }
+        throw new IllegalArgumentException("No block starts with " + text);
+    }
+
+    private List<Integer> frontier(DominatorTree dominators, int block) {
+        List<Integer> frontier = new ArrayList<>();
+        for (int i = 0; i < dominators.frontierSize(block); i++) {
+            frontier.add(dominators.frontier(block, i));
+        }
+        return frontier;
+    }
+
+    /**
+     * Symbols stored on some path
+     */
+    private static class AssignedSymbols extends BitSetAnalysis {
+        AssignedSymbols() {
+            super(Direction.FORWARD, Meet.UNION);
+        }
+
+        @Override
+        protected int width(ControlFlowGraph cfg) {
+            return cfg.getMethod().symbolCount();
+        }
+
+        @Override
+        protected BitSet boundary(ControlFlowGraph cfg) {
+            return new BitSet();
+        }
+
+        @Override
+        protected void transfer(ControlFlowGraph cfg, int block, BitSet state) {
+            if (cfg.kind(block) != ControlFlowGraph.Kind.BASIC) {
+                return;
+            }
+            for (int i = 0; i < cfg.statementCount(block); i++) {
+                int statement = cfg.statement(block, i);
+                if (cfg.getMethod().opcode(statement) == Opcode.STORE) {
+                    state.set(cfg.getMethod().symbol(statement));
+                }
+            }
+        }
+    }
+
+    /**
+     * Symbols loaded on some path from the point, without taking stores into account
+     */
+    private static class UsedLater extends BitSetAnalysis {
+        UsedLater() {
+            super(Direction.BACKWARD, Meet.UNION);
+        }
+
+        @Override
+        protected int width(ControlFlowGraph cfg) {
+            return cfg.getMethod().symbolCount();
+        }
+
+        @Override
+        protected BitSet boundary(ControlFlowGraph cfg) {
+            return new BitSet();
+        }
+
+        @Override
+        protected void transfer(ControlFlowGraph cfg, int block, BitSet state) {
+            MethodIr method = cfg.getMethod();
+            if (cfg.kind(block) == ControlFlowGraph.Kind.BRANCH) {
+                loads(method, cfg.condition(block), state);
+            }
+            if (cfg.kind(block) == ControlFlowGraph.Kind.BASIC) {
+                for (int i = 0; i < cfg.statementCount(block); i++) {
+                    int statement = cfg.statement(block, i);
+                    if (method.opcode(statement) == Opcode.STORE) {
+                        loads(method, method.operand(statement), state);
+                    }
+                }
+            }
+        }
+
+        private void loads(MethodIr method, int node, BitSet state) {
+            Opcode opcode = method.opcode(node);
+            if (opcode == Opcode.LOAD) {
+                state.set(method.symbol(node));
+            } else if (opcode == Opcode.CONVERT) {
+                loads(method, method.operand(node), state);
+            } else if (opcode.isBinary()) {
+                loads(method, method.left(node), state);
+                loads(method, method.right(node), state);
+            }
+        }
+    }
+
     private void varInitTest(String code, String... expectedErrors) {
         Binder binder = new Binder();
         ParseTree tree = NfCompiler.parse(code, NfLangParser::method);
         binder.visit(tree);
-        Graph graph = Graph.fromMethod((NfLangParser.MethodContext) tree.getChild(0));
+        Graph graph = Graph.fromMethod(binder.getMethods().get(0));
 //        graph.dumpToFile("DumpedGraph.gv");
-        List<String> actualErrors = DfaPipeline.run(graph);
+        List<String> actualErrors = DfaPipeline.run(ControlFlowGraph.of(graph));
 
         Assertions.assertEquals(Arrays.asList(expectedErrors), actualErrors);
     }
+
+    private ValueRanges rangeTest(String code) {
+        Binder binder = new Binder();
+        binder.visit(NfCompiler.parse(code, NfLangParser::method));
+        Assertions.assertEquals(Collections.emptyList(), binder.getErrors());
+        return RangeAnalysis.analyze(ControlFlowGraph.of(Graph.fromMethod(binder.getMethods().get(0))));
+    }
 }
@@ -0,0 +1,74 @@
+package com.naofi.compiler;
+
+import com.naofi.antlr.NfLangLexer;
+import com.naofi.antlr.NfLangParser;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.atn.DecisionInfo;
+import org.antlr.v4.runtime.atn.ParserATNSimulator;
+import org.antlr.v4.runtime.atn.PredictionContextCache;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Profiles generated parser on cold prediction cache
+ */
+public class GrammarProfilingTest {
+    private static final String PROGRAM;
+
+    static {
+        StringBuilder builder = new StringBuilder("class Main {");
+        for (int i = 0; i < 50; i++) {
+            builder.append("m").append(i).append("(int p) {")
+                    .append("var a = p + 1 * 2;")
+                    .append("long b = a - 3 / p;")
+                    .append("bool c = a < b;")
+                    .append("bool d = a == b;")
+                    .append("bool e = 1 >= 2 != true;")
+                    .append("a = (a + 1);")
+                    .append("b;")
+                    .append("if (a != b) { a = 1; } else if (false) { a = 2; } else { a = 3; }")
+                    .append("while (a <= 10) { a = a + 1; }")
+                    .append("return a + b;")
+                    .append("}");
+        }
+        PROGRAM = builder.append("}").toString();
+    }
+
+    @Test
+    public void noFullContextPrediction() {
+        NfLangParser parser = new NfLangParser(new CommonTokenStream(new NfLangLexer(CharStreams.fromString(PROGRAM))));
+        DFA[] dfa = new DFA[NfLangParser._ATN.getNumberOfDecisions()];
+        for (int i = 0; i < dfa.length; i++) {
+            dfa[i] = new DFA(NfLangParser._ATN.getDecisionState(i), i);
+        }
+        parser.setInterpreter(new ParserATNSimulator(parser, NfLangParser._ATN, dfa, new PredictionContextCache()));
+        parser.setProfile(true);
+        parser.classDef();
+
+        long llFallbacks = 0;
+        long ambiguities = 0;
+        long maxLook = 0;
+        // Shown only by failed checks
+        StringBuilder report = new StringBuilder();
+        for (DecisionInfo decision : parser.getParseInfo().getDecisionInfo()) {
+            if (decision.invocations == 0) {
+                continue;
+            }
+            String rule = NfLangParser.ruleNames[NfLangParser._ATN.getDecisionState(decision.decision).ruleIndex];
+            report.append(String.format("%ndecision %2d %-16s invocations=%5d SLL max look=%d LL fallbacks=%d " +
+                            "LL max look=%d ambiguities=%d",
+                    decision.decision, rule, decision.invocations,
+                    decision.SLL_MaxLook, decision.LL_Fallback, decision.LL_MaxLook, decision.ambiguities.size()));
+            llFallbacks += decision.LL_Fallback;
+            ambiguities += decision.ambiguities.size();
+            maxLook = Math.max(maxLook, Math.max(decision.SLL_MaxLook, decision.LL_MaxLook));
+        }
+
+        Assertions.assertEquals(0, parser.getNumberOfSyntaxErrors());
+        Assertions.assertEquals(0, llFallbacks, report::toString);
+        Assertions.assertEquals(0, ambiguities, report::toString);
+        Assertions.assertTrue(maxLook <= 3, report::toString);
+    }
+}
@@ -1,15 +1,42 @@
 package com.naofi.compiler;
 
 import com.naofi.antlr.NfLangParser;
+import com.naofi.compiler.binding.Binder;
+import com.naofi.compiler.dfa.build.CfgFile;
+import com.naofi.compiler.dfa.build.ControlFlowGraph;
 import com.naofi.compiler.dfa.build.Graph;
 import org.antlr.v4.runtime.misc.Pair;
 import org.antlr.v4.runtime.tree.ParseTree;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 
 public class GraphBuilderTests {
+    private static final String LOOP_WITH_IF = "main() {" +
+            "var i = 0;" +
+            "var a = 0;" +
+            "while (i < 10) {" +
+            "if (i > 5) {" +
+            "a = a + i;" +
+            "} else {" +
+            "a = a - 1;" +
+            "}" +
+            "i = i + 1;" +
+            "}" +
+            "return a;" +
+            "}";
+
     @Test
     public void oneBasicBlockGraph() {
         graphBuilderTest(
@@ -158,12 +185,134 @@ public class GraphBuilderTests {
         );
     }
 
+    @Test
+    public void whileControlFlowGraph() {
+        ControlFlowGraph cfg = controlFlowGraph(
+                "main() {" +
+                        "var a = 0;" +
+                        "while (a < 10) {" +
+                        "a = a + 1;" +
+                        "}" +
+                        "return a;" +
+                        "}");
+
+        Assertions.assertEquals(Arrays.asList(ControlFlowGraph.Kind.START, ControlFlowGraph.Kind.BASIC,
+                ControlFlowGraph.Kind.BRANCH, ControlFlowGraph.Kind.BASIC, ControlFlowGraph.Kind.END,
+                ControlFlowGraph.Kind.BASIC), kinds(cfg));
+        Assertions.assertEquals(4, cfg.end());
+        Assertions.assertEquals(5, cfg.successor(2, 0));
+        Assertions.assertEquals(3, cfg.successor(2, 1));
+        Assertions.assertEquals(2, cfg.predecessorCount(2));
+        Assertions.assertEquals(1, cfg.predecessor(2, 0));
+        Assertions.assertEquals(5, cfg.predecessor(2, 1));
+        Assertions.assertEquals(0, cfg.predecessorSlot(2, 1));
+        Assertions.assertEquals(1, cfg.predecessorSlot(3, 0));
+        Assertions.assertTrue(cfg.isBackEdge(5, 2));
+    }
+
+    @Test
+    public void emptyBlocksAreDropped() {
+        ControlFlowGraph cfg = controlFlowGraph(
+                "main() {" +
+                        "var a = 0;" +
+                        "if (a < 10) {" +
+                        "} else {" +
+                        "a = 1;" +
+                        "}" +
+                        "return a;" +
+                        "}");
+
+        Assertions.assertEquals(6, cfg.size());
+        for (int block = 0; block < cfg.size(); block++) {
+            if (cfg.kind(block) == ControlFlowGraph.Kind.BASIC) {
+                Assertions.assertNotEquals(0, cfg.statementCount(block));
+            }
+            for (int slot = 0; slot < cfg.successorCount(block); slot++) {
+                Assertions.assertTrue(cfg.successor(block, slot) > block);
+            }
+        }
+    }
+
+    private ControlFlowGraph controlFlowGraph(String code) {
+        Binder binder = new Binder();
+        binder.visit(NfCompiler.parse(code, NfLangParser::method));
+        return ControlFlowGraph.of(Graph.fromMethod(binder.getMethods().get(0)));
+    }
+
+    private List<ControlFlowGraph.Kind> kinds(ControlFlowGraph cfg) {
+        List<ControlFlowGraph.Kind> kinds = new ArrayList<>();
+        for (int block = 0; block < cfg.size(); block++) {
+            kinds.add(cfg.kind(block));
+        }
+        return kinds;
+    }
+
+    @Test
+    public void dotIsStreamed() throws IOException {
+        Graph graph = graph(LOOP_WITH_IF);
+        StringWriter writer = new StringWriter();
+        graph.writeDot(writer);
+        Assertions.assertEquals(graph.dumpToString(), writer.toString());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        graph.writeDot(Channels.newChannel(bytes));
+        Assertions.assertEquals(graph.dumpToString(), new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void cfgFileIsMappedBack() throws IOException {
+        ControlFlowGraph cfg = ControlFlowGraph.of(graph(LOOP_WITH_IF));
+        Path path = Files.createTempFile("cfg", ".bin");
+        try {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                CfgFile.write(cfg, channel);
+            }
+            CfgFile file = CfgFile.map(path);
+            Assertions.assertEquals("main", file.getName());
+            Assertions.assertEquals(cfg.size(), file.size());
+            Assertions.assertEquals(cfg.end(), file.end());
+            for (int block = 0; block < cfg.size(); block++) {
+                Assertions.assertEquals(cfg.kind(block), file.kind(block));
+                Assertions.assertEquals(cfg.condition(block), file.condition(block));
+                Assertions.assertEquals(cfg.statementCount(block), file.statementCount(block));
+                for (int i = 0; i < cfg.statementCount(block); i++) {
+                    Assertions.assertEquals(cfg.statement(block, i), file.statement(block, i));
+                }
+                Assertions.assertEquals(cfg.successorCount(block), file.successorCount(block));
+                for (int slot = 0; slot < cfg.successorCount(block); slot++) {
+                    Assertions.assertEquals(cfg.successor(block, slot), file.successor(block, slot));
+                }
+                Assertions.assertEquals(cfg.predecessorCount(block), file.predecessorCount(block));
+                for (int i = 0; i < cfg.predecessorCount(block); i++) {
+                    Assertions.assertEquals(cfg.predecessor(block, i), file.predecessor(block, i));
+                    Assertions.assertEquals(cfg.predecessorSlot(block, i), file.predecessorSlot(block, i));
+                }
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void notCfgFileIsRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CfgFile.read(ByteBuffer.allocate(64)));
+    }
+
+    private static Graph graph(String code) {
+        ParseTree tree = NfCompiler.parse(code, NfLangParser::method);
+        Binder binder = new Binder();
+        binder.visit(tree);
+        return Graph.fromMethod(binder.getMethods().get(0));
+    }
+
     private void graphBuilderTest(String code, int... expectedEdgesNodes) {
         if (expectedEdgesNodes.length % 2 != 0) {
             throw new IllegalStateException("Number of numbers representing edges must be even");
         }
         ParseTree tree = NfCompiler.parse(code, NfLangParser::method);
-        Graph graph = Graph.fromMethod((NfLangParser.MethodContext) tree.getChild(0));
+        Binder binder = new Binder();
+        binder.visit(tree);
+        Graph graph = Graph.fromMethod(binder.getMethods().get(0));
 //        graph.dumpToFile("DumpedGraph.gv");
         Set<Pair<Integer, Integer>> expectedEdges = new HashSet<>();
         for (int i = 0; i < expectedEdgesNodes.length / 2; i++) {
@@ -0,0 +1,96 @@
+package com.naofi.compiler;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+public class ParallelCompilationTest {
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    public static void createPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    public static void shutdownPool() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void sameBytesAsSequential() throws Exception {
+        StringBuilder code = new StringBuilder("class Main {");
+        for (int i = 0; i < 300; i++) {
+            code.append(method(i));
+        }
+        code.append("}");
+
+        CompilationResult sequential = NfCompiler.compile(code.toString(), new CompilerOptions());
+        CompilationResult parallel = NfCompiler.compile(code.toString(), new CompilerOptions().setPool(pool));
+
+        Assertions.assertTrue(sequential.isSuccessful(), sequential.getErrors().toString());
+        Assertions.assertArrayEquals(sequential.getClassBytes(), parallel.getClassBytes());
+
+        Class<?> clazz = new TestClassLoader().defineClass("Main", parallel.getClassBytes());
+        Object obj = clazz.getConstructor().newInstance();
+        Method[] methods = clazz.getDeclaredMethods();
+        Assertions.assertEquals(300, methods.length);
+        Assertions.assertEquals(10, clazz.getDeclaredMethod("m0").invoke(obj));
+        Assertions.assertEquals(10000000001L, clazz.getDeclaredMethod("m1").invoke(obj));
+        Assertions.assertEquals((byte) 2, clazz.getDeclaredMethod("m2").invoke(obj));
+    }
+
+    @Test
+    public void sameErrorsAsSequential() {
+        String code = "class Main {" +
+                "a() { return b; }" +
+                "b() { int x; return x; }" +
+                "c() { return 1; }" +
+                "d() { bool x = 1; }" +
+                "}";
+
+        CompilationResult sequential = NfCompiler.compile(code, new CompilerOptions());
+        CompilationResult parallel = NfCompiler.compile(code, new CompilerOptions().setPool(pool));
+
+        Assertions.assertEquals(Arrays.asList(
+                "Variable 'b' is not defined in scope",
+                "Variable 'x' may be not initialized",
+                "Cannot assign type BYTE to variable of type BOOL"
+        ), sequential.getErrors());
+        Assertions.assertEquals(sequential.getErrors(), parallel.getErrors());
+        Assertions.assertFalse(parallel.isSuccessful());
+    }
+
+    private static String method(int i) {
+        switch (i % 3) {
+            case 0:
+                return "m" + i + "() {" +
+                        "int a = 0;" +
+                        "while (a < 10) {" +
+                        "a = a + 1;" +
+                        "}" +
+                        "return a;" +
+                        "}";
+            case 1:
+                return "m" + i + "() {" +
+                        "long a = 10000000000;" +
+                        "return a + 1;" +
+                        "}";
+            default:
+                return "m" + i + "() {" +
+                        "var a = " + i + ";" +
+                        "if (a > 100) {" +
+                        "a = 1;" +
+                        "} else {" +
+                        "a = 2;" +
+                        "}" +
+                        "return a;" +
+                        "}";
+        }
+    }
+}
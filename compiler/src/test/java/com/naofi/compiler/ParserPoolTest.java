@@ -0,0 +1,86 @@
+package com.naofi.compiler;
+
+import com.naofi.antlr.NfLangParser;
+import com.naofi.compiler.parsing.ParseResult;
+import com.naofi.compiler.parsing.ParserPool;
+import com.naofi.compiler.parsing.ParsingMode;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.tree.Trees;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ParserPoolTest {
+    private static final String PROGRAM = "class Main {" +
+            "main() {" +
+            "int a = 0;" +
+            "while (a < 10) {" +
+            "a = a + 1;" +
+            "}" +
+            "return a * 2;" +
+            "}" +
+            "}";
+
+    @Test
+    public void warmUpFillsCache() {
+        ParserPool pool = new ParserPool();
+        Assertions.assertEquals(0, pool.getDfaStateCount());
+
+        pool.warmUp(Collections.singletonList(PROGRAM));
+        int warmedUp = pool.getDfaStateCount();
+        Assertions.assertTrue(warmedUp > 0);
+
+        parse(pool, PROGRAM);
+        Assertions.assertEquals(warmedUp, pool.getDfaStateCount());
+    }
+
+    @Test
+    public void clearCache() {
+        ParserPool pool = new ParserPool();
+        String expected = parse(pool, PROGRAM);
+        pool.clearCache();
+        Assertions.assertEquals(0, pool.getDfaStateCount());
+
+        Assertions.assertEquals(expected, parse(pool, PROGRAM));
+        Assertions.assertTrue(pool.getDfaStateCount() > 0);
+    }
+
+    @Test
+    public void cacheIsDroppedAfterLimit() {
+        ParserPool pool = new ParserPool();
+        pool.setMaxDfaStates(1);
+        parse(pool, PROGRAM);
+
+        Assertions.assertEquals(0, pool.getDfaStateCount());
+    }
+
+    @Test
+    public void concurrentParsing() throws Exception {
+        ParserPool pool = new ParserPool();
+        String expected = parse(new ParserPool(), PROGRAM);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                results.add(executor.submit(() -> parse(pool, PROGRAM)));
+            }
+            for (Future<String> result : results) {
+                Assertions.assertEquals(expected, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static String parse(ParserPool pool, String code) {
+        ParseResult result = pool.parse(CharStreams.fromString(code), NfLangParser::classDef, ParsingMode.SLL_THEN_LL);
+        return Trees.toStringTree(result.getTree(), Arrays.asList(NfLangParser.ruleNames));
+    }
+}
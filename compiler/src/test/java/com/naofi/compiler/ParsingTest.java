@@ -0,0 +1,94 @@
+package com.naofi.compiler;
+
+import com.naofi.antlr.NfLangParser;
+import com.naofi.compiler.parsing.*;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.Trees;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class ParsingTest {
+    private static final String PROGRAM = "class Main {" +
+            "main() {" +
+            "int a = 0;" +
+            "var b = a + 2 * 3;" +
+            "while (a < 10) {" +
+            "a = a + 1;" +
+            "}" +
+            "if (a == b) {" +
+            "a = 1;" +
+            "} else if (a != 3) {" +
+            "a = 2;" +
+            "} else {" +
+            "a = 3;" +
+            "}" +
+            "return a;" +
+            "}" +
+            "}";
+
+    @Test
+    public void sllStageProducesSameTree() {
+        ParseResult ll = NfCompiler.parse(PROGRAM, NfLangParser::classDef, ParsingMode.LL);
+        ParseResult sll = NfCompiler.parse(PROGRAM, NfLangParser::classDef, ParsingMode.SLL_THEN_LL);
+
+        Assertions.assertEquals(ParsingStage.LL, ll.getStage());
+        Assertions.assertEquals(ParsingStage.SLL, sll.getStage());
+        Assertions.assertEquals(toString(ll), toString(sll));
+    }
+
+    @Test
+    public void syntaxErrorFallsBackToLl() {
+        ParseResult result = NfCompiler.parse("main() { return 1 }", NfLangParser::method, ParsingMode.SLL_THEN_LL);
+
+        Assertions.assertEquals(ParsingStage.LL, result.getStage());
+    }
+
+    @Test
+    public void compileReportsStage() {
+        CompilationResult result = NfCompiler.compile(PROGRAM,
+                new CompilerOptions().setParsingMode(ParsingMode.SLL_THEN_LL));
+
+        Assertions.assertTrue(result.isSuccessful());
+        Assertions.assertEquals(ParsingStage.SLL, result.getParsingStage());
+    }
+
+    @Test
+    public void handWrittenFrontendBuildsSameTree() {
+        String[] methods = {
+                "main() { return; }",
+                "main(int a, long b) { var c = a - -1 * b / 2; return c; }",
+                "main() { bool a = 1 < 2 == 3 >= 4; bool b = true != false; return a == b; }",
+                "main() { int a; a = (1 + 2); x; if (a <= 0) { } else if (true) { a = 1; } else { } }",
+                "main() { long a = 10000000000; while (a > 0) { a = a - 1; } return a, a; }"
+        };
+        for (String method : methods) {
+            Assertions.assertEquals(
+                    toString(NfCompiler.parse(method, NfLangParser::method)),
+                    toString(NfCompiler.parseHandWritten(method, NfDescentParser::method)));
+        }
+        Assertions.assertEquals(
+                toString(NfCompiler.parse(PROGRAM, NfLangParser::classDef)),
+                toString(NfCompiler.parseHandWritten(PROGRAM, NfDescentParser::classDef)));
+    }
+
+    @Test
+    public void handWrittenFrontendReportsSyntaxError() {
+        CompilationResult result = NfCompiler.compile("class Main { main() { return 1 } }",
+                new CompilerOptions().setFrontend(Frontend.HAND_WRITTEN));
+
+        Assertions.assertFalse(result.isSuccessful());
+        Assertions.assertEquals(ParsingStage.HAND_WRITTEN, result.getParsingStage());
+        Assertions.assertEquals(Collections.singletonList("line 1:31 ';' expected, found '}'"), result.getErrors());
+    }
+
+    private static String toString(ParseTree tree) {
+        return Trees.toStringTree(tree.getChild(0), Arrays.asList(NfLangParser.ruleNames));
+    }
+
+    private static String toString(ParseResult result) {
+        return Trees.toStringTree(result.getTree().getChild(0), Arrays.asList(NfLangParser.ruleNames));
+    }
+}
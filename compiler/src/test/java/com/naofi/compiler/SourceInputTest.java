@@ -0,0 +1,72 @@
+package com.naofi.compiler;
+
+import com.naofi.antlr.NfLangLexer;
+import com.naofi.compiler.parsing.ByteBufferCharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.Token;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SourceInputTest {
+    private static final String PROGRAM = "class Main {\n" +
+            "  main() {\n" +
+            "    int a = 0;\n" +
+            "    while (a < 10) {\n" +
+            "      a = a + 3;\n" +
+            "    }\n" +
+            "    return a;\n" +
+            "  }\n" +
+            "}\n";
+
+    @Test
+    public void sameTokensAsStringInput() {
+        ByteBuffer buffer = ByteBuffer.wrap(PROGRAM.getBytes(StandardCharsets.US_ASCII));
+
+        Assertions.assertEquals(
+                tokens(new NfLangLexer(CharStreams.fromString(PROGRAM))),
+                tokens(new NfLangLexer(new ByteBufferCharStream(buffer, "test"))));
+    }
+
+    @Test
+    public void compileByteBuffer() throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(PROGRAM.length());
+        buffer.put(PROGRAM.getBytes(StandardCharsets.US_ASCII));
+        buffer.flip();
+
+        CompilationResult result = NfCompiler.compile(buffer, new CompilerOptions());
+        Assertions.assertEquals(12, run(result));
+    }
+
+    @Test
+    public void compileMappedFile() throws Exception {
+        Path source = Files.createTempFile("Main", ".nf");
+        try {
+            Files.write(source, PROGRAM.getBytes(StandardCharsets.US_ASCII));
+            CompilationResult result = NfCompiler.compile(source, new CompilerOptions());
+            Assertions.assertEquals(12, run(result));
+        } finally {
+            Files.delete(source);
+        }
+    }
+
+    private static List<String> tokens(NfLangLexer lexer) {
+        List<String> result = new ArrayList<>();
+        for (Token token = lexer.nextToken(); token.getType() != Token.EOF; token = lexer.nextToken()) {
+            result.add(token.getType() + ":" + token.getText() + "@" + token.getLine() + ":" + token.getCharPositionInLine());
+        }
+        return result;
+    }
+
+    private static Object run(CompilationResult result) throws Exception {
+        Assertions.assertTrue(result.isSuccessful(), result.getErrors().toString());
+        Class<?> clazz = new TestClassLoader().defineClass("Main", result.getClassBytes());
+        return clazz.getDeclaredMethod("main").invoke(clazz.getConstructor().newInstance());
+    }
+}